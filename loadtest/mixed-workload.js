@@ -0,0 +1,46 @@
+// Read-heavy mix against the main API, used to compare platform and virtual threads.
+// Usage: k6 run -e BASE_URL=http://localhost:8080 -e TOKEN=<access token> loadtest/mixed-workload.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const TOKEN = __ENV.TOKEN;
+const RATE = Number(__ENV.RATE || 400);
+const DURATION = __ENV.DURATION || '3m';
+
+export const options = {
+    scenarios: {
+        // Open model: arrivals do not slow down when the server does, so queueing shows up in p99
+        mixed: {
+            executor: 'constant-arrival-rate',
+            rate: RATE,
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: 200,
+            maxVUs: 2000,
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+const params = { headers: { Authorization: `Bearer ${TOKEN}` } };
+const specializations = ['CARDIOLOGY', 'NEUROLOGY', 'PEDIATRICS', 'ORTHOPEDICS'];
+
+export default function () {
+    const roll = Math.random();
+    let res;
+    if (roll < 0.35) {
+        res = http.get(`${BASE_URL}/api/v1/doctors`, Object.assign({ tags: { name: 'doctors' } }, params));
+    } else if (roll < 0.55) {
+        const spec = specializations[Math.floor(Math.random() * specializations.length)];
+        res = http.get(`${BASE_URL}/api/v1/doctors/available/specialization/${spec}`,
+            Object.assign({ tags: { name: 'doctors-by-specialization' } }, params));
+    } else if (roll < 0.80) {
+        res = http.get(`${BASE_URL}/api/v1/appointments/status/SCHEDULED`,
+            Object.assign({ tags: { name: 'appointments-by-status' } }, params));
+    } else {
+        res = http.get(`${BASE_URL}/api/v1/patients`,
+            Object.assign({ tags: { name: 'patients' } }, params));
+    }
+    check(res, { 'status is 2xx': (r) => r.status >= 200 && r.status < 300 });
+}
@@ -0,0 +1,50 @@
+package com.devdishon.config;
+
+import com.devdishon.filter.accesslog.AccessLogPolicy;
+import com.devdishon.filter.accesslog.AsyncAccessLog;
+import com.devdishon.filter.accesslog.RouteStatsAggregator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+@Configuration
+public class AccessLogConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public AsyncAccessLog asyncAccessLog(@Value("${app.access-log.capacity:8192}") int capacity,
+                                         @Value("${app.access-log.batch-size:256}") int batchSize,
+                                         @Value("${app.access-log.idle-wait-ms:5}") long idleWaitMillis,
+                                         @Value("${app.access-log.sink:stdout}") String sink,
+                                         @Value("${app.access-log.file:access.log}") String file) throws IOException {
+        Writer writer = switch (sink) {
+            case "stdout" -> new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8);
+            case "file" -> Files.newBufferedWriter(Path.of(file), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            default -> throw new IllegalStateException("Unknown access log sink: " + sink);
+        };
+        return new AsyncAccessLog(capacity, batchSize, idleWaitMillis, writer);
+    }
+
+    @Bean
+    public AccessLogPolicy accessLogPolicy(@Value("${app.access-log.mode:FULL}") AccessLogPolicy.Mode mode,
+                                           @Value("${app.access-log.slow-threshold-ms:1000}") long slowThresholdMillis,
+                                           @Value("${app.access-log.success-sample-rate:0.01}") double successSampleRate) {
+        return new AccessLogPolicy(mode, slowThresholdMillis, successSampleRate);
+    }
+
+    @Bean
+    public RouteStatsAggregator routeStatsAggregator(AsyncAccessLog asyncAccessLog,
+                                                     @Value("${app.access-log.summaries-enabled:true}") boolean enabled) {
+        return new RouteStatsAggregator(asyncAccessLog, enabled);
+    }
+}
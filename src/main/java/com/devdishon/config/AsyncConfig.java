@@ -0,0 +1,14 @@
+package com.devdishon.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Enables {@code @Async} methods. They run on Boot's application task executor: a bounded
+ * thread pool by default, or one virtual thread per task when {@code spring.threads.virtual.enabled}
+ * is set. Either way the {@link MdcTaskDecorator} carries the caller's log context along.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
@@ -0,0 +1,33 @@
+package com.devdishon.config;
+
+import com.devdishon.filter.concurrency.ConcurrencyLimiter;
+import com.devdishon.filter.concurrency.ConcurrencyLimiters;
+import com.devdishon.filter.concurrency.GradientLimit;
+import com.devdishon.filter.concurrency.RouteGroup;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public ConcurrencyLimiters concurrencyLimiters(Environment environment,
+                                                   @Value("${app.concurrency-limit.export-paths:/export}") List<String> exportPaths) {
+        Map<RouteGroup, ConcurrencyLimiter> limiters = new EnumMap<>(RouteGroup.class);
+        for (RouteGroup group : RouteGroup.values()) {
+            String prefix = "app.concurrency-limit." + group.key() + ".";
+            GradientLimit limit = new GradientLimit(
+                    environment.getProperty(prefix + "initial-limit", Integer.class, group.defaultInitialLimit()),
+                    environment.getProperty(prefix + "min-limit", Integer.class, group.defaultMinLimit()),
+                    environment.getProperty(prefix + "max-limit", Integer.class, group.defaultMaxLimit()));
+            limiters.put(group, new ConcurrencyLimiter(group, limit));
+        }
+        return new ConcurrencyLimiters(limiters, exportPaths);
+    }
+}
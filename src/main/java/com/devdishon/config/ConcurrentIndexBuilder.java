@@ -0,0 +1,92 @@
+package com.devdishon.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Creates indexes with {@code CREATE INDEX CONCURRENTLY} so the tables stay writable meanwhile,
+ * on one connection outside any transaction. The build holds a session advisory lock named after
+ * the index set, so of several replicas starting together one builds and the others skip; the lock
+ * goes away with the session if the replica dies mid-build. Such an interrupted build leaves an
+ * {@code INVALID} index behind, which PostgreSQL keeps updating but never reads and which
+ * {@code IF NOT EXISTS} would skip; an invalid index is therefore dropped and built again.
+ */
+@Component
+public class ConcurrentIndexBuilder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrentIndexBuilder.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ConcurrentIndexBuilder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Makes sure every index exists and is valid, building the missing ones in order.
+     *
+     * @param lockName names the advisory lock shared by every replica building this set
+     * @return false if another session holds the lock and nothing was checked
+     */
+    public boolean build(String lockName, List<Index> indexes) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!queryBoolean(connection, "SELECT pg_try_advisory_lock(hashtext(?))", lockName)) {
+                logger.info("Index set {} is being built by another session; skipping", lockName);
+                return false;
+            }
+            try {
+                for (Index index : indexes) {
+                    ensure(connection, index);
+                }
+                return true;
+            } finally {
+                queryBoolean(connection, "SELECT pg_advisory_unlock(hashtext(?))", lockName);
+            }
+        }));
+    }
+
+    private static void ensure(Connection connection, Index index) throws SQLException {
+        Boolean valid = queryBoolean(connection, "SELECT indisvalid FROM pg_index WHERE indexrelid = to_regclass(?)", index.name());
+        if (Boolean.TRUE.equals(valid)) {
+            return;
+        }
+        if (valid != null) {
+            logger.warn("Index {} is invalid, probably left by an interrupted build; rebuilding it", index.name());
+            execute(connection, "DROP INDEX CONCURRENTLY IF EXISTS " + index.name());
+        }
+        long started = System.nanoTime();
+        execute(connection, "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + index.name() + " ON " + index.definition());
+        logger.info("Built index {} in {}ms", index.name(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private static Boolean queryBoolean(Connection connection, String sql, String parameter) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, parameter);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() ? result.getBoolean(1) : null;
+            }
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    /**
+     * One index: its name and what follows {@code ON} in its definition, e.g. {@code patients (id)}.
+     */
+    public record Index(String name, String definition) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.devdishon.config;
+
+import com.devdishon.exception.DeadlineExceededException;
+import com.devdishon.filter.RequestDeadline;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * JPA transaction manager that caps each new transaction's timeout at the time left before the
+ * current request's {@link RequestDeadline}. Spring passes the timeout to Hibernate, which sets
+ * the JDBC statement timeout on every query in the transaction, and to the
+ * {@code jakarta.persistence.query.timeout} hint on repository queries. Postgres then cancels
+ * the query when the client's time is up. A transaction that would start after the deadline is
+ * refused, so expired requests never reach the service methods behind it. The check runs before
+ * {@link JpaTransactionManager#doBegin}, which would wrap the {@link DeadlineExceededException}
+ * in a {@code CannotCreateTransactionException} and hide it from the 504 and
+ * {@code DEADLINE_EXCEEDED} mappings.
+ * Spring timeouts have second granularity, so the remaining time is rounded up.
+ */
+public class DeadlineAwareJpaTransactionManager extends JpaTransactionManager {
+
+    public DeadlineAwareJpaTransactionManager(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory);
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        RequestDeadline.checkNotExpired(definition.getName() != null ? definition.getName() : "starting a transaction");
+        super.doBegin(transaction, definition);
+    }
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int configured = super.determineTimeout(definition);
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline == null) {
+            return configured;
+        }
+        // At least a second: the deadline may have passed since doBegin checked it
+        long remainingMillis = Math.max(1, deadline.remainingMillis());
+        int remainingSeconds = (int) Math.min(Integer.MAX_VALUE, (remainingMillis + 999) / 1000);
+        return configured == TransactionDefinition.TIMEOUT_DEFAULT ? remainingSeconds : Math.min(configured, remainingSeconds);
+    }
+}
@@ -0,0 +1,76 @@
+package com.devdishon.config;
+
+import com.devdishon.filter.CorrelationIds;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Carries the submitting thread's MDC ({@code correlationId}, {@code userEmail}, ...) into work
+ * that runs on another thread. The worker's own MDC is restored afterwards, so pooled threads
+ * never leak one request's context into the next task. Work submitted without a correlation id,
+ * such as a scheduled job, gets a fresh one per run so its log lines can still be grouped.
+ * Use {@link #executor} or {@link #wrap(Supplier)} for {@code CompletableFuture} stages.
+ */
+public class MdcTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return wrap(runnable);
+    }
+
+    public static Runnable wrap(Runnable task) {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        return () -> {
+            Map<String, String> previous = install(context);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    public static <T> Supplier<T> wrap(Supplier<T> task) {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        return () -> {
+            Map<String, String> previous = install(context);
+            try {
+                return task.get();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /**
+     * Returns an executor that propagates the MDC of whichever thread submits each task.
+     */
+    public static Executor executor(Executor delegate) {
+        return task -> delegate.execute(wrap(task));
+    }
+
+    private static Map<String, String> install(Map<String, String> context) {
+        Map<String, String> previous = MDC.getCopyOfContextMap();
+        if (context != null) {
+            MDC.setContextMap(context);
+        } else {
+            MDC.clear();
+        }
+        if (MDC.get(CorrelationIds.MDC_KEY) == null) {
+            MDC.put(CorrelationIds.MDC_KEY, CorrelationIds.next());
+        }
+        return previous;
+    }
+
+    private static void restore(Map<String, String> previous) {
+        if (previous != null) {
+            MDC.setContextMap(previous);
+        } else {
+            MDC.clear();
+        }
+    }
+}
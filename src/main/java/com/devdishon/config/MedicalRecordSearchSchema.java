@@ -0,0 +1,54 @@
+package com.devdishon.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Adds the medical record full-text search column on startup, after Hibernate has created or
+ * updated the tables, and builds its GIN index in the background once the application is ready.
+ * The column is not mapped on the entity, so it is never loaded with a record;
+ * {@code MedicalRecordSearchRepository} keeps it current. Adding a nullable column without a
+ * default only changes the catalog, so it stays on the startup path; the index build reads the
+ * whole table and goes through {@link ConcurrentIndexBuilder}. Until it is in place, search works
+ * but scans.
+ */
+@Component
+public class MedicalRecordSearchSchema implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(MedicalRecordSearchSchema.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConcurrentIndexBuilder indexBuilder;
+
+    public MedicalRecordSearchSchema(JdbcTemplate jdbcTemplate, ConcurrentIndexBuilder indexBuilder) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.indexBuilder = indexBuilder;
+    }
+
+    @Override
+    public void run(String... args) {
+        jdbcTemplate.execute("ALTER TABLE medical_records ADD COLUMN IF NOT EXISTS search_vector tsvector");
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        try {
+            if (indexBuilder.build("medical-record-search", List.of(new ConcurrentIndexBuilder.Index(
+                    "idx_medical_records_search_vector", "medical_records USING GIN (search_vector)")))) {
+                logger.debug("Medical record search index is in place");
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Could not build the medical record search index; search will scan: {}", e.getMessage());
+        }
+    }
+}
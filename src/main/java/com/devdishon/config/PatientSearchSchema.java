@@ -0,0 +1,99 @@
+package com.devdishon.config;
+
+import com.devdishon.config.ConcurrentIndexBuilder.Index;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.devdishon.repository.PatientSearchRepository.BYTE_ORDER;
+import static com.devdishon.repository.PatientSearchRepository.FIRST_NAME;
+import static com.devdishon.repository.PatientSearchRepository.FULL_NAME;
+import static com.devdishon.repository.PatientSearchRepository.LAST_NAME;
+import static com.devdishon.repository.PatientSearchRepository.PHONE_DIGITS;
+
+/**
+ * Builds the indexes behind patient lookup in the background once the application is ready:
+ * {@code C}-collated btree indexes that answer prefix queries in index order, and {@code pg_trgm}
+ * GiST indexes that return the closest names and phone numbers first. The index expressions are
+ * the ones {@code PatientSearchRepository} queries with, character for character, or PostgreSQL
+ * would not use them. The builds go through {@link ConcurrentIndexBuilder}; until they are in
+ * place, search works but scans.
+ * <p>
+ * Creating {@code pg_trgm} needs a privilege the database user may lack. That is not fatal: the
+ * prefix indexes are still built, and fuzzy matching stays off until the extension exists, as
+ * {@link #isFuzzySearchAvailable()} reports.
+ */
+@Component
+public class PatientSearchSchema {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientSearchSchema.class);
+
+    private static final List<Index> PREFIX_INDEXES = List.of(
+            patientsIndex("idx_patients_last_name_prefix", "(" + LAST_NAME + BYTE_ORDER + ", id)"),
+            patientsIndex("idx_patients_first_name_prefix", "(" + FIRST_NAME + BYTE_ORDER + ", id)"),
+            patientsIndex("idx_patients_phone_prefix", "(" + PHONE_DIGITS + BYTE_ORDER + ", id)"));
+    private static final List<Index> TRIGRAM_INDEXES = List.of(
+            patientsIndex("idx_patients_full_name_trgm", "USING GIST ((" + FULL_NAME + ") gist_trgm_ops)"),
+            patientsIndex("idx_patients_phone_trgm", "USING GIST ((" + PHONE_DIGITS + ") gist_trgm_ops)"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConcurrentIndexBuilder indexBuilder;
+
+    private volatile boolean fuzzySearchAvailable;
+
+    public PatientSearchSchema(JdbcTemplate jdbcTemplate, ConcurrentIndexBuilder indexBuilder) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.indexBuilder = indexBuilder;
+    }
+
+    /**
+     * Whether {@code pg_trgm} is installed, so the similarity operators exist.
+     */
+    public boolean isFuzzySearchAvailable() {
+        return fuzzySearchAvailable;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndexes() {
+        try {
+            fuzzySearchAvailable = createTrigramExtension();
+            List<Index> indexes = fuzzySearchAvailable
+                    ? Stream.concat(PREFIX_INDEXES.stream(), TRIGRAM_INDEXES.stream()).toList()
+                    : PREFIX_INDEXES;
+            if (indexBuilder.build("patient-search", indexes)) {
+                logger.debug("Patient search indexes are in place");
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Could not build the patient search indexes; search will scan: {}", e.getMessage());
+        }
+    }
+
+    private boolean createTrigramExtension() {
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            return true;
+        } catch (DataAccessException e) {
+            // Another replica creating it at the same moment makes this one fail; it is there all the same
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm')", Boolean.class))) {
+                return true;
+            }
+            logger.warn("Could not create the pg_trgm extension; patient search will match prefixes only: {}",
+                    e.getMessage());
+            return false;
+        }
+    }
+
+    private static Index patientsIndex(String name, String definition) {
+        return new Index(name, "patients " + definition);
+    }
+}
@@ -0,0 +1,34 @@
+package com.devdishon.config;
+
+import org.springframework.boot.task.SimpleAsyncTaskSchedulerCustomizer;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs such as the appointment reminder wheel.
+ * Boot applies the {@link TaskDecorator} bean to its task executor; the scheduler is decorated
+ * explicitly so every job run logs under its own correlation id. With virtual threads enabled Boot
+ * swaps the scheduler pool for a {@code SimpleAsyncTaskScheduler}, so both kinds are customized.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    @Bean
+    public TaskDecorator mdcTaskDecorator() {
+        return new MdcTaskDecorator();
+    }
+
+    @Bean
+    public ThreadPoolTaskSchedulerCustomizer mdcTaskSchedulerCustomizer(TaskDecorator mdcTaskDecorator) {
+        return scheduler -> scheduler.setTaskDecorator(mdcTaskDecorator);
+    }
+
+    @Bean
+    public SimpleAsyncTaskSchedulerCustomizer mdcSimpleAsyncTaskSchedulerCustomizer(TaskDecorator mdcTaskDecorator) {
+        return scheduler -> scheduler.setTaskDecorator(mdcTaskDecorator);
+    }
+}
@@ -0,0 +1,190 @@
+package com.devdishon.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reports virtual threads that block while pinned to their carrier thread, which happens on
+ * Java 21 when a virtual thread blocks inside a {@code synchronized} block or a native frame.
+ * Pinned threads hold a carrier for the whole wait, so a few hot pinning sites can starve the
+ * small carrier pool. Listens to the JFR {@code jdk.VirtualThreadPinned} event in-process and
+ * attributes each event to a site: the first frame from one of the watched packages (our code,
+ * Hibernate, the JDBC driver, the pool), plus the nearest synchronized or native method below it.
+ * Each new site is logged once at WARN with its stack; repeats are only counted.
+ */
+@Component
+@ConditionalOnProperty(name = "app.virtual-threads.pinning-monitor.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 20;
+    private static final String OTHER_SITE = "other";
+
+    private final Duration threshold;
+    private final List<String> packages;
+    private final int maxSites;
+
+    private final Map<String, PinnedSite> sites = new ConcurrentHashMap<>();
+    private final LongAdder pinnedEvents = new LongAdder();
+    private final LongAdder pinnedNanos = new LongAdder();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(
+            @Value("${app.virtual-threads.pinning-monitor.threshold:20ms}") Duration threshold,
+            @Value("${app.virtual-threads.pinning-monitor.packages:com.devdishon,org.hibernate,org.postgresql,com.zaxxer.hikari,org.springframework}") String[] packages,
+            @Value("${app.virtual-threads.pinning-monitor.max-sites:100}") int maxSites) {
+        this.threshold = threshold;
+        this.packages = List.of(packages);
+        this.maxSites = maxSites;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        logger.info("Virtual thread pinning monitor started (threshold {})", threshold);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+        if (!sites.isEmpty()) {
+            logger.info("Virtual thread pinning sites at shutdown: {}", summary());
+        }
+    }
+
+    void onPinned(RecordedEvent event) {
+        long nanos = event.getDuration().toNanos();
+        pinnedEvents.increment();
+        pinnedNanos.add(nanos);
+
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+        String site = siteOf(frames);
+        if (!sites.containsKey(site) && sites.size() >= maxSites) {
+            site = OTHER_SITE;
+        }
+        PinnedSite stats = sites.computeIfAbsent(site, key -> new PinnedSite());
+        stats.count.increment();
+        stats.nanos.add(nanos);
+        if (stats.logged.compareAndSet(false, true)) {
+            logger.warn("Virtual thread pinned for {} ms at {} (further events at this site are only counted){}",
+                    Duration.ofNanos(nanos).toMillis(), site, formatFrames(frames));
+        }
+    }
+
+    /**
+     * Pinning counts and total pinned milliseconds per site, for the shutdown log and diagnostics.
+     */
+    public Map<String, String> summary() {
+        Map<String, String> summary = new TreeMap<>();
+        sites.forEach((site, stats) -> summary.put(site,
+                stats.count.sum() + " events, " + Duration.ofNanos(stats.nanos.sum()).toMillis() + " ms"));
+        return summary;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("hms.virtual_threads.pinned.events", pinnedEvents, LongAdder::sum)
+                .description("Virtual thread pinning events longer than the monitor threshold")
+                .register(registry);
+        FunctionCounter.builder("hms.virtual_threads.pinned.time", pinnedNanos, nanos -> nanos.sum() / 1_000_000_000.0)
+                .description("Total time virtual threads spent blocked while pinned")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("hms.virtual_threads.pinned.sites", sites, Map::size)
+                .description("Distinct code sites that pinned a carrier thread")
+                .register(registry);
+    }
+
+    String siteOf(List<RecordedFrame> frames) {
+        String watched = null;
+        String blocking = null;
+        for (RecordedFrame frame : frames) {
+            RecordedMethod method = frame.getMethod();
+            if (method == null) {
+                continue;
+            }
+            int modifiers = method.getModifiers();
+            if (blocking == null && (Modifier.isSynchronized(modifiers) || Modifier.isNative(modifiers))) {
+                blocking = describe(frame);
+            }
+            if (watched == null && isWatched(method.getType().getName())) {
+                watched = describe(frame);
+                break;
+            }
+        }
+        if (watched == null) {
+            return frames.isEmpty() || frames.get(0).getMethod() == null ? OTHER_SITE : describe(frames.get(0));
+        }
+        return blocking == null ? watched : watched + " via " + blocking;
+    }
+
+    private boolean isWatched(String className) {
+        for (String prefix : packages) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String describe(RecordedFrame frame) {
+        RecordedMethod method = frame.getMethod();
+        String suffix = Modifier.isSynchronized(method.getModifiers()) ? " [synchronized]"
+                : Modifier.isNative(method.getModifiers()) ? " [native]" : "";
+        return method.getType().getName() + "." + method.getName() + ":" + frame.getLineNumber() + suffix;
+    }
+
+    private static String formatFrames(List<RecordedFrame> frames) {
+        StringBuilder out = new StringBuilder();
+        int limit = Math.min(frames.size(), LOGGED_FRAMES);
+        for (int i = 0; i < limit; i++) {
+            RecordedFrame frame = frames.get(i);
+            if (frame.getMethod() != null) {
+                out.append(System.lineSeparator()).append("\tat ").append(describe(frame));
+            }
+        }
+        if (frames.size() > limit) {
+            out.append(System.lineSeparator()).append("\t... ").append(frames.size() - limit).append(" more");
+        }
+        return out.toString();
+    }
+
+    private static final class PinnedSite {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final AtomicBoolean logged = new AtomicBoolean();
+    }
+}
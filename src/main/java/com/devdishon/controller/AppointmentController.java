@@ -1,6 +1,9 @@
 package com.devdishon.controller;
 
 import com.devdishon.dto.AppointmentRequest;
+import com.devdishon.dto.BatchResult;
+import com.devdishon.dto.FieldSelection;
+import com.devdishon.dto.ProjectedRows;
 import com.devdishon.entity.Appointment;
 import com.devdishon.entity.AppointmentStatus;
 import com.devdishon.service.AppointmentService;
@@ -8,6 +11,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -23,35 +27,114 @@ public class AppointmentController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Appointment>> getAllAppointments() {
+    public ResponseEntity<List<Appointment>> getAllAppointments(WebRequest request) {
+        if (ConditionalRequests.collectionNotModified(request, appointmentService.getAllAppointmentsVersion())) {
+            return null;
+        }
         return ResponseEntity.ok(appointmentService.getAllAppointments());
     }
 
+    // The params = "fields" variants below answer ?fields= requests with only the selected fields
+
+    @GetMapping(params = "fields")
+    public ResponseEntity<ProjectedRows> getAllAppointments(@RequestParam String fields, WebRequest request) {
+        FieldSelection selection = FieldSelection.parse(fields);
+        if (ConditionalRequests.collectionNotModified(request, appointmentService.getAllAppointmentsVersion(), selection)) {
+            return null;
+        }
+        return ResponseEntity.ok(appointmentService.getAllAppointments(selection));
+    }
+
+    @GetMapping("/batch")
+    public ResponseEntity<BatchResult<Appointment>> getAppointmentsByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(appointmentService.getAppointmentsByIds(ids));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Appointment> getAppointmentById(@PathVariable Long id) {
+    public ResponseEntity<Appointment> getAppointmentById(@PathVariable Long id, WebRequest request) {
+        if (ConditionalRequests.resourceNotModified(request, appointmentService.getAppointmentVersion(id))) {
+            return null;
+        }
         return ResponseEntity.ok(appointmentService.getAppointmentById(id));
     }
 
     @GetMapping("/patient/{patientId}")
-    public ResponseEntity<List<Appointment>> getAppointmentsByPatientId(@PathVariable Long patientId) {
+    public ResponseEntity<List<Appointment>> getAppointmentsByPatientId(@PathVariable Long patientId, WebRequest request) {
+        if (ConditionalRequests.collectionNotModified(request, appointmentService.getAppointmentsByPatientIdVersion(patientId))) {
+            return null;
+        }
         return ResponseEntity.ok(appointmentService.getAppointmentsByPatientId(patientId));
     }
 
+    @GetMapping(value = "/patient/{patientId}", params = "fields")
+    public ResponseEntity<ProjectedRows> getAppointmentsByPatientId(@PathVariable Long patientId,
+                                                                    @RequestParam String fields,
+                                                                    WebRequest request) {
+        FieldSelection selection = FieldSelection.parse(fields);
+        if (ConditionalRequests.collectionNotModified(request, appointmentService.getAppointmentsByPatientIdVersion(patientId), selection)) {
+            return null;
+        }
+        return ResponseEntity.ok(appointmentService.getAppointmentsByPatientId(patientId, selection));
+    }
+
     @GetMapping("/doctor/{doctorId}")
-    public ResponseEntity<List<Appointment>> getAppointmentsByDoctorId(@PathVariable Long doctorId) {
+    public ResponseEntity<List<Appointment>> getAppointmentsByDoctorId(@PathVariable Long doctorId, WebRequest request) {
+        if (ConditionalRequests.collectionNotModified(request, appointmentService.getAppointmentsByDoctorIdVersion(doctorId))) {
+            return null;
+        }
         return ResponseEntity.ok(appointmentService.getAppointmentsByDoctorId(doctorId));
     }
 
+    @GetMapping(value = "/doctor/{doctorId}", params = "fields")
+    public ResponseEntity<ProjectedRows> getAppointmentsByDoctorId(@PathVariable Long doctorId,
+                                                                   @RequestParam String fields,
+                                                                   WebRequest request) {
+        FieldSelection selection = FieldSelection.parse(fields);
+        if (ConditionalRequests.collectionNotModified(request, appointmentService.getAppointmentsByDoctorIdVersion(doctorId), selection)) {
+            return null;
+        }
+        return ResponseEntity.ok(appointmentService.getAppointmentsByDoctorId(doctorId, selection));
+    }
+
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Appointment>> getAppointmentsByStatus(@PathVariable AppointmentStatus status) {
+    public ResponseEntity<List<Appointment>> getAppointmentsByStatus(@PathVariable AppointmentStatus status, WebRequest request) {
+        if (ConditionalRequests.collectionNotModified(request, appointmentService.getAppointmentsByStatusVersion(status))) {
+            return null;
+        }
         return ResponseEntity.ok(appointmentService.getAppointmentsByStatus(status));
     }
 
+    @GetMapping(value = "/status/{status}", params = "fields")
+    public ResponseEntity<ProjectedRows> getAppointmentsByStatus(@PathVariable AppointmentStatus status,
+                                                                 @RequestParam String fields,
+                                                                 WebRequest request) {
+        FieldSelection selection = FieldSelection.parse(fields);
+        if (ConditionalRequests.collectionNotModified(request, appointmentService.getAppointmentsByStatusVersion(status), selection)) {
+            return null;
+        }
+        return ResponseEntity.ok(appointmentService.getAppointmentsByStatus(status, selection));
+    }
+
     @GetMapping("/patient/{patientId}/upcoming")
-    public ResponseEntity<List<Appointment>> getUpcomingAppointmentsByPatientId(@PathVariable Long patientId) {
+    public ResponseEntity<List<Appointment>> getUpcomingAppointmentsByPatientId(@PathVariable Long patientId,
+                                                                                WebRequest request) {
+        if (ConditionalRequests.collectionNotModified(request, appointmentService.getUpcomingAppointmentsByPatientIdVersion(patientId))) {
+            return null;
+        }
         return ResponseEntity.ok(appointmentService.getUpcomingAppointmentsByPatientId(patientId));
     }
 
+    @GetMapping(value = "/patient/{patientId}/upcoming", params = "fields")
+    public ResponseEntity<ProjectedRows> getUpcomingAppointmentsByPatientId(@PathVariable Long patientId,
+                                                                            @RequestParam String fields,
+                                                                            WebRequest request) {
+        FieldSelection selection = FieldSelection.parse(fields);
+        if (ConditionalRequests.collectionNotModified(request, appointmentService.getUpcomingAppointmentsByPatientIdVersion(patientId), selection)) {
+            return null;
+        }
+        return ResponseEntity.ok(appointmentService.getUpcomingAppointmentsByPatientId(patientId, selection));
+    }
+
     @GetMapping("/date-range")
     public ResponseEntity<List<Appointment>> getAppointmentsByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
@@ -59,6 +142,14 @@ public class AppointmentController {
         return ResponseEntity.ok(appointmentService.getAppointmentsByDateRange(start, end));
     }
 
+    @GetMapping(value = "/date-range", params = "fields")
+    public ResponseEntity<ProjectedRows> getAppointmentsByDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam String fields) {
+        return ResponseEntity.ok(appointmentService.getAppointmentsByDateRange(start, end, FieldSelection.parse(fields)));
+    }
+
     @PostMapping
     public ResponseEntity<Appointment> createAppointment(@RequestBody AppointmentRequest request) {
         Appointment appointment = new Appointment();
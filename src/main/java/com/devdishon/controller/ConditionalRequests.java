@@ -0,0 +1,103 @@
+package com.devdishon.controller;
+
+import com.devdishon.dto.FieldSelection;
+import com.devdishon.dto.ResourceVersion;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.protobuf.ProtobufHttpMessageConverter;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Conditional GET support for endpoints whose version can be probed without loading them.
+ * These methods evaluate {@code If-None-Match} (and, for single resources, {@code If-Modified-Since})
+ * against the probed version. When the client's copy is current they set the response to 304 and
+ * return true, and the handler returns null without loading anything; otherwise they add the
+ * validators to the response the handler goes on to produce.
+ * Collections get an ETag only. Their newest {@code updatedAt} stays put or even goes back when a
+ * row is deleted or leaves the listed window, so a Last-Modified date would let a client polling
+ * with {@code If-Modified-Since} keep a stale copy.
+ * The encoding the {@code Accept} header selects is part of the ETag, so a cached JSON copy never
+ * validates a CBOR, Smile or protobuf request for the same URL and vice versa.
+ */
+final class ConditionalRequests {
+
+    // In converter order: of several equally acceptable encodings, the first one is served
+    private static final List<MediaType> ENCODINGS = List.of(
+            MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_CBOR,
+            new MediaType("application", "x-jackson-smile"),
+            ProtobufHttpMessageConverter.PROTOBUF);
+
+    private ConditionalRequests() {
+    }
+
+    static boolean collectionNotModified(WebRequest request, ResourceVersion version) {
+        return collectionNotModified(request, version, FieldSelection.ALL);
+    }
+
+    /**
+     * Like {@link #collectionNotModified(WebRequest, ResourceVersion)} for a sparse fieldset, which
+     * gets its own ETag so a copy of one field selection never validates another.
+     */
+    static boolean collectionNotModified(WebRequest request, ResourceVersion version, FieldSelection fields) {
+        return collectionNotModified(request, version, fields.key());
+    }
+
+    /**
+     * Like {@link #collectionNotModified(WebRequest, ResourceVersion)} for another rendering of the
+     * collection, such as a summary list, named by {@code variant}.
+     */
+    static boolean collectionNotModified(WebRequest request, ResourceVersion version, String variant) {
+        return request.checkNotModified(version.etag(withEncoding(request, variant)));
+    }
+
+    /**
+     * Like {@link #collectionNotModified}, with Last-Modified as well; a missing resource is never
+     * reported as unmodified, so the normal lookup runs and fails as usual.
+     */
+    static boolean resourceNotModified(WebRequest request, ResourceVersion version) {
+        return version.exists()
+                && request.checkNotModified(version.etag(withEncoding(request, "")), version.lastModifiedMillis());
+    }
+
+    private static String withEncoding(WebRequest request, String variant) {
+        String encoding = encoding(request);
+        if (encoding.isEmpty()) {
+            return variant;
+        }
+        return variant.isEmpty() ? encoding : variant + ';' + encoding;
+    }
+
+    /**
+     * The encoding the response will be written in, or an empty string for JSON, the default.
+     */
+    static String encoding(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) {
+            return "";
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return "";
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType mediaType : accepted) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            for (MediaType encoding : ENCODINGS) {
+                if (mediaType.isCompatibleWith(encoding)) {
+                    return encoding.equals(MediaType.APPLICATION_JSON) ? "" : encoding.toString();
+                }
+            }
+        }
+        return "";
+    }
+}
@@ -1,15 +1,26 @@
 package com.devdishon.controller;
 
+import com.devdishon.dto.BatchResult;
+import com.devdishon.dto.DoctorRecommendation;
 import com.devdishon.dto.DoctorRequest;
+import com.devdishon.dto.FieldSelection;
 import com.devdishon.entity.Doctor;
 import com.devdishon.entity.Specialization;
+import com.devdishon.service.DoctorDirectoryCache;
+import com.devdishon.service.DoctorDirectoryCache.CachedJson;
 import com.devdishon.service.DoctorService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -21,17 +32,33 @@ import java.util.List;
 @Tag(name = "Doctors", description = "Doctor management endpoints")
 public class DoctorController {
 
+    private static final String FIELDS =
+            "Comma-separated fields to return, e.g. id,lastName,specialization; all fields if omitted";
+
     private final DoctorService doctorService;
+    private final DoctorDirectoryCache directoryCache;
 
-    public DoctorController(DoctorService doctorService) {
+    public DoctorController(DoctorService doctorService, DoctorDirectoryCache directoryCache) {
         this.doctorService = doctorService;
+        this.directoryCache = directoryCache;
     }
 
     @GetMapping
     @Operation(summary = "Get all doctors", description = "Returns a list of all doctors")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            array = @ArraySchema(schema = @Schema(implementation = Doctor.class))))
     @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'SUPER_ADMIN')")
-    public ResponseEntity<List<Doctor>> getAllDoctors() {
-        return ResponseEntity.ok(doctorService.getAllDoctors());
+    public ResponseEntity<byte[]> getAllDoctors(@Parameter(description = FIELDS) @RequestParam(required = false) String fields) {
+        return json(directoryCache.allDoctors(FieldSelection.parse(fields)));
+    }
+
+    @GetMapping("/batch")
+    @Operation(summary = "Get doctors by IDs",
+            description = "Returns the doctors for a set of IDs in one call, in request order, plus the IDs not found")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<BatchResult<Doctor>> getDoctorsByIds(
+            @Parameter(description = "Comma-separated doctor IDs") @RequestParam List<Long> ids) {
+        return ResponseEntity.ok(doctorService.getDoctorsByIds(ids));
     }
 
     @GetMapping("/{id}")
@@ -43,23 +70,43 @@ public class DoctorController {
 
     @GetMapping("/specialization/{specialization}")
     @Operation(summary = "Get doctors by specialization", description = "Returns doctors filtered by specialization")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            array = @ArraySchema(schema = @Schema(implementation = Doctor.class))))
     @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'SUPER_ADMIN')")
-    public ResponseEntity<List<Doctor>> getDoctorsBySpecialization(@PathVariable Specialization specialization) {
-        return ResponseEntity.ok(doctorService.getDoctorsBySpecialization(specialization));
+    public ResponseEntity<byte[]> getDoctorsBySpecialization(
+            @PathVariable Specialization specialization,
+            @Parameter(description = FIELDS) @RequestParam(required = false) String fields) {
+        return json(directoryCache.doctorsBySpecialization(specialization, FieldSelection.parse(fields)));
     }
 
     @GetMapping("/available")
     @Operation(summary = "Get available doctors", description = "Returns all available doctors")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            array = @ArraySchema(schema = @Schema(implementation = Doctor.class))))
     @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'SUPER_ADMIN')")
-    public ResponseEntity<List<Doctor>> getAvailableDoctors() {
-        return ResponseEntity.ok(doctorService.getAvailableDoctors());
+    public ResponseEntity<byte[]> getAvailableDoctors(@Parameter(description = FIELDS) @RequestParam(required = false) String fields) {
+        return json(directoryCache.availableDoctors(FieldSelection.parse(fields)));
     }
 
     @GetMapping("/available/specialization/{specialization}")
     @Operation(summary = "Get available doctors by specialization", description = "Returns available doctors filtered by specialization")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            array = @ArraySchema(schema = @Schema(implementation = Doctor.class))))
     @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'SUPER_ADMIN')")
-    public ResponseEntity<List<Doctor>> getAvailableDoctorsBySpecialization(@PathVariable Specialization specialization) {
-        return ResponseEntity.ok(doctorService.getAvailableDoctorsBySpecialization(specialization));
+    public ResponseEntity<byte[]> getAvailableDoctorsBySpecialization(
+            @PathVariable Specialization specialization,
+            @Parameter(description = FIELDS) @RequestParam(required = false) String fields) {
+        return json(directoryCache.availableDoctorsBySpecialization(specialization, FieldSelection.parse(fields)));
+    }
+
+    @GetMapping("/recommended/specialization/{specialization}")
+    @Operation(summary = "Get least-loaded doctors by specialization",
+            description = "Returns available doctors of a specialization ordered by appointments booked today, then this week")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<List<DoctorRecommendation>> getRecommendedDoctors(
+            @PathVariable Specialization specialization,
+            @RequestParam(defaultValue = "3") int limit) {
+        return ResponseEntity.ok(doctorService.getRecommendedDoctors(specialization, limit));
     }
 
     @PostMapping
@@ -119,4 +166,15 @@ public class DoctorController {
         doctorService.deleteDoctor(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Spring MVC answers 304 by itself when the request's If-None-Match matches the ETag.
+     */
+    private static ResponseEntity<byte[]> json(CachedJson cached) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(cached.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(cached.body());
+    }
 }
@@ -1,12 +1,21 @@
 package com.devdishon.controller;
 
+import com.devdishon.dto.FieldSelection;
+import com.devdishon.dto.FollowUpSchedulingReport;
 import com.devdishon.dto.MedicalRecordRequest;
+import com.devdishon.dto.MedicalRecordSearchPage;
+import com.devdishon.dto.MedicalRecordSummary;
+import com.devdishon.dto.ProjectedRows;
 import com.devdishon.entity.MedicalRecord;
+import com.devdishon.service.FollowUpSchedulingService;
+import com.devdishon.service.MedicalRecordSearchService;
 import com.devdishon.service.MedicalRecordService;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -15,44 +24,128 @@ import java.util.List;
 @RequestMapping("/api/v1/medical-records")
 public class MedicalRecordController {
 
+    private static final String SUMMARY = MedicalRecordSummary.ETAG_VARIANT;
+
     private final MedicalRecordService medicalRecordService;
+    private final FollowUpSchedulingService followUpSchedulingService;
+    private final MedicalRecordSearchService medicalRecordSearchService;
 
-    public MedicalRecordController(MedicalRecordService medicalRecordService) {
+    public MedicalRecordController(MedicalRecordService medicalRecordService,
+                                   FollowUpSchedulingService followUpSchedulingService,
+                                   MedicalRecordSearchService medicalRecordSearchService) {
         this.medicalRecordService = medicalRecordService;
+        this.followUpSchedulingService = followUpSchedulingService;
+        this.medicalRecordSearchService = medicalRecordSearchService;
     }
 
+    // Lists return summaries without the clinical text, which only GET /{id} (or ?fields=) reads
+
     @GetMapping
-    public ResponseEntity<List<MedicalRecord>> getAllMedicalRecords() {
+    public ResponseEntity<List<MedicalRecordSummary>> getAllMedicalRecords(WebRequest request) {
+        if (ConditionalRequests.collectionNotModified(request, medicalRecordService.getAllMedicalRecordsVersion(), SUMMARY)) {
+            return null;
+        }
         return ResponseEntity.ok(medicalRecordService.getAllMedicalRecords());
     }
 
+    // The params = "fields" variants below answer ?fields= requests with only the selected fields
+
+    @GetMapping(params = "fields")
+    public ResponseEntity<ProjectedRows> getAllMedicalRecords(@RequestParam String fields, WebRequest request) {
+        FieldSelection selection = FieldSelection.parse(fields);
+        if (ConditionalRequests.collectionNotModified(request, medicalRecordService.getAllMedicalRecordsVersion(), selection)) {
+            return null;
+        }
+        return ResponseEntity.ok(medicalRecordService.getAllMedicalRecords(selection));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<MedicalRecord> getMedicalRecordById(@PathVariable Long id) {
+    public ResponseEntity<MedicalRecord> getMedicalRecordById(@PathVariable Long id, WebRequest request) {
+        if (ConditionalRequests.resourceNotModified(request, medicalRecordService.getMedicalRecordVersion(id))) {
+            return null;
+        }
         return ResponseEntity.ok(medicalRecordService.getMedicalRecordById(id));
     }
 
     @GetMapping("/patient/{patientId}")
-    public ResponseEntity<List<MedicalRecord>> getMedicalRecordsByPatientId(@PathVariable Long patientId) {
+    public ResponseEntity<List<MedicalRecordSummary>> getMedicalRecordsByPatientId(@PathVariable Long patientId,
+                                                                                   WebRequest request) {
+        if (ConditionalRequests.collectionNotModified(request, medicalRecordService.getMedicalRecordsByPatientIdVersion(patientId), SUMMARY)) {
+            return null;
+        }
         return ResponseEntity.ok(medicalRecordService.getMedicalRecordsByPatientId(patientId));
     }
 
+    @GetMapping(value = "/patient/{patientId}", params = "fields")
+    public ResponseEntity<ProjectedRows> getMedicalRecordsByPatientId(@PathVariable Long patientId,
+                                                                      @RequestParam String fields,
+                                                                      WebRequest request) {
+        FieldSelection selection = FieldSelection.parse(fields);
+        if (ConditionalRequests.collectionNotModified(request, medicalRecordService.getMedicalRecordsByPatientIdVersion(patientId), selection)) {
+            return null;
+        }
+        return ResponseEntity.ok(medicalRecordService.getMedicalRecordsByPatientId(patientId, selection));
+    }
+
     @GetMapping("/doctor/{doctorId}")
-    public ResponseEntity<List<MedicalRecord>> getMedicalRecordsByDoctorId(@PathVariable Long doctorId) {
+    public ResponseEntity<List<MedicalRecordSummary>> getMedicalRecordsByDoctorId(@PathVariable Long doctorId,
+                                                                                  WebRequest request) {
+        if (ConditionalRequests.collectionNotModified(request, medicalRecordService.getMedicalRecordsByDoctorIdVersion(doctorId), SUMMARY)) {
+            return null;
+        }
         return ResponseEntity.ok(medicalRecordService.getMedicalRecordsByDoctorId(doctorId));
     }
 
+    @GetMapping(value = "/doctor/{doctorId}", params = "fields")
+    public ResponseEntity<ProjectedRows> getMedicalRecordsByDoctorId(@PathVariable Long doctorId,
+                                                                     @RequestParam String fields,
+                                                                     WebRequest request) {
+        FieldSelection selection = FieldSelection.parse(fields);
+        if (ConditionalRequests.collectionNotModified(request, medicalRecordService.getMedicalRecordsByDoctorIdVersion(doctorId), selection)) {
+            return null;
+        }
+        return ResponseEntity.ok(medicalRecordService.getMedicalRecordsByDoctorId(doctorId, selection));
+    }
+
     @GetMapping("/appointment/{appointmentId}")
     public ResponseEntity<MedicalRecord> getMedicalRecordByAppointmentId(@PathVariable Long appointmentId) {
         return ResponseEntity.ok(medicalRecordService.getMedicalRecordByAppointmentId(appointmentId));
     }
 
     @GetMapping("/follow-ups")
-    public ResponseEntity<List<MedicalRecord>> getPendingFollowUps(
+    public ResponseEntity<List<MedicalRecordSummary>> getPendingFollowUps(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
         return ResponseEntity.ok(medicalRecordService.getPendingFollowUps(start, end));
     }
 
+    @GetMapping(value = "/follow-ups", params = "fields")
+    public ResponseEntity<ProjectedRows> getPendingFollowUps(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam String fields) {
+        return ResponseEntity.ok(medicalRecordService.getPendingFollowUps(start, end, FieldSelection.parse(fields)));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<MedicalRecordSearchPage> searchMedicalRecords(
+            @RequestParam String q,
+            @RequestParam(required = false) Long patientId,
+            @RequestParam(required = false) Long doctorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(medicalRecordSearchService.search(q, patientId, doctorId, from, to, cursor, limit));
+    }
+
+    @PostMapping("/follow-ups/schedule")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<FollowUpSchedulingReport> scheduleFollowUps(
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        return ResponseEntity.ok(followUpSchedulingService.scheduleFollowUps(dryRun));
+    }
+
     @PostMapping
     public ResponseEntity<MedicalRecord> createMedicalRecord(@RequestBody MedicalRecordRequest request) {
         MedicalRecord record = new MedicalRecord();
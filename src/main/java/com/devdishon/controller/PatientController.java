@@ -1,17 +1,32 @@
 package com.devdishon.controller;
 
+import com.devdishon.dto.BatchResult;
+import com.devdishon.dto.FieldSelection;
+import com.devdishon.dto.PatientMatch;
 import com.devdishon.dto.PatientRequest;
+import com.devdishon.dto.PatientSummary;
+import com.devdishon.dto.TimelinePage;
 import com.devdishon.entity.Patient;
+import com.devdishon.service.PatientSearchService;
 import com.devdishon.service.PatientService;
+import com.devdishon.service.PatientSummaryService;
+import com.devdishon.service.PatientTimelineService;
+import com.devdishon.service.coalescing.ReadCoalescer;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -21,32 +36,133 @@ import java.util.List;
 public class PatientController {
 
     private final PatientService patientService;
+    private final PatientSummaryService patientSummaryService;
+    private final PatientTimelineService patientTimelineService;
+    private final PatientSearchService patientSearchService;
+    private final ReadCoalescer readCoalescer;
 
-    public PatientController(PatientService patientService) {
+    public PatientController(PatientService patientService, PatientSummaryService patientSummaryService,
+                             PatientTimelineService patientTimelineService, PatientSearchService patientSearchService,
+                             ReadCoalescer readCoalescer) {
         this.patientService = patientService;
+        this.patientSummaryService = patientSummaryService;
+        this.patientTimelineService = patientTimelineService;
+        this.patientSearchService = patientSearchService;
+        this.readCoalescer = readCoalescer;
     }
 
     @GetMapping
     @Operation(summary = "Get all patients", description = "Returns a list of all patients")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully retrieved patients"),
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved patients",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = Patient.class)))),
+            @ApiResponse(responseCode = "400", description = "Unknown field in fields"),
             @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'SUPER_ADMIN')")
-    public ResponseEntity<List<Patient>> getAllPatients() {
-        return ResponseEntity.ok(patientService.getAllPatients());
+    public ResponseEntity<byte[]> getAllPatients(
+            @Parameter(description = "Comma-separated fields to return, e.g. id,firstName,lastName; all fields if omitted")
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        FieldSelection selection = FieldSelection.parse(fields);
+        if (ConditionalRequests.collectionNotModified(request, patientService.getAllPatientsVersion(), selection)) {
+            return null;
+        }
+        if (selection.isAll()) {
+            return json(readCoalescer.json("patients.all", "", patientService::getAllPatients));
+        }
+        return json(readCoalescer.json("patients.all", "fields=" + selection.key(), () -> patientService.getAllPatients(selection)));
+    }
+
+    @GetMapping("/batch")
+    @Operation(summary = "Get patients by IDs",
+            description = "Returns the patients for a set of IDs in one call, in request order, plus the IDs not found")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Patients found and IDs missing"),
+            @ApiResponse(responseCode = "400", description = "No IDs, or more than the batch maximum"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<BatchResult<Patient>> getPatientsByIds(
+            @Parameter(description = "Comma-separated patient IDs") @RequestParam List<Long> ids) {
+        return ResponseEntity.ok(patientService.getPatientsByIds(ids));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search patients by name or phone",
+            description = "Typeahead lookup: patients whose first name, last name or phone number starts with q, "
+                    + "followed by close matches that tolerate typos. A q without letters is matched as a phone number")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Matching patients, prefix matches first",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = PatientMatch.class)))),
+            @ApiResponse(responseCode = "400", description = "Blank or too long q, or limit out of range"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<List<PatientMatch>> searchPatients(
+            @Parameter(description = "Name words (e.g. \"jo smi\") or phone digits") @RequestParam String q,
+            @Parameter(description = "Maximum number of patients") @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(patientSearchService.search(q, limit));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get patient by ID", description = "Returns a patient by their ID")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully retrieved patient"),
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved patient",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = Patient.class))),
+            @ApiResponse(responseCode = "404", description = "Patient not found"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<byte[]> getPatientById(@PathVariable Long id, WebRequest request) {
+        if (ConditionalRequests.resourceNotModified(request, patientService.getPatientVersion(id))) {
+            return null;
+        }
+        return json(readCoalescer.json("patients.by-id", String.valueOf(id), () -> patientService.getPatientById(id)));
+    }
+
+    @GetMapping("/{id}/summary")
+    @Operation(summary = "Get patient summary",
+            description = "Returns the patient with their next appointments, latest medical records and pending "
+                    + "follow-ups, loaded in parallel. Sections that miss the deadline are null and listed in unavailable")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the summary",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = PatientSummary.class))),
+            @ApiResponse(responseCode = "400", description = "limit out of range"),
+            @ApiResponse(responseCode = "404", description = "Patient not found"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "504", description = "The patient could not be loaded before the deadline")
+    })
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<PatientSummary> getPatientSummary(
+            @PathVariable Long id,
+            @Parameter(description = "Entries per list section") @RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok(patientSummaryService.getSummary(id, limit));
+    }
+
+    @GetMapping("/{id}/timeline")
+    @Operation(summary = "Get patient timeline",
+            description = "Returns the patient's appointments and medical records as one timeline, newest first. "
+                    + "Pass nextCursor back as cursor to get the following page")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved a timeline page",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = TimelinePage.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or limit out of range"),
             @ApiResponse(responseCode = "404", description = "Patient not found"),
             @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'SUPER_ADMIN')")
-    public ResponseEntity<Patient> getPatientById(@PathVariable Long id) {
-        return ResponseEntity.ok(patientService.getPatientById(id));
+    public ResponseEntity<TimelinePage> getPatientTimeline(
+            @PathVariable Long id,
+            @Parameter(description = "nextCursor of the previous page; omit for the newest entries")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Entries per page") @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(patientTimelineService.getTimeline(id, cursor, limit));
     }
 
     @GetMapping("/email/{email}")
@@ -121,4 +237,8 @@ public class PatientController {
         patientService.deletePatient(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static ResponseEntity<byte[]> json(byte[] body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
 }
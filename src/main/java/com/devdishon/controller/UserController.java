@@ -14,6 +14,7 @@ import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -36,7 +37,10 @@ public class UserController {
             @ApiResponse(responseCode = "200", description = "Users retrieved successfully"),
             @ApiResponse(responseCode = "403", description = "Access denied - Admin role required")
     })
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
+    public ResponseEntity<List<UserResponse>> getAllUsers(WebRequest request) {
+        if (ConditionalRequests.collectionNotModified(request, userService.getAllUsersVersion())) {
+            return null;
+        }
         return ResponseEntity.ok(userService.getAllUsers());
     }
 
@@ -48,7 +52,10 @@ public class UserController {
             @ApiResponse(responseCode = "404", description = "User not found"),
             @ApiResponse(responseCode = "403", description = "Access denied - Admin role required")
     })
-    public ResponseEntity<UserResponse> getUserById(@PathVariable Long id) {
+    public ResponseEntity<UserResponse> getUserById(@PathVariable Long id, WebRequest request) {
+        if (ConditionalRequests.resourceNotModified(request, userService.getUserVersion(id))) {
+            return null;
+        }
         return ResponseEntity.ok(userService.getUserById(id));
     }
 
@@ -0,0 +1,79 @@
+package com.devdishon.controller;
+
+import com.devdishon.dto.WaitlistRequest;
+import com.devdishon.entity.Specialization;
+import com.devdishon.entity.WaitlistEntry;
+import com.devdishon.service.WaitlistService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/waitlist")
+@Tag(name = "Waitlist", description = "Appointment waitlist endpoints")
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    public WaitlistController(WaitlistService waitlistService) {
+        this.waitlistService = waitlistService;
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get waitlist entry by ID", description = "Returns a waitlist entry by its ID")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<WaitlistEntry> getWaitlistEntryById(@PathVariable Long id) {
+        return ResponseEntity.ok(waitlistService.getWaitlistEntryById(id));
+    }
+
+    @GetMapping("/doctor/{doctorId}")
+    @Operation(summary = "Get a doctor's waitlist", description = "Returns waiting entries for a doctor in priority order")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<List<WaitlistEntry>> getDoctorWaitlist(@PathVariable Long doctorId) {
+        return ResponseEntity.ok(waitlistService.getDoctorWaitlist(doctorId));
+    }
+
+    @GetMapping("/specialization/{specialization}")
+    @Operation(summary = "Get a specialization waitlist",
+            description = "Returns waiting entries that accept any doctor of a specialization, in priority order")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<List<WaitlistEntry>> getSpecializationWaitlist(@PathVariable Specialization specialization) {
+        return ResponseEntity.ok(waitlistService.getSpecializationWaitlist(specialization));
+    }
+
+    @PostMapping
+    @Operation(summary = "Add to waitlist",
+            description = "Queues a patient for the next freed slot with a doctor or specialization")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Patient added to the waitlist"),
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - requires ADMIN role")
+    })
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<WaitlistEntry> addToWaitlist(@RequestBody WaitlistRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(waitlistService.addToWaitlist(
+                request.patientId(),
+                request.doctorId(),
+                request.specialization(),
+                request.urgency(),
+                request.appointmentType(),
+                request.reasonForVisit(),
+                request.availableFrom(),
+                request.availableUntil()));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Remove from waitlist", description = "Withdraws a waiting entry")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<Void> removeFromWaitlist(@PathVariable Long id) {
+        waitlistService.removeFromWaitlist(id);
+        return ResponseEntity.noContent().build();
+    }
+}
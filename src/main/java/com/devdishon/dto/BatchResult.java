@@ -0,0 +1,61 @@
+package com.devdishon.dto;
+
+import com.devdishon.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Response of a multi-get: the entities found, in the order their ids were requested, and the
+ * requested ids that matched nothing.
+ */
+public record BatchResult<T>(
+        List<T> items,
+        List<Long> missing
+) {
+
+    /**
+     * The requested ids without duplicates, in first-seen order.
+     *
+     * @throws BadRequestException if there are none, a null id, or more than {@code maxIds}
+     */
+    public static List<Long> distinctIds(List<Long> ids, int maxIds) {
+        if (ids == null || ids.isEmpty()) {
+            throw new BadRequestException("At least one id is required");
+        }
+        LinkedHashSet<Long> distinct = new LinkedHashSet<>();
+        for (Long id : ids) {
+            if (id == null) {
+                throw new BadRequestException("Ids must not be empty");
+            }
+            distinct.add(id);
+        }
+        if (distinct.size() > maxIds) {
+            throw new BadRequestException("At most " + maxIds + " ids can be requested at once, got " + distinct.size());
+        }
+        return List.copyOf(distinct);
+    }
+
+    public static <T> BatchResult<T> of(List<Long> ids, Collection<T> found, Function<T, Long> idOf) {
+        Map<Long, T> byId = new HashMap<>(found.size() * 2);
+        for (T item : found) {
+            byId.put(idOf.apply(item), item);
+        }
+        List<T> items = new ArrayList<>(byId.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            T item = byId.get(id);
+            if (item != null) {
+                items.add(item);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new BatchResult<>(items, missing);
+    }
+}
@@ -0,0 +1,9 @@
+package com.devdishon.dto;
+
+import java.time.LocalDate;
+
+public record DoctorDailyCount(
+        Long doctorId,
+        LocalDate day,
+        Long count
+) {}
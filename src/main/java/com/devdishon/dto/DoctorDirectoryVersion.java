@@ -0,0 +1,12 @@
+package com.devdishon.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cheap fingerprint of the doctors table: any insert, delete or update changes at least one field.
+ */
+public record DoctorDirectoryVersion(
+        Long count,
+        Long idSum,
+        LocalDateTime lastUpdated
+) {}
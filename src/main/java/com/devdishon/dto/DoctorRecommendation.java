@@ -0,0 +1,13 @@
+package com.devdishon.dto;
+
+import com.devdishon.entity.Specialization;
+
+public record DoctorRecommendation(
+        Long doctorId,
+        String firstName,
+        String lastName,
+        String department,
+        Specialization specialization,
+        int appointmentsToday,
+        int appointmentsThisWeek
+) {}
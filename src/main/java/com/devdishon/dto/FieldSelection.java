@@ -0,0 +1,59 @@
+package com.devdishon.dto;
+
+import com.devdishon.exception.BadRequestException;
+
+import java.util.List;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * The fields a client asked for with {@code ?fields=}, e.g. {@code id,firstName,doctor.lastName}.
+ * A name is either a field of the listed entity or {@code association.field} for an embedded
+ * patient, doctor or appointment; a bare association name selects all of its fields. Only the
+ * syntax is checked here; the names are checked against the entity when the query is built.
+ * Fields are kept sorted so that equivalent selections share cache keys and ETags.
+ * An empty selection means the full entity.
+ */
+public record FieldSelection(List<String> fields) {
+
+    public static final FieldSelection ALL = new FieldSelection(List.of());
+
+    private static final Pattern FIELD = Pattern.compile("[A-Za-z][A-Za-z0-9]*(\\.[A-Za-z][A-Za-z0-9]*)?");
+    private static final int MAX_FIELDS = 64;
+
+    public FieldSelection {
+        fields = List.copyOf(fields);
+    }
+
+    public static FieldSelection parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        TreeSet<String> names = new TreeSet<>();
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!FIELD.matcher(trimmed).matches()) {
+                throw new BadRequestException("Invalid field name '" + trimmed + "'");
+            }
+            names.add(trimmed);
+        }
+        if (names.size() > MAX_FIELDS) {
+            throw new BadRequestException("At most " + MAX_FIELDS + " fields can be selected");
+        }
+        return names.isEmpty() ? ALL : new FieldSelection(List.copyOf(names));
+    }
+
+    public boolean isAll() {
+        return fields.isEmpty();
+    }
+
+    /**
+     * Canonical form of the selection, empty for the full entity.
+     */
+    public String key() {
+        return String.join(",", fields);
+    }
+}
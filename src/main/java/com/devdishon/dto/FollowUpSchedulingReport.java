@@ -0,0 +1,25 @@
+package com.devdishon.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record FollowUpSchedulingReport(
+        boolean dryRun,
+        int scanned,
+        int scheduled,
+        int unmatched,
+        long durationMs,
+        List<Item> items
+) {
+    /**
+     * One follow-up and the slot it was (or would be) booked into; {@code slot} is null when no free slot was found.
+     */
+    public record Item(
+            Long medicalRecordId,
+            Long patientId,
+            Long doctorId,
+            LocalDateTime followUpDate,
+            LocalDateTime slot,
+            Long appointmentId
+    ) {}
+}
@@ -0,0 +1,14 @@
+package com.devdishon.dto;
+
+/**
+ * A medical record's notes as text, for the search index, which cannot read the compressed column.
+ */
+public record IndexedNotes(
+        Long id,
+        String notes
+) {
+
+    public IndexedNotes(Long id, String notes, String legacyNotes) {
+        this(id, notes != null ? notes : legacyNotes);
+    }
+}
@@ -0,0 +1,10 @@
+package com.devdishon.dto;
+
+/**
+ * Uncompressed lab results and notes of a medical record written before text compression.
+ */
+public record LegacyRecordText(
+        Long id,
+        String labResults,
+        String notes
+) {}
@@ -0,0 +1,21 @@
+package com.devdishon.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A medical record matching a search, with its relevance and a highlighted excerpt of the
+ * diagnosis, symptoms and treatment ({@code <b>} around matched words).
+ */
+public record MedicalRecordSearchHit(
+        Long id,
+        Long patientId,
+        Long doctorId,
+        LocalDateTime recordDate,
+        float rank,
+        String headline
+) {
+
+    public SearchCursor cursor() {
+        return new SearchCursor(rank, id);
+    }
+}
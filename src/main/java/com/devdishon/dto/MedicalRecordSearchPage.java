@@ -0,0 +1,12 @@
+package com.devdishon.dto;
+
+import java.util.List;
+
+/**
+ * One page of medical record search results, best match first. {@code nextCursor} fetches the
+ * following page and is null on the last one.
+ */
+public record MedicalRecordSearchPage(
+        List<MedicalRecordSearchHit> hits,
+        String nextCursor
+) {}
@@ -0,0 +1,38 @@
+package com.devdishon.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * List form of a medical record: who, when and what follows, without the clinical TEXT columns
+ * (diagnosis, symptoms, treatment, prescription, lab results, notes) or the embedded patient and
+ * doctor. List queries select only these columns; the full record comes from
+ * {@code GET /api/v1/medical-records/{id}}.
+ */
+public record MedicalRecordSummary(
+        Long id,
+        Long patientId,
+        String patientName,
+        Long doctorId,
+        String doctorName,
+        Long appointmentId,
+        LocalDateTime recordDate,
+        LocalDateTime followUpDate,
+        Long followUpAppointmentId,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+
+    /**
+     * ETag variant of summary lists, so a cached copy of the full list form never validates them.
+     */
+    public static final String ETAG_VARIANT = "summary";
+
+    public MedicalRecordSummary(Long id, Long patientId, String patientFirstName, String patientLastName,
+                                Long doctorId, String doctorFirstName, String doctorLastName, Long appointmentId,
+                                LocalDateTime recordDate, LocalDateTime followUpDate, Long followUpAppointmentId,
+                                LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, patientId, patientFirstName + " " + patientLastName, doctorId,
+                doctorFirstName + " " + doctorLastName, appointmentId, recordDate, followUpDate,
+                followUpAppointmentId, createdAt, updatedAt);
+    }
+}
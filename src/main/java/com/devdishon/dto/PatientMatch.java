@@ -0,0 +1,22 @@
+package com.devdishon.dto;
+
+import java.time.LocalDate;
+
+/**
+ * A patient found by name or phone lookup, with just enough to tell namesakes apart at the desk.
+ * {@code match} says whether the query was a prefix of the name or phone, or only a close match.
+ */
+public record PatientMatch(
+        Long id,
+        String firstName,
+        String lastName,
+        String phoneNumber,
+        LocalDate dateOfBirth,
+        Match match
+) {
+
+    public enum Match {
+        PREFIX,
+        FUZZY
+    }
+}
@@ -0,0 +1,65 @@
+package com.devdishon.dto;
+
+import com.devdishon.entity.AppointmentStatus;
+import com.devdishon.entity.AppointmentType;
+import com.devdishon.entity.Patient;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Overview of one patient: the next appointments, the latest medical records and the follow-ups
+ * still waiting for a booking, each with its total count. Sections are loaded concurrently under
+ * one deadline; a section that did not finish in time is null and named in {@code unavailable},
+ * so clients can show the rest and retry for the missing part.
+ */
+public record PatientSummary(
+        Patient patient,
+        List<AppointmentItem> upcomingAppointments,
+        Long upcomingAppointmentCount,
+        List<RecordItem> recentRecords,
+        Long medicalRecordCount,
+        List<RecordItem> pendingFollowUps,
+        Long pendingFollowUpCount,
+        List<String> unavailable
+) {
+
+    public static final String UPCOMING_APPOINTMENTS = "upcomingAppointments";
+    public static final String RECENT_RECORDS = "recentRecords";
+    public static final String PENDING_FOLLOW_UPS = "pendingFollowUps";
+
+    /**
+     * An appointment without the patient it belongs to.
+     */
+    public record AppointmentItem(
+            Long id,
+            Long doctorId,
+            String doctorName,
+            LocalDateTime appointmentDateTime,
+            AppointmentStatus status,
+            AppointmentType appointmentType
+    ) {
+
+        public AppointmentItem(Long id, Long doctorId, String doctorFirstName, String doctorLastName,
+                               LocalDateTime appointmentDateTime, AppointmentStatus status,
+                               AppointmentType appointmentType) {
+            this(id, doctorId, doctorFirstName + " " + doctorLastName, appointmentDateTime, status, appointmentType);
+        }
+    }
+
+    /**
+     * A medical record's headline fields, without the clinical text.
+     */
+    public record RecordItem(
+            Long id,
+            Long doctorId,
+            LocalDateTime recordDate,
+            String diagnosis,
+            LocalDateTime followUpDate
+    ) {}
+
+    /**
+     * A list section and the total it was cut from.
+     */
+    public record Section<T>(List<T> items, long total) {}
+}
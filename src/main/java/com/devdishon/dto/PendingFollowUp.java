@@ -0,0 +1,14 @@
+package com.devdishon.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a medical record whose follow-up has not been booked yet.
+ */
+public record PendingFollowUp(
+        Long medicalRecordId,
+        Long patientId,
+        Long doctorId,
+        LocalDateTime followUpDate,
+        LocalDateTime updatedAt
+) {}
@@ -0,0 +1,13 @@
+package com.devdishon.dto;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a sparse-fieldset list read: one map of the selected fields per row, serialized as a
+ * plain array like the entity list it stands in for. Only the Jackson formats can write it.
+ */
+public record ProjectedRows(@JsonValue List<Map<String, Object>> rows) {
+}
@@ -0,0 +1,73 @@
+package com.devdishon.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.stream.Stream;
+
+/**
+ * Result of a cheap probe query describing a resource or collection without loading it: how
+ * many rows it has, a checksum of their ids (so a delete plus an insert still shows up) and the
+ * latest {@code updatedAt} among the rows and the entities embedded in their JSON.
+ * Used to answer conditional GETs; the ETag is weak because the same version may be rendered
+ * in different formats.
+ */
+public record ResourceVersion(
+        Long count,
+        Long checksum,
+        LocalDateTime lastModified
+) {
+
+    public ResourceVersion(Long count, Long checksum, LocalDateTime first, LocalDateTime second,
+                           LocalDateTime third) {
+        this(count, checksum, latest(first, second, third));
+    }
+
+    public ResourceVersion(Long count, Long checksum, LocalDateTime first, LocalDateTime second,
+                           LocalDateTime third, LocalDateTime fourth) {
+        this(count, checksum, latest(first, second, third, fourth));
+    }
+
+    public boolean exists() {
+        return count != null && count > 0;
+    }
+
+    public String etag() {
+        return etag("");
+    }
+
+    /**
+     * ETag of one rendering of this version, e.g. a sparse fieldset; an empty variant gives {@link #etag()}.
+     * The variant, in canonical form, goes in as a SHA-256 digest, so distinct variants never share an ETag.
+     */
+    public String etag(String variant) {
+        String suffix = variant.isEmpty() ? "" : "-" + digest(variant);
+        return "W/\"" + count + '-' + (checksum != null ? checksum : 0) + '-' + Math.max(lastModifiedMillis(), 0) + suffix + '"';
+    }
+
+    /**
+     * Epoch milliseconds of the last modification, or -1 if unknown.
+     */
+    public long lastModifiedMillis() {
+        return lastModified != null ? lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
+
+    private static String digest(String variant) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(variant.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static LocalDateTime latest(LocalDateTime... timestamps) {
+        return Stream.of(timestamps)
+                .filter(t -> t != null)
+                .max(LocalDateTime::compareTo)
+                .orElse(null);
+    }
+}
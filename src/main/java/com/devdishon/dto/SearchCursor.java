@@ -0,0 +1,39 @@
+package com.devdishon.dto;
+
+import com.devdishon.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a ranked search: the rank and id of the last hit of a page. Hits are ordered by
+ * rank, then id, both descending, so the next page starts strictly after this pair. The rank
+ * travels in its shortest exact form, so the database compares it against the same float it
+ * returned. Clients see the cursor as an opaque URL-safe token.
+ */
+public record SearchCursor(float rank, long id) {
+
+    public String encode() {
+        String plain = Float.toString(rank) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return null for a missing cursor, meaning the first page
+     * @throws BadRequestException if the token was not produced by {@link #encode()}
+     */
+    public static SearchCursor parse(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 2) {
+                throw new BadRequestException("Invalid search cursor");
+            }
+            return new SearchCursor(Float.parseFloat(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid search cursor");
+        }
+    }
+}
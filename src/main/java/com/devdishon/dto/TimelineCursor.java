@@ -0,0 +1,60 @@
+package com.devdishon.dto;
+
+import com.devdishon.dto.TimelineEntry.Kind;
+import com.devdishon.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+
+/**
+ * Position on a patient timeline: the last entry of a page. The timeline runs newest first, with
+ * appointments before medical records at the same instant and higher ids first within a kind, so
+ * every entry has exactly one place and a page boundary never repeats or skips one.
+ * Clients see the cursor as an opaque URL-safe token.
+ */
+public record TimelineCursor(LocalDateTime occurredAt, Kind kind, Long id) {
+
+    /**
+     * Timeline order: the first entry is the newest.
+     */
+    public static final Comparator<TimelineEntry> ORDER = Comparator
+            .comparing(TimelineEntry::occurredAt, Comparator.reverseOrder())
+            .thenComparing(TimelineEntry::kind)
+            .thenComparing(TimelineEntry::id, Comparator.reverseOrder());
+
+    /**
+     * The id bound for entries of {@code kind} at this cursor's instant: those with a lower id
+     * come after the cursor. Every entry of a later kind does, and none of an earlier kind.
+     */
+    public long idBoundFor(Kind kind) {
+        int compared = kind.compareTo(this.kind);
+        return compared == 0 ? id : compared > 0 ? Long.MAX_VALUE : Long.MIN_VALUE;
+    }
+
+    public String encode() {
+        String plain = occurredAt + "|" + kind.name() + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return null for a missing cursor, meaning the start of the timeline
+     * @throws BadRequestException if the token was not produced by {@link #encode()}
+     */
+    public static TimelineCursor parse(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 3) {
+                throw new BadRequestException("Invalid timeline cursor");
+            }
+            return new TimelineCursor(LocalDateTime.parse(parts[0]), Kind.valueOf(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid timeline cursor");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.devdishon.dto;
+
+import com.devdishon.entity.AppointmentStatus;
+import com.devdishon.entity.AppointmentType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+/**
+ * One event on a patient's timeline: an appointment at its scheduled time or a medical record at
+ * its record date. Only the fields of the entry's kind are present.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TimelineEntry(
+        Kind kind,
+        Long id,
+        LocalDateTime occurredAt,
+        Long doctorId,
+        String doctorName,
+        AppointmentStatus status,
+        AppointmentType appointmentType,
+        String reasonForVisit,
+        String diagnosis,
+        LocalDateTime followUpDate
+) {
+
+    /**
+     * Entry kinds in the order they sort at the same instant.
+     */
+    public enum Kind {
+        APPOINTMENT,
+        MEDICAL_RECORD
+    }
+
+    public TimelineEntry(Long id, LocalDateTime appointmentDateTime, Long doctorId, String doctorFirstName,
+                         String doctorLastName, AppointmentStatus status, AppointmentType appointmentType,
+                         String reasonForVisit) {
+        this(Kind.APPOINTMENT, id, appointmentDateTime, doctorId, doctorFirstName + " " + doctorLastName,
+                status, appointmentType, reasonForVisit, null, null);
+    }
+
+    public TimelineEntry(Long id, LocalDateTime recordDate, Long doctorId, String doctorFirstName,
+                         String doctorLastName, String diagnosis, LocalDateTime followUpDate) {
+        this(Kind.MEDICAL_RECORD, id, recordDate, doctorId, doctorFirstName + " " + doctorLastName,
+                null, null, null, diagnosis, followUpDate);
+    }
+
+    public TimelineCursor cursor() {
+        return new TimelineCursor(occurredAt, kind, id);
+    }
+}
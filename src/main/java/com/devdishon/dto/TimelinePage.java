@@ -0,0 +1,12 @@
+package com.devdishon.dto;
+
+import java.util.List;
+
+/**
+ * One page of a patient timeline. {@code nextCursor} fetches the following page and is null on
+ * the last one.
+ */
+public record TimelinePage(
+        List<TimelineEntry> entries,
+        String nextCursor
+) {}
@@ -0,0 +1,14 @@
+package com.devdishon.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight projection of an appointment for background jobs that must not load
+ * the patient and doctor graphs.
+ */
+public record UpcomingAppointment(
+        Long id,
+        Long patientId,
+        Long doctorId,
+        LocalDateTime appointmentDateTime
+) {}
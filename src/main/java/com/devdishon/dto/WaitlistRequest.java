@@ -0,0 +1,18 @@
+package com.devdishon.dto;
+
+import com.devdishon.entity.AppointmentType;
+import com.devdishon.entity.Specialization;
+import com.devdishon.entity.WaitlistUrgency;
+
+import java.time.LocalDateTime;
+
+public record WaitlistRequest(
+        Long patientId,
+        Long doctorId,
+        Specialization specialization,
+        WaitlistUrgency urgency,
+        AppointmentType appointmentType,
+        String reasonForVisit,
+        LocalDateTime availableFrom,
+        LocalDateTime availableUntil
+) {}
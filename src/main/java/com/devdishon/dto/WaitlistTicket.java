@@ -0,0 +1,25 @@
+package com.devdishon.dto;
+
+import com.devdishon.entity.Specialization;
+import com.devdishon.entity.WaitlistUrgency;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compact in-memory view of a waiting waitlist entry.
+ */
+public record WaitlistTicket(
+        Long entryId,
+        Long patientId,
+        Long doctorId,
+        Specialization specialization,
+        WaitlistUrgency urgency,
+        LocalDateTime requestedAt,
+        LocalDateTime availableFrom,
+        LocalDateTime availableUntil
+) {
+    public boolean accepts(LocalDateTime slot) {
+        return (availableFrom == null || !slot.isBefore(availableFrom))
+                && (availableUntil == null || !slot.isAfter(availableUntil));
+    }
+}
@@ -6,7 +6,9 @@ import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+        @Index(name = "idx_appointments_patient_date_time_id", columnList = "patient_id, appointmentDateTime, id")
+})
 public class Appointment {
 
     @Id
@@ -0,0 +1,123 @@
+package com.devdishon.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stores large free-text attributes as {@code bytea}, deflated once they reach
+ * {@code app.medical-records.compression.threshold-bytes} of UTF-8. The first byte tells how the
+ * rest is stored: {@link #PLAIN} UTF-8, or {@link #DEFLATE} followed by the original length and
+ * the raw deflate stream. Text that does not shrink is stored plain, so a value never grows by
+ * more than the one header byte. Deflate at {@link Deflater#BEST_SPEED} is used because it ships
+ * with the JDK and clinical text (repetitive words, templated lab panels) compresses well even
+ * at its fastest level.
+ * Hibernate gets this converter from the Spring context, so the threshold comes from configuration.
+ */
+@Component
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, byte[]> {
+
+    static final byte PLAIN = 0;
+    static final byte DEFLATE = 1;
+
+    private final int thresholdBytes;
+
+    public CompressedTextConverter(@Value("${app.medical-records.compression.threshold-bytes:512}") int thresholdBytes) {
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    @Override
+    public byte[] convertToDatabaseColumn(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length >= thresholdBytes) {
+            byte[] deflated = deflate(utf8);
+            if (deflated != null) {
+                return deflated;
+            }
+        }
+        byte[] plain = new byte[utf8.length + 1];
+        plain[0] = PLAIN;
+        System.arraycopy(utf8, 0, plain, 1, utf8.length);
+        return plain;
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] stored) {
+        if (stored == null) {
+            return null;
+        }
+        if (stored.length == 0) {
+            return "";
+        }
+        return switch (stored[0]) {
+            case PLAIN -> new String(stored, 1, stored.length - 1, StandardCharsets.UTF_8);
+            case DEFLATE -> inflate(stored);
+            default -> throw new IllegalStateException("Unknown compressed text format " + stored[0]);
+        };
+    }
+
+    /**
+     * Returns the header, length and deflated bytes, or null if they are no smaller than the input.
+     */
+    private static byte[] deflate(byte[] utf8) {
+        if (utf8.length <= 5) {
+            return null;
+        }
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(utf8);
+            deflater.finish();
+            // Anything longer than the plain form is useless, so stop there
+            byte[] out = new byte[utf8.length];
+            ByteBuffer.wrap(out).put(DEFLATE).putInt(utf8.length);
+            int length = 5;
+            while (!deflater.finished() && length < out.length) {
+                length += deflater.deflate(out, length, out.length - length);
+            }
+            if (!deflater.finished()) {
+                return null;
+            }
+            byte[] result = new byte[length];
+            System.arraycopy(out, 0, result, 0, length);
+            return result;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static String inflate(byte[] stored) {
+        int length = ByteBuffer.wrap(stored, 1, 4).getInt();
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(stored, 5, stored.length - 5);
+            byte[] utf8 = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int n = inflater.inflate(utf8, read, length - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != length) {
+                throw new IllegalStateException("Compressed text is truncated: " + read + " of " + length + " bytes");
+            }
+            return new String(utf8, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Compressed text is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.devdishon.entity;
 
 import jakarta.persistence.*;
+import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
@@ -35,6 +36,8 @@ public class Doctor {
 
     private Boolean isAvailable = true;
 
+    private LocalDateTime updatedAt;
+
     protected Doctor() {
     }
 
@@ -52,6 +55,12 @@ public class Doctor {
         this.isAvailable = true;
     }
 
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
     public Long getId() {
         return id;
     }
@@ -132,6 +141,10 @@ public class Doctor {
         isAvailable = available;
     }
 
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,103 @@
+package com.devdishon.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Shared idempotency key record for multi-replica deployments.
+ * A row is inserted when a request claims its key and filled with the response once it finishes.
+ * Unfinished rows carry a lease so a key held by a crashed replica can be taken over.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_expires_at", columnList = "expiresAt")
+})
+public class IdempotencyRecord {
+
+    @Id
+    @Column(length = 320)
+    private String idempotencyKey;
+
+    // Identifies the claim holding the key; rows written before claim tokens have none
+    @Column(length = 36)
+    private String claimToken;
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(nullable = false)
+    private boolean completed;
+
+    private Integer responseStatus;
+
+    private String contentType;
+
+    @Column(columnDefinition = "bytea")
+    private byte[] responseBody;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    protected IdempotencyRecord() {
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public String getClaimToken() {
+        return claimToken;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public Integer getResponseStatus() {
+        return responseStatus;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public byte[] getResponseBody() {
+        return responseBody;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getLockedUntil() {
+        return lockedUntil;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IdempotencyRecord that = (IdempotencyRecord) o;
+        return Objects.equals(idempotencyKey, that.idempotencyKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idempotencyKey);
+    }
+}
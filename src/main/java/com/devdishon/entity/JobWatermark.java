@@ -0,0 +1,83 @@
+package com.devdishon.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Persisted progress marker for incremental background jobs.
+ * Jobs scan rows ordered by (watermarkTime, watermarkId) and resume after the last one processed.
+ */
+@Entity
+@Table(name = "job_watermarks")
+public class JobWatermark {
+
+    public static final LocalDateTime INITIAL_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private LocalDateTime watermarkTime;
+
+    @Column(nullable = false)
+    private Long watermarkId;
+
+    @Version
+    private Long version;
+
+    private LocalDateTime updatedAt;
+
+    protected JobWatermark() {
+    }
+
+    public JobWatermark(String name) {
+        this.name = name;
+        this.watermarkTime = INITIAL_TIME;
+        this.watermarkId = 0L;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public void advance(LocalDateTime time, Long id) {
+        this.watermarkTime = time;
+        this.watermarkId = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LocalDateTime getWatermarkTime() {
+        return watermarkTime;
+    }
+
+    public Long getWatermarkId() {
+        return watermarkId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        JobWatermark that = (JobWatermark) o;
+        return Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name);
+    }
+}
@@ -1,12 +1,16 @@
 package com.devdishon.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
-@Table(name = "medical_records")
+@Table(name = "medical_records", indexes = {
+        @Index(name = "idx_medical_records_updated_at_id", columnList = "updatedAt, id"),
+        @Index(name = "idx_medical_records_patient_record_date_id", columnList = "patient_id, recordDate, id")
+})
 public class MedicalRecord {
 
     @Id
@@ -43,14 +47,29 @@ public class MedicalRecord {
     @Column(columnDefinition = "TEXT")
     private String prescription;
 
-    @Column(columnDefinition = "TEXT")
+    // Stored compressed; values written before compression stay in the legacy TEXT columns
+    // until MedicalRecordTextCompressionJob moves them
+
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(name = "lab_results_data", columnDefinition = "bytea")
     private String labResults;
 
-    @Column(columnDefinition = "TEXT")
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(name = "notes_data", columnDefinition = "bytea")
     private String notes;
 
+    @JsonIgnore
+    @Column(name = "lab_results", columnDefinition = "TEXT")
+    private String legacyLabResults;
+
+    @JsonIgnore
+    @Column(name = "notes", columnDefinition = "TEXT")
+    private String legacyNotes;
+
     private LocalDateTime followUpDate;
 
+    private Long followUpAppointmentId;
+
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
@@ -158,19 +177,21 @@ public class MedicalRecord {
     }
 
     public String getLabResults() {
-        return labResults;
+        return labResults != null ? labResults : legacyLabResults;
     }
 
     public void setLabResults(String labResults) {
         this.labResults = labResults;
+        this.legacyLabResults = null;
     }
 
     public String getNotes() {
-        return notes;
+        return notes != null ? notes : legacyNotes;
     }
 
     public void setNotes(String notes) {
         this.notes = notes;
+        this.legacyNotes = null;
     }
 
     public LocalDateTime getFollowUpDate() {
@@ -181,6 +202,14 @@ public class MedicalRecord {
         this.followUpDate = followUpDate;
     }
 
+    public Long getFollowUpAppointmentId() {
+        return followUpAppointmentId;
+    }
+
+    public void setFollowUpAppointmentId(Long followUpAppointmentId) {
+        this.followUpAppointmentId = followUpAppointmentId;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
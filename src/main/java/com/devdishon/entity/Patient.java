@@ -2,6 +2,7 @@ package com.devdishon.entity;
 
 import jakarta.persistence.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
@@ -40,6 +41,8 @@ public class Patient {
 
     private String emergencyContactPhone;
 
+    private LocalDateTime updatedAt;
+
     protected Patient() {
     }
 
@@ -59,6 +62,12 @@ public class Patient {
         this.emergencyContactPhone = emergencyContactPhone;
     }
 
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
     public Long getId() {
         return id;
     }
@@ -155,6 +164,10 @@ public class Patient {
         this.emergencyContactPhone = emergencyContactPhone;
     }
 
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,7 @@
+package com.devdishon.entity;
+
+public enum WaitlistStatus {
+    WAITING,
+    BOOKED,
+    REMOVED
+}
@@ -0,0 +1,10 @@
+package com.devdishon.entity;
+
+/**
+ * Waitlist urgency, declared from least to most urgent.
+ */
+public enum WaitlistUrgency {
+    ROUTINE,
+    SOON,
+    URGENT
+}
@@ -0,0 +1,58 @@
+package com.devdishon.filter;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Keeps the first {@code limit} bytes of a body for logging and counts the rest.
+ * The buffer is allocated on the first write and grows up to the limit, so bodies that are
+ * never written cost nothing.
+ */
+final class BodyCapture {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final int limit;
+    private byte[] buffer;
+    private int count;
+    private long total;
+
+    BodyCapture(int limit) {
+        this.limit = limit;
+    }
+
+    void write(int b) {
+        total++;
+        if (count < limit) {
+            ensureCapacity(count + 1);
+            buffer[count++] = (byte) b;
+        }
+    }
+
+    void write(byte[] b, int off, int len) {
+        total += len;
+        int n = Math.min(len, limit - count);
+        if (n > 0) {
+            ensureCapacity(count + n);
+            System.arraycopy(b, off, buffer, count, n);
+            count += n;
+        }
+    }
+
+    boolean isEmpty() {
+        return total == 0;
+    }
+
+    String toString(Charset charset) {
+        String text = count == 0 ? "" : new String(buffer, 0, count, charset);
+        return total > count ? text + "... (" + total + " bytes)" : text;
+    }
+
+    private void ensureCapacity(int required) {
+        if (buffer == null) {
+            buffer = new byte[Math.min(limit, Math.max(INITIAL_CAPACITY, required))];
+        } else if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.min(limit, Math.max(buffer.length * 2, required)));
+        }
+    }
+}
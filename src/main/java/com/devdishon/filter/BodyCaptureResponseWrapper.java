@@ -0,0 +1,117 @@
+package com.devdishon.filter;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Response wrapper that passes every byte straight through to the client and copies the first
+ * bytes into a {@link BodyCapture}. Unlike a caching wrapper it never holds the response back,
+ * so streamed and chunked responses keep streaming.
+ *
+ * <p>Whether to capture is decided at the first write: always for sampled requests, otherwise
+ * only if an error status has already been set. Only output written through
+ * {@link #getOutputStream()} is captured.</p>
+ */
+class BodyCaptureResponseWrapper extends HttpServletResponseWrapper {
+
+    private final int limit;
+    private final boolean captureAll;
+    private BodyCapture capture;
+    private ServletOutputStream outputStream;
+
+    BodyCaptureResponseWrapper(HttpServletResponse response, int limit, boolean captureAll) {
+        super(response);
+        this.limit = limit;
+        this.captureAll = captureAll;
+    }
+
+    /**
+     * Returns the captured prefix, or null if the response body was not captured.
+     */
+    BodyCapture getCapture() {
+        return capture;
+    }
+
+    Charset charset() {
+        String encoding = getCharacterEncoding();
+        return encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new CapturingOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    private BodyCapture captureForWrite() {
+        if (capture == null && (captureAll || getStatus() >= 400)) {
+            capture = new BodyCapture(limit);
+        }
+        return capture;
+    }
+
+    private final class CapturingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private boolean decided;
+        private BodyCapture target;
+
+        private CapturingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            BodyCapture c = target();
+            if (c != null) {
+                c.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            BodyCapture c = target();
+            if (c != null) {
+                c.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+
+        private BodyCapture target() {
+            if (!decided) {
+                target = captureForWrite();
+                decided = true;
+            }
+            return target;
+        }
+    }
+}
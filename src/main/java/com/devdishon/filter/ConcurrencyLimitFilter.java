@@ -0,0 +1,97 @@
+package com.devdishon.filter;
+
+import com.devdishon.dto.ErrorResponse;
+import com.devdishon.filter.concurrency.ConcurrencyLimiter;
+import com.devdishon.filter.concurrency.ConcurrencyLimiters;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sheds load before it reaches the database connection pool.
+ * Each route group has an adaptive limit on requests in flight; once it is reached, new requests
+ * get an immediate 503 with {@code Retry-After} instead of queueing for a connection. Runs right
+ * after request logging and before the security chain, so rejected requests are still logged but
+ * cost no token parsing. Server errors count as overload signals and shrink the limit.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private final ConcurrencyLimiters limiters;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int retryAfterSeconds;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimiters limiters,
+                                  ObjectMapper objectMapper,
+                                  @Value("${app.concurrency-limit.enabled:true}") boolean enabled,
+                                  @Value("${app.concurrency-limit.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.limiters = limiters;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        ConcurrencyLimiter limiter = limiters.forRequest(request.getMethod(), request.getRequestURI());
+        if (limiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        int inflight = limiter.tryAcquire();
+        if (inflight < 0) {
+            reject(request, response, limiter);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            filterChain.doFilter(request, response);
+            dropped = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            limiter.release(inflight, System.nanoTime() - start, dropped);
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response,
+                        ConcurrencyLimiter limiter) throws IOException {
+        logger.debug("Shedding {} {}: {} limit {} reached", request.getMethod(), request.getRequestURI(),
+                limiter.getGroup().key(), limiter.getLimit());
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ErrorResponse errorResponse = new ErrorResponse(
+                status.value(),
+                status.getReasonPhrase(),
+                "Server is at capacity, please retry shortly",
+                request.getRequestURI()
+        );
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
@@ -0,0 +1,50 @@
+package com.devdishon.filter;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Correlation id generation and the MDC keys that carry request context in logs.
+ * Ids are 16 hex characters (64 random bits) from {@link ThreadLocalRandom}, which needs no
+ * shared state, unlike {@code UUID.randomUUID()} and its shared {@code SecureRandom}.
+ * They only need to be unique enough to tell requests apart in logs, not unguessable.
+ */
+public final class CorrelationIds {
+
+    public static final String HEADER = "X-Correlation-ID";
+    public static final String MDC_KEY = "correlationId";
+    public static final String USER_MDC_KEY = "userEmail";
+
+    private static final int MAX_INBOUND_LENGTH = 64;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private CorrelationIds() {
+    }
+
+    public static String next() {
+        long bits = ThreadLocalRandom.current().nextLong();
+        char[] chars = new char[16];
+        for (int i = 15; i >= 0; i--) {
+            chars[i] = HEX[(int) (bits & 0xF)];
+            bits >>>= 4;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Returns true if a client-supplied id is safe to echo into headers and logs.
+     */
+    public static boolean isValid(String correlationId) {
+        if (correlationId == null || correlationId.isEmpty() || correlationId.length() > MAX_INBOUND_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < correlationId.length(); i++) {
+            char c = correlationId.charAt(i);
+            boolean allowed = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.';
+            if (!allowed) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
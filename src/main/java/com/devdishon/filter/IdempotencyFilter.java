@@ -0,0 +1,223 @@
+package com.devdishon.filter;
+
+import com.devdishon.dto.ErrorResponse;
+import com.devdishon.service.idempotency.IdempotencyClaim;
+import com.devdishon.service.idempotency.IdempotencyStore;
+import com.devdishon.service.idempotency.IdempotentResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Makes POST requests carrying an {@code Idempotency-Key} header safe to retry.
+ * The first request with a key runs and its response is recorded; retries with the same key and
+ * body get the recorded response, and concurrent duplicates wait for the first one instead of
+ * reaching the service. Keys are scoped to the authenticated user.
+ * Registered as a plain servlet filter, so it runs after the security chain has authenticated the request.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyFilter.class);
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Set<String> paths;
+    private final Duration waitTimeout;
+    private final int maxBodyBytes;
+
+    public IdempotencyFilter(IdempotencyStore store,
+                             ObjectMapper objectMapper,
+                             @Value("${app.idempotency.enabled:true}") boolean enabled,
+                             @Value("${app.idempotency.paths:/api/v1/appointments,/api/v1/medical-records,/api/v1/patients}") String[] paths,
+                             @Value("${app.idempotency.wait-timeout:10s}") Duration waitTimeout,
+                             @Value("${app.idempotency.max-body-bytes:1048576}") int maxBodyBytes) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.paths = Set.of(paths);
+        this.waitTimeout = waitTimeout;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || !"POST".equals(request.getMethod())
+                || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null
+                || !paths.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(request, response, HttpStatus.BAD_REQUEST,
+                    IDEMPOTENCY_KEY_HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body.length > maxBodyBytes) {
+            writeError(request, response, HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Request body exceeds " + maxBodyBytes + " bytes");
+            return;
+        }
+        CachedBodyRequestWrapper wrappedRequest = new CachedBodyRequestWrapper(request, body);
+        String scopedKey = currentUser() + ":" + key;
+        String fingerprint = fingerprint(request, body);
+
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        try {
+            while (true) {
+                IdempotencyClaim claim = store.claim(scopedKey, fingerprint);
+                switch (claim.outcome()) {
+                    case ACQUIRED -> {
+                        execute(wrappedRequest, response, filterChain, scopedKey, claim.token());
+                        return;
+                    }
+                    case COMPLETED -> {
+                        replay(response, claim.response());
+                        return;
+                    }
+                    case MISMATCH -> {
+                        writeError(request, response, HttpStatus.UNPROCESSABLE_ENTITY,
+                                IDEMPOTENCY_KEY_HEADER + " was already used for a different request");
+                        return;
+                    }
+                    case FULL -> {
+                        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                        writeError(request, response, HttpStatus.SERVICE_UNAVAILABLE,
+                                "Too many requests with an " + IDEMPOTENCY_KEY_HEADER + " are in progress");
+                        return;
+                    }
+                    case IN_PROGRESS -> {
+                        Duration remaining = Duration.ofNanos(deadline - System.nanoTime());
+                        if (remaining.isNegative() || remaining.isZero()) {
+                            writeError(request, response, HttpStatus.CONFLICT,
+                                    "A request with this " + IDEMPOTENCY_KEY_HEADER + " is still being processed");
+                            return;
+                        }
+                        Optional<IdempotentResponse> completed = store.await(scopedKey, remaining);
+                        if (completed.isPresent()) {
+                            replay(response, completed.get());
+                            return;
+                        }
+                        // The first request failed and released the key, or we timed out; claim again
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writeError(request, response, HttpStatus.SERVICE_UNAVAILABLE,
+                    "Interrupted while waiting for a duplicate request to finish");
+        }
+    }
+
+    private void execute(CachedBodyRequestWrapper request, HttpServletResponse response,
+                         FilterChain filterChain, String scopedKey, String token) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrappedResponse = new ContentCachingResponseWrapper(response);
+        boolean recorded = false;
+        try {
+            filterChain.doFilter(request, wrappedResponse);
+            int status = wrappedResponse.getStatus();
+            if (isReplayable(status)) {
+                store.complete(scopedKey, token, new IdempotentResponse(
+                        status, wrappedResponse.getContentType(), wrappedResponse.getContentAsByteArray()));
+                recorded = true;
+            }
+        } finally {
+            if (!recorded) {
+                store.release(scopedKey, token);
+            }
+            wrappedResponse.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Server errors, conflicts and throttling are transient, so those responses are not
+     * recorded and a retry runs the request again.
+     */
+    private boolean isReplayable(int status) {
+        return status < 500
+                && status != HttpStatus.CONFLICT.value()
+                && status != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private void replay(HttpServletResponse response, IdempotentResponse recorded) throws IOException {
+        logger.debug("Replaying recorded response with status {}", recorded.status());
+        response.setStatus(recorded.status());
+        if (recorded.contentType() != null) {
+            response.setContentType(recorded.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (recorded.body() != null) {
+            response.setContentLength(recorded.body().length);
+            response.getOutputStream().write(recorded.body());
+        }
+    }
+
+    private void writeError(HttpServletRequest request, HttpServletResponse response,
+                            HttpStatus status, String message) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setStatus(status.value());
+        ErrorResponse errorResponse = new ErrorResponse(
+                status.value(),
+                status.getReasonPhrase(),
+                message,
+                request.getRequestURI()
+        );
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    private String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : "anonymous";
+    }
+
+    private static String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) ' ');
+            digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+            if (request.getQueryString() != null) {
+                digest.update((byte) '?');
+                digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) '\n');
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
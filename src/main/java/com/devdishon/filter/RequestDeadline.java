@@ -0,0 +1,92 @@
+package com.devdishon.filter;
+
+import com.devdishon.exception.DeadlineExceededException;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * The point in time by which the current request must be answered, bound to the request thread
+ * by {@link RequestDeadlineFilter} (or the gRPC interceptor). Transactions started on the thread take their timeout from it
+ * (see {@code DeadlineAwareJpaTransactionManager}), so queries stop at the deadline instead of
+ * running on after the client has given up.
+ */
+public final class RequestDeadline {
+
+    public static final String DEADLINE_HEADER = "X-Request-Deadline";
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+    private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long expiresAtNanos;
+    private volatile boolean cancelled;
+
+    private RequestDeadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public static RequestDeadline after(Duration timeout) {
+        return new RequestDeadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * Returns the deadline of the request being handled on this thread, or null outside a request.
+     */
+    public static RequestDeadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Throws if the current request's deadline has passed, so callers can stop before starting
+     * work whose result nobody will read. Does nothing outside a request.
+     */
+    public static void checkNotExpired(String operation) {
+        RequestDeadline deadline = CURRENT.get();
+        if (deadline != null && deadline.isExpired()) {
+            throw new DeadlineExceededException("Request deadline exceeded before " + operation);
+        }
+    }
+
+    /**
+     * Binds a deadline to the calling thread. Entry points other than the servlet filter (gRPC)
+     * bind around each piece of work they run for a call and unbind afterwards.
+     */
+    public static void bind(RequestDeadline deadline) {
+        CURRENT.set(deadline);
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Runs work without the calling thread's deadline and rebinds it afterwards, for batch jobs that
+     * a request merely starts: their transactions must not inherit the request's timeout.
+     */
+    public static <T> T detached(Supplier<T> work) {
+        RequestDeadline deadline = CURRENT.get();
+        CURRENT.remove();
+        try {
+            return work.get();
+        } finally {
+            if (deadline != null) {
+                CURRENT.set(deadline);
+            }
+        }
+    }
+
+    public long remainingMillis() {
+        return cancelled ? 0 : Duration.ofNanos(expiresAtNanos - System.nanoTime()).toMillis();
+    }
+
+    public boolean isExpired() {
+        return remainingMillis() <= 0;
+    }
+
+    /**
+     * Expires the deadline early, e.g. because the client disconnected.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+}
@@ -0,0 +1,169 @@
+package com.devdishon.filter;
+
+import com.devdishon.dto.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Gives every API request a deadline: the route's default timeout, shortened by the client's
+ * {@code X-Request-Timeout} (a duration such as {@code 2000} ms or {@code 2s}) or
+ * {@code X-Request-Deadline} (an epoch-millisecond or ISO-8601 instant). Clients can only
+ * shorten the server's limit, never extend it. Requests that arrive already expired get 504
+ * without being handled. If writing the response fails because the client went away, the
+ * deadline is cancelled so no further transactions start for that request.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestDeadlineFilter.class);
+
+    private static final String API_PREFIX = "/api/";
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Duration defaultTimeout;
+    private final Map<String, Duration> routeTimeouts;
+
+    public RequestDeadlineFilter(ObjectMapper objectMapper,
+                                 @Value("${app.request-deadline.enabled:true}") boolean enabled,
+                                 @Value("${app.request-deadline.default-timeout:30s}") Duration defaultTimeout,
+                                 @Value("${app.request-deadline.route-timeouts:}") String[] routeTimeouts) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.defaultTimeout = defaultTimeout;
+        this.routeTimeouts = parseRouteTimeouts(routeTimeouts);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith(API_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Duration timeout;
+        try {
+            timeout = effectiveTimeout(request);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            writeError(request, response, HttpStatus.BAD_REQUEST, e.getMessage());
+            return;
+        }
+        if (timeout.isNegative() || timeout.isZero()) {
+            writeError(request, response, HttpStatus.GATEWAY_TIMEOUT, "Request deadline already passed");
+            return;
+        }
+
+        RequestDeadline deadline = RequestDeadline.after(timeout);
+        RequestDeadline.bind(deadline);
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException e) {
+            // Most likely the client disconnected mid-response; stop any work still to come
+            deadline.cancel();
+            throw e;
+        } finally {
+            RequestDeadline.unbind();
+        }
+    }
+
+    Duration effectiveTimeout(HttpServletRequest request) {
+        Duration timeout = routeTimeout(request.getRequestURI());
+        String timeoutHeader = request.getHeader(RequestDeadline.TIMEOUT_HEADER);
+        if (timeoutHeader != null && !timeoutHeader.isBlank()) {
+            timeout = min(timeout, parseTimeout(timeoutHeader.trim()));
+        }
+        String deadlineHeader = request.getHeader(RequestDeadline.DEADLINE_HEADER);
+        if (deadlineHeader != null && !deadlineHeader.isBlank()) {
+            timeout = min(timeout, Duration.between(Instant.now(), parseInstant(deadlineHeader.trim())));
+        }
+        return timeout;
+    }
+
+    private Duration routeTimeout(String uri) {
+        for (Map.Entry<String, Duration> route : routeTimeouts.entrySet()) {
+            String prefix = route.getKey();
+            if (uri.equals(prefix) || uri.startsWith(prefix + "/")) {
+                return route.getValue();
+            }
+        }
+        return defaultTimeout;
+    }
+
+    private static Duration parseTimeout(String value) {
+        if (value.chars().allMatch(Character::isDigit)) {
+            return Duration.ofMillis(Long.parseLong(value));
+        }
+        return DurationStyle.detectAndParse(value);
+    }
+
+    private static Instant parseInstant(String value) {
+        if (value.chars().allMatch(Character::isDigit)) {
+            return Instant.ofEpochMilli(Long.parseLong(value));
+        }
+        return Instant.parse(value);
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    /**
+     * Parses {@code /path/prefix=duration} entries, longest prefix first so the most specific route wins.
+     */
+    private static Map<String, Duration> parseRouteTimeouts(String[] entries) {
+        Map<String, Duration> parsed = new LinkedHashMap<>();
+        for (String entry : entries) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.lastIndexOf('=');
+            if (separator <= 0) {
+                throw new IllegalStateException("Route timeout must look like /path=duration: " + entry);
+            }
+            parsed.put(entry.substring(0, separator).trim(), DurationStyle.detectAndParse(entry.substring(separator + 1).trim()));
+        }
+        Map<String, Duration> sorted = new LinkedHashMap<>();
+        parsed.entrySet().stream()
+                .sorted(Comparator.comparingInt((Map.Entry<String, Duration> e) -> e.getKey().length()).reversed())
+                .forEach(e -> sorted.put(e.getKey(), e.getValue()));
+        return sorted;
+    }
+
+    private void writeError(HttpServletRequest request, HttpServletResponse response,
+                            HttpStatus status, String message) throws IOException {
+        logger.debug("Rejecting {} {}: {}", request.getMethod(), request.getRequestURI(), message);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setStatus(status.value());
+        ErrorResponse errorResponse = new ErrorResponse(
+                status.value(),
+                status.getReasonPhrase(),
+                message,
+                request.getRequestURI()
+        );
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
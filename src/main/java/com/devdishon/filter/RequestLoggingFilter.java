@@ -1,38 +1,79 @@
 package com.devdishon.filter;
 
+import com.devdishon.filter.accesslog.AccessLogPolicy;
+import com.devdishon.filter.accesslog.AsyncAccessLog;
+import com.devdishon.filter.accesslog.RouteStatsAggregator;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.util.ContentCachingRequestWrapper;
-import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.io.IOException;
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Filter that logs all incoming HTTP requests and outgoing responses.
  * Captures user information, request details, and response status for audit purposes.
+ * Bodies are not buffered: by default only metadata is logged, and the first bytes of the
+ * request and response body can be copied on the fly for error responses and a sample of requests.
+ * Bodies of {@code /api/v1/auth} (credentials, tokens) are never captured, and neither are those of
+ * the {@code app.request-logging.body-excluded-paths} routes, which carry patient data. On those
+ * routes the query string is logged with its values redacted, since searches such as
+ * {@code /api/v1/patients/search?q=} put names, phone numbers and clinical terms there.
+ * Each logged exchange becomes one event on the {@link AsyncAccessLog}, so no log I/O happens on the
+ * request thread. Every exchange is also counted in per-route aggregates, and the
+ * {@link AccessLogPolicy} decides whether it additionally gets its own line.
  */
 @Component
 @Order(Ordered.HIGHEST_PRECEDENCE)
 public class RequestLoggingFilter extends OncePerRequestFilter {
 
-    private static final Logger accessLogger = LoggerFactory.getLogger("ACCESS_LOG");
-    private static final Logger logger = LoggerFactory.getLogger(RequestLoggingFilter.class);
-
-    private static final String CORRELATION_ID = "correlationId";
-    private static final String USER_EMAIL = "userEmail";
     private static final String REQUEST_URI = "requestUri";
+    private static final String AUTH_PATH = "/api/v1/auth";
+    private static final String REDACTED = "[redacted]";
+
+    private final AsyncAccessLog accessLog;
+    private final AccessLogPolicy policy;
+    private final RouteStatsAggregator routeStats;
+    private final double bodySampleRate;
+    private final boolean captureErrorBodies;
+    private final int maxBodyBytes;
+    private final List<String> bodyExcludedPaths;
+
+    public RequestLoggingFilter(AsyncAccessLog accessLog,
+                                AccessLogPolicy policy,
+                                RouteStatsAggregator routeStats,
+                                @Value("${app.request-logging.body-sample-rate:0.0}") double bodySampleRate,
+                                @Value("${app.request-logging.capture-error-bodies:false}") boolean captureErrorBodies,
+                                @Value("${app.request-logging.max-body-bytes:2048}") int maxBodyBytes,
+                                @Value("${app.request-logging.body-excluded-paths:/api/v1/patients,/api/v1/medical-records,/api/v1/appointments,/api/v1/waitlist,/api/v1/users}")
+                                String[] bodyExcludedPaths) {
+        this.accessLog = accessLog;
+        this.policy = policy;
+        this.routeStats = routeStats;
+        this.bodySampleRate = bodySampleRate;
+        this.captureErrorBodies = captureErrorBodies;
+        this.maxBodyBytes = maxBodyBytes;
+        List<String> excluded = new ArrayList<>();
+        excluded.add(AUTH_PATH);
+        for (String path : bodyExcludedPaths) {
+            if (!path.isBlank()) {
+                excluded.add(path.strip().replaceAll("/+$", ""));
+            }
+        }
+        this.bodyExcludedPaths = List.copyOf(excluded);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -48,22 +89,25 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
         // Generate correlation ID for request tracking
         String correlationId = generateCorrelationId(request);
 
-        // Wrap request and response for content caching
-        ContentCachingRequestWrapper wrappedRequest = new ContentCachingRequestWrapper(request);
-        ContentCachingResponseWrapper wrappedResponse = new ContentCachingResponseWrapper(response);
+        // Wrap only when a body may be logged; the wrappers copy a capped prefix and never buffer
+        boolean sampled = bodySampleRate > 0 && ThreadLocalRandom.current().nextDouble() < bodySampleRate;
+        boolean bodiesAllowed = !isBodyExcluded(request.getRequestURI());
+        BodyCaptureRequestWrapper capturedRequest = bodiesAllowed && (sampled || (captureErrorBodies && hasBody(request)))
+                ? new BodyCaptureRequestWrapper(request, maxBodyBytes) : null;
+        BodyCaptureResponseWrapper capturedResponse = bodiesAllowed && (sampled || captureErrorBodies)
+                ? new BodyCaptureResponseWrapper(response, maxBodyBytes, sampled) : null;
+        HttpServletRequest wrappedRequest = capturedRequest != null ? capturedRequest : request;
+        HttpServletResponse wrappedResponse = capturedResponse != null ? capturedResponse : response;
 
         long startTime = System.currentTimeMillis();
 
         try {
             // Set MDC context for logging
-            MDC.put(CORRELATION_ID, correlationId);
+            MDC.put(CorrelationIds.MDC_KEY, correlationId);
             MDC.put(REQUEST_URI, request.getRequestURI());
 
             // Add correlation ID to response header
-            response.setHeader("X-Correlation-ID", correlationId);
-
-            // Log incoming request
-            logRequest(wrappedRequest, correlationId);
+            response.setHeader(CorrelationIds.HEADER, correlationId);
 
             // Process the request
             filterChain.doFilter(wrappedRequest, wrappedResponse);
@@ -73,13 +117,14 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
 
             // Get user info after authentication is processed
             String userEmail = getUserEmail();
-            MDC.put(USER_EMAIL, userEmail);
-
-            // Log outgoing response
-            logResponse(wrappedRequest, wrappedResponse, correlationId, userEmail, duration);
+            MDC.put(CorrelationIds.USER_MDC_KEY, userEmail);
 
-            // Copy response body to actual response
-            wrappedResponse.copyBodyToResponse();
+            // Aggregate every exchange; publish a line only if the policy asks for it
+            routeStats.record(request.getMethod(), getRoute(request), response.getStatus(), duration);
+            if (policy.shouldLog(response.getStatus(), duration, sampled)) {
+                logExchange(request, response.getStatus(), correlationId, userEmail, duration, sampled,
+                        bodiesAllowed, capturedRequest, capturedResponse);
+            }
 
             // Clear MDC context
             MDC.clear();
@@ -96,11 +141,20 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
                uri.equals("/");
     }
 
+    private boolean isBodyExcluded(String uri) {
+        for (String path : bodyExcludedPaths) {
+            if (uri.equals(path) || uri.startsWith(path + "/")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private String generateCorrelationId(HttpServletRequest request) {
-        // Check if correlation ID is provided in header
-        String correlationId = request.getHeader("X-Correlation-ID");
-        if (correlationId == null || correlationId.isBlank()) {
-            correlationId = UUID.randomUUID().toString().substring(0, 8);
+        // Reuse the caller's correlation ID if it is safe to echo into headers and logs
+        String correlationId = request.getHeader(CorrelationIds.HEADER);
+        if (!CorrelationIds.isValid(correlationId)) {
+            correlationId = CorrelationIds.next();
         }
         return correlationId;
     }
@@ -114,46 +168,66 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
         return "anonymous";
     }
 
-    private void logRequest(ContentCachingRequestWrapper request, String correlationId) {
-        String queryString = request.getQueryString();
-        String path = queryString != null ?
-            request.getRequestURI() + "?" + queryString :
-            request.getRequestURI();
-
-        accessLogger.info("[{}] --> {} {} | IP: {} | User-Agent: {}",
-                correlationId,
-                request.getMethod(),
-                path,
-                getClientIp(request),
-                request.getHeader("User-Agent"));
+    private String getRoute(HttpServletRequest request) {
+        // Use the matched handler pattern so /patients/1 and /patients/2 aggregate together
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "unmatched";
     }
 
-    private void logResponse(ContentCachingRequestWrapper request,
-                            ContentCachingResponseWrapper response,
-                            String correlationId,
-                            String userEmail,
-                            long duration) {
-        int status = response.getStatus();
-        String statusCategory = getStatusCategory(status);
+    private boolean hasBody(HttpServletRequest request) {
+        return request.getContentLengthLong() > 0 || request.getHeader("Transfer-Encoding") != null;
+    }
 
-        accessLogger.info("[{}] <-- {} {} | Status: {} {} | User: {} | Duration: {}ms",
-                correlationId,
+    private void logExchange(HttpServletRequest request,
+                             int status,
+                             String correlationId,
+                             String userEmail,
+                             long duration,
+                             boolean sampled,
+                             boolean bodiesAllowed,
+                             BodyCaptureRequestWrapper capturedRequest,
+                             BodyCaptureResponseWrapper capturedResponse) {
+        String requestBody = null;
+        String responseBody = null;
+        if (sampled || status >= 400) {
+            if (capturedRequest != null && !capturedRequest.getCapture().isEmpty()) {
+                requestBody = capturedRequest.getCapture().toString(capturedRequest.charset());
+            }
+            if (capturedResponse != null && capturedResponse.getCapture() != null) {
+                responseBody = capturedResponse.getCapture().toString(capturedResponse.charset());
+            }
+        }
+        accessLog.publish(
                 request.getMethod(),
                 request.getRequestURI(),
+                bodiesAllowed ? request.getQueryString() : redactQuery(request.getQueryString()),
                 status,
-                statusCategory,
                 userEmail,
-                duration);
-
-        // Log additional details for errors
-        if (status >= 400) {
-            logger.warn("[{}] Error response: {} {} returned {} for user {}",
-                    correlationId,
-                    request.getMethod(),
-                    request.getRequestURI(),
-                    status,
-                    userEmail);
+                duration,
+                correlationId,
+                getClientIp(request),
+                request.getHeader("User-Agent"),
+                requestBody,
+                responseBody);
+    }
+
+    /**
+     * Keeps the parameter names, so the log still shows which filters a request used, and replaces
+     * every value.
+     */
+    static String redactQuery(String queryString) {
+        if (queryString == null || queryString.isEmpty()) {
+            return queryString;
+        }
+        StringBuilder redacted = new StringBuilder(queryString.length());
+        for (String parameter : queryString.split("&")) {
+            if (!redacted.isEmpty()) {
+                redacted.append('&');
+            }
+            int equals = parameter.indexOf('=');
+            redacted.append(equals < 0 ? parameter : parameter.substring(0, equals)).append('=').append(REDACTED);
         }
+        return redacted.toString();
     }
 
     private String getClientIp(HttpServletRequest request) {
@@ -167,12 +241,4 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
         }
         return request.getRemoteAddr();
     }
-
-    private String getStatusCategory(int status) {
-        if (status >= 500) return "SERVER_ERROR";
-        if (status >= 400) return "CLIENT_ERROR";
-        if (status >= 300) return "REDIRECT";
-        if (status >= 200) return "SUCCESS";
-        return "INFO";
-    }
 }
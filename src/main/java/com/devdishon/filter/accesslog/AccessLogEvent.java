@@ -0,0 +1,34 @@
+package com.devdishon.filter.accesslog;
+
+/**
+ * Preallocated, reusable ring buffer slot describing one finished request.
+ * Fields are written by the publishing request thread and read by the writer thread;
+ * the ring buffer's publish/consume ordering makes those accesses safe.
+ */
+final class AccessLogEvent {
+
+    long timestampMillis;
+    String method;
+    String uri;
+    String query;
+    int status;
+    String user;
+    long durationMillis;
+    String correlationId;
+    String clientIp;
+    String userAgent;
+    String requestBody;
+    String responseBody;
+
+    void clear() {
+        method = null;
+        uri = null;
+        query = null;
+        user = null;
+        correlationId = null;
+        clientIp = null;
+        userAgent = null;
+        requestBody = null;
+        responseBody = null;
+    }
+}
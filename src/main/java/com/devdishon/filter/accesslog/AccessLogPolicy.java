@@ -0,0 +1,37 @@
+package com.devdishon.filter.accesslog;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which finished requests get an individual access log line.
+ * In {@link Mode#FULL} every request is logged. In {@link Mode#SAMPLED} errors and slow requests
+ * are always logged and other requests only at the success sample rate; per-route aggregates
+ * cover the rest.
+ */
+public class AccessLogPolicy {
+
+    public enum Mode {
+        FULL,
+        SAMPLED
+    }
+
+    private final Mode mode;
+    private final long slowThresholdMillis;
+    private final double successSampleRate;
+
+    public AccessLogPolicy(Mode mode, long slowThresholdMillis, double successSampleRate) {
+        this.mode = mode;
+        this.slowThresholdMillis = slowThresholdMillis;
+        this.successSampleRate = successSampleRate;
+    }
+
+    /**
+     * @param forced true if the request must be logged regardless of mode, e.g. because its bodies were sampled
+     */
+    public boolean shouldLog(int status, long durationMillis, boolean forced) {
+        if (mode == Mode.FULL || forced || status >= 400 || durationMillis >= slowThresholdMillis) {
+            return true;
+        }
+        return successSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < successSampleRate;
+    }
+}
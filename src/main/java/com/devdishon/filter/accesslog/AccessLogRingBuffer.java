@@ -0,0 +1,99 @@
+package com.devdishon.filter.accesslog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bounded multi-producer, single-consumer ring of preallocated {@link AccessLogEvent} slots.
+ * Producers claim a sequence with a CAS, fill the slot and publish it by storing the sequence
+ * in the slot's marker; the consumer reads slots in sequence order while their marker matches.
+ * Publishing never blocks: when the ring is full the event is dropped and counted.
+ */
+final class AccessLogRingBuffer {
+
+    private final AccessLogEvent[] slots;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    AccessLogRingBuffer(int requestedCapacity) {
+        int capacity = requestedCapacity <= 2 ? 2 : Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.slots = new AccessLogEvent[capacity];
+        this.published = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new AccessLogEvent();
+            published.set(i, -1);
+        }
+    }
+
+    boolean tryPublish(long timestampMillis, String method, String uri, String query, int status, String user,
+                       long durationMillis, String correlationId, String clientIp, String userAgent,
+                       String requestBody, String responseBody) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed.get() >= slots.length) {
+                dropped.increment();
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        int index = (int) (sequence & mask);
+        AccessLogEvent event = slots[index];
+        event.timestampMillis = timestampMillis;
+        event.method = method;
+        event.uri = uri;
+        event.query = query;
+        event.status = status;
+        event.user = user;
+        event.durationMillis = durationMillis;
+        event.correlationId = correlationId;
+        event.clientIp = clientIp;
+        event.userAgent = userAgent;
+        event.requestBody = requestBody;
+        event.responseBody = responseBody;
+        published.lazySet(index, sequence);
+        return true;
+    }
+
+    /**
+     * Hands up to {@code max} published events to {@code handler} in order and frees their slots.
+     * Must only be called from the single consumer thread.
+     */
+    int drain(Consumer<AccessLogEvent> handler, int max) {
+        long next = consumed.get();
+        int count = 0;
+        while (count < max) {
+            int index = (int) (next & mask);
+            if (published.get(index) != next) {
+                break;
+            }
+            AccessLogEvent event = slots[index];
+            handler.accept(event);
+            event.clear();
+            next++;
+            count++;
+        }
+        if (count > 0) {
+            consumed.lazySet(next);
+        }
+        return count;
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    long backlog() {
+        return Math.max(0, claimed.get() - consumed.get());
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,182 @@
+package com.devdishon.filter.accesslog;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Structured access log written off the request thread.
+ * Request threads publish into an {@link AccessLogRingBuffer}; a single background thread drains it
+ * in batches and writes one JSON object per line. If the writer falls behind, new events are
+ * dropped and counted instead of slowing requests down. Low-volume summary lines from
+ * {@link RouteStatsAggregator} go through a separate queue to the same writer.
+ */
+public class AsyncAccessLog implements MeterBinder, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncAccessLog.class);
+
+    private final AccessLogRingBuffer ring;
+    private final int batchSize;
+    private final long idleWaitNanos;
+    private final Writer writer;
+    private final StringBuilder line = new StringBuilder(512);
+    private final Queue<String> summaries = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean running;
+    private volatile long written;
+    private volatile long writeErrors;
+    private Thread consumer;
+
+    public AsyncAccessLog(int capacity, int batchSize, long idleWaitMillis, Writer writer) {
+        this.ring = new AccessLogRingBuffer(capacity);
+        this.batchSize = batchSize;
+        this.idleWaitNanos = TimeUnit.MILLISECONDS.toNanos(idleWaitMillis);
+        this.writer = writer;
+    }
+
+    /**
+     * Records a finished request. Never blocks; returns false if the event was dropped.
+     */
+    public boolean publish(String method, String uri, String query, int status, String user, long durationMillis,
+                           String correlationId, String clientIp, String userAgent,
+                           String requestBody, String responseBody) {
+        return ring.tryPublish(System.currentTimeMillis(), method, uri, query, status, user, durationMillis,
+                correlationId, clientIp, userAgent, requestBody, responseBody);
+    }
+
+    /**
+     * Queues a preformatted JSON line (ending in a newline) for the writer thread.
+     */
+    public void publishSummary(String jsonLine) {
+        summaries.add(jsonLine);
+    }
+
+    public void start() {
+        running = true;
+        consumer = Thread.ofPlatform().name("access-log-writer").daemon().start(this::run);
+    }
+
+    /**
+     * Stops the writer thread after it has written everything published so far.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+            consumer.join(TimeUnit.SECONDS.toMillis(5));
+            if (consumer.isAlive()) {
+                logger.warn("Access log writer did not stop; {} events not written", ring.backlog());
+                return;
+            }
+        }
+        while (drain() > 0) {
+            // flush whatever was published before shutdown
+        }
+    }
+
+    /**
+     * Writes one batch of pending events. Called by the writer thread; exposed for tests.
+     */
+    public int drain() {
+        line.setLength(0);
+        int count = ring.drain(this::appendJson, batchSize);
+        String summary;
+        while ((summary = summaries.poll()) != null) {
+            line.append(summary);
+            count++;
+        }
+        if (count > 0) {
+            try {
+                writer.append(line);
+                writer.flush();
+                written += count;
+            } catch (IOException e) {
+                writeErrors++;
+                logger.error("Failed to write {} access log events: {}", count, e.getMessage());
+            }
+        }
+        return count;
+    }
+
+    public long droppedCount() {
+        return ring.dropped();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("hms.access_log.events.written", this, log -> log.written)
+                .description("Access log events written")
+                .register(registry);
+        FunctionCounter.builder("hms.access_log.events.dropped", this, log -> log.ring.dropped())
+                .description("Access log events dropped because the ring buffer was full")
+                .register(registry);
+        FunctionCounter.builder("hms.access_log.write.errors", this, log -> log.writeErrors)
+                .description("Failed access log batch writes")
+                .register(registry);
+        Gauge.builder("hms.access_log.backlog", ring, AccessLogRingBuffer::backlog)
+                .description("Access log events waiting to be written")
+                .register(registry);
+    }
+
+    private void run() {
+        while (running) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(this, idleWaitNanos);
+            }
+        }
+    }
+
+    private void appendJson(AccessLogEvent event) {
+        line.append("{\"timestamp\":\"").append(Instant.ofEpochMilli(event.timestampMillis)).append('"');
+        line.append(",\"type\":\"request\"");
+        appendField("correlationId", event.correlationId);
+        appendField("method", event.method);
+        appendField("uri", event.uri);
+        appendField("query", event.query);
+        line.append(",\"status\":").append(event.status);
+        line.append(",\"durationMs\":").append(event.durationMillis);
+        appendField("user", event.user);
+        appendField("clientIp", event.clientIp);
+        appendField("userAgent", event.userAgent);
+        appendField("requestBody", event.requestBody);
+        appendField("responseBody", event.responseBody);
+        line.append("}\n");
+    }
+
+    private void appendField(String name, String value) {
+        if (value == null) {
+            return;
+        }
+        line.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+        line.append('"');
+    }
+}
@@ -0,0 +1,104 @@
+package com.devdishon.filter.accesslog;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-route request counts, latency percentiles and status mix, emitted as one summary line
+ * per route each interval. Routes are keyed by method and the matched handler pattern
+ * (e.g. {@code GET /api/v1/patients/{id}}), so the number of keys stays bounded.
+ */
+public class RouteStatsAggregator {
+
+    private static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    private final AsyncAccessLog accessLog;
+    private final boolean enabled;
+    private final Map<String, RouteStats> routes = new ConcurrentHashMap<>();
+    private volatile long intervalStartMillis = System.currentTimeMillis();
+
+    public RouteStatsAggregator(AsyncAccessLog accessLog, boolean enabled) {
+        this.accessLog = accessLog;
+        this.enabled = enabled;
+    }
+
+    public void record(String method, String route, int status, long durationMillis) {
+        if (!enabled) {
+            return;
+        }
+        RouteStats stats = routes.computeIfAbsent(method + " " + route, key -> new RouteStats());
+        stats.count.increment();
+        int statusClass = status / 100 - 1;
+        if (statusClass >= 0 && statusClass < STATUS_CLASSES.length) {
+            stats.statusCounts[statusClass].increment();
+        }
+        stats.latency.record(durationMillis);
+    }
+
+    @Scheduled(fixedRateString = "${app.access-log.summary-interval-ms:60000}",
+            initialDelayString = "${app.access-log.summary-interval-ms:60000}")
+    public void emitSummaries() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long intervalMillis = now - intervalStartMillis;
+        intervalStartMillis = now;
+        for (Map.Entry<String, RouteStats> entry : routes.entrySet()) {
+            String summary = summarize(entry.getKey(), entry.getValue(), now, intervalMillis);
+            if (summary != null) {
+                accessLog.publishSummary(summary);
+            }
+        }
+    }
+
+    /**
+     * Builds and resets one route's summary line; returns null if the route saw no requests.
+     */
+    String summarize(String route, RouteStats stats, long now, long intervalMillis) {
+        long count = stats.count.sumThenReset();
+        long[] latency = stats.latency.snapshotAndReset();
+        long[] statusCounts = new long[STATUS_CLASSES.length];
+        for (int i = 0; i < statusCounts.length; i++) {
+            statusCounts[i] = stats.statusCounts[i].sumThenReset();
+        }
+        if (count == 0) {
+            return null;
+        }
+        StringBuilder line = new StringBuilder(256)
+                .append("{\"timestamp\":\"").append(Instant.ofEpochMilli(now)).append('"')
+                .append(",\"type\":\"summary\"")
+                .append(",\"route\":\"").append(route.replace("\\", "\\\\").replace("\"", "\\\"")).append('"')
+                .append(",\"intervalMs\":").append(intervalMillis)
+                .append(",\"count\":").append(count)
+                .append(",\"p50Ms\":").append(LatencyHistogram.valueAtQuantile(latency, 0.50))
+                .append(",\"p99Ms\":").append(LatencyHistogram.valueAtQuantile(latency, 0.99))
+                .append(",\"maxMs\":").append(LatencyHistogram.maxValue(latency))
+                .append(",\"status\":{");
+        boolean first = true;
+        for (int i = 0; i < statusCounts.length; i++) {
+            if (statusCounts[i] > 0) {
+                line.append(first ? "" : ",").append('"').append(STATUS_CLASSES[i]).append("\":").append(statusCounts[i]);
+                first = false;
+            }
+        }
+        return line.append("}}\n").toString();
+    }
+
+    static final class RouteStats {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder[] statusCounts = new LongAdder[STATUS_CLASSES.length];
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        RouteStats() {
+            for (int i = 0; i < statusCounts.length; i++) {
+                statusCounts[i] = new LongAdder();
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.devdishon.filter.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-flight request counter for one {@link RouteGroup}, bounded by an adaptive {@link GradientLimit}.
+ */
+public class ConcurrencyLimiter {
+
+    private final RouteGroup group;
+    private final GradientLimit limit;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    public ConcurrencyLimiter(RouteGroup group, GradientLimit limit) {
+        this.group = group;
+        this.limit = limit;
+    }
+
+    /**
+     * Reserves a slot without waiting.
+     *
+     * @return the number of requests in flight including this one, or -1 if the limit is reached
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit.getLimit()) {
+                rejected.increment();
+                return -1;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Frees the slot taken by {@link #tryAcquire()} and feeds the request's latency into the limit.
+     */
+    public void release(int inflightAtStart, long rttNanos, boolean dropped) {
+        inflight.decrementAndGet();
+        limit.onSample(rttNanos, inflightAtStart, dropped);
+    }
+
+    public RouteGroup getGroup() {
+        return group;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
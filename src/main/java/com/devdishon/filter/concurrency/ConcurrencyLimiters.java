@@ -0,0 +1,74 @@
+package com.devdishon.filter.concurrency;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The limiter for each {@link RouteGroup}, and the rule that maps a request to its group.
+ * Exposes in-flight counts, limits and utilization as gauges so the autoscaler can add pods
+ * before requests start being shed.
+ */
+public class ConcurrencyLimiters implements MeterBinder {
+
+    private static final String API_PREFIX = "/api/";
+    private static final String AUTH_PREFIX = "/api/v1/auth/";
+
+    private final Map<RouteGroup, ConcurrencyLimiter> limiters;
+    private final List<String> exportPaths;
+
+    public ConcurrencyLimiters(Map<RouteGroup, ConcurrencyLimiter> limiters, List<String> exportPaths) {
+        this.limiters = Map.copyOf(limiters);
+        this.exportPaths = List.copyOf(exportPaths);
+    }
+
+    /**
+     * Returns the limiter for a request, or null for endpoints that are never limited
+     * (health checks, metrics, API docs).
+     */
+    public ConcurrencyLimiter forRequest(String method, String uri) {
+        if (!uri.startsWith(API_PREFIX)) {
+            return null;
+        }
+        return limiters.get(classify(method, uri));
+    }
+
+    RouteGroup classify(String method, String uri) {
+        if (uri.startsWith(AUTH_PREFIX)) {
+            return RouteGroup.AUTH;
+        }
+        for (String exportPath : exportPaths) {
+            if (uri.contains(exportPath)) {
+                return RouteGroup.EXPORTS;
+            }
+        }
+        return "GET".equals(method) || "HEAD".equals(method) ? RouteGroup.READS : RouteGroup.WRITES;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        limiters.forEach((group, limiter) -> {
+            Gauge.builder("hms.concurrency.inflight", limiter, ConcurrencyLimiter::getInflight)
+                    .description("Requests currently being processed")
+                    .tag("group", group.key())
+                    .register(registry);
+            Gauge.builder("hms.concurrency.limit", limiter, ConcurrencyLimiter::getLimit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("group", group.key())
+                    .register(registry);
+            Gauge.builder("hms.concurrency.utilization", limiter,
+                            l -> (double) l.getInflight() / l.getLimit())
+                    .description("In-flight requests as a fraction of the limit")
+                    .tag("group", group.key())
+                    .register(registry);
+            FunctionCounter.builder("hms.concurrency.rejected", limiter, ConcurrencyLimiter::getRejected)
+                    .description("Requests shed with 503 because the limit was reached")
+                    .tag("group", group.key())
+                    .register(registry);
+        });
+    }
+}
@@ -0,0 +1,79 @@
+package com.devdishon.filter.concurrency;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that follows observed latency, in the style of TCP congestion control.
+ * A slow-moving average of response times stands in for the uncongested latency. While samples
+ * stay close to it the limit grows by about its square root per sample; when they rise above it
+ * (requests queueing on the connection pool) the limit shrinks in proportion. A failed request
+ * cuts the limit multiplicatively (AIMD). Samples taken while less than half the limit is in use
+ * do not grow it, since they say nothing about how much more the backend can take.
+ */
+public class GradientLimit {
+
+    /** Samples averaged into the long-term latency. */
+    private static final int LONG_WINDOW = 600;
+    /** How far above the long-term latency a sample may be before the limit shrinks. */
+    private static final double TOLERANCE = 1.5;
+    /** Weight of each new estimate, to damp single noisy samples. */
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private double estimatedLimit;
+    private double longRttNanos;
+    private volatile int limit;
+
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalStateException("Concurrency limits must satisfy 1 <= min <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.limit = (int) estimatedLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Feeds one completed request into the estimate.
+     *
+     * @param rttNanos  how long the request took
+     * @param inflight  requests in flight when it started, itself included
+     * @param dropped   whether it failed in a way that suggests overload
+     */
+    public void onSample(long rttNanos, int inflight, boolean dropped) {
+        lock.lock();
+        try {
+            double next;
+            if (dropped) {
+                next = estimatedLimit * BACKOFF_RATIO;
+            } else {
+                double rtt = Math.max(rttNanos, 1);
+                longRttNanos = longRttNanos == 0 ? rtt : longRttNanos + (rtt - longRttNanos) / LONG_WINDOW;
+                if (longRttNanos / rtt > 2) {
+                    // Latency recovered well below the average; let the average catch up faster
+                    longRttNanos *= 0.95;
+                }
+                if (inflight < estimatedLimit / 2) {
+                    return;
+                }
+                double gradient = Math.clamp(TOLERANCE * longRttNanos / rtt, MIN_GRADIENT, 1.0);
+                double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+                next = estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING;
+            }
+            estimatedLimit = Math.clamp(next, minLimit, maxLimit);
+            limit = (int) estimatedLimit;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.devdishon.filter.concurrency;
+
+/**
+ * Groups of endpoints that get their own concurrency limit, so a burst of slow exports or
+ * writes cannot use up the capacity that cheap reads and logins need.
+ */
+public enum RouteGroup {
+
+    AUTH(20, 5, 100),
+    READS(50, 10, 400),
+    WRITES(20, 5, 200),
+    EXPORTS(4, 1, 16);
+
+    private final int defaultInitialLimit;
+    private final int defaultMinLimit;
+    private final int defaultMaxLimit;
+
+    RouteGroup(int defaultInitialLimit, int defaultMinLimit, int defaultMaxLimit) {
+        this.defaultInitialLimit = defaultInitialLimit;
+        this.defaultMinLimit = defaultMinLimit;
+        this.defaultMaxLimit = defaultMaxLimit;
+    }
+
+    /**
+     * Lower-case name used in property keys and metric tags.
+     */
+    public String key() {
+        return name().toLowerCase();
+    }
+
+    public int defaultInitialLimit() {
+        return defaultInitialLimit;
+    }
+
+    public int defaultMinLimit() {
+        return defaultMinLimit;
+    }
+
+    public int defaultMaxLimit() {
+        return defaultMaxLimit;
+    }
+}
@@ -0,0 +1,263 @@
+package com.devdishon.grpc;
+
+import com.devdishon.entity.Appointment;
+import com.devdishon.entity.AppointmentStatus;
+import com.devdishon.entity.AppointmentType;
+import com.devdishon.exception.DeadlineExceededException;
+import com.devdishon.filter.RequestDeadline;
+import com.devdishon.proto.ProtoMappers;
+import com.devdishon.proto.v1.AppointmentIdRequest;
+import com.devdishon.proto.v1.AppointmentList;
+import com.devdishon.proto.v1.AppointmentStatusRequest;
+import com.devdishon.proto.v1.AppointmentsGrpc;
+import com.devdishon.proto.v1.CreateAppointmentRequest;
+import com.devdishon.proto.v1.CreateAppointmentResult;
+import com.devdishon.proto.v1.CreateAppointmentsResponse;
+import com.devdishon.proto.v1.DateRangeRequest;
+import com.devdishon.proto.v1.DoctorIdRequest;
+import com.devdishon.proto.v1.PatientIdRequest;
+import com.devdishon.proto.v1.RescheduleAppointmentRequest;
+import com.devdishon.service.AppointmentService;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * gRPC front for {@link AppointmentService}. Each call goes through the same service methods,
+ * and so the same transactions and side effects (reminders, workload counters, waitlist
+ * backfill), as the REST endpoints. Authentication and error mapping happen in
+ * {@link JwtServerInterceptor}. The date range stream follows the client's flow control.
+ */
+@Component
+public class AppointmentsGrpcService extends AppointmentsGrpc.AppointmentsImplBase {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentsGrpcService.class);
+
+    // Upper bound on one wait for the client to catch up, between deadline and cancellation checks
+    private static final long READY_WAIT_MILLIS = 1000;
+
+    private final AppointmentService appointmentService;
+
+    public AppointmentsGrpcService(AppointmentService appointmentService) {
+        this.appointmentService = appointmentService;
+    }
+
+    @Override
+    public void createAppointment(CreateAppointmentRequest request,
+                                  StreamObserver<com.devdishon.proto.v1.Appointment> responseObserver) {
+        reply(responseObserver, ProtoMappers.toProto(create(request)));
+    }
+
+    @Override
+    public StreamObserver<CreateAppointmentRequest> createAppointments(
+            StreamObserver<CreateAppointmentsResponse> responseObserver) {
+        CreateAppointmentsResponse.Builder response = CreateAppointmentsResponse.newBuilder();
+        return new StreamObserver<>() {
+            private int index;
+
+            @Override
+            public void onNext(CreateAppointmentRequest request) {
+                // One transaction per appointment, so a rejected one does not undo the others
+                CreateAppointmentResult.Builder result = CreateAppointmentResult.newBuilder().setIndex(index++);
+                try {
+                    result.setAppointment(ProtoMappers.toProto(create(request)));
+                    response.setCreated(response.getCreated() + 1);
+                } catch (RuntimeException e) {
+                    result.setError(GrpcStatuses.of(e).getDescription());
+                    response.setFailed(response.getFailed() + 1);
+                }
+                response.addResults(result);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                logger.warn("Bulk appointment create aborted by the client after {} requests: {}", index, t.getMessage());
+            }
+
+            @Override
+            public void onCompleted() {
+                reply(responseObserver, response.build());
+            }
+        };
+    }
+
+    @Override
+    public void rescheduleAppointment(RescheduleAppointmentRequest request,
+                                      StreamObserver<com.devdishon.proto.v1.Appointment> responseObserver) {
+        LocalDateTime newDateTime = ProtoMappers.localDateTime(request.getAppointmentDateTime());
+        reply(responseObserver, ProtoMappers.toProto(appointmentService.rescheduleAppointment(request.getId(), newDateTime)));
+    }
+
+    @Override
+    public void cancelAppointment(AppointmentIdRequest request,
+                                  StreamObserver<com.devdishon.proto.v1.Appointment> responseObserver) {
+        reply(responseObserver, ProtoMappers.toProto(appointmentService.cancelAppointment(request.getId())));
+    }
+
+    @Override
+    public void getAppointment(AppointmentIdRequest request,
+                               StreamObserver<com.devdishon.proto.v1.Appointment> responseObserver) {
+        reply(responseObserver, ProtoMappers.toProto(appointmentService.getAppointmentById(request.getId())));
+    }
+
+    @Override
+    public void listAppointmentsByPatient(PatientIdRequest request, StreamObserver<AppointmentList> responseObserver) {
+        reply(responseObserver, list(appointmentService.getAppointmentsByPatientId(request.getPatientId())));
+    }
+
+    @Override
+    public void listAppointmentsByDoctor(DoctorIdRequest request, StreamObserver<AppointmentList> responseObserver) {
+        reply(responseObserver, list(appointmentService.getAppointmentsByDoctorId(request.getDoctorId())));
+    }
+
+    @Override
+    public void listAppointmentsByStatus(AppointmentStatusRequest request, StreamObserver<AppointmentList> responseObserver) {
+        AppointmentStatus status = AppointmentStatus.valueOf(request.getStatus());
+        reply(responseObserver, list(appointmentService.getAppointmentsByStatus(status)));
+    }
+
+    @Override
+    public void listUpcomingAppointments(PatientIdRequest request, StreamObserver<AppointmentList> responseObserver) {
+        reply(responseObserver, list(appointmentService.getUpcomingAppointmentsByPatientId(request.getPatientId())));
+    }
+
+    @Override
+    public void streamAppointmentsInRange(DateRangeRequest request,
+                                          StreamObserver<com.devdishon.proto.v1.Appointment> responseObserver) {
+        if (!request.hasStart() || !request.hasEnd()) {
+            throw new IllegalArgumentException("Both start and end are required");
+        }
+        LocalDateTime start = ProtoMappers.localDateTime(request.getStart());
+        LocalDateTime end = ProtoMappers.localDateTime(request.getEnd());
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("End must not be before start");
+        }
+        ServerCallStreamObserver<com.devdishon.proto.v1.Appointment> stream =
+                (ServerCallStreamObserver<com.devdishon.proto.v1.Appointment>) responseObserver;
+        Semaphore readySignal = new Semaphore(0);
+        stream.setOnReadyHandler(readySignal::release);
+        stream.setOnCancelHandler(readySignal::release);
+        // The cursor is read on a thread of its own: onReady callbacks are delivered in order with
+        // the call's other callbacks, so a handler blocked here would never hear of the client catching up
+        Runnable producer = inCallContext(() -> streamRange(start, end, stream, readySignal));
+        Thread.ofVirtual().name("grpc-appointment-range").start(producer);
+    }
+
+    /**
+     * Sends the range from the database cursor, writing a message only while the client keeps up
+     * ({@link ServerCallStreamObserver#isReady()}), so a slow reader holds back the cursor instead of
+     * filling server memory with queued messages.
+     */
+    private void streamRange(LocalDateTime start, LocalDateTime end,
+                             ServerCallStreamObserver<com.devdishon.proto.v1.Appointment> stream,
+                             Semaphore readySignal) {
+        try {
+            int sent = appointmentService.streamAppointmentsByDateRange(start, end, appointment -> {
+                if (!awaitReady(stream, readySignal)) {
+                    return false;
+                }
+                stream.onNext(ProtoMappers.toProto(appointment));
+                return true;
+            });
+            if (stream.isCancelled()) {
+                logger.debug("Appointment range stream cancelled by the client after {} appointments", sent);
+                return;
+            }
+            stream.onCompleted();
+        } catch (RuntimeException e) {
+            Status status = GrpcStatuses.of(e);
+            if (GrpcStatuses.isExpected(status)) {
+                logger.warn("Appointment range stream failed: {} {}", status.getCode(), status.getDescription());
+            } else {
+                logger.error("Appointment range stream failed", e);
+            }
+            if (!stream.isCancelled()) {
+                stream.onError(status.asRuntimeException());
+            }
+        }
+    }
+
+    /**
+     * Waits until the client can take another message. Returns false if it cancelled meanwhile;
+     * throws once the call's deadline has passed.
+     */
+    private static boolean awaitReady(ServerCallStreamObserver<?> stream, Semaphore readySignal) {
+        while (!stream.isReady()) {
+            if (stream.isCancelled()) {
+                return false;
+            }
+            RequestDeadline deadline = RequestDeadline.current();
+            long waitMillis = deadline != null ? deadline.remainingMillis() : READY_WAIT_MILLIS;
+            if (waitMillis <= 0) {
+                throw new DeadlineExceededException("Request deadline exceeded while waiting for the client to read");
+            }
+            try {
+                readySignal.tryAcquire(Math.min(waitMillis, READY_WAIT_MILLIS), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return !stream.isCancelled();
+    }
+
+    /**
+     * Carries the caller's security context, MDC and deadline, bound for this callback by
+     * {@link JwtServerInterceptor}, over to work run on another thread.
+     */
+    private static Runnable inCallContext(Runnable work) {
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        RequestDeadline deadline = RequestDeadline.current();
+        return () -> {
+            SecurityContextHolder.setContext(securityContext);
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+            RequestDeadline.bind(deadline);
+            try {
+                work.run();
+            } finally {
+                RequestDeadline.unbind();
+                MDC.clear();
+                SecurityContextHolder.clearContext();
+            }
+        };
+    }
+
+    private Appointment create(CreateAppointmentRequest request) {
+        if (!request.hasAppointmentDateTime()) {
+            throw new IllegalArgumentException("appointment_date_time is required");
+        }
+        Appointment appointment = new Appointment();
+        appointment.setAppointmentDateTime(ProtoMappers.localDateTime(request.getAppointmentDateTime()));
+        if (request.hasAppointmentType()) {
+            appointment.setAppointmentType(AppointmentType.valueOf(request.getAppointmentType()));
+        }
+        if (request.hasReasonForVisit()) {
+            appointment.setReasonForVisit(request.getReasonForVisit());
+        }
+        return appointmentService.createAppointment(request.getPatientId(), request.getDoctorId(), appointment);
+    }
+
+    private static AppointmentList list(List<Appointment> appointments) {
+        return (AppointmentList) ProtoMappers.toListMessage(appointments, Appointment.class);
+    }
+
+    private static <T> void reply(StreamObserver<T> responseObserver, T response) {
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
+}
@@ -0,0 +1,98 @@
+package com.devdishon.grpc;
+
+import io.grpc.BindableService;
+import io.grpc.Grpc;
+import io.grpc.InsecureServerCredentials;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.ServerInterceptors;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the gRPC API on its own port next to the HTTP server. Every service goes through
+ * {@link JwtServerInterceptor}. The server speaks plaintext HTTP/2; TLS is expected to be
+ * terminated in front of it, as it is for the REST API. Calls run on virtual threads when
+ * {@code spring.threads.virtual.enabled} is set, like servlet requests do.
+ */
+@Component
+@ConditionalOnProperty(name = "app.grpc.enabled", havingValue = "true", matchIfMissing = true)
+public class GrpcServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(GrpcServer.class);
+
+    private final List<BindableService> services;
+    private final JwtServerInterceptor interceptor;
+    private final int port;
+    private final Duration shutdownGrace;
+    private final boolean virtualThreads;
+
+    private Server server;
+    private ExecutorService executor;
+
+    public GrpcServer(List<BindableService> services,
+                      JwtServerInterceptor interceptor,
+                      @Value("${app.grpc.port:9090}") int port,
+                      @Value("${app.grpc.shutdown-grace:10s}") Duration shutdownGrace,
+                      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.services = services;
+        this.interceptor = interceptor;
+        this.port = port;
+        this.shutdownGrace = shutdownGrace;
+        this.virtualThreads = virtualThreads;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        ServerBuilder<?> builder = Grpc.newServerBuilderForPort(port, InsecureServerCredentials.create());
+        if (virtualThreads) {
+            executor = Executors.newVirtualThreadPerTaskExecutor();
+            builder.executor(executor);
+        }
+        services.forEach(service -> builder.addService(ServerInterceptors.intercept(service, interceptor)));
+        try {
+            server = builder.build().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the gRPC server on port " + port, e);
+        }
+        logger.info("gRPC server started on port {} with {} services", server.getPort(), services.size());
+    }
+
+    /**
+     * The port actually bound, which differs from the configured one when that is 0.
+     */
+    public int getPort() {
+        return server != null ? server.getPort() : -1;
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (server == null) {
+            return;
+        }
+        // Stop taking calls, give in-flight ones the grace period, then cancel what is left
+        server.shutdown();
+        if (!server.awaitTermination(shutdownGrace.toMillis(), TimeUnit.MILLISECONDS)) {
+            logger.warn("gRPC calls still running after {}; cancelling them", shutdownGrace);
+            server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+        if (executor != null) {
+            executor.shutdown();
+        }
+        logger.info("gRPC server stopped");
+    }
+}
@@ -0,0 +1,55 @@
+package com.devdishon.grpc;
+
+import com.devdishon.exception.BadRequestException;
+import com.devdishon.exception.DeadlineExceededException;
+import com.devdishon.exception.DuplicateResourceException;
+import com.devdishon.exception.ForbiddenException;
+import com.devdishon.exception.ResourceNotFoundException;
+import io.grpc.Status;
+import io.grpc.StatusException;
+import io.grpc.StatusRuntimeException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.transaction.TransactionTimedOutException;
+
+/**
+ * The gRPC counterpart of {@code GlobalExceptionHandler}: maps service exceptions to the status
+ * code matching the HTTP status the REST API uses for them. Unexpected exceptions become
+ * INTERNAL without their message, as they become a generic 500 over REST.
+ */
+final class GrpcStatuses {
+
+    private GrpcStatuses() {
+    }
+
+    static Status of(Throwable ex) {
+        return switch (ex) {
+            case StatusRuntimeException status -> status.getStatus();
+            case StatusException status -> status.getStatus();
+            case ResourceNotFoundException e -> Status.NOT_FOUND.withDescription(e.getMessage());
+            case DuplicateResourceException e -> Status.ALREADY_EXISTS.withDescription(e.getMessage());
+            case BadRequestException e -> Status.INVALID_ARGUMENT.withDescription(e.getMessage());
+            case IllegalStateException e -> Status.INVALID_ARGUMENT.withDescription(e.getMessage());
+            case IllegalArgumentException e -> Status.INVALID_ARGUMENT.withDescription(e.getMessage());
+            case AuthenticationException e -> Status.UNAUTHENTICATED.withDescription(e.getMessage());
+            case ForbiddenException e -> Status.PERMISSION_DENIED.withDescription(e.getMessage());
+            case AccessDeniedException e -> Status.PERMISSION_DENIED.withDescription("Access denied");
+            case DeadlineExceededException e -> deadlineExceeded();
+            case QueryTimeoutException e -> deadlineExceeded();
+            case TransactionTimedOutException e -> deadlineExceeded();
+            default -> Status.INTERNAL.withDescription("An unexpected error occurred").withCause(ex);
+        };
+    }
+
+    /**
+     * Whether the failure is the client's or a known condition rather than a server fault.
+     */
+    static boolean isExpected(Status status) {
+        return status.getCode() != Status.Code.INTERNAL && status.getCode() != Status.Code.UNKNOWN;
+    }
+
+    private static Status deadlineExceeded() {
+        return Status.DEADLINE_EXCEEDED.withDescription("The request did not complete before its deadline");
+    }
+}
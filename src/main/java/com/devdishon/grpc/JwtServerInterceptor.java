@@ -0,0 +1,221 @@
+package com.devdishon.grpc;
+
+import com.devdishon.filter.CorrelationIds;
+import com.devdishon.filter.RequestDeadline;
+import com.devdishon.security.BearerTokenAuthenticator;
+import io.grpc.Context;
+import io.grpc.Deadline;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Does for gRPC calls what the servlet filters do for HTTP requests. It authenticates the bearer
+ * token in the {@code authorization} metadata through {@link BearerTokenAuthenticator}, and
+ * rejects the call with UNAUTHENTICATED without one. It takes the correlation id from
+ * {@code x-correlation-id} or generates one, echoing it in the response headers. It turns the
+ * client's gRPC deadline (or the default request deadline) into a {@link RequestDeadline}. A
+ * client stream without a gRPC deadline may run for as long as the client keeps sending, so there
+ * each callback (each message) gets the default deadline of its own instead of one for the call.
+ * gRPC delivers a call's callbacks on pool threads, so the security context, MDC and deadline are
+ * bound around each callback rather than once per call. Exceptions thrown by a service close the
+ * call with the status {@link GrpcStatuses} maps them to.
+ */
+@Component
+public class JwtServerInterceptor implements ServerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtServerInterceptor.class);
+
+    static final Metadata.Key<String> AUTHORIZATION =
+            Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER);
+    static final Metadata.Key<String> CORRELATION_ID =
+            Metadata.Key.of(CorrelationIds.HEADER.toLowerCase(), Metadata.ASCII_STRING_MARSHALLER);
+
+    private final BearerTokenAuthenticator authenticator;
+    private final Duration defaultDeadline;
+
+    public JwtServerInterceptor(BearerTokenAuthenticator authenticator,
+                                @Value("${app.request-deadline.default-timeout:30s}") Duration defaultDeadline) {
+        this.authenticator = authenticator;
+        this.defaultDeadline = defaultDeadline;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call,
+                                                                 Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        String correlationId = headers.get(CORRELATION_ID);
+        if (!CorrelationIds.isValid(correlationId)) {
+            correlationId = CorrelationIds.next();
+        }
+
+        Optional<? extends Authentication> authentication;
+        try {
+            authentication = authenticator.authenticate(headers.get(AUTHORIZATION));
+        } catch (Exception e) {
+            logger.debug("Rejected gRPC call to {}: {}", call.getMethodDescriptor().getFullMethodName(), e.getMessage());
+            authentication = Optional.empty();
+        }
+        if (authentication.isEmpty()) {
+            call.close(Status.UNAUTHENTICATED.withDescription("A valid bearer token is required"), new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+
+        Deadline grpcDeadline = Context.current().getDeadline();
+        boolean perCallback = grpcDeadline == null && !call.getMethodDescriptor().getType().clientSendsOneMessage();
+        CallScope scope = new CallScope(authentication.get(), correlationId,
+                perCallback ? null : deadlineOf(grpcDeadline), defaultDeadline);
+        ServerCall<ReqT, RespT> tagged = new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void sendHeaders(Metadata responseHeaders) {
+                responseHeaders.put(CORRELATION_ID, scope.correlationId);
+                super.sendHeaders(responseHeaders);
+            }
+        };
+        ServerCall.Listener<ReqT> listener = scope.call(tagged, () -> next.startCall(tagged, headers));
+        return listener == null ? new ServerCall.Listener<>() {
+        } : new ScopedListener<>(listener, tagged, scope);
+    }
+
+    private RequestDeadline deadlineOf(Deadline grpcDeadline) {
+        if (grpcDeadline == null) {
+            return RequestDeadline.after(defaultDeadline);
+        }
+        return RequestDeadline.after(Duration.ofNanos(grpcDeadline.timeRemaining(TimeUnit.NANOSECONDS)));
+    }
+
+    /**
+     * Per-call state bound to whichever thread runs the next callback.
+     */
+    private static final class CallScope {
+
+        private final Authentication authentication;
+        private final String correlationId;
+        // Null when each callback gets a fresh deadline of callbackTimeout
+        private final RequestDeadline callDeadline;
+        private final Duration callbackTimeout;
+        private volatile RequestDeadline currentDeadline;
+        private volatile boolean cancelled;
+
+        private CallScope(Authentication authentication, String correlationId,
+                          RequestDeadline callDeadline, Duration callbackTimeout) {
+            this.authentication = authentication;
+            this.correlationId = correlationId;
+            this.callDeadline = callDeadline;
+            this.callbackTimeout = callbackTimeout;
+        }
+
+        private RequestDeadline nextDeadline() {
+            RequestDeadline deadline = callDeadline != null ? callDeadline : RequestDeadline.after(callbackTimeout);
+            if (cancelled) {
+                deadline.cancel();
+            }
+            currentDeadline = deadline;
+            return deadline;
+        }
+
+        void cancel() {
+            cancelled = true;
+            RequestDeadline deadline = currentDeadline;
+            if (deadline != null) {
+                deadline.cancel();
+            }
+        }
+
+        <T> T call(ServerCall<?, ?> serverCall, Supplier<T> work) {
+            SecurityContext previous = SecurityContextHolder.getContext();
+            SecurityContextHolder.setContext(new SecurityContextImpl(authentication));
+            MDC.put(CorrelationIds.MDC_KEY, correlationId);
+            MDC.put(CorrelationIds.USER_MDC_KEY, authentication.getName());
+            RequestDeadline.bind(nextDeadline());
+            try {
+                return work.get();
+            } catch (RuntimeException e) {
+                Status status = GrpcStatuses.of(e);
+                if (GrpcStatuses.isExpected(status)) {
+                    logger.warn("gRPC call {} failed: {} {}", serverCall.getMethodDescriptor().getFullMethodName(),
+                            status.getCode(), status.getDescription());
+                } else {
+                    logger.error("gRPC call {} failed", serverCall.getMethodDescriptor().getFullMethodName(), e);
+                }
+                try {
+                    serverCall.close(status, new Metadata());
+                } catch (IllegalStateException alreadyClosed) {
+                    logger.debug("gRPC call {} was already closed", serverCall.getMethodDescriptor().getFullMethodName());
+                }
+                return null;
+            } finally {
+                RequestDeadline.unbind();
+                MDC.remove(CorrelationIds.MDC_KEY);
+                MDC.remove(CorrelationIds.USER_MDC_KEY);
+                SecurityContextHolder.setContext(previous);
+            }
+        }
+
+        void run(ServerCall<?, ?> serverCall, Runnable work) {
+            call(serverCall, () -> {
+                work.run();
+                return null;
+            });
+        }
+    }
+
+    private static final class ScopedListener<ReqT>
+            extends ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT> {
+
+        private final ServerCall<ReqT, ?> call;
+        private final CallScope scope;
+
+        private ScopedListener(ServerCall.Listener<ReqT> delegate, ServerCall<ReqT, ?> call, CallScope scope) {
+            super(delegate);
+            this.call = call;
+            this.scope = scope;
+        }
+
+        @Override
+        public void onMessage(ReqT message) {
+            scope.run(call, () -> super.onMessage(message));
+        }
+
+        @Override
+        public void onHalfClose() {
+            scope.run(call, super::onHalfClose);
+        }
+
+        @Override
+        public void onReady() {
+            scope.run(call, super::onReady);
+        }
+
+        @Override
+        public void onCancel() {
+            // Stops queries still running for a client that went away
+            scope.cancel();
+            scope.run(call, super::onCancel);
+        }
+
+        @Override
+        public void onComplete() {
+            scope.run(call, super::onComplete);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.devdishon.grpc;
+
+import com.devdishon.proto.ProtoMappers;
+import com.devdishon.proto.v1.Patient;
+import com.devdishon.proto.v1.PatientEmailRequest;
+import com.devdishon.proto.v1.PatientIdRequest;
+import com.devdishon.proto.v1.PatientsGrpc;
+import com.devdishon.service.PatientService;
+import io.grpc.stub.StreamObserver;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * gRPC front for the patient lookups. Applies the same role check as the matching
+ * {@code PatientController} endpoints, since {@code @PreAuthorize} only guards the MVC layer.
+ */
+@Component
+public class PatientsGrpcService extends PatientsGrpc.PatientsImplBase {
+
+    private static final Set<String> READ_ROLES = Set.of("ROLE_USER", "ROLE_ADMIN", "ROLE_SUPER_ADMIN");
+
+    private final PatientService patientService;
+
+    public PatientsGrpcService(PatientService patientService) {
+        this.patientService = patientService;
+    }
+
+    @Override
+    public void getPatient(PatientIdRequest request, StreamObserver<Patient> responseObserver) {
+        requireReadRole();
+        responseObserver.onNext(ProtoMappers.toProto(patientService.getPatientById(request.getPatientId())));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void getPatientByEmail(PatientEmailRequest request, StreamObserver<Patient> responseObserver) {
+        requireReadRole();
+        responseObserver.onNext(ProtoMappers.toProto(patientService.getPatientByEmail(request.getEmail())));
+        responseObserver.onCompleted();
+    }
+
+    private static void requireReadRole() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean allowed = authentication != null && authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(READ_ROLES::contains);
+        if (!allowed) {
+            throw new AccessDeniedException("Access denied");
+        }
+    }
+}
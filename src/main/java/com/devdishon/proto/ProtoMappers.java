@@ -0,0 +1,268 @@
+package com.devdishon.proto;
+
+import com.devdishon.dto.MedicalRecordSummary;
+import com.devdishon.entity.Appointment;
+import com.devdishon.entity.Doctor;
+import com.devdishon.entity.MedicalRecord;
+import com.devdishon.entity.Patient;
+import com.devdishon.proto.v1.AppointmentList;
+import com.devdishon.proto.v1.DoctorList;
+import com.devdishon.proto.v1.MedicalRecordList;
+import com.devdishon.proto.v1.MedicalRecordSummaryList;
+import com.devdishon.proto.v1.PatientList;
+import com.google.protobuf.Message;
+import com.google.protobuf.Timestamp;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Maps entities, and the medical record list form, to the messages in {@code hms/v1/resources.proto}.
+ * Only the types that have a schema, and collections of them, can be mapped; {@link #supports} and {@link #supportsList}
+ * tell which.
+ */
+public final class ProtoMappers {
+
+    private static final Set<Class<?>> MAPPED_TYPES =
+            Set.of(Patient.class, Doctor.class, Appointment.class, MedicalRecord.class, MedicalRecordSummary.class);
+
+    private ProtoMappers() {
+    }
+
+    public static boolean supports(Class<?> type) {
+        return type != null && (Message.class.isAssignableFrom(type) || MAPPED_TYPES.contains(type));
+    }
+
+    public static boolean supportsList(Class<?> elementType) {
+        return MAPPED_TYPES.contains(elementType);
+    }
+
+    /**
+     * Maps a single entity, or passes a message through unchanged.
+     */
+    public static Message toMessage(Object value) {
+        return switch (value) {
+            case Message message -> message;
+            case Patient patient -> toProto(patient);
+            case Doctor doctor -> toProto(doctor);
+            case Appointment appointment -> toProto(appointment);
+            case MedicalRecord record -> toProto(record);
+            case MedicalRecordSummary summary -> toProto(summary);
+            default -> throw new IllegalArgumentException("No protobuf mapping for " + value.getClass().getName());
+        };
+    }
+
+    /**
+     * Maps a collection to the list message for its element type. The element type comes from the
+     * declared return type, so empty collections map as well.
+     */
+    public static Message toListMessage(Collection<?> values, Class<?> elementType) {
+        if (elementType == Patient.class) {
+            PatientList.Builder list = PatientList.newBuilder();
+            values.forEach(value -> list.addItems(toProto((Patient) value)));
+            return list.build();
+        }
+        if (elementType == Doctor.class) {
+            DoctorList.Builder list = DoctorList.newBuilder();
+            values.forEach(value -> list.addItems(toProto((Doctor) value)));
+            return list.build();
+        }
+        if (elementType == Appointment.class) {
+            AppointmentList.Builder list = AppointmentList.newBuilder();
+            values.forEach(value -> list.addItems(toProto((Appointment) value)));
+            return list.build();
+        }
+        if (elementType == MedicalRecord.class) {
+            MedicalRecordList.Builder list = MedicalRecordList.newBuilder();
+            values.forEach(value -> list.addItems(toProto((MedicalRecord) value)));
+            return list.build();
+        }
+        if (elementType == MedicalRecordSummary.class) {
+            MedicalRecordSummaryList.Builder list = MedicalRecordSummaryList.newBuilder();
+            values.forEach(value -> list.addItems(toProto((MedicalRecordSummary) value)));
+            return list.build();
+        }
+        throw new IllegalArgumentException("No protobuf list mapping for " + elementType);
+    }
+
+    public static com.devdishon.proto.v1.Patient toProto(Patient patient) {
+        com.devdishon.proto.v1.Patient.Builder proto = com.devdishon.proto.v1.Patient.newBuilder()
+                .setId(patient.getId())
+                .setFirstName(patient.getFirstName())
+                .setLastName(patient.getLastName())
+                .setEmail(patient.getEmail());
+        if (patient.getPhoneNumber() != null) {
+            proto.setPhoneNumber(patient.getPhoneNumber());
+        }
+        if (patient.getDateOfBirth() != null) {
+            proto.setDateOfBirth(patient.getDateOfBirth().toString());
+        }
+        if (patient.getGender() != null) {
+            proto.setGender(patient.getGender().name());
+        }
+        if (patient.getAddress() != null) {
+            proto.setAddress(patient.getAddress());
+        }
+        if (patient.getNationalId() != null) {
+            proto.setNationalId(patient.getNationalId());
+        }
+        if (patient.getBloodType() != null) {
+            proto.setBloodType(patient.getBloodType().name());
+        }
+        if (patient.getEmergencyContactName() != null) {
+            proto.setEmergencyContactName(patient.getEmergencyContactName());
+        }
+        if (patient.getEmergencyContactPhone() != null) {
+            proto.setEmergencyContactPhone(patient.getEmergencyContactPhone());
+        }
+        if (patient.getUpdatedAt() != null) {
+            proto.setUpdatedAt(timestamp(patient.getUpdatedAt()));
+        }
+        return proto.build();
+    }
+
+    public static com.devdishon.proto.v1.Doctor toProto(Doctor doctor) {
+        com.devdishon.proto.v1.Doctor.Builder proto = com.devdishon.proto.v1.Doctor.newBuilder()
+                .setId(doctor.getId())
+                .setFirstName(doctor.getFirstName())
+                .setLastName(doctor.getLastName())
+                .setEmail(doctor.getEmail())
+                .setLicenseNumber(doctor.getLicenseNumber())
+                .setSpecialization(doctor.getSpecialization().name());
+        if (doctor.getPhoneNumber() != null) {
+            proto.setPhoneNumber(doctor.getPhoneNumber());
+        }
+        if (doctor.getDepartment() != null) {
+            proto.setDepartment(doctor.getDepartment());
+        }
+        if (doctor.getYearsOfExperience() != null) {
+            proto.setYearsOfExperience(doctor.getYearsOfExperience());
+        }
+        if (doctor.getIsAvailable() != null) {
+            proto.setAvailable(doctor.getIsAvailable());
+        }
+        if (doctor.getUpdatedAt() != null) {
+            proto.setUpdatedAt(timestamp(doctor.getUpdatedAt()));
+        }
+        return proto.build();
+    }
+
+    public static com.devdishon.proto.v1.Appointment toProto(Appointment appointment) {
+        com.devdishon.proto.v1.Appointment.Builder proto = appointmentWithoutParties(appointment).toBuilder();
+        if (appointment.getPatient() != null) {
+            proto.setPatient(toProto(appointment.getPatient()));
+        }
+        if (appointment.getDoctor() != null) {
+            proto.setDoctor(toProto(appointment.getDoctor()));
+        }
+        return proto.build();
+    }
+
+    public static com.devdishon.proto.v1.MedicalRecord toProto(MedicalRecord record) {
+        com.devdishon.proto.v1.MedicalRecord.Builder proto = com.devdishon.proto.v1.MedicalRecord.newBuilder()
+                .setId(record.getId())
+                .setPatient(toProto(record.getPatient()))
+                .setDoctor(toProto(record.getDoctor()))
+                .setRecordDate(timestamp(record.getRecordDate()));
+        if (record.getAppointment() != null) {
+            // The JSON form leaves out the appointment's patient and doctor as well
+            proto.setAppointment(appointmentWithoutParties(record.getAppointment()));
+        }
+        if (record.getDiagnosis() != null) {
+            proto.setDiagnosis(record.getDiagnosis());
+        }
+        if (record.getSymptoms() != null) {
+            proto.setSymptoms(record.getSymptoms());
+        }
+        if (record.getTreatment() != null) {
+            proto.setTreatment(record.getTreatment());
+        }
+        if (record.getPrescription() != null) {
+            proto.setPrescription(record.getPrescription());
+        }
+        if (record.getLabResults() != null) {
+            proto.setLabResults(record.getLabResults());
+        }
+        if (record.getNotes() != null) {
+            proto.setNotes(record.getNotes());
+        }
+        if (record.getFollowUpDate() != null) {
+            proto.setFollowUpDate(timestamp(record.getFollowUpDate()));
+        }
+        if (record.getFollowUpAppointmentId() != null) {
+            proto.setFollowUpAppointmentId(record.getFollowUpAppointmentId());
+        }
+        if (record.getCreatedAt() != null) {
+            proto.setCreatedAt(timestamp(record.getCreatedAt()));
+        }
+        if (record.getUpdatedAt() != null) {
+            proto.setUpdatedAt(timestamp(record.getUpdatedAt()));
+        }
+        return proto.build();
+    }
+
+    public static com.devdishon.proto.v1.MedicalRecordSummary toProto(MedicalRecordSummary summary) {
+        com.devdishon.proto.v1.MedicalRecordSummary.Builder proto = com.devdishon.proto.v1.MedicalRecordSummary.newBuilder()
+                .setId(summary.id())
+                .setPatientId(summary.patientId())
+                .setPatientName(summary.patientName())
+                .setDoctorId(summary.doctorId())
+                .setDoctorName(summary.doctorName())
+                .setRecordDate(timestamp(summary.recordDate()));
+        if (summary.appointmentId() != null) {
+            proto.setAppointmentId(summary.appointmentId());
+        }
+        if (summary.followUpDate() != null) {
+            proto.setFollowUpDate(timestamp(summary.followUpDate()));
+        }
+        if (summary.followUpAppointmentId() != null) {
+            proto.setFollowUpAppointmentId(summary.followUpAppointmentId());
+        }
+        if (summary.createdAt() != null) {
+            proto.setCreatedAt(timestamp(summary.createdAt()));
+        }
+        if (summary.updatedAt() != null) {
+            proto.setUpdatedAt(timestamp(summary.updatedAt()));
+        }
+        return proto.build();
+    }
+
+    public static Timestamp timestamp(LocalDateTime dateTime) {
+        Instant instant = dateTime.atZone(ZoneId.systemDefault()).toInstant();
+        return Timestamp.newBuilder()
+                .setSeconds(instant.getEpochSecond())
+                .setNanos(instant.getNano())
+                .build();
+    }
+
+    public static LocalDateTime localDateTime(Timestamp timestamp) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos()),
+                ZoneId.systemDefault());
+    }
+
+    private static com.devdishon.proto.v1.Appointment appointmentWithoutParties(Appointment appointment) {
+        com.devdishon.proto.v1.Appointment.Builder proto = com.devdishon.proto.v1.Appointment.newBuilder()
+                .setId(appointment.getId())
+                .setAppointmentDateTime(timestamp(appointment.getAppointmentDateTime()))
+                .setStatus(appointment.getStatus().name());
+        if (appointment.getAppointmentType() != null) {
+            proto.setAppointmentType(appointment.getAppointmentType().name());
+        }
+        if (appointment.getReasonForVisit() != null) {
+            proto.setReasonForVisit(appointment.getReasonForVisit());
+        }
+        if (appointment.getNotes() != null) {
+            proto.setNotes(appointment.getNotes());
+        }
+        if (appointment.getCreatedAt() != null) {
+            proto.setCreatedAt(timestamp(appointment.getCreatedAt()));
+        }
+        if (appointment.getUpdatedAt() != null) {
+            proto.setUpdatedAt(timestamp(appointment.getUpdatedAt()));
+        }
+        return proto.build();
+    }
+}
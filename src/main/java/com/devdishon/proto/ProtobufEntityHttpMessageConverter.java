@@ -0,0 +1,80 @@
+package com.devdishon.proto;
+
+import com.google.protobuf.Message;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.protobuf.ProtobufHttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * Writes entities, collections of entities and protobuf messages as {@code application/x-protobuf},
+ * mapping them through {@link ProtoMappers}. Controllers keep returning the same types as for JSON;
+ * this converter only takes part when the client asks for protobuf. Request bodies stay JSON, so
+ * it never reads.
+ */
+public class ProtobufEntityHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public ProtobufEntityHttpMessageConverter() {
+        super(ProtobufHttpMessageConverter.PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ProtoMappers.supports(clazz) || Collection.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        ResolvableType resolved = type != null ? ResolvableType.forType(type) : ResolvableType.forClass(clazz);
+        if (Collection.class.isAssignableFrom(resolved.toClass())) {
+            return ProtoMappers.supportsList(resolved.asCollection().resolveGeneric(0));
+        }
+        return ProtoMappers.supports(resolved.toClass());
+    }
+
+    @Override
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        Message message;
+        if (value instanceof Collection<?> collection) {
+            Class<?> elementType = type != null ? ResolvableType.forType(type).asCollection().resolveGeneric(0) : null;
+            if (elementType == null && !collection.isEmpty()) {
+                elementType = collection.iterator().next().getClass();
+            }
+            message = ProtoMappers.toListMessage(collection, elementType);
+        } else {
+            message = ProtoMappers.toMessage(value);
+        }
+        outputMessage.getHeaders().setContentLength(message.getSerializedSize());
+        message.writeTo(outputMessage.getBody());
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+}
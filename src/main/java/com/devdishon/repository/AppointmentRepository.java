@@ -1,20 +1,48 @@
 package com.devdishon.repository;
 
+import com.devdishon.dto.DoctorDailyCount;
+import com.devdishon.dto.PatientSummary;
+import com.devdishon.dto.ResourceVersion;
+import com.devdishon.dto.TimelineEntry;
+import com.devdishon.dto.UpcomingAppointment;
 import com.devdishon.entity.Appointment;
 import com.devdishon.entity.AppointmentStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
 
+    /**
+     * Version probe for appointment JSON, which embeds the patient and the doctor.
+     */
+    String VERSION_QUERY = "SELECT new com.devdishon.dto.ResourceVersion(count(a), coalesce(sum(a.id), 0L), " +
+            "max(a.updatedAt), max(p.updatedAt), max(d.updatedAt)) " +
+            "FROM Appointment a JOIN a.patient p JOIN a.doctor d ";
+
+    /**
+     * A patient's appointments as timeline entries, keyset-paged newest first.
+     */
+    String TIMELINE_QUERY = "SELECT new com.devdishon.dto.TimelineEntry(a.id, a.appointmentDateTime, d.id, " +
+            "d.firstName, d.lastName, a.status, a.appointmentType, a.reasonForVisit) " +
+            "FROM Appointment a JOIN a.doctor d WHERE a.patient.id = :patientId ";
+
     List<Appointment> findByPatientId(Long patientId);
 
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.patient JOIN FETCH a.doctor WHERE a.id IN :ids")
+    List<Appointment> findAllWithPartiesByIdIn(@Param("ids") Collection<Long> ids);
+
     List<Appointment> findByDoctorId(Long doctorId);
 
     List<Appointment> findByStatus(AppointmentStatus status);
@@ -26,6 +54,16 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     @Query("SELECT a FROM Appointment a WHERE a.appointmentDateTime BETWEEN :start AND :end")
     List<Appointment> findByDateRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
+    /**
+     * Streams a date range in time order with its patients and doctors, fetching rows from the
+     * database in batches instead of materializing the whole range. Must be consumed inside a
+     * transaction and closed.
+     */
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.patient JOIN FETCH a.doctor " +
+            "WHERE a.appointmentDateTime BETWEEN :start AND :end ORDER BY a.appointmentDateTime ASC, a.id ASC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"))
+    Stream<Appointment> streamByDateRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
     @Query("SELECT a FROM Appointment a WHERE a.doctor.id = :doctorId AND a.appointmentDateTime BETWEEN :start AND :end")
     List<Appointment> findByDoctorIdAndDateRange(@Param("doctorId") Long doctorId,
                                                   @Param("start") LocalDateTime start,
@@ -34,4 +72,68 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     @Query("SELECT a FROM Appointment a WHERE a.patient.id = :patientId AND a.appointmentDateTime >= :date ORDER BY a.appointmentDateTime ASC")
     List<Appointment> findUpcomingAppointmentsByPatientId(@Param("patientId") Long patientId,
                                                           @Param("date") LocalDateTime date);
+
+    @Query("SELECT new com.devdishon.dto.PatientSummary$AppointmentItem(a.id, d.id, d.firstName, d.lastName, " +
+            "a.appointmentDateTime, a.status, a.appointmentType) " +
+            "FROM Appointment a JOIN a.doctor d WHERE a.patient.id = :patientId AND a.appointmentDateTime >= :date " +
+            "ORDER BY a.appointmentDateTime ASC")
+    List<PatientSummary.AppointmentItem> findUpcomingItemsByPatientId(@Param("patientId") Long patientId,
+                                                                      @Param("date") LocalDateTime date,
+                                                                      Pageable pageable);
+
+    @Query(TIMELINE_QUERY + "ORDER BY a.appointmentDateTime DESC, a.id DESC")
+    List<TimelineEntry> findTimelineByPatientId(@Param("patientId") Long patientId, Pageable pageable);
+
+    @Query(TIMELINE_QUERY + "AND (a.appointmentDateTime < :before OR (a.appointmentDateTime = :before AND a.id < :beforeId)) " +
+            "ORDER BY a.appointmentDateTime DESC, a.id DESC")
+    List<TimelineEntry> findTimelineByPatientIdBefore(@Param("patientId") Long patientId,
+                                                      @Param("before") LocalDateTime before,
+                                                      @Param("beforeId") Long beforeId,
+                                                      Pageable pageable);
+
+    @Query("SELECT count(a) FROM Appointment a WHERE a.patient.id = :patientId AND a.appointmentDateTime >= :date")
+    long countUpcomingByPatientId(@Param("patientId") Long patientId, @Param("date") LocalDateTime date);
+
+    @Query("SELECT new com.devdishon.dto.UpcomingAppointment(a.id, a.patient.id, a.doctor.id, a.appointmentDateTime) " +
+            "FROM Appointment a WHERE a.appointmentDateTime > :start AND a.appointmentDateTime <= :end " +
+            "AND a.status IN :statuses AND a.id > :afterId ORDER BY a.id ASC")
+    List<UpcomingAppointment> findUpcomingInWindow(@Param("start") LocalDateTime start,
+                                                   @Param("end") LocalDateTime end,
+                                                   @Param("statuses") Collection<AppointmentStatus> statuses,
+                                                   @Param("afterId") Long afterId,
+                                                   Pageable pageable);
+
+    @Query("SELECT new com.devdishon.dto.UpcomingAppointment(a.id, a.patient.id, a.doctor.id, a.appointmentDateTime) " +
+            "FROM Appointment a WHERE a.doctor.id IN :doctorIds AND a.appointmentDateTime BETWEEN :start AND :end " +
+            "AND a.status NOT IN :excludedStatuses")
+    List<UpcomingAppointment> findBookedByDoctorIdsInRange(@Param("doctorIds") Collection<Long> doctorIds,
+                                                           @Param("start") LocalDateTime start,
+                                                           @Param("end") LocalDateTime end,
+                                                           @Param("excludedStatuses") Collection<AppointmentStatus> excludedStatuses);
+
+    @Query("SELECT new com.devdishon.dto.DoctorDailyCount(a.doctor.id, cast(a.appointmentDateTime as LocalDate), count(a)) " +
+            "FROM Appointment a WHERE a.appointmentDateTime >= :start AND a.appointmentDateTime < :end " +
+            "AND a.status <> com.devdishon.entity.AppointmentStatus.CANCELLED " +
+            "GROUP BY a.doctor.id, cast(a.appointmentDateTime as LocalDate)")
+    List<DoctorDailyCount> countBookedPerDoctorPerDay(@Param("start") LocalDateTime start,
+                                                      @Param("end") LocalDateTime end);
+
+    @Query(VERSION_QUERY + "WHERE a.id = :id")
+    ResourceVersion findVersionById(@Param("id") Long id);
+
+    @Query(VERSION_QUERY)
+    ResourceVersion findVersionOfAll();
+
+    @Query(VERSION_QUERY + "WHERE p.id = :patientId")
+    ResourceVersion findVersionByPatientId(@Param("patientId") Long patientId);
+
+    @Query(VERSION_QUERY + "WHERE d.id = :doctorId")
+    ResourceVersion findVersionByDoctorId(@Param("doctorId") Long doctorId);
+
+    @Query(VERSION_QUERY + "WHERE a.status = :status")
+    ResourceVersion findVersionByStatus(@Param("status") AppointmentStatus status);
+
+    @Query(VERSION_QUERY + "WHERE p.id = :patientId AND a.appointmentDateTime >= :date")
+    ResourceVersion findUpcomingVersionByPatientId(@Param("patientId") Long patientId,
+                                                   @Param("date") LocalDateTime date);
 }
@@ -1,8 +1,10 @@
 package com.devdishon.repository;
 
+import com.devdishon.dto.DoctorDirectoryVersion;
 import com.devdishon.entity.Doctor;
 import com.devdishon.entity.Specialization;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -24,4 +26,8 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     boolean existsByEmail(String email);
 
     boolean existsByLicenseNumber(String licenseNumber);
+
+    @Query("SELECT new com.devdishon.dto.DoctorDirectoryVersion(count(d), coalesce(sum(d.id), 0L), max(d.updatedAt)) " +
+            "FROM Doctor d")
+    DoctorDirectoryVersion findDirectoryVersion();
 }
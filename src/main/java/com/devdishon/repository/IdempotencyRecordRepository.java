@@ -0,0 +1,59 @@
+package com.devdishon.repository;
+
+import com.devdishon.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, claim_token, fingerprint, completed, created_at, locked_until, expires_at) " +
+            "VALUES (:key, :token, :fingerprint, false, :now, :lockedUntil, :expiresAt) " +
+            "ON CONFLICT (idempotency_key) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("key") String key,
+                       @Param("token") String token,
+                       @Param("fingerprint") String fingerprint,
+                       @Param("now") LocalDateTime now,
+                       @Param("lockedUntil") LocalDateTime lockedUntil,
+                       @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Takes over a key whose record expired or whose owner's lease ran out before it completed.
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.claimToken = :token, r.fingerprint = :fingerprint, r.completed = false, " +
+            "r.responseStatus = null, r.contentType = null, r.responseBody = null, " +
+            "r.createdAt = :now, r.lockedUntil = :lockedUntil, r.expiresAt = :expiresAt " +
+            "WHERE r.idempotencyKey = :key AND (r.expiresAt <= :now OR (r.completed = false AND r.lockedUntil <= :now))")
+    int takeOver(@Param("key") String key,
+                 @Param("token") String token,
+                 @Param("fingerprint") String fingerprint,
+                 @Param("now") LocalDateTime now,
+                 @Param("lockedUntil") LocalDateTime lockedUntil,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.completed = true, r.responseStatus = :status, " +
+            "r.contentType = :contentType, r.responseBody = :body, r.expiresAt = :expiresAt " +
+            "WHERE r.idempotencyKey = :key AND r.claimToken = :token AND r.completed = false")
+    int complete(@Param("key") String key,
+                 @Param("token") String token,
+                 @Param("status") int status,
+                 @Param("contentType") String contentType,
+                 @Param("body") byte[] body,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key AND r.claimToken = :token AND r.completed = false")
+    int deleteUncompleted(@Param("key") String key, @Param("token") String token);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,7 +1,15 @@
 package com.devdishon.repository;
 
+import com.devdishon.dto.LegacyRecordText;
+import com.devdishon.dto.MedicalRecordSummary;
+import com.devdishon.dto.PatientSummary;
+import com.devdishon.dto.PendingFollowUp;
+import com.devdishon.dto.ResourceVersion;
+import com.devdishon.dto.TimelineEntry;
 import com.devdishon.entity.MedicalRecord;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,6 +21,31 @@ import java.util.Optional;
 @Repository
 public interface MedicalRecordRepository extends JpaRepository<MedicalRecord, Long> {
 
+    /**
+     * Version probe for medical record JSON, which embeds the patient, the doctor and the
+     * appointment. The follow-up link is set by a bulk update that leaves {@code updatedAt}
+     * alone, so it is folded into the checksum instead.
+     */
+    String VERSION_QUERY = "SELECT new com.devdishon.dto.ResourceVersion(count(m), " +
+            "coalesce(sum(m.id), 0L) + coalesce(sum(m.followUpAppointmentId), 0L), " +
+            "max(m.updatedAt), max(p.updatedAt), max(d.updatedAt), max(ap.updatedAt)) " +
+            "FROM MedicalRecord m JOIN m.patient p JOIN m.doctor d LEFT JOIN m.appointment ap ";
+
+    /**
+     * Medical record list rows without the TEXT columns, so their TOAST storage is never read.
+     */
+    String SUMMARY_QUERY = "SELECT new com.devdishon.dto.MedicalRecordSummary(m.id, p.id, p.firstName, p.lastName, " +
+            "d.id, d.firstName, d.lastName, ap.id, m.recordDate, m.followUpDate, m.followUpAppointmentId, " +
+            "m.createdAt, m.updatedAt) " +
+            "FROM MedicalRecord m JOIN m.patient p JOIN m.doctor d LEFT JOIN m.appointment ap ";
+
+    /**
+     * A patient's medical records as timeline entries, keyset-paged newest first.
+     */
+    String TIMELINE_QUERY = "SELECT new com.devdishon.dto.TimelineEntry(m.id, m.recordDate, d.id, " +
+            "d.firstName, d.lastName, m.diagnosis, m.followUpDate) " +
+            "FROM MedicalRecord m JOIN m.doctor d WHERE m.patient.id = :patientId ";
+
     List<MedicalRecord> findByPatientId(Long patientId);
 
     List<MedicalRecord> findByDoctorId(Long doctorId);
@@ -22,6 +55,19 @@ public interface MedicalRecordRepository extends JpaRepository<MedicalRecord, Lo
     @Query("SELECT m FROM MedicalRecord m WHERE m.patient.id = :patientId ORDER BY m.recordDate DESC")
     List<MedicalRecord> findByPatientIdOrderByRecordDateDesc(@Param("patientId") Long patientId);
 
+    @Query(SUMMARY_QUERY)
+    List<MedicalRecordSummary> findAllSummaries();
+
+    @Query(SUMMARY_QUERY + "WHERE p.id = :patientId ORDER BY m.recordDate DESC")
+    List<MedicalRecordSummary> findSummariesByPatientId(@Param("patientId") Long patientId);
+
+    @Query(SUMMARY_QUERY + "WHERE d.id = :doctorId")
+    List<MedicalRecordSummary> findSummariesByDoctorId(@Param("doctorId") Long doctorId);
+
+    @Query(SUMMARY_QUERY + "WHERE m.followUpDate IS NOT NULL AND m.followUpDate BETWEEN :start AND :end")
+    List<MedicalRecordSummary> findPendingFollowUpSummaries(@Param("start") LocalDateTime start,
+                                                            @Param("end") LocalDateTime end);
+
     @Query("SELECT m FROM MedicalRecord m WHERE m.patient.id = :patientId AND m.recordDate BETWEEN :start AND :end")
     List<MedicalRecord> findByPatientIdAndDateRange(@Param("patientId") Long patientId,
                                                      @Param("start") LocalDateTime start,
@@ -30,4 +76,75 @@ public interface MedicalRecordRepository extends JpaRepository<MedicalRecord, Lo
     @Query("SELECT m FROM MedicalRecord m WHERE m.followUpDate IS NOT NULL AND m.followUpDate BETWEEN :start AND :end")
     List<MedicalRecord> findPendingFollowUps(@Param("start") LocalDateTime start,
                                               @Param("end") LocalDateTime end);
+
+    @Query("SELECT new com.devdishon.dto.PatientSummary$RecordItem(m.id, m.doctor.id, m.recordDate, m.diagnosis, m.followUpDate) " +
+            "FROM MedicalRecord m WHERE m.patient.id = :patientId ORDER BY m.recordDate DESC, m.id DESC")
+    List<PatientSummary.RecordItem> findRecentItemsByPatientId(@Param("patientId") Long patientId, Pageable pageable);
+
+    long countByPatientId(Long patientId);
+
+    @Query(TIMELINE_QUERY + "ORDER BY m.recordDate DESC, m.id DESC")
+    List<TimelineEntry> findTimelineByPatientId(@Param("patientId") Long patientId, Pageable pageable);
+
+    @Query(TIMELINE_QUERY + "AND (m.recordDate < :before OR (m.recordDate = :before AND m.id < :beforeId)) " +
+            "ORDER BY m.recordDate DESC, m.id DESC")
+    List<TimelineEntry> findTimelineByPatientIdBefore(@Param("patientId") Long patientId,
+                                                      @Param("before") LocalDateTime before,
+                                                      @Param("beforeId") Long beforeId,
+                                                      Pageable pageable);
+
+    @Query("SELECT new com.devdishon.dto.PatientSummary$RecordItem(m.id, m.doctor.id, m.recordDate, m.diagnosis, m.followUpDate) " +
+            "FROM MedicalRecord m WHERE m.patient.id = :patientId AND m.followUpDate > :now " +
+            "AND m.followUpAppointmentId IS NULL ORDER BY m.followUpDate ASC, m.id ASC")
+    List<PatientSummary.RecordItem> findPendingFollowUpItemsByPatientId(@Param("patientId") Long patientId,
+                                                                        @Param("now") LocalDateTime now,
+                                                                        Pageable pageable);
+
+    @Query("SELECT count(m) FROM MedicalRecord m WHERE m.patient.id = :patientId AND m.followUpDate > :now " +
+            "AND m.followUpAppointmentId IS NULL")
+    long countPendingFollowUpsByPatientId(@Param("patientId") Long patientId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT new com.devdishon.dto.PendingFollowUp(m.id, m.patient.id, m.doctor.id, m.followUpDate, m.updatedAt) " +
+            "FROM MedicalRecord m WHERE m.followUpDate IS NOT NULL AND m.followUpDate > :now " +
+            "AND m.followUpAppointmentId IS NULL " +
+            "AND (m.updatedAt > :afterTime OR (m.updatedAt = :afterTime AND m.id > :afterId)) " +
+            "ORDER BY m.updatedAt ASC, m.id ASC")
+    List<PendingFollowUp> findPendingFollowUpsAfter(@Param("afterTime") LocalDateTime afterTime,
+                                                    @Param("afterId") Long afterId,
+                                                    @Param("now") LocalDateTime now,
+                                                    Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE MedicalRecord m SET m.followUpAppointmentId = :appointmentId WHERE m.id = :id")
+    void linkFollowUpAppointment(@Param("id") Long id, @Param("appointmentId") Long appointmentId);
+
+    @Query("SELECT new com.devdishon.dto.LegacyRecordText(m.id, m.legacyLabResults, m.legacyNotes) " +
+            "FROM MedicalRecord m WHERE (m.legacyLabResults IS NOT NULL OR m.legacyNotes IS NOT NULL) " +
+            "AND m.id > :afterId ORDER BY m.id ASC")
+    List<LegacyRecordText> findLegacyTextAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // The moves leave updatedAt alone: the content is unchanged, so ETags and the follow-up
+    // watermark must not see them. A record saved in the meantime has no legacy text left to move.
+
+    @Modifying
+    @Query(value = "UPDATE medical_records SET lab_results_data = :data, lab_results = NULL " +
+            "WHERE id = :id AND lab_results IS NOT NULL", nativeQuery = true)
+    int moveLegacyLabResults(@Param("id") Long id, @Param("data") byte[] data);
+
+    @Modifying
+    @Query(value = "UPDATE medical_records SET notes_data = :data, notes = NULL " +
+            "WHERE id = :id AND notes IS NOT NULL", nativeQuery = true)
+    int moveLegacyNotes(@Param("id") Long id, @Param("data") byte[] data);
+
+    @Query(VERSION_QUERY + "WHERE m.id = :id")
+    ResourceVersion findVersionById(@Param("id") Long id);
+
+    @Query(VERSION_QUERY)
+    ResourceVersion findVersionOfAll();
+
+    @Query(VERSION_QUERY + "WHERE p.id = :patientId")
+    ResourceVersion findVersionByPatientId(@Param("patientId") Long patientId);
+
+    @Query(VERSION_QUERY + "WHERE d.id = :doctorId")
+    ResourceVersion findVersionByDoctorId(@Param("doctorId") Long doctorId);
 }
@@ -0,0 +1,161 @@
+package com.devdishon.repository;
+
+import com.devdishon.dto.IndexedNotes;
+import com.devdishon.dto.MedicalRecordSearchHit;
+import com.devdishon.dto.SearchCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Full-text search over medical records through the {@code search_vector} column (see
+ * {@code MedicalRecordSearchSchema}). The vector weights diagnosis above symptoms above treatment
+ * above notes. It is written by {@link #index} in the same transaction as the record, rather than
+ * by a trigger, because the notes are stored compressed and only the application can read them.
+ * Searches rank matches with {@code ts_rank_cd} and page by (rank, id); only the rows of the page
+ * are read back to build their highlighted excerpts.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class MedicalRecordSearchRepository {
+
+    private static final String VECTOR =
+            "setweight(to_tsvector(CAST(:config AS regconfig), coalesce(diagnosis, '')), 'A') || " +
+            "setweight(to_tsvector(CAST(:config AS regconfig), coalesce(symptoms, '')), 'B') || " +
+            "setweight(to_tsvector(CAST(:config AS regconfig), coalesce(treatment, '')), 'C') || " +
+            "setweight(to_tsvector(CAST(:config AS regconfig), coalesce(CAST(:notes AS text), '')), 'D')";
+
+    private static final String HEADLINE_OPTIONS = "MaxFragments=2, MaxWords=15, MinWords=5";
+
+    private final EntityManager entityManager;
+    private final String config;
+
+    public MedicalRecordSearchRepository(EntityManager entityManager,
+                                         @Value("${app.medical-records.search.language:english}") String config) {
+        this.entityManager = entityManager;
+        this.config = config;
+    }
+
+    /**
+     * Recomputes a record's search vector from its stored columns and the given notes.
+     */
+    @Transactional
+    public void index(Long id, String notes) {
+        entityManager.createNativeQuery("UPDATE medical_records SET search_vector = " + VECTOR + " WHERE id = :id")
+                .setParameter("config", config)
+                .setParameter("notes", notes)
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
+    /**
+     * Like {@link #index}, but only while the record still has no search vector, and returns whether
+     * it wrote one. For the backfill: its notes were read in an earlier statement, and a concurrent
+     * update that has since indexed newer notes must not be overwritten with a vector of older ones.
+     * An update still in flight holds the row lock, so this waits for it and then sees its vector.
+     */
+    @Transactional
+    public boolean indexIfMissing(Long id, String notes) {
+        return entityManager.createNativeQuery("UPDATE medical_records SET search_vector = " + VECTOR +
+                        " WHERE id = :id AND search_vector IS NULL")
+                .setParameter("config", config)
+                .setParameter("notes", notes)
+                .setParameter("id", id)
+                .executeUpdate() > 0;
+    }
+
+    /**
+     * Ids of records that have no search vector yet, in id order after {@code afterId}.
+     */
+    public List<Long> findUnindexedIds(long afterId, int limit) {
+        List<?> ids = entityManager.createNativeQuery("SELECT id FROM medical_records " +
+                        "WHERE search_vector IS NULL AND id > :afterId ORDER BY id LIMIT :limit")
+                .setParameter("afterId", afterId)
+                .setParameter("limit", limit)
+                .getResultList();
+        return ids.stream().map(id -> ((Number) id).longValue()).toList();
+    }
+
+    public List<IndexedNotes> findNotes(Collection<Long> ids) {
+        return entityManager.createQuery("SELECT new com.devdishon.dto.IndexedNotes(m.id, m.notes, m.legacyNotes) " +
+                        "FROM MedicalRecord m WHERE m.id IN :ids", IndexedNotes.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    /**
+     * @param text web-search syntax: words, {@code "quoted phrases"}, {@code or}, {@code -excluded}
+     * @param after the last hit of the previous page, or null for the first page
+     */
+    public List<MedicalRecordSearchHit> search(String text, Long patientId, Long doctorId,
+                                               LocalDateTime from, LocalDateTime to,
+                                               SearchCursor after, int limit) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        StringBuilder where = new StringBuilder("m.search_vector @@ q.query");
+        // Only the filters in use are added, so each combination gets a plan for its own indexes
+        if (patientId != null) {
+            where.append(" AND m.patient_id = :patientId");
+            parameters.put("patientId", patientId);
+        }
+        if (doctorId != null) {
+            where.append(" AND m.doctor_id = :doctorId");
+            parameters.put("doctorId", doctorId);
+        }
+        if (from != null) {
+            where.append(" AND m.record_date >= :from");
+            parameters.put("from", from);
+        }
+        if (to != null) {
+            where.append(" AND m.record_date < :to");
+            parameters.put("to", to);
+        }
+        if (after != null) {
+            where.append(" AND (ts_rank_cd(m.search_vector, q.query) < CAST(:afterRank AS real)" +
+                    " OR (ts_rank_cd(m.search_vector, q.query) = CAST(:afterRank AS real) AND m.id < :afterId))");
+            parameters.put("afterRank", after.rank());
+            parameters.put("afterId", after.id());
+        }
+
+        String sql = "SELECT r.id, r.patient_id, r.doctor_id, r.record_date, p.rank, " +
+                "ts_headline(CAST(:config AS regconfig), concat_ws(' ', r.diagnosis, r.symptoms, r.treatment), " +
+                "p.query, '" + HEADLINE_OPTIONS + "') " +
+                "FROM (SELECT m.id, q.query, ts_rank_cd(m.search_vector, q.query) AS rank " +
+                "FROM medical_records m CROSS JOIN websearch_to_tsquery(CAST(:config AS regconfig), :text) AS q(query) " +
+                "WHERE " + where + " ORDER BY rank DESC, m.id DESC LIMIT :limit) p " +
+                "JOIN medical_records r ON r.id = p.id " +
+                "ORDER BY p.rank DESC, p.id DESC";
+        Query query = entityManager.createNativeQuery(sql)
+                .setParameter("config", config)
+                .setParameter("text", text)
+                .setParameter("limit", limit);
+        parameters.forEach(query::setParameter);
+
+        List<?> rows = query.getResultList();
+        List<MedicalRecordSearchHit> hits = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            Object[] columns = (Object[]) row;
+            hits.add(new MedicalRecordSearchHit(
+                    ((Number) columns[0]).longValue(),
+                    ((Number) columns[1]).longValue(),
+                    ((Number) columns[2]).longValue(),
+                    localDateTime(columns[3]),
+                    ((Number) columns[4]).floatValue(),
+                    (String) columns[5]));
+        }
+        return hits;
+    }
+
+    private static LocalDateTime localDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+}
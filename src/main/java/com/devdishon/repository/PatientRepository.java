@@ -1,7 +1,10 @@
 package com.devdishon.repository;
 
+import com.devdishon.dto.ResourceVersion;
 import com.devdishon.entity.Patient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,6 +12,9 @@ import java.util.Optional;
 @Repository
 public interface PatientRepository extends JpaRepository<Patient, Long> {
 
+    String VERSION_QUERY = "SELECT new com.devdishon.dto.ResourceVersion(count(p), coalesce(sum(p.id), 0L), " +
+            "max(p.updatedAt)) FROM Patient p ";
+
     Optional<Patient> findByEmail(String email);
 
     Optional<Patient> findByNationalId(String nationalId);
@@ -16,4 +22,10 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     boolean existsByEmail(String email);
 
     boolean existsByNationalId(String nationalId);
+
+    @Query(VERSION_QUERY + "WHERE p.id = :id")
+    ResourceVersion findVersionById(@Param("id") Long id);
+
+    @Query(VERSION_QUERY)
+    ResourceVersion findVersionOfAll();
 }
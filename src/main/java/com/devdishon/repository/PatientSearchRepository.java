@@ -0,0 +1,135 @@
+package com.devdishon.repository;
+
+import com.devdishon.dto.PatientMatch;
+import com.devdishon.dto.PatientMatch.Match;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Patient lookup by name or phone number for typeahead, backed by the indexes of
+ * {@code PatientSearchSchema}. Prefix queries read the {@code C}-collated btree indexes in order
+ * and stop after {@code limit} rows, however many patients share the prefix. Similarity queries
+ * use {@code pg_trgm} word similarity, so a misspelt or partial word still matches, and let the
+ * GiST index return the nearest rows first instead of ranking every candidate.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class PatientSearchRepository {
+
+    // Index expressions; queries must use them verbatim for PostgreSQL to match the indexes
+    public static final String FIRST_NAME = "lower(first_name)";
+    public static final String LAST_NAME = "lower(last_name)";
+    public static final String FULL_NAME = "lower(first_name) || ' ' || lower(last_name)";
+    public static final String PHONE_DIGITS = "regexp_replace(phone_number, '[^0-9]', '', 'g')";
+    public static final String BYTE_ORDER = " COLLATE \"C\"";
+
+    private static final String COLUMNS = "SELECT id, first_name, last_name, phone_number, date_of_birth FROM patients ";
+
+    private final EntityManager entityManager;
+
+    public PatientSearchRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Patients whose first or last name starts with {@code terms[0]} or, for two terms, whose
+     * first and last names start with the two terms in either order; by last name, first name, id.
+     *
+     * @param terms one or two lower-case words
+     */
+    public List<PatientMatch> findByNamePrefix(List<String> terms, int limit) {
+        List<String> branches = new ArrayList<>();
+        if (terms.size() == 1) {
+            branches.add(prefixBranch(LAST_NAME, ":p0", null, null));
+            branches.add(prefixBranch(FIRST_NAME, ":p0", null, null));
+        } else {
+            branches.add(prefixBranch(LAST_NAME, ":p1", FIRST_NAME, ":p0"));
+            branches.add(prefixBranch(LAST_NAME, ":p0", FIRST_NAME, ":p1"));
+        }
+        // Each branch walks one index in order and stops at limit; only their union is sorted
+        String sql = "SELECT * FROM (" + String.join(" UNION ", branches) + ") m " +
+                "ORDER BY lower(m.last_name)" + BYTE_ORDER + ", lower(m.first_name)" + BYTE_ORDER + ", m.id LIMIT :limit";
+        Query query = entityManager.createNativeQuery(sql).setParameter("limit", limit);
+        for (int i = 0; i < terms.size(); i++) {
+            query.setParameter("p" + i, likePrefix(terms.get(i)));
+        }
+        return matches(query, Match.PREFIX);
+    }
+
+    /**
+     * Patients whose phone number, ignoring everything but digits, starts with {@code digits}.
+     */
+    public List<PatientMatch> findByPhonePrefix(String digits, int limit) {
+        Query query = entityManager.createNativeQuery(COLUMNS +
+                        "WHERE " + PHONE_DIGITS + BYTE_ORDER + " LIKE :prefix " +
+                        "ORDER BY " + PHONE_DIGITS + BYTE_ORDER + ", id LIMIT :limit")
+                .setParameter("prefix", likePrefix(digits))
+                .setParameter("limit", limit);
+        return matches(query, Match.PREFIX);
+    }
+
+    /**
+     * Patients whose full name contains a word close to {@code text}, closest first.
+     */
+    public List<PatientMatch> findByNameSimilarity(String text, int limit) {
+        return similar(FULL_NAME, text, limit);
+    }
+
+    /**
+     * Patients whose phone digits contain a run close to {@code digits}, closest first.
+     */
+    public List<PatientMatch> findByPhoneSimilarity(String digits, int limit) {
+        return similar(PHONE_DIGITS, digits, limit);
+    }
+
+    private List<PatientMatch> similar(String expression, String text, int limit) {
+        Query query = entityManager.createNativeQuery(COLUMNS +
+                        "WHERE CAST(:text AS text) <% (" + expression + ") " +
+                        "ORDER BY CAST(:text AS text) <<-> (" + expression + ") LIMIT :limit")
+                .setParameter("text", text)
+                .setParameter("limit", limit);
+        return matches(query, Match.FUZZY);
+    }
+
+    private static String prefixBranch(String indexed, String prefix, String filtered, String filterPrefix) {
+        String where = indexed + BYTE_ORDER + " LIKE " + prefix;
+        if (filtered != null) {
+            where += " AND " + filtered + " LIKE " + filterPrefix;
+        }
+        return "(" + COLUMNS + "WHERE " + where + " ORDER BY " + indexed + BYTE_ORDER + ", id LIMIT :limit)";
+    }
+
+    /**
+     * A LIKE pattern matching values that start with {@code text} literally.
+     */
+    static String likePrefix(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    private static List<PatientMatch> matches(Query query, Match match) {
+        List<?> rows = query.getResultList();
+        List<PatientMatch> matches = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            Object[] columns = (Object[]) row;
+            matches.add(new PatientMatch(
+                    ((Number) columns[0]).longValue(),
+                    (String) columns[1],
+                    (String) columns[2],
+                    (String) columns[3],
+                    localDate(columns[4]),
+                    match));
+        }
+        return matches;
+    }
+
+    private static LocalDate localDate(Object value) {
+        return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+}
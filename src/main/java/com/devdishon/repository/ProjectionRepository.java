@@ -0,0 +1,260 @@
+package com.devdishon.repository;
+
+import com.devdishon.dto.FieldSelection;
+import com.devdishon.entity.MedicalRecord;
+import com.devdishon.exception.BadRequestException;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs list queries for a {@link FieldSelection}, selecting only the requested columns instead
+ * of whole entities. Rows come back as maps shaped like the entity's JSON: top-level fields in
+ * declaration order, and embedded patients, doctors and appointments as nested maps (or null when
+ * the association is empty). Associations are joined only when one of their fields is selected,
+ * and always come back with their id.
+ * Fields the entity's JSON hides ({@code @JsonIgnore}, {@code @JsonIgnoreProperties}) cannot be
+ * selected, and collections are not selectable at all.
+ * A field whose getter falls back to a hidden legacy column (medical record lab results and notes
+ * not yet moved by the compression job) selects that column too and falls back the same way.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class ProjectionRepository {
+
+    // Per entity: field -> hidden column its getter falls back to when the field is null
+    private static final Map<Class<?>, Map<String, String>> FALLBACKS = Map.of(
+            MedicalRecord.class, Map.of("labResults", "legacyLabResults", "notes", "legacyNotes"));
+
+    private final EntityManager entityManager;
+    private final Map<Class<?>, Schema> schemas = new ConcurrentHashMap<>();
+
+    public ProjectionRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * @param where optional filter, the same predicate the matching repository query applies
+     * @throws BadRequestException if a selected field does not exist on the entity
+     */
+    public <T> List<Map<String, Object>> findAll(Class<T> entityType, FieldSelection fields,
+                                                 Specification<T> where, Sort sort) {
+        List<Column> columns = schemaOf(entityType).resolve(fields);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(entityType);
+        Map<String, Join<T, ?>> joins = new HashMap<>();
+        List<Selection<?>> selections = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            Column column = columns.get(i);
+            From<?, ?> from = column.association() == null ? root
+                    : joins.computeIfAbsent(column.association(), name -> root.join(name, JoinType.LEFT));
+            selections.add(from.get(column.attribute()).alias("c" + i));
+            if (column.fallback() != null) {
+                selections.add(from.get(column.fallback()).alias("f" + i));
+            }
+        }
+        query.multiselect(selections);
+        if (where != null) {
+            Predicate predicate = where.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+
+        List<Tuple> rows = entityManager.createQuery(query).getResultList();
+        List<Map<String, Object>> result = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            result.add(toMap(row, columns));
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> toMap(Tuple row, List<Column> columns) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            Column column = columns.get(i);
+            Object value = row.get("c" + i);
+            if (value == null && column.fallback() != null) {
+                value = row.get("f" + i);
+            }
+            if (column.association() == null) {
+                map.put(column.attribute(), value);
+            } else if (column.isAssociationId() && value == null) {
+                map.put(column.association(), null);
+            } else if (map.get(column.association()) instanceof Map<?, ?> nested) {
+                ((Map<String, Object>) nested).put(column.attribute(), value);
+            } else if (!map.containsKey(column.association())) {
+                Map<String, Object> nested = new LinkedHashMap<>();
+                nested.put(column.attribute(), value);
+                map.put(column.association(), nested);
+            }
+        }
+        return map;
+    }
+
+    private Schema schemaOf(Class<?> entityType) {
+        return schemas.computeIfAbsent(entityType, type -> new Schema(entityManager.getMetamodel().entity(type),
+                FALLBACKS.getOrDefault(type, Map.of())));
+    }
+
+    /**
+     * One selected column: a field of the root entity, or of one of its associations.
+     * Every association's id is selected first so an empty association can be told apart.
+     * {@code fallback} names the attribute read when this one is null, if any.
+     */
+    private record Column(String association, String attribute, boolean isAssociationId, String fallback) {
+    }
+
+    /**
+     * A selectable top-level field; {@code nested} lists an association's selectable fields,
+     * id first, and is null for a plain column.
+     */
+    private record SchemaField(String name, List<String> nested, String fallback) {
+    }
+
+    /**
+     * The selectable fields of one entity, in declaration order.
+     */
+    private static final class Schema {
+
+        private final String entityName;
+        private final Map<String, SchemaField> fields = new LinkedHashMap<>();
+
+        private Schema(EntityType<?> type, Map<String, String> fallbacks) {
+            this.entityName = type.getName();
+            for (Field field : visibleFields(type.getJavaType(), Set.of())) {
+                if (!(attributeOf(type, field) instanceof SingularAttribute<?, ?> attribute)) {
+                    continue;
+                }
+                if (attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC) {
+                    fields.put(field.getName(), new SchemaField(field.getName(), null, fallbacks.get(field.getName())));
+                } else if (attribute.isAssociation() && attribute.getType() instanceof EntityType<?> target) {
+                    fields.put(field.getName(), new SchemaField(field.getName(), associationFields(field, target), null));
+                }
+            }
+        }
+
+        private static List<String> associationFields(Field field, EntityType<?> target) {
+            JsonIgnoreProperties ignored = field.getAnnotation(JsonIgnoreProperties.class);
+            Set<String> hidden = ignored != null ? Set.of(ignored.value()) : Set.of();
+            String id = target.getId(target.getIdType().getJavaType()).getName();
+            List<String> names = new ArrayList<>();
+            names.add(id);
+            for (Field nested : visibleFields(target.getJavaType(), hidden)) {
+                if (!nested.getName().equals(id)
+                        && attributeOf(target, nested) instanceof SingularAttribute<?, ?> attribute
+                        && attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC) {
+                    names.add(nested.getName());
+                }
+            }
+            return names;
+        }
+
+        private static Attribute<?, ?> attributeOf(EntityType<?> type, Field field) {
+            try {
+                return type.getAttribute(field.getName());
+            } catch (IllegalArgumentException notPersistent) {
+                return null;
+            }
+        }
+
+        private static List<Field> visibleFields(Class<?> type, Set<String> hidden) {
+            return Arrays.stream(type.getDeclaredFields())
+                    .filter(field -> !Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers()))
+                    .filter(field -> !field.isAnnotationPresent(JsonIgnore.class) && !hidden.contains(field.getName()))
+                    .toList();
+        }
+
+        /**
+         * The columns for a selection in declaration order; an empty selection means every field.
+         */
+        List<Column> resolve(FieldSelection selection) {
+            // Per selected top-level field, the association fields asked for
+            Map<String, Set<String>> requested = new HashMap<>();
+            if (selection.isAll()) {
+                fields.values().forEach(field -> requested.put(field.name(),
+                        field.nested() != null ? Set.copyOf(field.nested()) : Set.of()));
+            }
+            for (String name : selection.fields()) {
+                int dot = name.indexOf('.');
+                SchemaField field = fields.get(dot < 0 ? name : name.substring(0, dot));
+                String subfield = dot < 0 ? null : name.substring(dot + 1);
+                if (field == null || (subfield != null && (field.nested() == null || !field.nested().contains(subfield)))) {
+                    throw new BadRequestException("Unknown field '" + name + "' for " + entityName
+                            + "; selectable fields are " + describe());
+                }
+                Set<String> subfields = requested.computeIfAbsent(field.name(), key -> new HashSet<>());
+                if (subfield == null) {
+                    subfields.addAll(field.nested() != null ? field.nested() : List.of());
+                } else {
+                    subfields.add(subfield);
+                }
+            }
+
+            List<Column> columns = new ArrayList<>();
+            for (SchemaField field : fields.values()) {
+                Set<String> subfields = requested.get(field.name());
+                if (subfields == null) {
+                    continue;
+                }
+                if (field.nested() == null) {
+                    columns.add(new Column(null, field.name(), false, field.fallback()));
+                    continue;
+                }
+                columns.add(new Column(field.name(), field.nested().get(0), true, null));
+                for (String attribute : field.nested().subList(1, field.nested().size())) {
+                    if (subfields.contains(attribute)) {
+                        columns.add(new Column(field.name(), attribute, false, null));
+                    }
+                }
+            }
+            return columns;
+        }
+
+        private String describe() {
+            List<String> names = new ArrayList<>();
+            for (SchemaField field : fields.values()) {
+                names.add(field.name());
+                if (field.nested() != null) {
+                    field.nested().forEach(attribute -> names.add(field.name() + "." + attribute));
+                }
+            }
+            return String.join(", ", names);
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.devdishon.repository;
 
+import com.devdishon.dto.ResourceVersion;
 import com.devdishon.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,7 +12,21 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    /**
+     * Version probe for user JSON. Role changes only touch the join table, so the role ids are
+     * folded into the checksum per user; the count is of user-role rows, not users.
+     */
+    String VERSION_QUERY = "SELECT new com.devdishon.dto.ResourceVersion(count(u), " +
+            "coalesce(sum(u.id), 0L) + coalesce(sum(u.id * r.id), 0L), max(u.updatedAt)) " +
+            "FROM User u LEFT JOIN u.roles r ";
+
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    @Query(VERSION_QUERY + "WHERE u.id = :id")
+    ResourceVersion findVersionById(@Param("id") Long id);
+
+    @Query(VERSION_QUERY)
+    ResourceVersion findVersionOfAll();
 }
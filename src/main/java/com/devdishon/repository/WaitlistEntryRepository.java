@@ -0,0 +1,26 @@
+package com.devdishon.repository;
+
+import com.devdishon.dto.WaitlistTicket;
+import com.devdishon.entity.WaitlistEntry;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    @Query("SELECT new com.devdishon.dto.WaitlistTicket(w.id, w.patient.id, d.id, w.specialization, " +
+            "w.urgency, w.createdAt, w.availableFrom, w.availableUntil) " +
+            "FROM WaitlistEntry w LEFT JOIN w.doctor d WHERE w.status = com.devdishon.entity.WaitlistStatus.WAITING")
+    List<WaitlistTicket> findWaitingTickets();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.id = :id")
+    Optional<WaitlistEntry> findByIdForUpdate(@Param("id") Long id);
+}
@@ -0,0 +1,47 @@
+package com.devdishon.security;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Turns an {@code Authorization: Bearer <jwt>} value into an authentication: the token must be
+ * signed by {@link JwtService}, unexpired, and name a user that still exists. Shared by the
+ * servlet filter and the gRPC interceptor so both APIs accept exactly the same tokens.
+ */
+@Component
+public class BearerTokenAuthenticator {
+
+    public static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtService jwtService;
+    private final UserDetailsService userDetailsService;
+
+    public BearerTokenAuthenticator(JwtService jwtService, UserDetailsService userDetailsService) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+    }
+
+    /**
+     * Returns empty if the header is missing or not a bearer token. Throws if the token is
+     * malformed, badly signed or expired, or names an unknown user.
+     */
+    public Optional<UsernamePasswordAuthenticationToken> authenticate(String authorizationHeader) {
+        if (authorizationHeader == null || !authorizationHeader.startsWith(BEARER_PREFIX)) {
+            return Optional.empty();
+        }
+        String jwt = authorizationHeader.substring(BEARER_PREFIX.length());
+        String userEmail = jwtService.extractUsername(jwt);
+        if (userEmail == null) {
+            return Optional.empty();
+        }
+        UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+        if (!jwtService.isTokenValid(jwt, userDetails)) {
+            return Optional.empty();
+        }
+        return Optional.of(new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+    }
+}
@@ -1,32 +1,70 @@
 package com.devdishon.service;
 
+import com.devdishon.dto.BatchResult;
+import com.devdishon.dto.FieldSelection;
+import com.devdishon.dto.ProjectedRows;
+import com.devdishon.dto.ResourceVersion;
 import com.devdishon.entity.Appointment;
 import com.devdishon.entity.AppointmentStatus;
+import com.devdishon.entity.AppointmentType;
 import com.devdishon.entity.Doctor;
 import com.devdishon.entity.Patient;
+import com.devdishon.entity.WaitlistEntry;
 import com.devdishon.repository.AppointmentRepository;
 import com.devdishon.repository.DoctorRepository;
 import com.devdishon.repository.PatientRepository;
+import com.devdishon.repository.ProjectionRepository;
+import com.devdishon.service.reminder.AppointmentReminderScheduler;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class AppointmentService {
 
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentService.class);
+
     private final AppointmentRepository appointmentRepository;
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
+    private final AppointmentReminderScheduler reminderScheduler;
+    private final WaitlistService waitlistService;
+    private final DoctorWorkloadService workloadService;
+    private final EntityManager entityManager;
+    private final ProjectionRepository projectionRepository;
+
+    @Value("${app.batch.max-ids:200}")
+    private int maxBatchIds;
 
     public AppointmentService(AppointmentRepository appointmentRepository,
                               PatientRepository patientRepository,
-                              DoctorRepository doctorRepository) {
+                              DoctorRepository doctorRepository,
+                              AppointmentReminderScheduler reminderScheduler,
+                              WaitlistService waitlistService,
+                              DoctorWorkloadService workloadService,
+                              EntityManager entityManager,
+                              ProjectionRepository projectionRepository) {
         this.appointmentRepository = appointmentRepository;
         this.patientRepository = patientRepository;
         this.doctorRepository = doctorRepository;
+        this.reminderScheduler = reminderScheduler;
+        this.waitlistService = waitlistService;
+        this.workloadService = workloadService;
+        this.entityManager = entityManager;
+        this.projectionRepository = projectionRepository;
     }
 
     public List<Appointment> getAllAppointments() {
@@ -38,6 +76,16 @@ public class AppointmentService {
                 .orElseThrow(() -> new IllegalStateException("Appointment with id " + id + " not found"));
     }
 
+    /**
+     * Appointments with their patient and doctor for up to {@code app.batch.max-ids} ids in one
+     * query, in request order.
+     */
+    @Transactional(readOnly = true)
+    public BatchResult<Appointment> getAppointmentsByIds(List<Long> ids) {
+        List<Long> distinct = BatchResult.distinctIds(ids, maxBatchIds);
+        return BatchResult.of(distinct, appointmentRepository.findAllWithPartiesByIdIn(distinct), Appointment::getId);
+    }
+
     public List<Appointment> getAppointmentsByPatientId(Long patientId) {
         return appointmentRepository.findByPatientId(patientId);
     }
@@ -58,6 +106,104 @@ public class AppointmentService {
         return appointmentRepository.findByDateRange(start, end);
     }
 
+    // Sparse-fieldset variants of the lists above: only the selected fields of each appointment,
+    // read with the same filter and order
+
+    @Transactional(readOnly = true)
+    public ProjectedRows getAllAppointments(FieldSelection fields) {
+        return project(fields, null, Sort.unsorted());
+    }
+
+    @Transactional(readOnly = true)
+    public ProjectedRows getAppointmentsByPatientId(Long patientId, FieldSelection fields) {
+        return project(fields, (root, query, cb) -> cb.equal(root.get("patient").get("id"), patientId), Sort.unsorted());
+    }
+
+    @Transactional(readOnly = true)
+    public ProjectedRows getAppointmentsByDoctorId(Long doctorId, FieldSelection fields) {
+        return project(fields, (root, query, cb) -> cb.equal(root.get("doctor").get("id"), doctorId), Sort.unsorted());
+    }
+
+    @Transactional(readOnly = true)
+    public ProjectedRows getAppointmentsByStatus(AppointmentStatus status, FieldSelection fields) {
+        return project(fields, (root, query, cb) -> cb.equal(root.get("status"), status), Sort.unsorted());
+    }
+
+    @Transactional(readOnly = true)
+    public ProjectedRows getUpcomingAppointmentsByPatientId(Long patientId, FieldSelection fields) {
+        LocalDateTime now = LocalDateTime.now();
+        return project(fields, (root, query, cb) -> cb.and(
+                cb.equal(root.get("patient").get("id"), patientId),
+                cb.greaterThanOrEqualTo(root.<LocalDateTime>get("appointmentDateTime"), now)), Sort.by("appointmentDateTime"));
+    }
+
+    @Transactional(readOnly = true)
+    public ProjectedRows getAppointmentsByDateRange(LocalDateTime start, LocalDateTime end, FieldSelection fields) {
+        return project(fields, (root, query, cb) -> cb.between(root.<LocalDateTime>get("appointmentDateTime"), start, end),
+                Sort.unsorted());
+    }
+
+    private ProjectedRows project(FieldSelection fields, Specification<Appointment> where, Sort sort) {
+        return new ProjectedRows(projectionRepository.findAll(Appointment.class, fields, where, sort));
+    }
+
+    /**
+     * Hands the appointments in the range to {@code sink} one at a time, in time order, while they
+     * are read from the database, and stops early once the sink returns false. Each appointment is
+     * detached after the sink has seen it so long ranges do not pile up in the persistence context.
+     * Returns how many appointments the sink accepted.
+     */
+    @Transactional(readOnly = true)
+    public int streamAppointmentsByDateRange(LocalDateTime start, LocalDateTime end, Predicate<Appointment> sink) {
+        int accepted = 0;
+        try (Stream<Appointment> appointments = appointmentRepository.streamByDateRange(start, end)) {
+            Iterator<Appointment> iterator = appointments.iterator();
+            while (iterator.hasNext()) {
+                Appointment appointment = iterator.next();
+                if (!sink.test(appointment)) {
+                    break;
+                }
+                accepted++;
+                entityManager.detach(appointment);
+            }
+        }
+        return accepted;
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion getAppointmentVersion(Long id) {
+        return appointmentRepository.findVersionById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion getAllAppointmentsVersion() {
+        return appointmentRepository.findVersionOfAll();
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion getAppointmentsByPatientIdVersion(Long patientId) {
+        return appointmentRepository.findVersionByPatientId(patientId);
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion getAppointmentsByDoctorIdVersion(Long doctorId) {
+        return appointmentRepository.findVersionByDoctorId(doctorId);
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion getAppointmentsByStatusVersion(AppointmentStatus status) {
+        return appointmentRepository.findVersionByStatus(status);
+    }
+
+    /**
+     * Version of the upcoming list as of {@code now}. An appointment dropping out of the window
+     * changes the count and checksum, so the list's ETag moves once one starts.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getUpcomingAppointmentsByPatientIdVersion(Long patientId) {
+        return appointmentRepository.findUpcomingVersionByPatientId(patientId, LocalDateTime.now());
+    }
+
     public Appointment createAppointment(Long patientId, Long doctorId, Appointment appointment) {
         Patient patient = patientRepository.findById(patientId)
                 .orElseThrow(() -> new IllegalStateException("Patient with id " + patientId + " not found"));
@@ -73,20 +219,52 @@ public class AppointmentService {
         appointment.setDoctor(doctor);
         appointment.setStatus(AppointmentStatus.SCHEDULED);
 
-        return appointmentRepository.save(appointment);
+        Appointment saved = appointmentRepository.save(appointment);
+        reminderScheduler.track(saved);
+        workloadService.appointmentBooked(doctorId, saved.getAppointmentDateTime());
+        return saved;
     }
 
     public Appointment updateAppointmentStatus(Long id, AppointmentStatus status) {
         Appointment appointment = getAppointmentById(id);
+        boolean wasActive = isActive(appointment.getStatus());
+        boolean wasCancelled = appointment.getStatus() == AppointmentStatus.CANCELLED;
         appointment.setStatus(status);
-        return appointmentRepository.save(appointment);
+        Appointment saved = appointmentRepository.save(appointment);
+        if (!wasCancelled && status == AppointmentStatus.CANCELLED) {
+            workloadService.appointmentReleased(saved.getDoctor().getId(), saved.getAppointmentDateTime());
+        } else if (wasCancelled && status != AppointmentStatus.CANCELLED) {
+            workloadService.appointmentBooked(saved.getDoctor().getId(), saved.getAppointmentDateTime());
+        }
+        if (isActive(status)) {
+            reminderScheduler.track(saved);
+        } else {
+            reminderScheduler.untrack(id);
+        }
+        if (wasActive && status == AppointmentStatus.CANCELLED) {
+            backfillFromWaitlist(saved.getDoctor(), saved.getAppointmentDateTime(), saved.getPatient().getId());
+        }
+        return saved;
     }
 
     public Appointment rescheduleAppointment(Long id, LocalDateTime newDateTime) {
         Appointment appointment = getAppointmentById(id);
+        LocalDateTime previousDateTime = appointment.getAppointmentDateTime();
+        boolean wasCancelled = appointment.getStatus() == AppointmentStatus.CANCELLED;
+        LocalDateTime freedSlot = isActive(appointment.getStatus()) ? previousDateTime : null;
         appointment.setAppointmentDateTime(newDateTime);
         appointment.setStatus(AppointmentStatus.SCHEDULED);
-        return appointmentRepository.save(appointment);
+        Appointment saved = appointmentRepository.save(appointment);
+        reminderScheduler.track(saved);
+        if (wasCancelled) {
+            workloadService.appointmentBooked(saved.getDoctor().getId(), newDateTime);
+        } else {
+            workloadService.appointmentMoved(saved.getDoctor().getId(), previousDateTime, newDateTime);
+        }
+        if (freedSlot != null && !freedSlot.equals(newDateTime)) {
+            backfillFromWaitlist(saved.getDoctor(), freedSlot, saved.getPatient().getId());
+        }
+        return saved;
     }
 
     public Appointment cancelAppointment(Long id) {
@@ -100,9 +278,35 @@ public class AppointmentService {
     }
 
     public void deleteAppointment(Long id) {
-        if (!appointmentRepository.existsById(id)) {
-            throw new IllegalStateException("Appointment with id " + id + " does not exist");
+        Appointment appointment = appointmentRepository.findById(id)
+                .orElseThrow(() -> new IllegalStateException("Appointment with id " + id + " does not exist"));
+        appointmentRepository.delete(appointment);
+        reminderScheduler.untrack(id);
+        if (appointment.getStatus() != AppointmentStatus.CANCELLED) {
+            workloadService.appointmentReleased(appointment.getDoctor().getId(), appointment.getAppointmentDateTime());
+        }
+    }
+
+    private boolean isActive(AppointmentStatus status) {
+        return status == AppointmentStatus.SCHEDULED || status == AppointmentStatus.CONFIRMED;
+    }
+
+    /**
+     * Books a freed slot for the head of the doctor's waitlist within the current transaction.
+     */
+    private void backfillFromWaitlist(Doctor doctor, LocalDateTime slot, Long freedByPatientId) {
+        Optional<WaitlistEntry> claimed = waitlistService.claimSlot(doctor, slot, freedByPatientId);
+        if (claimed.isEmpty()) {
+            return;
         }
-        appointmentRepository.deleteById(id);
+        WaitlistEntry entry = claimed.get();
+        AppointmentType type = entry.getAppointmentType() != null ? entry.getAppointmentType() : AppointmentType.CONSULTATION;
+        Appointment backfill = new Appointment(entry.getPatient(), doctor, slot, type, entry.getReasonForVisit());
+        Appointment saved = appointmentRepository.save(backfill);
+        entry.setBookedAppointmentId(saved.getId());
+        reminderScheduler.track(saved);
+        workloadService.appointmentBooked(doctor.getId(), slot);
+        logger.info("Backfilled slot {} with doctor {} from waitlist entry {} (appointment {})",
+                slot, doctor.getId(), entry.getId(), saved.getId());
     }
 }
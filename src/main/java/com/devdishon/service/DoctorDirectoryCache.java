@@ -0,0 +1,220 @@
+package com.devdishon.service;
+
+import com.devdishon.dto.DoctorDirectoryVersion;
+import com.devdishon.dto.FieldSelection;
+import com.devdishon.dto.ProjectedRows;
+import com.devdishon.entity.Doctor;
+import com.devdishon.entity.Specialization;
+import com.devdishon.repository.DoctorRepository;
+import com.devdishon.repository.ProjectionRepository;
+import com.devdishon.service.coalescing.ReadCoalescer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Serialized JSON for the doctor directory lists (all, available, and both per specialization),
+ * kept in memory with a strong ETag so hot reads touch neither the database nor Jackson.
+ * Lists are built on first use through the {@link ReadCoalescer}, so a cold cache under load still
+ * runs each query once. Writes through {@link DoctorService} drop the whole cache after commit;
+ * writes on other replicas are noticed by a periodic fingerprint query of the doctors table.
+ * The lists are the same for every role allowed to read them, so entries are not scoped per caller.
+ * Sparse fieldsets ({@code ?fields=}) are cached as separate entries, up to {@link #MAX_ENTRIES}
+ * per generation; past that they are still served, just not kept.
+ */
+@Service
+public class DoctorDirectoryCache implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(DoctorDirectoryCache.class);
+
+    static final int MAX_ENTRIES = 256;
+
+    private final DoctorRepository doctorRepository;
+    private final ProjectionRepository projectionRepository;
+    private final ReadCoalescer readCoalescer;
+    private final boolean enabled;
+
+    private final AtomicReference<Generation> entries = new AtomicReference<>(new Generation(0));
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile DoctorDirectoryVersion lastSeenVersion;
+
+    public DoctorDirectoryCache(DoctorRepository doctorRepository,
+                                ProjectionRepository projectionRepository,
+                                ReadCoalescer readCoalescer,
+                                @Value("${app.doctor-directory.cache-enabled:true}") boolean enabled) {
+        this.doctorRepository = doctorRepository;
+        this.projectionRepository = projectionRepository;
+        this.readCoalescer = readCoalescer;
+        this.enabled = enabled;
+    }
+
+    public CachedJson allDoctors() {
+        return allDoctors(FieldSelection.ALL);
+    }
+
+    public CachedJson allDoctors(FieldSelection fields) {
+        return get("all", fields, doctorRepository::findAll, null);
+    }
+
+    public CachedJson doctorsBySpecialization(Specialization specialization) {
+        return doctorsBySpecialization(specialization, FieldSelection.ALL);
+    }
+
+    public CachedJson doctorsBySpecialization(Specialization specialization, FieldSelection fields) {
+        return get("specialization:" + specialization.name(), fields,
+                () -> doctorRepository.findBySpecialization(specialization),
+                (root, query, cb) -> cb.equal(root.get("specialization"), specialization));
+    }
+
+    public CachedJson availableDoctors() {
+        return availableDoctors(FieldSelection.ALL);
+    }
+
+    public CachedJson availableDoctors(FieldSelection fields) {
+        return get("available", fields, doctorRepository::findByIsAvailableTrue,
+                (root, query, cb) -> cb.isTrue(root.<Boolean>get("isAvailable")));
+    }
+
+    public CachedJson availableDoctorsBySpecialization(Specialization specialization) {
+        return availableDoctorsBySpecialization(specialization, FieldSelection.ALL);
+    }
+
+    public CachedJson availableDoctorsBySpecialization(Specialization specialization, FieldSelection fields) {
+        return get("available:" + specialization.name(), fields,
+                () -> doctorRepository.findBySpecializationAndIsAvailableTrue(specialization),
+                (root, query, cb) -> cb.and(
+                        cb.equal(root.get("specialization"), specialization),
+                        cb.isTrue(root.<Boolean>get("isAvailable"))));
+    }
+
+    /**
+     * Drops every cached list once the current transaction commits.
+     */
+    public void doctorsChanged() {
+        TransactionHooks.afterCommit(this::invalidate);
+    }
+
+    public void invalidate() {
+        entries.updateAndGet(current -> new Generation(current.number() + 1));
+    }
+
+    /**
+     * Picks up doctor changes made through other replicas. The first check has nothing to compare
+     * with, so it drops whatever was cached before it: those lists may predate a write made
+     * elsewhere in the meantime.
+     */
+    @Scheduled(initialDelayString = "${app.doctor-directory.version-check-interval-ms:5000}",
+            fixedDelayString = "${app.doctor-directory.version-check-interval-ms:5000}")
+    public void checkVersion() {
+        if (!enabled) {
+            return;
+        }
+        DoctorDirectoryVersion version = doctorRepository.findDirectoryVersion();
+        DoctorDirectoryVersion previous = lastSeenVersion;
+        lastSeenVersion = version;
+        if (previous == null) {
+            invalidate();
+        } else if (!previous.equals(version)) {
+            logger.debug("Doctor directory changed ({} -> {}); dropping cached lists", previous, version);
+            invalidate();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("hms.doctor_directory.cache.hits", hits, LongAdder::sum)
+                .description("Doctor directory reads served from cached JSON")
+                .register(registry);
+        FunctionCounter.builder("hms.doctor_directory.cache.misses", misses, LongAdder::sum)
+                .description("Doctor directory reads that had to query and serialize")
+                .register(registry);
+        Gauge.builder("hms.doctor_directory.cache.entries", entries, ref -> ref.get().lists().size())
+                .description("Cached doctor directory lists")
+                .register(registry);
+    }
+
+    private CachedJson get(String list, FieldSelection fields, Supplier<?> entities, Specification<Doctor> where) {
+        if (fields.isAll()) {
+            return get(list, entities);
+        }
+        return get(list + "?fields=" + fields.key(),
+                () -> new ProjectedRows(projectionRepository.findAll(Doctor.class, fields, where, Sort.unsorted())));
+    }
+
+    private CachedJson get(String key, Supplier<?> loader) {
+        // Taken before querying, so a list read before a concurrent write commits lands in the
+        // generation that the write's invalidation throws away
+        Generation generation = entries.get();
+        CachedJson cached = generation.lists().get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        // Coalesced per generation: a read starting after an invalidation must not join a load
+        // that began before it and may have seen the old rows
+        CachedJson built = CachedJson.of(readCoalescer.json("doctor-directory", key + '@' + generation.number(), loader));
+        if (enabled && generation.lists().size() < MAX_ENTRIES) {
+            generation.lists().putIfAbsent(key, built);
+        }
+        return built;
+    }
+
+    /**
+     * The lists cached since the last invalidation.
+     */
+    private record Generation(long number, Map<String, CachedJson> lists) {
+
+        Generation(long number) {
+            this(number, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * A serialized list and its strong ETag.
+     */
+    public record CachedJson(byte[] body, String etag) {
+
+        static CachedJson of(byte[] body) {
+            return new CachedJson(body, '"' + digest(body) + '"');
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CachedJson other && Objects.equals(etag, other.etag);
+        }
+
+        @Override
+        public int hashCode() {
+            return etag.hashCode();
+        }
+
+        private static String digest(byte[] body) {
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+                return Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 27);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.devdishon.service;
 
+import com.devdishon.dto.BatchResult;
+import com.devdishon.dto.DoctorRecommendation;
 import com.devdishon.entity.Doctor;
 import com.devdishon.entity.Specialization;
 import com.devdishon.repository.DoctorRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,9 +16,20 @@ import java.util.List;
 public class DoctorService {
 
     private final DoctorRepository doctorRepository;
+    private final DoctorWorkloadService workloadService;
+    private final DoctorDirectoryCache directoryCache;
 
-    public DoctorService(DoctorRepository doctorRepository) {
+    @Value("${app.workload.max-recommendations:20}")
+    private int maxRecommendations;
+
+    @Value("${app.batch.max-ids:200}")
+    private int maxBatchIds;
+
+    public DoctorService(DoctorRepository doctorRepository, DoctorWorkloadService workloadService,
+                         DoctorDirectoryCache directoryCache) {
         this.doctorRepository = doctorRepository;
+        this.workloadService = workloadService;
+        this.directoryCache = directoryCache;
     }
 
     public List<Doctor> getAllDoctors() {
@@ -27,6 +41,15 @@ public class DoctorService {
                 .orElseThrow(() -> new IllegalStateException("Doctor with id " + id + " not found"));
     }
 
+    /**
+     * Doctors for up to {@code app.batch.max-ids} ids in one query, in request order.
+     */
+    @Transactional(readOnly = true)
+    public BatchResult<Doctor> getDoctorsByIds(List<Long> ids) {
+        List<Long> distinct = BatchResult.distinctIds(ids, maxBatchIds);
+        return BatchResult.of(distinct, doctorRepository.findAllById(distinct), Doctor::getId);
+    }
+
     public List<Doctor> getDoctorsBySpecialization(Specialization specialization) {
         return doctorRepository.findBySpecialization(specialization);
     }
@@ -39,6 +62,13 @@ public class DoctorService {
         return doctorRepository.findBySpecializationAndIsAvailableTrue(specialization);
     }
 
+    public List<DoctorRecommendation> getRecommendedDoctors(Specialization specialization, int limit) {
+        if (limit < 1) {
+            throw new IllegalStateException("limit must be at least 1");
+        }
+        return workloadService.recommendDoctors(specialization, Math.min(limit, maxRecommendations));
+    }
+
     public Doctor createDoctor(Doctor doctor) {
         if (doctorRepository.existsByEmail(doctor.getEmail())) {
             throw new IllegalStateException("Doctor with email " + doctor.getEmail() + " already exists");
@@ -46,7 +76,10 @@ public class DoctorService {
         if (doctorRepository.existsByLicenseNumber(doctor.getLicenseNumber())) {
             throw new IllegalStateException("Doctor with license number " + doctor.getLicenseNumber() + " already exists");
         }
-        return doctorRepository.save(doctor);
+        Doctor saved = doctorRepository.save(doctor);
+        workloadService.doctorSaved(saved);
+        directoryCache.doctorsChanged();
+        return saved;
     }
 
     public Doctor updateDoctor(Long id, Doctor updatedDoctor) {
@@ -60,13 +93,19 @@ public class DoctorService {
         existingDoctor.setYearsOfExperience(updatedDoctor.getYearsOfExperience());
         existingDoctor.setIsAvailable(updatedDoctor.getIsAvailable());
 
-        return doctorRepository.save(existingDoctor);
+        Doctor saved = doctorRepository.save(existingDoctor);
+        workloadService.doctorSaved(saved);
+        directoryCache.doctorsChanged();
+        return saved;
     }
 
     public Doctor updateAvailability(Long id, Boolean isAvailable) {
         Doctor doctor = getDoctorById(id);
         doctor.setIsAvailable(isAvailable);
-        return doctorRepository.save(doctor);
+        Doctor saved = doctorRepository.save(doctor);
+        workloadService.doctorSaved(saved);
+        directoryCache.doctorsChanged();
+        return saved;
     }
 
     public void deleteDoctor(Long id) {
@@ -74,5 +113,7 @@ public class DoctorService {
             throw new IllegalStateException("Doctor with id " + id + " does not exist");
         }
         doctorRepository.deleteById(id);
+        workloadService.doctorDeleted(id);
+        directoryCache.doctorsChanged();
     }
 }
@@ -0,0 +1,282 @@
+package com.devdishon.service;
+
+import com.devdishon.dto.DoctorDailyCount;
+import com.devdishon.dto.DoctorRecommendation;
+import com.devdishon.entity.Doctor;
+import com.devdishon.entity.Specialization;
+import com.devdishon.repository.AppointmentRepository;
+import com.devdishon.repository.DoctorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Live per-doctor workload counters (booked appointments today and this week) used to spread
+ * bookings across doctors of a specialization.
+ * Counters are rebuilt from one grouped query at startup, at midnight and periodically to correct
+ * drift from other replicas; in between, appointment writes adjust them after commit. Changes that
+ * land while a rebuild is counting are applied to the old counters and replayed onto the new ones,
+ * so they are not lost when the rebuilt counters replace the old.
+ * Available doctors of each specialization sit in a sorted set keyed by load, so the least-loaded
+ * doctors are read without touching the database.
+ */
+@Service
+public class DoctorWorkloadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DoctorWorkloadService.class);
+
+    private static final Comparator<DoctorLoad> LEAST_LOADED = Comparator
+            .comparingInt((DoctorLoad load) -> load.today)
+            .thenComparingInt(load -> load.week)
+            .thenComparing(load -> load.doctorId);
+
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorRepository doctorRepository;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private Map<Long, DoctorLoad> loads = new HashMap<>();
+    private Map<Specialization, NavigableSet<DoctorLoad>> bySpecialization = new EnumMap<>(Specialization.class);
+    private LocalDate today = LocalDate.now();
+    // Changes since the running rebuild started counting; null when no rebuild runs
+    private List<Runnable> sinceRebuild;
+
+    public DoctorWorkloadService(AppointmentRepository appointmentRepository,
+                                 DoctorRepository doctorRepository) {
+        this.appointmentRepository = appointmentRepository;
+        this.doctorRepository = doctorRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.workload.rebuild-cron:0 0 0 * * *}")
+    @Scheduled(initialDelayString = "${app.workload.refresh-interval-ms:300000}",
+            fixedDelayString = "${app.workload.refresh-interval-ms:300000}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            rebuildCounters();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void rebuildCounters() {
+        LocalDate day = LocalDate.now();
+        LocalDate weekStart = day.with(DayOfWeek.MONDAY);
+
+        lock.lock();
+        try {
+            sinceRebuild = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+        Map<Long, DoctorLoad> newLoads = new HashMap<>();
+        List<DoctorDailyCount> counts;
+        try {
+            for (Doctor doctor : doctorRepository.findAll()) {
+                newLoads.put(doctor.getId(), new DoctorLoad(doctor));
+            }
+            counts = appointmentRepository.countBookedPerDoctorPerDay(
+                    weekStart.atStartOfDay(), weekStart.plusWeeks(1).atStartOfDay());
+        } catch (RuntimeException e) {
+            lock.lock();
+            try {
+                sinceRebuild = null;
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+        for (DoctorDailyCount count : counts) {
+            DoctorLoad load = newLoads.get(count.doctorId());
+            if (load != null) {
+                load.week += count.count().intValue();
+                if (day.equals(count.day())) {
+                    load.today += count.count().intValue();
+                }
+            }
+        }
+        Map<Specialization, NavigableSet<DoctorLoad>> newIndex = new EnumMap<>(Specialization.class);
+        for (DoctorLoad load : newLoads.values()) {
+            if (load.available) {
+                newIndex.computeIfAbsent(load.specialization, s -> new TreeSet<>(LEAST_LOADED)).add(load);
+            }
+        }
+
+        lock.lock();
+        try {
+            loads = newLoads;
+            bySpecialization = newIndex;
+            today = day;
+            sinceRebuild.forEach(Runnable::run);
+            sinceRebuild = null;
+        } finally {
+            lock.unlock();
+        }
+        logger.debug("Rebuilt workload counters for {} doctors", newLoads.size());
+    }
+
+    public List<DoctorRecommendation> recommendDoctors(Specialization specialization, int limit) {
+        lock.lock();
+        try {
+            NavigableSet<DoctorLoad> candidates = bySpecialization.get(specialization);
+            if (candidates == null) {
+                return List.of();
+            }
+            List<DoctorRecommendation> recommendations = new ArrayList<>(Math.min(limit, candidates.size()));
+            for (DoctorLoad load : candidates) {
+                if (recommendations.size() >= limit) {
+                    break;
+                }
+                recommendations.add(load.toRecommendation());
+            }
+            return recommendations;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void appointmentBooked(Long doctorId, LocalDateTime at) {
+        TransactionHooks.afterCommit(() -> apply(() -> adjustLocked(doctorId, at, 1)));
+    }
+
+    public void appointmentReleased(Long doctorId, LocalDateTime at) {
+        TransactionHooks.afterCommit(() -> apply(() -> adjustLocked(doctorId, at, -1)));
+    }
+
+    public void appointmentMoved(Long doctorId, LocalDateTime from, LocalDateTime to) {
+        TransactionHooks.afterCommit(() -> apply(() -> {
+            adjustLocked(doctorId, from, -1);
+            adjustLocked(doctorId, to, 1);
+        }));
+    }
+
+    public void doctorSaved(Doctor doctor) {
+        Long doctorId = doctor.getId();
+        String firstName = doctor.getFirstName();
+        String lastName = doctor.getLastName();
+        String department = doctor.getDepartment();
+        Specialization specialization = doctor.getSpecialization();
+        boolean available = Boolean.TRUE.equals(doctor.getIsAvailable());
+        TransactionHooks.afterCommit(() -> apply(() -> {
+            DoctorLoad load = loads.computeIfAbsent(doctorId, DoctorLoad::new);
+            unindexLocked(load);
+            load.firstName = firstName;
+            load.lastName = lastName;
+            load.department = department;
+            load.specialization = specialization;
+            load.available = available;
+            indexLocked(load);
+        }));
+    }
+
+    public void doctorDeleted(Long doctorId) {
+        TransactionHooks.afterCommit(() -> apply(() -> {
+            DoctorLoad load = loads.remove(doctorId);
+            if (load != null) {
+                unindexLocked(load);
+            }
+        }));
+    }
+
+    /**
+     * Runs {@code change} on the counters under the lock, keeping it for replay while a rebuild runs.
+     */
+    private void apply(Runnable change) {
+        lock.lock();
+        try {
+            change.run();
+            if (sinceRebuild != null) {
+                sinceRebuild.add(change);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void adjustLocked(Long doctorId, LocalDateTime at, int delta) {
+        if (at == null) {
+            return;
+        }
+        LocalDate day = at.toLocalDate();
+        LocalDate weekStart = today.with(DayOfWeek.MONDAY);
+        if (day.isBefore(weekStart) || !day.isBefore(weekStart.plusWeeks(1))) {
+            return;
+        }
+        DoctorLoad load = loads.get(doctorId);
+        if (load == null) {
+            return;
+        }
+        unindexLocked(load);
+        load.week = Math.max(0, load.week + delta);
+        if (day.equals(today)) {
+            load.today = Math.max(0, load.today + delta);
+        }
+        indexLocked(load);
+    }
+
+    private void unindexLocked(DoctorLoad load) {
+        if (load.specialization == null) {
+            return;
+        }
+        NavigableSet<DoctorLoad> index = bySpecialization.get(load.specialization);
+        if (index != null) {
+            index.remove(load);
+        }
+    }
+
+    private void indexLocked(DoctorLoad load) {
+        if (load.available && load.specialization != null) {
+            bySpecialization.computeIfAbsent(load.specialization, s -> new TreeSet<>(LEAST_LOADED)).add(load);
+        }
+    }
+
+    /**
+     * Mutable counters for one doctor. Only modified under the service lock and only while
+     * detached from the sorted index, since the index ordering depends on the counters.
+     */
+    private static final class DoctorLoad {
+
+        private final Long doctorId;
+        private String firstName;
+        private String lastName;
+        private String department;
+        private Specialization specialization;
+        private boolean available;
+        private int today;
+        private int week;
+
+        private DoctorLoad(Long doctorId) {
+            this.doctorId = doctorId;
+        }
+
+        private DoctorLoad(Doctor doctor) {
+            this.doctorId = doctor.getId();
+            this.firstName = doctor.getFirstName();
+            this.lastName = doctor.getLastName();
+            this.department = doctor.getDepartment();
+            this.specialization = doctor.getSpecialization();
+            this.available = Boolean.TRUE.equals(doctor.getIsAvailable());
+        }
+
+        private DoctorRecommendation toRecommendation() {
+            return new DoctorRecommendation(doctorId, firstName, lastName, department, specialization, today, week);
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.devdishon.service;
+
+import com.devdishon.dto.FollowUpSchedulingReport;
+import com.devdishon.dto.PendingFollowUp;
+import com.devdishon.dto.UpcomingAppointment;
+import com.devdishon.entity.Appointment;
+import com.devdishon.entity.AppointmentStatus;
+import com.devdishon.entity.AppointmentType;
+import com.devdishon.entity.Doctor;
+import com.devdishon.entity.JobWatermark;
+import com.devdishon.filter.RequestDeadline;
+import com.devdishon.repository.AppointmentRepository;
+import com.devdishon.repository.DoctorRepository;
+import com.devdishon.repository.JobWatermarkRepository;
+import com.devdishon.repository.MedicalRecordRepository;
+import com.devdishon.repository.PatientRepository;
+import com.devdishon.service.reminder.AppointmentReminderScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Books appointments for pending medical record follow-ups.
+ * Records are scanned incrementally after a persisted (updatedAt, id) watermark and matched to the
+ * original doctor's nearest free slot. Each batch of bookings, record links and the watermark
+ * advance commit in one transaction, so a failed run resumes where the last batch left off.
+ * The watermark never passes a follow-up that could not be matched (no free slot, doctor
+ * unavailable): it stops just before the first one, so the next run retries it. Follow-ups booked
+ * after it are linked to their appointment and drop out of the pending query, so the rescan does
+ * not book them twice.
+ */
+@Service
+public class FollowUpSchedulingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FollowUpSchedulingService.class);
+
+    static final String WATERMARK_NAME = "follow-up-scheduling";
+
+    private static final Set<AppointmentStatus> FREED_STATUSES =
+            EnumSet.of(AppointmentStatus.CANCELLED, AppointmentStatus.NO_SHOW);
+
+    private final MedicalRecordRepository medicalRecordRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorRepository doctorRepository;
+    private final PatientRepository patientRepository;
+    private final JobWatermarkRepository jobWatermarkRepository;
+    private final AppointmentReminderScheduler reminderScheduler;
+    private final DoctorWorkloadService workloadService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    @Value("${app.follow-ups.auto-schedule-enabled:false}")
+    private boolean autoScheduleEnabled;
+
+    @Value("${app.follow-ups.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.follow-ups.search-days:7}")
+    private int searchDays;
+
+    @Value("${app.follow-ups.slot-minutes:30}")
+    private int slotMinutes;
+
+    @Value("${app.follow-ups.day-start-hour:9}")
+    private int dayStartHour;
+
+    @Value("${app.follow-ups.day-end-hour:17}")
+    private int dayEndHour;
+
+    @Value("${app.follow-ups.report-limit:500}")
+    private int reportLimit;
+
+    public FollowUpSchedulingService(MedicalRecordRepository medicalRecordRepository,
+                                     AppointmentRepository appointmentRepository,
+                                     DoctorRepository doctorRepository,
+                                     PatientRepository patientRepository,
+                                     JobWatermarkRepository jobWatermarkRepository,
+                                     AppointmentReminderScheduler reminderScheduler,
+                                     DoctorWorkloadService workloadService,
+                                     TransactionTemplate transactionTemplate) {
+        this.medicalRecordRepository = medicalRecordRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.doctorRepository = doctorRepository;
+        this.patientRepository = patientRepository;
+        this.jobWatermarkRepository = jobWatermarkRepository;
+        this.reminderScheduler = reminderScheduler;
+        this.workloadService = workloadService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(cron = "${app.follow-ups.cron:0 0 2 * * *}")
+    public void scheduledRun() {
+        if (!autoScheduleEnabled) {
+            return;
+        }
+        FollowUpSchedulingReport report = scheduleFollowUps(false);
+        logger.info("Follow-up scheduling: scanned {}, scheduled {}, unmatched {} in {}ms",
+                report.scanned(), report.scheduled(), report.unmatched(), report.durationMs());
+    }
+
+    /**
+     * Processes every pending follow-up after the watermark. In dry-run mode nothing is written
+     * and the watermark stays put; the report shows the slots that would have been booked.
+     * A run started over HTTP is not bound by the request's deadline: its batches commit on
+     * their own, so it runs to the end even after the route timeout has passed.
+     */
+    public FollowUpSchedulingReport scheduleFollowUps(boolean dryRun) {
+        return RequestDeadline.detached(() -> runScheduling(dryRun));
+    }
+
+    private FollowUpSchedulingReport runScheduling(boolean dryRun) {
+        if (!runLock.tryLock()) {
+            throw new IllegalStateException("Follow-up scheduling is already running");
+        }
+        try {
+            long started = System.nanoTime();
+            JobWatermark watermark = jobWatermarkRepository.findById(WATERMARK_NAME)
+                    .orElseGet(() -> new JobWatermark(WATERMARK_NAME));
+            Run run = new Run(dryRun, watermark.getWatermarkTime(), watermark.getWatermarkId());
+
+            boolean more = true;
+            while (more) {
+                more = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                    boolean hasMore = processBatch(run);
+                    if (dryRun) {
+                        status.setRollbackOnly();
+                    }
+                    return hasMore;
+                }));
+                if (!dryRun) {
+                    run.trackCommitted(reminderScheduler, workloadService);
+                }
+            }
+
+            long durationMs = Duration.ofNanos(System.nanoTime() - started).toMillis();
+            return new FollowUpSchedulingReport(dryRun, run.scanned, run.scheduled, run.unmatched, durationMs, run.items);
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    /**
+     * Matches and books one page of follow-ups. Returns true if another page may follow.
+     */
+    private boolean processBatch(Run run) {
+        JobWatermark watermark = null;
+        if (!run.dryRun) {
+            watermark = jobWatermarkRepository.findById(WATERMARK_NAME)
+                    .orElseGet(() -> new JobWatermark(WATERMARK_NAME));
+            if (!watermark.getWatermarkTime().equals(run.watermarkTime) || !watermark.getWatermarkId().equals(run.watermarkId)) {
+                throw new IllegalStateException("Follow-up watermark was advanced by another run");
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<PendingFollowUp> page = medicalRecordRepository.findPendingFollowUpsAfter(
+                run.afterTime, run.afterId, now, PageRequest.of(0, batchSize));
+        if (page.isEmpty()) {
+            return false;
+        }
+
+        Set<Long> doctorIds = page.stream().map(PendingFollowUp::doctorId).collect(Collectors.toSet());
+        Set<Long> availableDoctorIds = doctorRepository.findAllById(doctorIds).stream()
+                .filter(doctor -> Boolean.TRUE.equals(doctor.getIsAvailable()))
+                .map(Doctor::getId)
+                .collect(Collectors.toSet());
+
+        LocalDateTime rangeStart = page.stream().map(PendingFollowUp::followUpDate)
+                .min(Comparator.naturalOrder()).orElseThrow().minusDays(searchDays + 1L);
+        LocalDateTime rangeEnd = page.stream().map(PendingFollowUp::followUpDate)
+                .max(Comparator.naturalOrder()).orElseThrow().plusDays(searchDays + 1L);
+        Map<Long, Set<LocalDateTime>> booked = new HashMap<>();
+        for (UpcomingAppointment appointment : appointmentRepository.findBookedByDoctorIdsInRange(
+                doctorIds, rangeStart, rangeEnd, FREED_STATUSES)) {
+            booked.computeIfAbsent(appointment.doctorId(), id -> new HashSet<>())
+                    .add(toSlotStart(appointment.appointmentDateTime()));
+        }
+        run.proposed.forEach((doctorId, slots) -> {
+            if (doctorIds.contains(doctorId)) {
+                booked.computeIfAbsent(doctorId, id -> new HashSet<>()).addAll(slots);
+            }
+        });
+
+        List<PendingFollowUp> matched = new ArrayList<>();
+        List<Appointment> toCreate = new ArrayList<>();
+        for (PendingFollowUp followUp : page) {
+            run.scanned++;
+            Set<LocalDateTime> doctorSlots = booked.computeIfAbsent(followUp.doctorId(), id -> new HashSet<>());
+            LocalDateTime slot = availableDoctorIds.contains(followUp.doctorId())
+                    ? findFreeSlot(followUp.followUpDate(), doctorSlots, now)
+                    : null;
+            if (slot == null) {
+                run.unmatched++;
+                run.addItem(followUp, null, null, reportLimit);
+                // The watermark stays before this follow-up, so the next run tries it again
+                run.retrying = true;
+                continue;
+            }
+            if (!run.retrying) {
+                run.watermarkTime = followUp.updatedAt();
+                run.watermarkId = followUp.medicalRecordId();
+            }
+            doctorSlots.add(slot);
+            if (run.dryRun) {
+                run.proposed.computeIfAbsent(followUp.doctorId(), id -> new HashSet<>()).add(slot);
+                run.scheduled++;
+                run.addItem(followUp, slot, null, reportLimit);
+                continue;
+            }
+            Appointment appointment = new Appointment();
+            appointment.setPatient(patientRepository.getReferenceById(followUp.patientId()));
+            appointment.setDoctor(doctorRepository.getReferenceById(followUp.doctorId()));
+            appointment.setAppointmentDateTime(slot);
+            appointment.setAppointmentType(AppointmentType.FOLLOW_UP);
+            appointment.setReasonForVisit("Follow-up for medical record #" + followUp.medicalRecordId());
+            appointment.setStatus(AppointmentStatus.SCHEDULED);
+            matched.add(followUp);
+            toCreate.add(appointment);
+        }
+
+        PendingFollowUp last = page.get(page.size() - 1);
+        run.afterTime = last.updatedAt();
+        run.afterId = last.medicalRecordId();
+
+        if (!run.dryRun) {
+            List<Appointment> saved = appointmentRepository.saveAll(toCreate);
+            for (int i = 0; i < saved.size(); i++) {
+                PendingFollowUp followUp = matched.get(i);
+                Appointment appointment = saved.get(i);
+                medicalRecordRepository.linkFollowUpAppointment(followUp.medicalRecordId(), appointment.getId());
+                run.scheduled++;
+                run.addItem(followUp, appointment.getAppointmentDateTime(), appointment.getId(), reportLimit);
+            }
+            watermark.advance(run.watermarkTime, run.watermarkId);
+            jobWatermarkRepository.save(watermark);
+            run.pendingTracking.addAll(saved);
+        }
+        return page.size() == batchSize;
+    }
+
+    /**
+     * Returns the free slot closest to {@code target}, searching outward day by day on weekdays
+     * within the configured working hours.
+     */
+    private LocalDateTime findFreeSlot(LocalDateTime target, Set<LocalDateTime> booked, LocalDateTime notBefore) {
+        LocalDate targetDay = target.toLocalDate();
+        for (int offset = 0; offset <= searchDays; offset++) {
+            LocalDateTime slot = findFreeSlotOnDay(targetDay.plusDays(offset), target, booked, notBefore);
+            if (slot == null && offset > 0) {
+                slot = findFreeSlotOnDay(targetDay.minusDays(offset), target, booked, notBefore);
+            }
+            if (slot != null) {
+                return slot;
+            }
+        }
+        return null;
+    }
+
+    private LocalDateTime findFreeSlotOnDay(LocalDate day, LocalDateTime target, Set<LocalDateTime> booked,
+                                            LocalDateTime notBefore) {
+        if (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            return null;
+        }
+        LocalDateTime best = null;
+        long bestDistance = Long.MAX_VALUE;
+        LocalDateTime end = day.atTime(LocalTime.of(dayEndHour, 0));
+        for (LocalDateTime slot = day.atTime(LocalTime.of(dayStartHour, 0)); slot.isBefore(end);
+             slot = slot.plusMinutes(slotMinutes)) {
+            if (!slot.isAfter(notBefore) || booked.contains(slot)) {
+                continue;
+            }
+            long distance = Math.abs(Duration.between(target, slot).toMinutes());
+            if (distance < bestDistance) {
+                best = slot;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    private LocalDateTime toSlotStart(LocalDateTime dateTime) {
+        LocalDateTime dayStartTime = dateTime.toLocalDate().atTime(LocalTime.of(dayStartHour, 0));
+        long minutes = Duration.between(dayStartTime, dateTime).toMinutes();
+        return dayStartTime.plusMinutes(Math.floorDiv(minutes, slotMinutes) * slotMinutes);
+    }
+
+    /**
+     * Mutable state for a single scheduling run.
+     */
+    private static final class Run {
+
+        private final boolean dryRun;
+        // Scan position: the last follow-up read, matched or not
+        private LocalDateTime afterTime;
+        private Long afterId;
+        // Persisted position: the last follow-up before the first unmatched one
+        private LocalDateTime watermarkTime;
+        private Long watermarkId;
+        private boolean retrying;
+        private int scanned;
+        private int scheduled;
+        private int unmatched;
+        private final List<FollowUpSchedulingReport.Item> items = new ArrayList<>();
+        private final Map<Long, Set<LocalDateTime>> proposed = new HashMap<>();
+        private final List<Appointment> pendingTracking = new ArrayList<>();
+
+        private Run(boolean dryRun, LocalDateTime afterTime, Long afterId) {
+            this.dryRun = dryRun;
+            this.afterTime = afterTime;
+            this.afterId = afterId;
+            this.watermarkTime = afterTime;
+            this.watermarkId = afterId;
+        }
+
+        private void addItem(PendingFollowUp followUp, LocalDateTime slot, Long appointmentId, int limit) {
+            if (items.size() < limit) {
+                items.add(new FollowUpSchedulingReport.Item(followUp.medicalRecordId(), followUp.patientId(),
+                        followUp.doctorId(), followUp.followUpDate(), slot, appointmentId));
+            }
+        }
+
+        private void trackCommitted(AppointmentReminderScheduler reminderScheduler,
+                                    DoctorWorkloadService workloadService) {
+            for (Appointment appointment : pendingTracking) {
+                reminderScheduler.track(appointment);
+                workloadService.appointmentBooked(appointment.getDoctor().getId(), appointment.getAppointmentDateTime());
+            }
+            pendingTracking.clear();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.devdishon.service;
+
+/**
+ * When a background migration job runs its next pass. A pass that finds nothing to do does not
+ * mean the job is finished for good: during a rolling deploy, a replica still running older code
+ * can keep writing rows in the old form. So the job keeps checking, but backs off, doubling the
+ * wait from the run interval up to a maximum. Any progress resets the backoff.
+ * <p>
+ * Only the thread holding the job's run lock calls {@link #idle} and {@link #reset};
+ * {@link #isDue()} may be called from any thread.
+ */
+class IdleBackoff {
+
+    // System.nanoTime() before which passes are skipped
+    private volatile long nextPassAt = System.nanoTime();
+    private long backoffMillis;
+
+    /**
+     * Whether the backoff has passed, so a pass should run now.
+     */
+    boolean isDue() {
+        return System.nanoTime() - nextPassAt >= 0;
+    }
+
+    /**
+     * Whether the last pass found nothing to do.
+     */
+    boolean isIdle() {
+        return backoffMillis != 0;
+    }
+
+    /**
+     * Records a pass that found nothing to do and returns how long, in milliseconds, the next pass
+     * waits: {@code intervalMillis} after the first such pass, then twice the previous wait, up to
+     * {@code maxIntervalMillis}.
+     */
+    long idle(long intervalMillis, long maxIntervalMillis) {
+        backoffMillis = backoffMillis == 0 ? intervalMillis : Math.min(backoffMillis * 2, maxIntervalMillis);
+        nextPassAt = System.nanoTime() + backoffMillis * 1_000_000;
+        return backoffMillis;
+    }
+
+    /**
+     * Records a pass that made progress; the next one runs on the regular schedule.
+     */
+    void reset() {
+        backoffMillis = 0;
+        nextPassAt = System.nanoTime();
+    }
+}
@@ -0,0 +1,111 @@
+package com.devdishon.service;
+
+import com.devdishon.dto.IndexedNotes;
+import com.devdishon.repository.MedicalRecordSearchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Builds the search vector of medical records that do not have one yet: records written before
+ * search existed, or by a writer that bypassed {@link MedicalRecordService}. Works one batch per
+ * transaction in id order. Once a full pass finds nothing left, it keeps checking on an
+ * {@link IdleBackoff} of up to {@code backfill-max-idle-interval-ms}.
+ */
+@Service
+public class MedicalRecordSearchIndexJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(MedicalRecordSearchIndexJob.class);
+
+    private final MedicalRecordSearchRepository searchRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantLock runLock = new ReentrantLock();
+    private final IdleBackoff backoff = new IdleBackoff();
+
+    @Value("${app.medical-records.search.backfill-enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.medical-records.search.backfill-batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.medical-records.search.backfill-interval-ms:60000}")
+    private long intervalMillis;
+
+    @Value("${app.medical-records.search.backfill-max-idle-interval-ms:3600000}")
+    private long maxIdleIntervalMillis;
+
+    public MedicalRecordSearchIndexJob(MedicalRecordSearchRepository searchRepository,
+                                       TransactionTemplate transactionTemplate) {
+        this.searchRepository = searchRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(initialDelayString = "${app.medical-records.search.backfill-interval-ms:60000}",
+            fixedDelayString = "${app.medical-records.search.backfill-interval-ms:60000}")
+    public void scheduledRun() {
+        if (!enabled || !backoff.isDue() || !runLock.tryLock()) {
+            return;
+        }
+        try {
+            long started = System.nanoTime();
+            int indexed = backfill();
+            if (indexed > 0) {
+                logger.info("Indexed {} medical records for search in {}ms", indexed,
+                        (System.nanoTime() - started) / 1_000_000);
+                backoff.reset();
+                return;
+            }
+            backoff.idle(intervalMillis, maxIdleIntervalMillis);
+        } catch (RuntimeException e) {
+            // Indexed batches stay committed; the next run only sees the rows still missing a vector
+            logger.warn("Medical record search indexing stopped: {}", e.getMessage());
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    /**
+     * Runs one pass over all records without a search vector and returns how many were indexed.
+     */
+    int backfill() {
+        long afterId = 0;
+        int indexed = 0;
+        while (true) {
+            long from = afterId;
+            Batch batch = transactionTemplate.execute(status -> indexBatch(from));
+            if (batch == null || batch.size() == 0) {
+                return indexed;
+            }
+            indexed += batch.indexed();
+            afterId = batch.lastId();
+            if (batch.size() < batchSize) {
+                return indexed;
+            }
+        }
+    }
+
+    private Batch indexBatch(long afterId) {
+        List<Long> ids = searchRepository.findUnindexedIds(afterId, batchSize);
+        if (ids.isEmpty()) {
+            return new Batch(0, 0, afterId);
+        }
+        int indexed = 0;
+        for (IndexedNotes row : searchRepository.findNotes(ids)) {
+            // Records indexed by an update since the ids were read keep that newer vector
+            if (searchRepository.indexIfMissing(row.id(), row.notes())) {
+                indexed++;
+            }
+        }
+        return new Batch(ids.size(), indexed, ids.get(ids.size() - 1));
+    }
+
+    private record Batch(int size, int indexed, long lastId) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.devdishon.service;
+
+import com.devdishon.dto.MedicalRecordSearchHit;
+import com.devdishon.dto.MedicalRecordSearchPage;
+import com.devdishon.dto.SearchCursor;
+import com.devdishon.exception.BadRequestException;
+import com.devdishon.repository.MedicalRecordSearchRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Ranked full-text search over diagnosis, symptoms, treatment and notes, optionally narrowed to a
+ * patient, a doctor or a record date range, a page at a time (keyset pagination on rank and id).
+ */
+@Service
+@Transactional(readOnly = true)
+public class MedicalRecordSearchService {
+
+    static final int MAX_PAGE_SIZE = 100;
+    static final int MAX_QUERY_LENGTH = 200;
+
+    private final MedicalRecordSearchRepository searchRepository;
+
+    public MedicalRecordSearchService(MedicalRecordSearchRepository searchRepository) {
+        this.searchRepository = searchRepository;
+    }
+
+    /**
+     * @param cursor the previous page's {@code nextCursor}, or null for the best matches
+     * @throws BadRequestException if the query is blank or too long, the cursor is malformed,
+     *                             the date range is empty or the limit is out of range
+     */
+    public MedicalRecordSearchPage search(String q, Long patientId, Long doctorId,
+                                          LocalDateTime from, LocalDateTime to, String cursor, int limit) {
+        if (q == null || q.isBlank()) {
+            throw new BadRequestException("q must not be blank");
+        }
+        if (q.length() > MAX_QUERY_LENGTH) {
+            throw new BadRequestException("q must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BadRequestException("from must be before to");
+        }
+        SearchCursor after = SearchCursor.parse(cursor);
+
+        // The extra hit tells whether anything follows the page
+        List<MedicalRecordSearchHit> hits = searchRepository.search(q.strip(), patientId, doctorId, from, to, after, limit + 1);
+        if (hits.size() <= limit) {
+            return new MedicalRecordSearchPage(hits, null);
+        }
+        List<MedicalRecordSearchHit> page = List.copyOf(hits.subList(0, limit));
+        return new MedicalRecordSearchPage(page, page.get(limit - 1).cursor().encode());
+    }
+}
@@ -1,5 +1,9 @@
 package com.devdishon.service;
 
+import com.devdishon.dto.FieldSelection;
+import com.devdishon.dto.MedicalRecordSummary;
+import com.devdishon.dto.ProjectedRows;
+import com.devdishon.dto.ResourceVersion;
 import com.devdishon.entity.Appointment;
 import com.devdishon.entity.Doctor;
 import com.devdishon.entity.MedicalRecord;
@@ -7,7 +11,11 @@ import com.devdishon.entity.Patient;
 import com.devdishon.repository.AppointmentRepository;
 import com.devdishon.repository.DoctorRepository;
 import com.devdishon.repository.MedicalRecordRepository;
+import com.devdishon.repository.MedicalRecordSearchRepository;
 import com.devdishon.repository.PatientRepository;
+import com.devdishon.repository.ProjectionRepository;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,19 +30,28 @@ public class MedicalRecordService {
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
     private final AppointmentRepository appointmentRepository;
+    private final ProjectionRepository projectionRepository;
+    private final MedicalRecordSearchRepository searchRepository;
 
     public MedicalRecordService(MedicalRecordRepository medicalRecordRepository,
                                 PatientRepository patientRepository,
                                 DoctorRepository doctorRepository,
-                                AppointmentRepository appointmentRepository) {
+                                AppointmentRepository appointmentRepository,
+                                ProjectionRepository projectionRepository,
+                                MedicalRecordSearchRepository searchRepository) {
         this.medicalRecordRepository = medicalRecordRepository;
         this.patientRepository = patientRepository;
         this.doctorRepository = doctorRepository;
         this.appointmentRepository = appointmentRepository;
+        this.projectionRepository = projectionRepository;
+        this.searchRepository = searchRepository;
     }
 
-    public List<MedicalRecord> getAllMedicalRecords() {
-        return medicalRecordRepository.findAll();
+    // Lists return summaries; the TEXT columns are read only for a single record
+
+    @Transactional(readOnly = true)
+    public List<MedicalRecordSummary> getAllMedicalRecords() {
+        return medicalRecordRepository.findAllSummaries();
     }
 
     public MedicalRecord getMedicalRecordById(Long id) {
@@ -42,12 +59,14 @@ public class MedicalRecordService {
                 .orElseThrow(() -> new IllegalStateException("Medical record with id " + id + " not found"));
     }
 
-    public List<MedicalRecord> getMedicalRecordsByPatientId(Long patientId) {
-        return medicalRecordRepository.findByPatientIdOrderByRecordDateDesc(patientId);
+    @Transactional(readOnly = true)
+    public List<MedicalRecordSummary> getMedicalRecordsByPatientId(Long patientId) {
+        return medicalRecordRepository.findSummariesByPatientId(patientId);
     }
 
-    public List<MedicalRecord> getMedicalRecordsByDoctorId(Long doctorId) {
-        return medicalRecordRepository.findByDoctorId(doctorId);
+    @Transactional(readOnly = true)
+    public List<MedicalRecordSummary> getMedicalRecordsByDoctorId(Long doctorId) {
+        return medicalRecordRepository.findSummariesByDoctorId(doctorId);
     }
 
     public MedicalRecord getMedicalRecordByAppointmentId(Long appointmentId) {
@@ -55,8 +74,58 @@ public class MedicalRecordService {
                 .orElseThrow(() -> new IllegalStateException("Medical record for appointment " + appointmentId + " not found"));
     }
 
-    public List<MedicalRecord> getPendingFollowUps(LocalDateTime start, LocalDateTime end) {
-        return medicalRecordRepository.findPendingFollowUps(start, end);
+    @Transactional(readOnly = true)
+    public ResourceVersion getMedicalRecordVersion(Long id) {
+        return medicalRecordRepository.findVersionById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion getAllMedicalRecordsVersion() {
+        return medicalRecordRepository.findVersionOfAll();
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion getMedicalRecordsByPatientIdVersion(Long patientId) {
+        return medicalRecordRepository.findVersionByPatientId(patientId);
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion getMedicalRecordsByDoctorIdVersion(Long doctorId) {
+        return medicalRecordRepository.findVersionByDoctorId(doctorId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<MedicalRecordSummary> getPendingFollowUps(LocalDateTime start, LocalDateTime end) {
+        return medicalRecordRepository.findPendingFollowUpSummaries(start, end);
+    }
+
+    // Sparse-fieldset variants of the lists above: only the selected fields of each record,
+    // read with the same filter and order
+
+    @Transactional(readOnly = true)
+    public ProjectedRows getAllMedicalRecords(FieldSelection fields) {
+        return project(fields, null, Sort.unsorted());
+    }
+
+    @Transactional(readOnly = true)
+    public ProjectedRows getMedicalRecordsByPatientId(Long patientId, FieldSelection fields) {
+        return project(fields, (root, query, cb) -> cb.equal(root.get("patient").get("id"), patientId),
+                Sort.by(Sort.Direction.DESC, "recordDate"));
+    }
+
+    @Transactional(readOnly = true)
+    public ProjectedRows getMedicalRecordsByDoctorId(Long doctorId, FieldSelection fields) {
+        return project(fields, (root, query, cb) -> cb.equal(root.get("doctor").get("id"), doctorId), Sort.unsorted());
+    }
+
+    @Transactional(readOnly = true)
+    public ProjectedRows getPendingFollowUps(LocalDateTime start, LocalDateTime end, FieldSelection fields) {
+        return project(fields, (root, query, cb) -> cb.between(root.<LocalDateTime>get("followUpDate"), start, end),
+                Sort.unsorted());
+    }
+
+    private ProjectedRows project(FieldSelection fields, Specification<MedicalRecord> where, Sort sort) {
+        return new ProjectedRows(projectionRepository.findAll(MedicalRecord.class, fields, where, sort));
     }
 
     public MedicalRecord createMedicalRecord(Long patientId, Long doctorId, Long appointmentId, MedicalRecord record) {
@@ -75,7 +144,7 @@ public class MedicalRecordService {
             record.setAppointment(appointment);
         }
 
-        return medicalRecordRepository.save(record);
+        return saveAndIndex(record);
     }
 
     public MedicalRecord updateMedicalRecord(Long id, MedicalRecord updatedRecord) {
@@ -89,7 +158,17 @@ public class MedicalRecordService {
         existingRecord.setNotes(updatedRecord.getNotes());
         existingRecord.setFollowUpDate(updatedRecord.getFollowUpDate());
 
-        return medicalRecordRepository.save(existingRecord);
+        return saveAndIndex(existingRecord);
+    }
+
+    /**
+     * Saves a record whose searchable text may have changed and rebuilds its search vector from
+     * the flushed row, in the same transaction.
+     */
+    private MedicalRecord saveAndIndex(MedicalRecord record) {
+        MedicalRecord saved = medicalRecordRepository.saveAndFlush(record);
+        searchRepository.index(saved.getId(), saved.getNotes());
+        return saved;
     }
 
     public MedicalRecord addLabResults(Long id, String labResults) {
@@ -0,0 +1,119 @@
+package com.devdishon.service;
+
+import com.devdishon.dto.LegacyRecordText;
+import com.devdishon.entity.CompressedTextConverter;
+import com.devdishon.repository.MedicalRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves medical record lab results and notes written before compression from their legacy TEXT
+ * columns into the compressed {@code bytea} columns, one batch per transaction in id order.
+ * Each move only applies while the legacy value is still there, so it is safe to run on every
+ * replica at once and alongside normal updates. Once a full pass finds nothing left, the job keeps
+ * checking on an {@link IdleBackoff} of up to {@code migration-max-idle-interval-ms}.
+ */
+@Service
+public class MedicalRecordTextCompressionJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(MedicalRecordTextCompressionJob.class);
+
+    private final MedicalRecordRepository medicalRecordRepository;
+    private final CompressedTextConverter converter;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantLock runLock = new ReentrantLock();
+    private final IdleBackoff backoff = new IdleBackoff();
+
+    @Value("${app.medical-records.compression.migration-enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.medical-records.compression.migration-batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.medical-records.compression.migration-interval-ms:60000}")
+    private long intervalMillis;
+
+    @Value("${app.medical-records.compression.migration-max-idle-interval-ms:3600000}")
+    private long maxIdleIntervalMillis;
+
+    public MedicalRecordTextCompressionJob(MedicalRecordRepository medicalRecordRepository,
+                                           CompressedTextConverter converter,
+                                           TransactionTemplate transactionTemplate) {
+        this.medicalRecordRepository = medicalRecordRepository;
+        this.converter = converter;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(initialDelayString = "${app.medical-records.compression.migration-interval-ms:60000}",
+            fixedDelayString = "${app.medical-records.compression.migration-interval-ms:60000}")
+    public void scheduledRun() {
+        if (!enabled || !backoff.isDue() || !runLock.tryLock()) {
+            return;
+        }
+        try {
+            long started = System.nanoTime();
+            int moved = migrate();
+            if (moved > 0) {
+                logger.info("Compressed {} legacy medical record lab results and notes in {}ms", moved,
+                        (System.nanoTime() - started) / 1_000_000);
+                backoff.reset();
+                return;
+            }
+            if (!backoff.isIdle()) {
+                logger.info("No legacy medical record text left to compress");
+            }
+            backoff.idle(intervalMillis, maxIdleIntervalMillis);
+        } catch (RuntimeException e) {
+            // Finished batches stay committed; the next run picks up from the first remaining row
+            logger.warn("Medical record text compression stopped: {}", e.getMessage());
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    /**
+     * Runs one pass over all records with legacy text and returns how many values were moved.
+     */
+    int migrate() {
+        long afterId = 0;
+        int moved = 0;
+        while (true) {
+            long from = afterId;
+            Batch batch = transactionTemplate.execute(status -> moveBatch(from));
+            if (batch == null || batch.size() == 0) {
+                return moved;
+            }
+            moved += batch.moved();
+            afterId = batch.lastId();
+            if (batch.size() < batchSize) {
+                return moved;
+            }
+        }
+    }
+
+    private Batch moveBatch(long afterId) {
+        List<LegacyRecordText> rows = medicalRecordRepository.findLegacyTextAfter(afterId, PageRequest.of(0, batchSize));
+        int moved = 0;
+        for (LegacyRecordText row : rows) {
+            if (row.labResults() != null) {
+                moved += medicalRecordRepository.moveLegacyLabResults(row.id(), converter.convertToDatabaseColumn(row.labResults()));
+            }
+            if (row.notes() != null) {
+                moved += medicalRecordRepository.moveLegacyNotes(row.id(), converter.convertToDatabaseColumn(row.notes()));
+            }
+        }
+        return new Batch(rows.size(), moved, rows.isEmpty() ? afterId : rows.get(rows.size() - 1).id());
+    }
+
+    private record Batch(int size, int moved, long lastId) {
+    }
+}
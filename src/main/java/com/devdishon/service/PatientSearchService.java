@@ -0,0 +1,97 @@
+package com.devdishon.service;
+
+import com.devdishon.config.PatientSearchSchema;
+import com.devdishon.dto.PatientMatch;
+import com.devdishon.exception.BadRequestException;
+import com.devdishon.repository.PatientSearchRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Typeahead lookup of patients by name or phone number. A query without letters is a phone
+ * number; anything else is one or more name words. Prefix matches come first, in name (or phone)
+ * order; when there are fewer than {@code limit} of them the rest are filled with the closest
+ * fuzzy matches, which catch typos and words in the middle of a name. Short queries skip the fuzzy
+ * step: too few trigrams to say anything useful about similarity. Without {@code pg_trgm} there is
+ * no fuzzy step at all.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PatientSearchService {
+
+    static final int MAX_LIMIT = 50;
+    static final int MAX_QUERY_LENGTH = 100;
+    static final int MIN_FUZZY_NAME_LENGTH = 3;
+    static final int MIN_FUZZY_PHONE_DIGITS = 4;
+
+    private final PatientSearchRepository searchRepository;
+    private final PatientSearchSchema searchSchema;
+
+    public PatientSearchService(PatientSearchRepository searchRepository, PatientSearchSchema searchSchema) {
+        this.searchRepository = searchRepository;
+        this.searchSchema = searchSchema;
+    }
+
+    /**
+     * @throws BadRequestException if the query is blank or too long, or the limit out of range
+     */
+    public List<PatientMatch> search(String q, int limit) {
+        if (q == null || q.isBlank()) {
+            throw new BadRequestException("q must not be blank");
+        }
+        if (q.length() > MAX_QUERY_LENGTH) {
+            throw new BadRequestException("q must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        if (q.chars().noneMatch(Character::isLetter)) {
+            String digits = q.replaceAll("[^0-9]", "");
+            if (digits.isEmpty()) {
+                throw new BadRequestException("q must contain a name or phone number");
+            }
+            List<PatientMatch> prefix = searchRepository.findByPhonePrefix(digits, limit);
+            if (prefix.size() >= limit || digits.length() < MIN_FUZZY_PHONE_DIGITS
+                    || !searchSchema.isFuzzySearchAvailable()) {
+                return prefix;
+            }
+            return fill(prefix, searchRepository.findByPhoneSimilarity(digits, limit + prefix.size()), limit);
+        }
+
+        List<String> terms = Arrays.stream(q.strip().toLowerCase(Locale.ROOT).split("\\s+")).toList();
+        String text = String.join(" ", terms);
+        // Prefix matching pairs at most a first and a last name; longer queries are only matched fuzzily
+        List<PatientMatch> prefix = terms.size() <= 2 ? searchRepository.findByNamePrefix(terms, limit) : List.of();
+        if (prefix.size() >= limit || text.replace(" ", "").length() < MIN_FUZZY_NAME_LENGTH
+                || !searchSchema.isFuzzySearchAvailable()) {
+            return prefix;
+        }
+        return fill(prefix, searchRepository.findByNameSimilarity(text, limit + prefix.size()), limit);
+    }
+
+    /**
+     * The prefix matches followed by the fuzzy matches not already among them, up to {@code limit}.
+     */
+    static List<PatientMatch> fill(List<PatientMatch> prefix, List<PatientMatch> fuzzy, int limit) {
+        List<PatientMatch> matches = new ArrayList<>(prefix);
+        Set<Long> seen = new HashSet<>();
+        prefix.forEach(match -> seen.add(match.id()));
+        for (PatientMatch match : fuzzy) {
+            if (matches.size() == limit) {
+                break;
+            }
+            if (seen.add(match.id())) {
+                matches.add(match);
+            }
+        }
+        return matches;
+    }
+}
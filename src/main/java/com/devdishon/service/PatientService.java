@@ -1,7 +1,14 @@
 package com.devdishon.service;
 
+import com.devdishon.dto.BatchResult;
+import com.devdishon.dto.FieldSelection;
+import com.devdishon.dto.ProjectedRows;
+import com.devdishon.dto.ResourceVersion;
 import com.devdishon.entity.Patient;
 import com.devdishon.repository.PatientRepository;
+import com.devdishon.repository.ProjectionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -12,20 +19,52 @@ import java.util.List;
 public class PatientService {
 
     private final PatientRepository patientRepository;
+    private final ProjectionRepository projectionRepository;
 
-    public PatientService(PatientRepository patientRepository) {
+    @Value("${app.batch.max-ids:200}")
+    private int maxBatchIds;
+
+    public PatientService(PatientRepository patientRepository, ProjectionRepository projectionRepository) {
         this.patientRepository = patientRepository;
+        this.projectionRepository = projectionRepository;
     }
 
     public List<Patient> getAllPatients() {
         return patientRepository.findAll();
     }
 
+    /**
+     * Only the selected fields of every patient.
+     */
+    @Transactional(readOnly = true)
+    public ProjectedRows getAllPatients(FieldSelection fields) {
+        return new ProjectedRows(projectionRepository.findAll(Patient.class, fields, null, Sort.unsorted()));
+    }
+
     public Patient getPatientById(Long id) {
         return patientRepository.findById(id)
                 .orElseThrow(() -> new IllegalStateException("Patient with id " + id + " not found"));
     }
 
+    /**
+     * Patients for up to {@code app.batch.max-ids} ids in one query, in request order.
+     */
+    @Transactional(readOnly = true)
+    public BatchResult<Patient> getPatientsByIds(List<Long> ids) {
+        List<Long> distinct = BatchResult.distinctIds(ids, maxBatchIds);
+        return BatchResult.of(distinct, patientRepository.findAllById(distinct), Patient::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion getPatientVersion(Long id) {
+        return patientRepository.findVersionById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion getAllPatientsVersion() {
+        return patientRepository.findVersionOfAll();
+    }
+
     public Patient getPatientByEmail(String email) {
         return patientRepository.findByEmail(email)
                 .orElseThrow(() -> new IllegalStateException("Patient with email " + email + " not found"));
@@ -0,0 +1,240 @@
+package com.devdishon.service;
+
+import com.devdishon.config.MdcTaskDecorator;
+import com.devdishon.dto.PatientSummary;
+import com.devdishon.dto.PatientSummary.AppointmentItem;
+import com.devdishon.dto.PatientSummary.RecordItem;
+import com.devdishon.dto.PatientSummary.Section;
+import com.devdishon.entity.Patient;
+import com.devdishon.exception.BadRequestException;
+import com.devdishon.exception.DeadlineExceededException;
+import com.devdishon.filter.RequestDeadline;
+import com.devdishon.repository.AppointmentRepository;
+import com.devdishon.repository.MedicalRecordRepository;
+import com.devdishon.repository.PatientRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Builds a {@link PatientSummary} by running the patient lookup and the three section queries
+ * at the same time, each in its own read-only transaction. They run on a pool of this service's
+ * own, whose threads are also its connection budget: across all summaries at most
+ * {@code app.patient-summary.max-connections} queries (by default half of the connection pool)
+ * hold a connection at once, so a burst of summaries cannot drain the pool for other requests.
+ * Its queue is bounded; once full, sections are left out and the patient is loaded on the
+ * calling thread, still within the budget.
+ * All of them share one deadline, the shorter of {@code app.patient-summary.timeout} and the
+ * request's own deadline, which also caps their JDBC statement timeouts. The patient is required;
+ * a section that fails or misses the deadline is left out and listed as unavailable instead.
+ */
+@Service
+public class PatientSummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientSummaryService.class);
+
+    static final int MAX_ITEMS = 50;
+
+    private final PatientRepository patientRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final MedicalRecordRepository medicalRecordRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore connections;
+
+    @Value("${app.patient-summary.timeout:2s}")
+    private Duration timeout;
+
+    public PatientSummaryService(PatientRepository patientRepository,
+                                 AppointmentRepository appointmentRepository,
+                                 MedicalRecordRepository medicalRecordRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize,
+                                 @Value("${app.patient-summary.max-connections:0}") int maxConnections,
+                                 @Value("${app.patient-summary.queue-capacity:64}") int queueCapacity) {
+        this.patientRepository = patientRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.medicalRecordRepository = medicalRecordRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        int budget = maxConnections > 0 ? maxConnections : Math.max(1, connectionPoolSize / 2);
+        this.connections = new Semaphore(budget);
+        this.executor = new ThreadPoolExecutor(budget, budget, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("patient-summary-", 1).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @param items how many entries each list section holds, at most {@value #MAX_ITEMS}
+     * @throws IllegalStateException if the patient does not exist
+     * @throws DeadlineExceededException if the patient could not be loaded in time
+     */
+    public PatientSummary getSummary(Long patientId, int items) {
+        if (items < 1 || items > MAX_ITEMS) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_ITEMS);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest first = PageRequest.of(0, items);
+        RequestDeadline deadline = summaryDeadline();
+        try {
+            Supplier<Patient> findPatient = () -> patientRepository.findById(patientId)
+                    .orElseThrow(() -> new IllegalStateException("Patient with id " + patientId + " not found"));
+            CompletableFuture<Patient> patient = submit(deadline, findPatient);
+            if (patient == null) {
+                // Pool saturated: the patient is required, so load it here
+                patient = runHere(deadline, findPatient);
+            }
+            CompletableFuture<Section<AppointmentItem>> upcoming = submit(deadline, () -> new Section<>(
+                    appointmentRepository.findUpcomingItemsByPatientId(patientId, now, first),
+                    appointmentRepository.countUpcomingByPatientId(patientId, now)));
+            CompletableFuture<Section<RecordItem>> recent = submit(deadline, () -> new Section<>(
+                    medicalRecordRepository.findRecentItemsByPatientId(patientId, first),
+                    medicalRecordRepository.countByPatientId(patientId)));
+            CompletableFuture<Section<RecordItem>> followUps = submit(deadline, () -> new Section<>(
+                    medicalRecordRepository.findPendingFollowUpItemsByPatientId(patientId, now, first),
+                    medicalRecordRepository.countPendingFollowUpsByPatientId(patientId, now)));
+
+            Patient found = awaitPatient(patient, deadline, patientId);
+            List<String> unavailable = new ArrayList<>();
+            Section<AppointmentItem> upcomingSection = await(upcoming, deadline, PatientSummary.UPCOMING_APPOINTMENTS, unavailable);
+            Section<RecordItem> recentSection = await(recent, deadline, PatientSummary.RECENT_RECORDS, unavailable);
+            Section<RecordItem> followUpSection = await(followUps, deadline, PatientSummary.PENDING_FOLLOW_UPS, unavailable);
+            return new PatientSummary(found,
+                    items(upcomingSection), total(upcomingSection),
+                    items(recentSection), total(recentSection),
+                    items(followUpSection), total(followUpSection),
+                    List.copyOf(unavailable));
+        } finally {
+            // Queries that have not started their transaction yet are refused from here on
+            deadline.cancel();
+        }
+    }
+
+    private RequestDeadline summaryDeadline() {
+        long millis = timeout.toMillis();
+        RequestDeadline request = RequestDeadline.current();
+        if (request != null) {
+            millis = Math.min(millis, request.remainingMillis());
+        }
+        if (millis <= 0) {
+            throw new DeadlineExceededException("Request deadline exceeded before loading the patient summary");
+        }
+        return RequestDeadline.after(Duration.ofMillis(millis));
+    }
+
+    /**
+     * Queues the query on the pool; returns null if the queue is full.
+     */
+    private <T> CompletableFuture<T> submit(RequestDeadline deadline, Supplier<T> query) {
+        try {
+            return CompletableFuture.supplyAsync(MdcTaskDecorator.wrap(() -> run(deadline, query)), executor);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Patient summary pool is saturated; rejecting a query");
+            return null;
+        }
+    }
+
+    private <T> CompletableFuture<T> runHere(RequestDeadline deadline, Supplier<T> query) {
+        try {
+            return CompletableFuture.completedFuture(run(deadline, query));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Runs one query under the summary deadline once a connection of the budget is free.
+     */
+    private <T> T run(RequestDeadline deadline, Supplier<T> query) {
+        try {
+            if (!connections.tryAcquire(Math.max(deadline.remainingMillis(), 0), TimeUnit.MILLISECONDS)) {
+                throw new DeadlineExceededException("Patient summary deadline exceeded waiting for a connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeadlineExceededException("Interrupted while waiting for a connection");
+        }
+        RequestDeadline previous = RequestDeadline.current();
+        RequestDeadline.bind(deadline);
+        try {
+            return readOnlyTransaction.execute(status -> query.get());
+        } finally {
+            if (previous != null) {
+                RequestDeadline.bind(previous);
+            } else {
+                RequestDeadline.unbind();
+            }
+            connections.release();
+        }
+    }
+
+    private static Patient awaitPatient(CompletableFuture<Patient> patient, RequestDeadline deadline, Long patientId) {
+        try {
+            return patient.get(Math.max(deadline.remainingMillis(), 0), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Could not load patient " + patientId, e.getCause());
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException("Patient summary deadline exceeded loading patient " + patientId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeadlineExceededException("Interrupted while loading patient " + patientId);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> section, RequestDeadline deadline, String name,
+                               List<String> unavailable) {
+        if (section == null) {
+            unavailable.add(name);
+            return null;
+        }
+        try {
+            return section.get(Math.max(deadline.remainingMillis(), 0), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Patient summary section {} missed the deadline", name);
+        } catch (ExecutionException e) {
+            logger.warn("Patient summary section {} failed: {}", name, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeadlineExceededException("Interrupted while loading the patient summary");
+        }
+        unavailable.add(name);
+        return null;
+    }
+
+    private static <T> List<T> items(Section<T> section) {
+        return section != null ? section.items() : null;
+    }
+
+    private static Long total(Section<?> section) {
+        return section != null ? section.total() : null;
+    }
+}
@@ -0,0 +1,93 @@
+package com.devdishon.service;
+
+import com.devdishon.dto.TimelineCursor;
+import com.devdishon.dto.TimelineEntry;
+import com.devdishon.dto.TimelineEntry.Kind;
+import com.devdishon.dto.TimelinePage;
+import com.devdishon.exception.BadRequestException;
+import com.devdishon.repository.AppointmentRepository;
+import com.devdishon.repository.MedicalRecordRepository;
+import com.devdishon.repository.PatientRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A patient's appointments and medical records as one timeline, newest first, a page at a time.
+ * Each page reads at most one page plus one entry from each side, starting after the cursor
+ * (keyset pagination on the (patient, time, id) indexes), and merges the two sorted lists. Memory
+ * and query cost per page depend on the page size, not on the length of the patient's history.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PatientTimelineService {
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final PatientRepository patientRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final MedicalRecordRepository medicalRecordRepository;
+
+    public PatientTimelineService(PatientRepository patientRepository,
+                                  AppointmentRepository appointmentRepository,
+                                  MedicalRecordRepository medicalRecordRepository) {
+        this.patientRepository = patientRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.medicalRecordRepository = medicalRecordRepository;
+    }
+
+    /**
+     * @param cursor the previous page's {@code nextCursor}, or null for the newest entries
+     * @throws BadRequestException if the cursor is malformed or the limit out of range
+     * @throws IllegalStateException if the patient does not exist
+     */
+    public TimelinePage getTimeline(Long patientId, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        TimelineCursor after = TimelineCursor.parse(cursor);
+        if (!patientRepository.existsById(patientId)) {
+            throw new IllegalStateException("Patient with id " + patientId + " not found");
+        }
+
+        // The extra entry from each side tells whether anything follows the page
+        Pageable window = PageRequest.of(0, limit + 1);
+        List<TimelineEntry> appointments = after == null
+                ? appointmentRepository.findTimelineByPatientId(patientId, window)
+                : appointmentRepository.findTimelineByPatientIdBefore(patientId, after.occurredAt(),
+                        after.idBoundFor(Kind.APPOINTMENT), window);
+        List<TimelineEntry> records = after == null
+                ? medicalRecordRepository.findTimelineByPatientId(patientId, window)
+                : medicalRecordRepository.findTimelineByPatientIdBefore(patientId, after.occurredAt(),
+                        after.idBoundFor(Kind.MEDICAL_RECORD), window);
+
+        List<TimelineEntry> merged = merge(appointments, records, limit + 1);
+        if (merged.size() <= limit) {
+            return new TimelinePage(merged, null);
+        }
+        List<TimelineEntry> page = List.copyOf(merged.subList(0, limit));
+        return new TimelinePage(page, page.get(limit - 1).cursor().encode());
+    }
+
+    /**
+     * Merges two lists already in {@link TimelineCursor#ORDER}, keeping the first {@code max} entries.
+     */
+    static List<TimelineEntry> merge(List<TimelineEntry> first, List<TimelineEntry> second, int max) {
+        List<TimelineEntry> merged = new ArrayList<>(Math.min(max, first.size() + second.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < max && (i < first.size() || j < second.size())) {
+            if (j >= second.size()
+                    || (i < first.size() && TimelineCursor.ORDER.compare(first.get(i), second.get(j)) <= 0)) {
+                merged.add(first.get(i++));
+            } else {
+                merged.add(second.get(j++));
+            }
+        }
+        return merged;
+    }
+}
@@ -1,5 +1,6 @@
 package com.devdishon.service;
 
+import com.devdishon.dto.ResourceVersion;
 import com.devdishon.dto.RoleAssignmentRequest;
 import com.devdishon.dto.UserResponse;
 import com.devdishon.entity.Role;
@@ -43,6 +44,16 @@ public class UserService {
         return UserResponse.fromUser(user);
     }
 
+    @Transactional(readOnly = true)
+    public ResourceVersion getUserVersion(Long id) {
+        return userRepository.findVersionById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion getAllUsersVersion() {
+        return userRepository.findVersionOfAll();
+    }
+
     public UserResponse getUserByEmail(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User with email " + email + " not found"));
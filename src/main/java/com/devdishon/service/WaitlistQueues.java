@@ -0,0 +1,167 @@
+package com.devdishon.service;
+
+import com.devdishon.dto.WaitlistTicket;
+import com.devdishon.entity.Specialization;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory waitlist ordering. Doctor-specific requests queue per doctor, "any doctor" requests
+ * queue per specialization; both are ordered by urgency, then by how long the patient has waited.
+ * Sorted sets rather than heaps so a claimed or withdrawn ticket is removed in O(log n).
+ */
+public class WaitlistQueues {
+
+    static final Comparator<WaitlistTicket> PRIORITY = Comparator
+            .comparing(WaitlistTicket::urgency, Comparator.reverseOrder())
+            .thenComparing(WaitlistTicket::requestedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(WaitlistTicket::entryId);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, NavigableSet<WaitlistTicket>> byDoctor = new HashMap<>();
+    private final Map<Specialization, NavigableSet<WaitlistTicket>> bySpecialization = new EnumMap<>(Specialization.class);
+    private final Map<Long, WaitlistTicket> byEntryId = new HashMap<>();
+
+    public void add(WaitlistTicket ticket) {
+        lock.lock();
+        try {
+            removeLocked(ticket.entryId());
+            queueFor(ticket).add(ticket);
+            byEntryId.put(ticket.entryId(), ticket);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean remove(Long entryId) {
+        lock.lock();
+        try {
+            return removeLocked(entryId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the highest-priority ticket that would take {@code slot} with the given
+     * doctor, considering both that doctor's queue and the "any doctor" queue of their specialization.
+     */
+    public Optional<WaitlistTicket> pollBest(Long doctorId, Specialization specialization,
+                                             LocalDateTime slot, Long excludedPatientId) {
+        lock.lock();
+        try {
+            WaitlistTicket forDoctor = firstAccepting(byDoctor.get(doctorId), slot, excludedPatientId);
+            WaitlistTicket forSpecialization = firstAccepting(bySpecialization.get(specialization), slot, excludedPatientId);
+            WaitlistTicket best;
+            if (forDoctor == null) {
+                best = forSpecialization;
+            } else if (forSpecialization == null) {
+                best = forDoctor;
+            } else {
+                best = PRIORITY.compare(forDoctor, forSpecialization) <= 0 ? forDoctor : forSpecialization;
+            }
+            if (best != null) {
+                removeLocked(best.entryId());
+            }
+            return Optional.ofNullable(best);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<WaitlistTicket> doctorQueue(Long doctorId) {
+        lock.lock();
+        try {
+            NavigableSet<WaitlistTicket> queue = byDoctor.get(doctorId);
+            return queue == null ? List.of() : new ArrayList<>(queue);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<WaitlistTicket> specializationQueue(Specialization specialization) {
+        lock.lock();
+        try {
+            NavigableSet<WaitlistTicket> queue = bySpecialization.get(specialization);
+            return queue == null ? List.of() : new ArrayList<>(queue);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void replaceAll(Collection<WaitlistTicket> tickets) {
+        lock.lock();
+        try {
+            byDoctor.clear();
+            bySpecialization.clear();
+            byEntryId.clear();
+            for (WaitlistTicket ticket : tickets) {
+                queueFor(ticket).add(ticket);
+                byEntryId.put(ticket.entryId(), ticket);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return byEntryId.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private WaitlistTicket firstAccepting(NavigableSet<WaitlistTicket> queue, LocalDateTime slot, Long excludedPatientId) {
+        if (queue == null) {
+            return null;
+        }
+        for (WaitlistTicket ticket : queue) {
+            if (ticket.accepts(slot) && !Objects.equals(ticket.patientId(), excludedPatientId)) {
+                return ticket;
+            }
+        }
+        return null;
+    }
+
+    private boolean removeLocked(Long entryId) {
+        WaitlistTicket existing = byEntryId.remove(entryId);
+        if (existing == null) {
+            return false;
+        }
+        NavigableSet<WaitlistTicket> queue = existing.doctorId() != null
+                ? byDoctor.get(existing.doctorId())
+                : bySpecialization.get(existing.specialization());
+        if (queue != null) {
+            queue.remove(existing);
+            if (queue.isEmpty()) {
+                if (existing.doctorId() != null) {
+                    byDoctor.remove(existing.doctorId());
+                } else {
+                    bySpecialization.remove(existing.specialization());
+                }
+            }
+        }
+        return true;
+    }
+
+    private NavigableSet<WaitlistTicket> queueFor(WaitlistTicket ticket) {
+        if (ticket.doctorId() != null) {
+            return byDoctor.computeIfAbsent(ticket.doctorId(), id -> new TreeSet<>(PRIORITY));
+        }
+        return bySpecialization.computeIfAbsent(ticket.specialization(), s -> new TreeSet<>(PRIORITY));
+    }
+}
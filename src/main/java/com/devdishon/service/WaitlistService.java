@@ -0,0 +1,187 @@
+package com.devdishon.service;
+
+import com.devdishon.dto.WaitlistTicket;
+import com.devdishon.entity.AppointmentType;
+import com.devdishon.entity.Doctor;
+import com.devdishon.entity.Patient;
+import com.devdishon.entity.Specialization;
+import com.devdishon.entity.WaitlistEntry;
+import com.devdishon.entity.WaitlistStatus;
+import com.devdishon.entity.WaitlistUrgency;
+import com.devdishon.repository.DoctorRepository;
+import com.devdishon.repository.PatientRepository;
+import com.devdishon.repository.WaitlistEntryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Waitlist for patients who want an earlier slot with a doctor or specialization.
+ * Entries are persisted and mirrored into {@link WaitlistQueues} so a freed slot can be
+ * matched without a query; the claimed entry is then locked and booked in the caller's transaction.
+ */
+@Service
+@Transactional
+public class WaitlistService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistService.class);
+
+    private static final int MAX_CLAIM_ATTEMPTS = 5;
+
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final PatientRepository patientRepository;
+    private final DoctorRepository doctorRepository;
+    private final WaitlistQueues queues = new WaitlistQueues();
+
+    @Value("${app.waitlist.min-lead-minutes:30}")
+    private long minLeadMinutes;
+
+    public WaitlistService(WaitlistEntryRepository waitlistEntryRepository,
+                           PatientRepository patientRepository,
+                           DoctorRepository doctorRepository) {
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.patientRepository = patientRepository;
+        this.doctorRepository = doctorRepository;
+    }
+
+    /**
+     * Rebuilds the in-memory queues from the database. Runs at startup and periodically so
+     * entries added through other replicas are picked up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.waitlist.refresh-interval-ms:300000}",
+            fixedDelayString = "${app.waitlist.refresh-interval-ms:300000}")
+    @Transactional(readOnly = true)
+    public void reloadQueues() {
+        List<WaitlistTicket> tickets = waitlistEntryRepository.findWaitingTickets();
+        queues.replaceAll(tickets);
+        logger.debug("Loaded {} waitlist entries", tickets.size());
+    }
+
+    public WaitlistEntry getWaitlistEntryById(Long id) {
+        return waitlistEntryRepository.findById(id)
+                .orElseThrow(() -> new IllegalStateException("Waitlist entry with id " + id + " not found"));
+    }
+
+    @Transactional(readOnly = true)
+    public List<WaitlistEntry> getDoctorWaitlist(Long doctorId) {
+        return loadInQueueOrder(queues.doctorQueue(doctorId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<WaitlistEntry> getSpecializationWaitlist(Specialization specialization) {
+        return loadInQueueOrder(queues.specializationQueue(specialization));
+    }
+
+    public WaitlistEntry addToWaitlist(Long patientId, Long doctorId, Specialization specialization,
+                                       WaitlistUrgency urgency, AppointmentType appointmentType, String reasonForVisit,
+                                       LocalDateTime availableFrom, LocalDateTime availableUntil) {
+        Patient patient = patientRepository.findById(patientId)
+                .orElseThrow(() -> new IllegalStateException("Patient with id " + patientId + " not found"));
+
+        WaitlistEntry entry = new WaitlistEntry();
+        if (doctorId != null) {
+            Doctor doctor = doctorRepository.findById(doctorId)
+                    .orElseThrow(() -> new IllegalStateException("Doctor with id " + doctorId + " not found"));
+            entry.setDoctor(doctor);
+            entry.setSpecialization(doctor.getSpecialization());
+        } else if (specialization != null) {
+            entry.setSpecialization(specialization);
+        } else {
+            throw new IllegalStateException("Either a doctor or a specialization is required");
+        }
+        if (availableFrom != null && availableUntil != null && availableUntil.isBefore(availableFrom)) {
+            throw new IllegalStateException("availableUntil must not be before availableFrom");
+        }
+
+        entry.setPatient(patient);
+        entry.setUrgency(urgency != null ? urgency : WaitlistUrgency.ROUTINE);
+        entry.setAppointmentType(appointmentType);
+        entry.setReasonForVisit(reasonForVisit);
+        entry.setAvailableFrom(availableFrom);
+        entry.setAvailableUntil(availableUntil);
+        entry.setStatus(WaitlistStatus.WAITING);
+
+        WaitlistEntry saved = waitlistEntryRepository.save(entry);
+        WaitlistTicket ticket = toTicket(saved);
+        TransactionHooks.afterCommit(() -> queues.add(ticket));
+        return saved;
+    }
+
+    public void removeFromWaitlist(Long id) {
+        WaitlistEntry entry = waitlistEntryRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new IllegalStateException("Waitlist entry with id " + id + " does not exist"));
+        if (entry.getStatus() != WaitlistStatus.WAITING) {
+            throw new IllegalStateException("Waitlist entry with id " + id + " is no longer waiting");
+        }
+        entry.setStatus(WaitlistStatus.REMOVED);
+        TransactionHooks.afterCommit(() -> queues.remove(id));
+    }
+
+    /**
+     * Claims the best waiting entry for a freed slot and marks it booked in the current transaction.
+     * The caller books the appointment and records its id on the returned entry. If the transaction
+     * rolls back, the ticket goes back into the queue.
+     */
+    public Optional<WaitlistEntry> claimSlot(Doctor doctor, LocalDateTime slot, Long excludedPatientId) {
+        if (slot == null || slot.isBefore(LocalDateTime.now().plusMinutes(minLeadMinutes))
+                || !Boolean.TRUE.equals(doctor.getIsAvailable())) {
+            return Optional.empty();
+        }
+        for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+            Optional<WaitlistTicket> candidate =
+                    queues.pollBest(doctor.getId(), doctor.getSpecialization(), slot, excludedPatientId);
+            if (candidate.isEmpty()) {
+                return Optional.empty();
+            }
+            WaitlistTicket ticket = candidate.get();
+            Optional<WaitlistEntry> entry = waitlistEntryRepository.findByIdForUpdate(ticket.entryId())
+                    .filter(e -> e.getStatus() == WaitlistStatus.WAITING);
+            if (entry.isPresent()) {
+                entry.get().setStatus(WaitlistStatus.BOOKED);
+                TransactionHooks.afterCompletion(committed -> {
+                    if (!committed) {
+                        queues.add(ticket);
+                    }
+                });
+                return entry;
+            }
+            // Stale ticket: booked or removed through another replica since the last reload
+        }
+        return Optional.empty();
+    }
+
+    private List<WaitlistEntry> loadInQueueOrder(List<WaitlistTicket> tickets) {
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < tickets.size(); i++) {
+            positions.put(tickets.get(i).entryId(), i);
+        }
+        return waitlistEntryRepository.findAllById(positions.keySet()).stream()
+                .sorted(Comparator.comparing(entry -> positions.get(entry.getId())))
+                .toList();
+    }
+
+    private static WaitlistTicket toTicket(WaitlistEntry entry) {
+        return new WaitlistTicket(
+                entry.getId(),
+                entry.getPatient().getId(),
+                entry.getDoctor() != null ? entry.getDoctor().getId() : null,
+                entry.getSpecialization(),
+                entry.getUrgency(),
+                entry.getCreatedAt(),
+                entry.getAvailableFrom(),
+                entry.getAvailableUntil());
+    }
+}
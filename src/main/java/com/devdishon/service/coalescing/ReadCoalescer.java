@@ -0,0 +1,145 @@
+package com.devdishon.service.coalescing;
+
+import com.devdishon.exception.DeadlineExceededException;
+import com.devdishon.filter.RequestDeadline;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Merges concurrent identical reads of hot endpoints into one database call and one JSON
+ * serialization, whose bytes every waiting request writes out. Calls are keyed on the read,
+ * its arguments and the caller's authorities, so callers with different roles never share a
+ * result; reads coalesced here must therefore not depend on who the caller is beyond their roles.
+ * Waiters give up at their request deadline. If the load fails while the leader's deadline has
+ * passed, the failure is put down to the leader's shorter budget and the waiters load again under
+ * their own deadlines rather than sharing it.
+ */
+@Component
+public class ReadCoalescer implements MeterBinder {
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Duration maxWait;
+    private final Map<String, SingleFlight<String, byte[]>> flights = new ConcurrentHashMap<>();
+
+    private MeterRegistry registry;
+
+    public ReadCoalescer(ObjectMapper objectMapper,
+                         @Value("${app.coalescing.enabled:true}") boolean enabled,
+                         @Value("${app.coalescing.max-wait:10s}") Duration maxWait) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Returns the JSON for a read, sharing the load and serialization with identical concurrent calls.
+     *
+     * @param read   name of the read, used in the key and as the metrics tag
+     * @param query  the read's arguments, rendered as a string
+     * @param loader runs the read; called at most once per group of concurrent identical calls
+     */
+    public byte[] json(String read, String query, Supplier<?> loader) {
+        Supplier<byte[]> serialize = () -> toJson(loader.get());
+        if (!enabled) {
+            return serialize.get();
+        }
+        String key = query + '|' + authorizationScope();
+        try {
+            return flight(read).execute(key, serialize, waitBudget());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeadlineExceededException("Interrupted while waiting for a shared " + read + " read");
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        flights.forEach((read, flight) -> register(registry, read, flight));
+    }
+
+    private SingleFlight<String, byte[]> flight(String read) {
+        SingleFlight<String, byte[]> flight = flights.get(read);
+        if (flight == null) {
+            SingleFlight<String, byte[]> created = new SingleFlight<>(failure -> leaderDeadlineExpired());
+            flight = flights.putIfAbsent(read, created);
+            if (flight == null) {
+                flight = created;
+                if (registry != null) {
+                    register(registry, read, created);
+                }
+            }
+        }
+        return flight;
+    }
+
+    private static void register(MeterRegistry registry, String read, SingleFlight<String, byte[]> flight) {
+        FunctionCounter.builder("hms.coalescing.calls", flight, SingleFlight::calls)
+                .description("Coalesced read calls")
+                .tag("read", read)
+                .register(registry);
+        FunctionCounter.builder("hms.coalescing.shared", flight, SingleFlight::shared)
+                .description("Read calls answered by another call's in-flight load")
+                .tag("read", read)
+                .register(registry);
+        Gauge.builder("hms.coalescing.ratio", flight,
+                        f -> f.calls() == 0 ? 0.0 : (double) f.shared() / f.calls())
+                .description("Fraction of read calls that shared another call's load")
+                .tag("read", read)
+                .register(registry);
+    }
+
+    private Duration waitBudget() {
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline == null) {
+            return maxWait;
+        }
+        long remainingMillis = deadline.remainingMillis();
+        if (remainingMillis <= 0) {
+            throw new DeadlineExceededException("Request deadline exceeded before reading");
+        }
+        Duration remaining = Duration.ofMillis(remainingMillis);
+        return remaining.compareTo(maxWait) < 0 ? remaining : maxWait;
+    }
+
+    private static boolean leaderDeadlineExpired() {
+        RequestDeadline deadline = RequestDeadline.current();
+        return deadline != null && deadline.isExpired();
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Failed to serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    private static String authorizationScope() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return "anonymous";
+        }
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,114 @@
+package com.devdishon.service.coalescing;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Runs at most one load per key at a time. The first caller for a key runs the loader on its own
+ * thread; callers arriving while it runs wait for and share its result (or its exception).
+ * Nothing is kept once the load finishes, so this only merges concurrent calls and never serves
+ * stale data. A failure the leader alone is to blame for (such as its own request deadline
+ * running out) is not shared: the waiters load again, one of them leading the new load.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+    private final Predicate<Throwable> leaderSpecific;
+
+    public SingleFlight() {
+        this(failure -> false);
+    }
+
+    /**
+     * @param leaderSpecific tested on the leader's thread when its load fails; true if the failure
+     *                       came from the leader's own circumstances and waiters should retry
+     */
+    public SingleFlight(Predicate<Throwable> leaderSpecific) {
+        this.leaderSpecific = leaderSpecific;
+    }
+
+    /**
+     * Returns the loader's result for the key, sharing an in-flight load if there is one.
+     *
+     * @param maxWait how long to wait for someone else's load before running the loader directly
+     */
+    public V execute(K key, Supplier<V> loader, Duration maxWait) throws InterruptedException {
+        calls.increment();
+        long waitUntil = System.nanoTime() + maxWait.toNanos();
+        while (true) {
+            CompletableFuture<V> mine = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+            if (existing == null) {
+                return lead(key, mine, loader);
+            }
+            try {
+                V result = existing.get(waitUntil - System.nanoTime(), TimeUnit.NANOSECONDS);
+                shared.increment();
+                return result;
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof LeaderAbandoned) {
+                    continue;
+                }
+                shared.increment();
+                throw rethrow(e.getCause());
+            } catch (TimeoutException e) {
+                return loader.get();
+            }
+        }
+    }
+
+    public long calls() {
+        return calls.sum();
+    }
+
+    public long shared() {
+        return shared.sum();
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    private V lead(K key, CompletableFuture<V> mine, Supplier<V> loader) {
+        try {
+            V result = loader.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(leaderSpecific.test(e) ? new LeaderAbandoned() : e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new CompletionException(cause);
+    }
+
+    /**
+     * Tells waiters that the leader's failure is not theirs to share.
+     */
+    private static final class LeaderAbandoned extends RuntimeException {
+        LeaderAbandoned() {
+            super("Leader gave up on the load", null, false, false);
+        }
+    }
+}
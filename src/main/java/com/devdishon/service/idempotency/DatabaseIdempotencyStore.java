@@ -0,0 +1,116 @@
+package com.devdishon.service.idempotency;
+
+import com.devdishon.entity.IdempotencyRecord;
+import com.devdishon.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Idempotency store backed by the {@code idempotency_keys} table, shared by all replicas.
+ * Keys are claimed with an insert that ignores conflicts, so exactly one replica wins;
+ * duplicates elsewhere poll the row until the winner records its response. Each claim writes a
+ * fresh token, and completing or releasing matches on it, so an owner whose lease ran out cannot
+ * touch the row once another request has taken the key over.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "database")
+public class DatabaseIdempotencyStore implements IdempotencyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseIdempotencyStore.class);
+
+    private final IdempotencyRecordRepository repository;
+    private final Duration ttl;
+    private final Duration lease;
+    private final long pollIntervalMillis;
+
+    public DatabaseIdempotencyStore(IdempotencyRecordRepository repository,
+                                    @Value("${app.idempotency.ttl:24h}") Duration ttl,
+                                    @Value("${app.idempotency.lease:60s}") Duration lease,
+                                    @Value("${app.idempotency.poll-interval-ms:100}") long pollIntervalMillis) {
+        this.repository = repository;
+        this.ttl = ttl;
+        this.lease = lease;
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+
+    @Override
+    @Transactional
+    public IdempotencyClaim claim(String key, String fingerprint) {
+        LocalDateTime now = LocalDateTime.now();
+        String token = UUID.randomUUID().toString();
+        if (repository.insertIfAbsent(key, token, fingerprint, now, now.plus(lease), now.plus(ttl)) == 1
+                || repository.takeOver(key, token, fingerprint, now, now.plus(lease), now.plus(ttl)) == 1) {
+            return IdempotencyClaim.acquired(token);
+        }
+        Optional<IdempotencyRecord> existing = repository.findById(key);
+        if (existing.isEmpty()) {
+            // Released between our insert and read; the caller waits briefly and claims again
+            return IdempotencyClaim.inProgress();
+        }
+        IdempotencyRecord record = existing.get();
+        if (!record.getFingerprint().equals(fingerprint)) {
+            return IdempotencyClaim.mismatch();
+        }
+        return record.isCompleted() ? IdempotencyClaim.completed(toResponse(record)) : IdempotencyClaim.inProgress();
+    }
+
+    @Override
+    @Transactional
+    public void complete(String key, String token, IdempotentResponse response) {
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+        if (repository.complete(key, token, response.status(), response.contentType(), response.body(), expiresAt) == 0) {
+            logger.warn("Idempotency key {} was taken over before its response was recorded", key);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void release(String key, String token) {
+        repository.deleteUncompleted(key, token);
+    }
+
+    /**
+     * Polls the record outside any transaction so every read sees the latest committed row.
+     */
+    @Override
+    public Optional<IdempotentResponse> await(String key, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            Optional<IdempotencyRecord> record = repository.findById(key);
+            if (record.isEmpty()) {
+                return Optional.empty();
+            }
+            if (record.get().isCompleted()) {
+                return Optional.of(toResponse(record.get()));
+            }
+            long remainingMillis = Duration.ofNanos(deadline - System.nanoTime()).toMillis();
+            if (remainingMillis <= 0) {
+                return Optional.empty();
+            }
+            Thread.sleep(Math.min(pollIntervalMillis, remainingMillis));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:60000}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = repository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.debug("Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    private static IdempotentResponse toResponse(IdempotencyRecord record) {
+        return new IdempotentResponse(record.getResponseStatus(), record.getContentType(), record.getResponseBody());
+    }
+}
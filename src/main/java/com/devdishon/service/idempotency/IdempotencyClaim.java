@@ -0,0 +1,45 @@
+package com.devdishon.service.idempotency;
+
+/**
+ * Result of trying to claim an idempotency key. An acquired claim carries a token that identifies
+ * this claim among later ones on the same key; completing or releasing the key needs it.
+ */
+public record IdempotencyClaim(
+        Outcome outcome,
+        IdempotentResponse response,
+        String token
+) {
+
+    public enum Outcome {
+        /** The caller owns the key and must complete or release it. */
+        ACQUIRED,
+        /** A request with the same key and payload already finished; replay {@link #response()}. */
+        COMPLETED,
+        /** A request with the same key and payload is still running. */
+        IN_PROGRESS,
+        /** The key was already used for a different payload. */
+        MISMATCH,
+        /** The store has no room for another key; the caller should retry later. */
+        FULL
+    }
+
+    public static IdempotencyClaim acquired(String token) {
+        return new IdempotencyClaim(Outcome.ACQUIRED, null, token);
+    }
+
+    public static IdempotencyClaim completed(IdempotentResponse response) {
+        return new IdempotencyClaim(Outcome.COMPLETED, response, null);
+    }
+
+    public static IdempotencyClaim inProgress() {
+        return new IdempotencyClaim(Outcome.IN_PROGRESS, null, null);
+    }
+
+    public static IdempotencyClaim mismatch() {
+        return new IdempotencyClaim(Outcome.MISMATCH, null, null);
+    }
+
+    public static IdempotencyClaim full() {
+        return new IdempotencyClaim(Outcome.FULL, null, null);
+    }
+}
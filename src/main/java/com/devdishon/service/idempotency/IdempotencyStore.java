@@ -0,0 +1,34 @@
+package com.devdishon.service.idempotency;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Stores request fingerprints and responses per idempotency key.
+ * Keys expire after a fixed time-to-live counted from the last write.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Claims {@code key} for a request with the given fingerprint, or reports who already holds it.
+     */
+    IdempotencyClaim claim(String key, String fingerprint);
+
+    /**
+     * Records the response for a key claimed by the caller and wakes up waiting duplicates. Does
+     * nothing if the claim with {@code token} no longer holds the key.
+     */
+    void complete(String key, String token, IdempotentResponse response);
+
+    /**
+     * Gives up a claimed key without recording a response, so a retry can run the request again.
+     * Does nothing if the claim with {@code token} no longer holds the key.
+     */
+    void release(String key, String token);
+
+    /**
+     * Waits up to {@code timeout} for an in-progress key to complete. Returns empty if it timed out
+     * or the owner released the key.
+     */
+    Optional<IdempotentResponse> await(String key, Duration timeout) throws InterruptedException;
+}
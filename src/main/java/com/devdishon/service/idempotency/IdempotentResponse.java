@@ -0,0 +1,10 @@
+package com.devdishon.service.idempotency;
+
+/**
+ * Response recorded for an idempotency key, replayed verbatim to retries.
+ */
+public record IdempotentResponse(
+        int status,
+        String contentType,
+        byte[] body
+) {}
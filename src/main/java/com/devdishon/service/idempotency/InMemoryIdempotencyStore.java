@@ -0,0 +1,188 @@
+package com.devdishon.service.idempotency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Single-replica idempotency store.
+ * Entries live in insertion order and every write re-appends its entry, so with a fixed
+ * time-to-live the oldest entry is always the first to expire and purging stops at the first
+ * live one. When the store is full the oldest completed entry is evicted early. Entries still in
+ * progress are never evicted, since a retry would then run the request a second time; if every
+ * entry is in progress, new keys are turned away until one finishes.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Clock clock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    public InMemoryIdempotencyStore(@Value("${app.idempotency.ttl:24h}") Duration ttl,
+                                    @Value("${app.idempotency.max-entries:10000}") int maxEntries) {
+        this(ttl, maxEntries, Clock.systemUTC());
+    }
+
+    InMemoryIdempotencyStore(Duration ttl, int maxEntries, Clock clock) {
+        this.ttlMillis = ttl.toMillis();
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    @Override
+    public IdempotencyClaim claim(String key, String fingerprint) {
+        lock.lock();
+        try {
+            long now = clock.millis();
+            purgeExpiredLocked(now);
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                if (!makeRoomLocked()) {
+                    return IdempotencyClaim.full();
+                }
+                Entry claimed = new Entry(fingerprint, now + ttlMillis);
+                entries.put(key, claimed);
+                return IdempotencyClaim.acquired(claimed.token);
+            }
+            if (!entry.fingerprint.equals(fingerprint)) {
+                return IdempotencyClaim.mismatch();
+            }
+            IdempotentResponse response = entry.result.getNow(null);
+            return response != null ? IdempotencyClaim.completed(response) : IdempotencyClaim.inProgress();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void complete(String key, String token, IdempotentResponse response) {
+        Entry entry;
+        lock.lock();
+        try {
+            entry = entries.get(key);
+            if (entry == null || !entry.token.equals(token)) {
+                return;
+            }
+            entries.remove(key);
+            entry.expiresAt = clock.millis() + ttlMillis;
+            entries.put(key, entry);
+        } finally {
+            lock.unlock();
+        }
+        entry.result.complete(response);
+    }
+
+    @Override
+    public void release(String key, String token) {
+        Entry entry;
+        lock.lock();
+        try {
+            entry = entries.get(key);
+            if (entry == null || !entry.token.equals(token) || entry.result.isDone()) {
+                return;
+            }
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+        entry.result.complete(null);
+    }
+
+    @Override
+    public Optional<IdempotentResponse> await(String key, Duration timeout) throws InterruptedException {
+        CompletableFuture<IdempotentResponse> result;
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            result = entry.result;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            return Optional.ofNullable(result.get(timeout.toMillis(), TimeUnit.MILLISECONDS));
+        } catch (TimeoutException | ExecutionException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        lock.lock();
+        try {
+            purgeExpiredLocked(clock.millis());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void purgeExpiredLocked(long now) {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next().getValue();
+            if (entry.expiresAt > now) {
+                return;
+            }
+            it.remove();
+            entry.result.complete(null);
+        }
+    }
+
+    /**
+     * Evicts the oldest completed entries until there is room for one more.
+     * Returns false if the store is full of entries still in progress.
+     */
+    private boolean makeRoomLocked() {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() >= maxEntries && it.hasNext()) {
+            Entry entry = it.next().getValue();
+            if (entry.result.isDone()) {
+                it.remove();
+            }
+        }
+        return entries.size() < maxEntries;
+    }
+
+    private static final class Entry {
+
+        private final String fingerprint;
+        private final String token = UUID.randomUUID().toString();
+        private final CompletableFuture<IdempotentResponse> result = new CompletableFuture<>();
+        private long expiresAt;
+
+        private Entry(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
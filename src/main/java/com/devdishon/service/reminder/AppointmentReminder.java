@@ -0,0 +1,11 @@
+package com.devdishon.service.reminder;
+
+import java.time.LocalDateTime;
+
+public record AppointmentReminder(
+        Long appointmentId,
+        Long patientId,
+        Long doctorId,
+        LocalDateTime appointmentDateTime,
+        ReminderType type
+) {}
@@ -0,0 +1,296 @@
+package com.devdishon.service.reminder;
+
+import com.devdishon.dto.UpcomingAppointment;
+import com.devdishon.entity.Appointment;
+import com.devdishon.entity.AppointmentStatus;
+import com.devdishon.repository.AppointmentRepository;
+import com.devdishon.service.TransactionHooks;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps 24h and 1h appointment reminders in an in-process timing wheel.
+ * The wheel only holds reminders that fire within the load horizon; a periodic loader
+ * pulls the next window from the database, and appointment writes update the wheel
+ * directly once their transaction commits.
+ */
+@Service
+public class AppointmentReminderScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentReminderScheduler.class);
+
+    private static final Set<AppointmentStatus> ACTIVE_STATUSES =
+            EnumSet.of(AppointmentStatus.SCHEDULED, AppointmentStatus.CONFIRMED);
+    private static final ReminderType[] TYPES = ReminderType.values();
+    private static final long TICK_MILLIS = 1000;
+
+    private final AppointmentRepository appointmentRepository;
+    private final ReminderNotifier notifier;
+    private final boolean enabled;
+    private final Duration horizon;
+    private final int batchSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final HierarchicalTimingWheel<AppointmentReminder> wheel;
+    private final Map<Long, HierarchicalTimingWheel.Timeout<AppointmentReminder>[]> timeouts = new HashMap<>();
+    private final Set<Long> touchedDuringLoad = new HashSet<>();
+    private LocalDateTime loadedUntil;
+    private boolean loading;
+
+    public AppointmentReminderScheduler(AppointmentRepository appointmentRepository,
+                                        ReminderNotifier notifier,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${app.reminders.enabled:true}") boolean enabled,
+                                        @Value("${app.reminders.load-horizon:6h}") Duration horizon,
+                                        @Value("${app.reminders.load-batch-size:1000}") int batchSize) {
+        this.appointmentRepository = appointmentRepository;
+        this.notifier = notifier;
+        this.enabled = enabled;
+        this.horizon = horizon;
+        this.batchSize = batchSize;
+        this.wheel = new HierarchicalTimingWheel<>(TICK_MILLIS, System.currentTimeMillis());
+        this.loadedUntil = LocalDateTime.now();
+
+        // Observes the wheel rather than this, which is not fully constructed yet
+        ReentrantLock wheelLock = lock;
+        Gauge.builder("hms.reminders.pending", wheel, w -> pendingCount(w, wheelLock))
+                .description("Appointment reminders waiting in the timing wheel")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Schedules (or replaces) the reminders for an appointment once the current transaction commits.
+     */
+    public void track(Appointment appointment) {
+        if (!enabled || appointment.getId() == null) {
+            return;
+        }
+        UpcomingAppointment upcoming = new UpcomingAppointment(
+                appointment.getId(),
+                appointment.getPatient().getId(),
+                appointment.getDoctor().getId(),
+                appointment.getAppointmentDateTime());
+        TransactionHooks.afterCommit(() -> {
+            lock.lock();
+            try {
+                cancelLocked(upcoming.id());
+                markTouchedLocked(upcoming.id());
+                scheduleLocked(upcoming, LocalDateTime.now(), loadedUntil);
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Drops any pending reminders for an appointment once the current transaction commits.
+     */
+    public void untrack(Long appointmentId) {
+        if (!enabled || appointmentId == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            lock.lock();
+            try {
+                cancelLocked(appointmentId);
+                markTouchedLocked(appointmentId);
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    @Scheduled(fixedRateString = "${app.reminders.tick-ms:1000}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        List<AppointmentReminder> due = new ArrayList<>();
+        lock.lock();
+        try {
+            wheel.advanceTo(System.currentTimeMillis(), reminder -> {
+                releaseSlotLocked(reminder);
+                due.add(reminder);
+            });
+        } finally {
+            lock.unlock();
+        }
+        for (AppointmentReminder reminder : due) {
+            try {
+                notifier.notify(reminder);
+            } catch (RuntimeException e) {
+                logger.error("Failed to deliver {} reminder for appointment {}: {}",
+                        reminder.type(), reminder.appointmentId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Pulls reminders for the next window into the wheel, reading appointments page by page.
+     */
+    @Scheduled(fixedDelayString = "${app.reminders.load-interval-ms:300000}")
+    public void loadWindow() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime from;
+        LocalDateTime until;
+        lock.lock();
+        try {
+            from = loadedUntil;
+            until = LocalDateTime.now().plus(horizon);
+            if (!until.isAfter(from)) {
+                return;
+            }
+            loadedUntil = until;
+            loading = true;
+        } finally {
+            lock.unlock();
+        }
+
+        int loaded = 0;
+        try {
+            LocalDateTime start = from.plus(ReminderType.HOUR_BEFORE.getLeadTime());
+            LocalDateTime end = until.plus(ReminderType.DAY_BEFORE.getLeadTime());
+            long afterId = 0L;
+            List<UpcomingAppointment> page;
+            do {
+                page = appointmentRepository.findUpcomingInWindow(
+                        start, end, ACTIVE_STATUSES, afterId, PageRequest.of(0, batchSize));
+                lock.lock();
+                try {
+                    LocalDateTime now = LocalDateTime.now();
+                    LocalDateTime windowStart = from.isAfter(now) ? from : now;
+                    for (UpcomingAppointment upcoming : page) {
+                        if (!touchedDuringLoad.contains(upcoming.id())) {
+                            loaded += scheduleLocked(upcoming, windowStart, until);
+                        }
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                if (!page.isEmpty()) {
+                    afterId = page.get(page.size() - 1).id();
+                }
+            } while (page.size() == batchSize);
+        } catch (RuntimeException e) {
+            logger.error("Failed to load reminders for window {} - {}: {}", from, until, e.getMessage());
+            lock.lock();
+            try {
+                if (loadedUntil.equals(until)) {
+                    loadedUntil = from;
+                }
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            lock.lock();
+            try {
+                loading = false;
+                touchedDuringLoad.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+        logger.debug("Loaded {} reminders for window {} - {}", loaded, from, until);
+    }
+
+    public int pendingCount() {
+        return pendingCount(wheel, lock);
+    }
+
+    /**
+     * Schedules each reminder type whose fire time falls in (after, until], skipping types
+     * already in the wheel. Returns the number of reminders added.
+     */
+    private int scheduleLocked(UpcomingAppointment upcoming, LocalDateTime after, LocalDateTime until) {
+        int added = 0;
+        for (ReminderType type : TYPES) {
+            LocalDateTime fireAt = upcoming.appointmentDateTime().minus(type.getLeadTime());
+            if (!fireAt.isAfter(after) || fireAt.isAfter(until)) {
+                continue;
+            }
+            HierarchicalTimingWheel.Timeout<AppointmentReminder>[] slots =
+                    timeouts.computeIfAbsent(upcoming.id(), id -> newSlots());
+            if (slots[type.ordinal()] != null) {
+                continue;
+            }
+            AppointmentReminder reminder = new AppointmentReminder(
+                    upcoming.id(), upcoming.patientId(), upcoming.doctorId(), upcoming.appointmentDateTime(), type);
+            slots[type.ordinal()] = wheel.schedule(toEpochMillis(fireAt), reminder);
+            added++;
+        }
+        timeouts.computeIfPresent(upcoming.id(), (id, slots) -> isEmpty(slots) ? null : slots);
+        return added;
+    }
+
+    private void cancelLocked(Long appointmentId) {
+        HierarchicalTimingWheel.Timeout<AppointmentReminder>[] slots = timeouts.remove(appointmentId);
+        if (slots != null) {
+            for (HierarchicalTimingWheel.Timeout<AppointmentReminder> timeout : slots) {
+                wheel.cancel(timeout);
+            }
+        }
+    }
+
+    private void releaseSlotLocked(AppointmentReminder reminder) {
+        HierarchicalTimingWheel.Timeout<AppointmentReminder>[] slots = timeouts.get(reminder.appointmentId());
+        if (slots != null) {
+            slots[reminder.type().ordinal()] = null;
+            if (isEmpty(slots)) {
+                timeouts.remove(reminder.appointmentId());
+            }
+        }
+    }
+
+    private void markTouchedLocked(Long appointmentId) {
+        if (loading) {
+            touchedDuringLoad.add(appointmentId);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HierarchicalTimingWheel.Timeout<AppointmentReminder>[] newSlots() {
+        return (HierarchicalTimingWheel.Timeout<AppointmentReminder>[]) new HierarchicalTimingWheel.Timeout<?>[TYPES.length];
+    }
+
+    private static int pendingCount(HierarchicalTimingWheel<?> wheel, ReentrantLock lock) {
+        lock.lock();
+        try {
+            return wheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean isEmpty(Object[] slots) {
+        for (Object slot : slots) {
+            if (slot != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,59 @@
+package com.devdishon.service.reminder;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Local stand-in notifier that appends one line per reminder to a file.
+ */
+@Component
+@ConditionalOnProperty(name = "app.reminders.notifier", havingValue = "file")
+public class FileReminderNotifier implements ReminderNotifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileReminderNotifier.class);
+
+    private final BufferedWriter writer;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public FileReminderNotifier(@Value("${app.reminders.file:reminders.log}") String file) throws IOException {
+        this.writer = Files.newBufferedWriter(Path.of(file), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public void notify(AppointmentReminder reminder) {
+        String line = String.join("\t",
+                reminder.type().name(),
+                String.valueOf(reminder.appointmentId()),
+                String.valueOf(reminder.patientId()),
+                String.valueOf(reminder.doctorId()),
+                String.valueOf(reminder.appointmentDateTime()));
+        lock.lock();
+        try {
+            writer.write(line);
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            logger.error("Failed to write reminder for appointment {}: {}", reminder.appointmentId(), e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        writer.close();
+    }
+}
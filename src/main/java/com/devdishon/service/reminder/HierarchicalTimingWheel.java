@@ -0,0 +1,188 @@
+package com.devdishon.service.reminder;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical hashed timing wheel.
+ * Four levels of 64 slots each cover 64^4 ticks; timers are placed on the lowest level
+ * whose span covers their delay and cascade down one level at a time as the wheel turns.
+ * Insert and cancel are O(1): every slot is an intrusive doubly-linked list.
+ *
+ * <p>Not thread-safe. Callers must serialize access.</p>
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private static final int BITS = 6;
+    private static final int WHEEL_SIZE = 1 << BITS;
+    private static final int MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_TICKS = 1L << (BITS * LEVELS);
+
+    private final long tickMillis;
+    private final Bucket<T>[][] wheels;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        this.wheels = (Bucket<T>[][]) new Bucket<?>[LEVELS][WHEEL_SIZE];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                wheels[level][slot] = new Bucket<>();
+            }
+        }
+    }
+
+    /**
+     * Schedules {@code payload} to expire at {@code deadlineMillis}. Deadlines in the past
+     * expire on the next tick; timers never fire before their deadline.
+     */
+    public Timeout<T> schedule(long deadlineMillis, T payload) {
+        long deadlineTick = Math.max((deadlineMillis + tickMillis - 1) / tickMillis, currentTick + 1);
+        if (deadlineTick - currentTick >= MAX_TICKS) {
+            throw new IllegalArgumentException("Deadline is beyond the wheel horizon of " + maxDelayMillis() + "ms");
+        }
+        Timeout<T> timeout = new Timeout<>(payload, deadlineTick);
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Removes a pending timer. Returns false if it has already expired or been cancelled.
+     */
+    public boolean cancel(Timeout<T> timeout) {
+        if (timeout == null || timeout.bucket == null) {
+            return false;
+        }
+        timeout.bucket.remove(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Turns the wheel up to {@code nowMillis}, handing every expired payload to {@code expired}
+     * tick by tick.
+     */
+    public void advanceTo(long nowMillis, Consumer<T> expired) {
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            Timeout<T> timeout = wheels[0][(int) (currentTick & MASK)].clear();
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                timeout.next = null;
+                timeout.prev = null;
+                size--;
+                expired.accept(timeout.payload);
+                timeout = next;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long maxDelayMillis() {
+        return (MAX_TICKS - 1) * tickMillis;
+    }
+
+    private void cascade() {
+        for (int level = LEVELS - 1; level > 0; level--) {
+            int shift = level * BITS;
+            if ((currentTick & ((1L << shift) - 1)) != 0) {
+                continue;
+            }
+            Timeout<T> timeout = wheels[level][(int) ((currentTick >>> shift) & MASK)].clear();
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                timeout.next = null;
+                timeout.prev = null;
+                place(timeout);
+                timeout = next;
+            }
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long delta = timeout.deadlineTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << ((level + 1) * BITS))) {
+            level++;
+        }
+        int slot = (int) ((timeout.deadlineTick >>> (level * BITS)) & MASK);
+        wheels[level][slot].add(timeout);
+    }
+
+    /**
+     * Handle for a scheduled timer.
+     */
+    public static final class Timeout<T> {
+
+        private final T payload;
+        private final long deadlineTick;
+        private Bucket<T> bucket;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(T payload, long deadlineTick) {
+            this.payload = payload;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T payload() {
+            return payload;
+        }
+
+        public boolean isPending() {
+            return bucket != null;
+        }
+    }
+
+    private static final class Bucket<T> {
+
+        private Timeout<T> head;
+
+        void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            timeout.next = head;
+            if (head != null) {
+                head.prev = timeout;
+            }
+            head = timeout;
+        }
+
+        void remove(Timeout<T> timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        /**
+         * Detaches and returns the whole list; the returned nodes are marked as no longer pending.
+         */
+        Timeout<T> clear() {
+            Timeout<T> first = head;
+            head = null;
+            for (Timeout<T> t = first; t != null; t = t.next) {
+                t.bucket = null;
+            }
+            return first;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.devdishon.service.reminder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local stand-in notifier that writes reminders to the application log.
+ */
+@Component
+@ConditionalOnProperty(name = "app.reminders.notifier", havingValue = "log", matchIfMissing = true)
+public class LoggingReminderNotifier implements ReminderNotifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingReminderNotifier.class);
+
+    @Override
+    public void notify(AppointmentReminder reminder) {
+        logger.info("Reminder {} for appointment {} (patient {}, doctor {}) at {}",
+                reminder.type(),
+                reminder.appointmentId(),
+                reminder.patientId(),
+                reminder.doctorId(),
+                reminder.appointmentDateTime());
+    }
+}
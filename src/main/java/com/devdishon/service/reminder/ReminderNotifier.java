@@ -0,0 +1,10 @@
+package com.devdishon.service.reminder;
+
+/**
+ * Delivers fired appointment reminders to patients.
+ * Implementations are called from the reminder scheduler thread and should not block for long.
+ */
+public interface ReminderNotifier {
+
+    void notify(AppointmentReminder reminder);
+}
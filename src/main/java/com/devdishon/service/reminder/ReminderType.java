@@ -0,0 +1,18 @@
+package com.devdishon.service.reminder;
+
+import java.time.Duration;
+
+public enum ReminderType {
+    DAY_BEFORE(Duration.ofHours(24)),
+    HOUR_BEFORE(Duration.ofHours(1));
+
+    private final Duration leadTime;
+
+    ReminderType(Duration leadTime) {
+        this.leadTime = leadTime;
+    }
+
+    public Duration getLeadTime() {
+        return leadTime;
+    }
+}
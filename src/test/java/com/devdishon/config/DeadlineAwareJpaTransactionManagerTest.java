@@ -0,0 +1,63 @@
+package com.devdishon.config;
+
+import com.devdishon.exception.DeadlineExceededException;
+import com.devdishon.filter.RequestDeadline;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DeadlineAwareJpaTransactionManagerTest {
+
+    private final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final TransactionTemplate transactionTemplate =
+            new TransactionTemplate(new DeadlineAwareJpaTransactionManager(entityManagerFactory));
+
+    DeadlineAwareJpaTransactionManagerTest() {
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        when(entityManager.getTransaction()).thenReturn(mock(EntityTransaction.class));
+    }
+
+    @AfterEach
+    void unbindDeadline() {
+        RequestDeadline.unbind();
+    }
+
+    @Test
+    @DisplayName("Should cap the transaction timeout at the time left before the request deadline")
+    void shouldCapTimeoutAtDeadline() {
+        RequestDeadline.bind(RequestDeadline.after(Duration.ofMillis(2500)));
+
+        Integer seconds = transactionTemplate.execute(status -> ((EntityManagerHolder)
+                TransactionSynchronizationManager.getResource(entityManagerFactory)).getTimeToLiveInSeconds());
+
+        assertThat(seconds).isBetween(1, 3);
+    }
+
+    @Test
+    @DisplayName("Should refuse a transaction after the deadline with the deadline error itself")
+    void shouldRefuseTransactionAfterDeadline() {
+        RequestDeadline expired = RequestDeadline.after(Duration.ofSeconds(5));
+        expired.cancel();
+        RequestDeadline.bind(expired);
+
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+        })).isExactlyInstanceOf(DeadlineExceededException.class);
+        verify(entityManagerFactory, never()).createEntityManager();
+    }
+}
@@ -0,0 +1,64 @@
+package com.devdishon.config;
+
+import com.devdishon.filter.CorrelationIds;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MdcTaskDecoratorTest {
+
+    private final ExecutorService pool = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should carry correlation id and user into CompletableFuture stages")
+    void shouldPropagateMdcToCompletableFuture() throws Exception {
+        MDC.put(CorrelationIds.MDC_KEY, "abc123");
+        MDC.put(CorrelationIds.USER_MDC_KEY, "doctor@example.com");
+
+        Map<String, String> seen = CompletableFuture
+                .supplyAsync(MDC::getCopyOfContextMap, MdcTaskDecorator.executor(pool))
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(seen).containsEntry(CorrelationIds.MDC_KEY, "abc123")
+                .containsEntry(CorrelationIds.USER_MDC_KEY, "doctor@example.com");
+    }
+
+    @Test
+    @DisplayName("Should restore the worker's MDC after the task")
+    void shouldNotLeakContextIntoPooledThread() throws Exception {
+        MDC.put(CorrelationIds.USER_MDC_KEY, "doctor@example.com");
+        pool.submit(new MdcTaskDecorator().decorate(() -> { })).get(5, TimeUnit.SECONDS);
+
+        Map<String, String> after = pool.submit(MDC::getCopyOfContextMap).get(5, TimeUnit.SECONDS);
+
+        assertThat(after == null || after.isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should give work submitted without context its own correlation id")
+    void shouldGenerateCorrelationIdForContextlessWork() throws Exception {
+        AtomicReference<String> correlationId = new AtomicReference<>();
+
+        pool.submit(MdcTaskDecorator.wrap(() -> correlationId.set(MDC.get(CorrelationIds.MDC_KEY))))
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(correlationId.get()).hasSize(16).matches("[0-9a-f]+");
+        assertThat(CorrelationIds.isValid(correlationId.get())).isTrue();
+    }
+}
@@ -0,0 +1,81 @@
+package com.devdishon.controller;
+
+import com.devdishon.dto.ResourceVersion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConditionalRequestsTest {
+
+    private final ResourceVersion version = new ResourceVersion(3L, 42L, LocalDateTime.of(2026, 1, 1, 9, 0));
+
+    @Test
+    @DisplayName("Should give each negotiated encoding its own ETag")
+    void shouldFoldEncodingIntoEtag() {
+        MockHttpServletResponse json = probe(null);
+        MockHttpServletResponse anything = probe("*/*");
+        MockHttpServletResponse cbor = probe("application/json;q=0.5, application/cbor");
+        MockHttpServletResponse protobuf = probe("application/x-protobuf");
+
+        assertThat(json.getHeader(HttpHeaders.ETAG)).isEqualTo(version.etag());
+        assertThat(anything.getHeader(HttpHeaders.ETAG)).isEqualTo(version.etag());
+        assertThat(cbor.getHeader(HttpHeaders.ETAG)).isNotEqualTo(version.etag());
+        assertThat(protobuf.getHeader(HttpHeaders.ETAG))
+                .isNotEqualTo(version.etag())
+                .isNotEqualTo(cbor.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @DisplayName("Should not validate a JSON copy for a CBOR request")
+    void shouldNotValidateAcrossEncodings() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/appointments");
+        request.addHeader(HttpHeaders.ACCEPT, "application/cbor");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, version.etag());
+
+        boolean notModified = ConditionalRequests.collectionNotModified(
+                new ServletWebRequest(request, new MockHttpServletResponse()), version);
+
+        assertThat(notModified).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should validate collections by ETag only, since deletions do not advance Last-Modified")
+    void shouldIgnoreIfModifiedSinceForCollections() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/appointments");
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, version.lastModifiedMillis() + 60_000);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        boolean notModified = ConditionalRequests.collectionNotModified(new ServletWebRequest(request, response), version);
+
+        assertThat(notModified).isFalse();
+        assertThat(response.getHeader(HttpHeaders.LAST_MODIFIED)).isNull();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(version.etag());
+    }
+
+    @Test
+    @DisplayName("Should still validate single resources by If-Modified-Since")
+    void shouldHonourIfModifiedSinceForResources() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/appointments/3");
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, version.lastModifiedMillis() + 60_000);
+
+        assertThat(ConditionalRequests.resourceNotModified(
+                new ServletWebRequest(request, new MockHttpServletResponse()), version)).isTrue();
+    }
+
+    private MockHttpServletResponse probe(String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/appointments");
+        if (accept != null) {
+            request.addHeader(HttpHeaders.ACCEPT, accept);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ConditionalRequests.collectionNotModified(new ServletWebRequest(request, response), version);
+        return response;
+    }
+}
@@ -1,6 +1,7 @@
 package com.devdishon.controller;
 
 import com.devdishon.AbstractIntegrationTest;
+import com.devdishon.config.PatientSearchSchema;
 import com.devdishon.dto.PatientRequest;
 import com.devdishon.dto.auth.RegisterRequest;
 import com.devdishon.entity.BloodType;
@@ -21,6 +22,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Set;
 
@@ -47,6 +49,9 @@ class PatientControllerTest extends AbstractIntegrationTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private PatientSearchSchema patientSearchSchema;
+
     private String adminToken;
     private String userToken;
 
@@ -238,6 +243,168 @@ class PatientControllerTest extends AbstractIntegrationTest {
                 .statusCode(404);
     }
 
+    @Test
+    @DisplayName("Should return only the selected fields and reject unknown ones")
+    void shouldReturnOnlySelectedFields() {
+        PatientRequest request = new PatientRequest(
+                "Sparse",
+                "Fields",
+                "sparse@example.com",
+                "1234567890",
+                LocalDate.of(1990, 1, 1),
+                Gender.MALE,
+                "12 Narrow Rd",
+                "ID123123123",
+                BloodType.A_POSITIVE,
+                "Contact",
+                "5556667777"
+        );
+
+        given()
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when()
+                .post("/api/v1/patients")
+                .then()
+                .statusCode(201);
+
+        given()
+                .header("Authorization", "Bearer " + userToken)
+                .when()
+                .get("/api/v1/patients?fields=lastName,firstName")
+                .then()
+                .statusCode(200)
+                .body("[0].firstName", equalTo("Sparse"))
+                .body("[0].lastName", equalTo("Fields"))
+                .body("[0].keySet()", hasSize(2));
+
+        given()
+                .header("Authorization", "Bearer " + userToken)
+                .when()
+                .get("/api/v1/patients?fields=firstName,password")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @DisplayName("Should batch-get patients in request order and report missing ids")
+    void shouldBatchGetPatientsInRequestOrder() {
+        Integer first = createPatient("Batch", "One", "batch1@example.com", "ID900000001");
+        Integer second = createPatient("Batch", "Two", "batch2@example.com", "ID900000002");
+
+        given()
+                .header("Authorization", "Bearer " + userToken)
+                .when()
+                .get("/api/v1/patients/batch?ids=" + second + ",99999," + first + "," + second)
+                .then()
+                .statusCode(200)
+                .body("items.id", contains(second, first))
+                .body("missing", contains(99999));
+
+        given()
+                .header("Authorization", "Bearer " + userToken)
+                .when()
+                .get("/api/v1/patients/batch?ids=")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @DisplayName("Should return an empty summary for a new patient and 404 for an unknown one")
+    void shouldGetPatientSummary() {
+        Integer patientId = createPatient("Summary", "Only", "summary@example.com", "ID900000003");
+
+        given()
+                .header("Authorization", "Bearer " + userToken)
+                .when()
+                .get("/api/v1/patients/" + patientId + "/summary?limit=3")
+                .then()
+                .statusCode(200)
+                .body("patient.id", equalTo(patientId))
+                .body("upcomingAppointments", hasSize(0))
+                .body("upcomingAppointmentCount", equalTo(0))
+                .body("recentRecords", hasSize(0))
+                .body("medicalRecordCount", equalTo(0))
+                .body("pendingFollowUps", hasSize(0))
+                .body("unavailable", hasSize(0));
+
+        given()
+                .header("Authorization", "Bearer " + userToken)
+                .when()
+                .get("/api/v1/patients/99999/summary")
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    @DisplayName("Should find patients by name prefix first, then by close spelling")
+    void shouldSearchPatientsByPrefixAndSimilarity() throws InterruptedException {
+        Integer thornton = createPatient("Margaret", "Thornton", "thornton@example.com", "ID900000004");
+        Integer thorne = createPatient("Marcus", "Thorne", "thorne@example.com", "ID900000005");
+
+        given()
+                .header("Authorization", "Bearer " + userToken)
+                .queryParam("q", "mar thor")
+                .when()
+                .get("/api/v1/patients/search")
+                .then()
+                .statusCode(200)
+                .body("[0].id", equalTo(thorne))
+                .body("[0].match", equalTo("PREFIX"))
+                .body("[1].id", equalTo(thornton))
+                .body("[1].match", equalTo("PREFIX"));
+
+        // pg_trgm is set up in the background after startup
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (!patientSearchSchema.isFuzzySearchAvailable() && System.nanoTime() - deadline < 0) {
+            Thread.sleep(50);
+        }
+        given()
+                .header("Authorization", "Bearer " + userToken)
+                .queryParam("q", "Thorntn")
+                .when()
+                .get("/api/v1/patients/search")
+                .then()
+                .statusCode(200)
+                .body("[0].id", equalTo(thornton))
+                .body("[0].match", equalTo("FUZZY"));
+
+        given()
+                .header("Authorization", "Bearer " + userToken)
+                .queryParam("q", " ")
+                .when()
+                .get("/api/v1/patients/search")
+                .then()
+                .statusCode(400);
+    }
+
+    private Integer createPatient(String firstName, String lastName, String email, String nationalId) {
+        PatientRequest request = new PatientRequest(
+                firstName,
+                lastName,
+                email,
+                "1234567890",
+                LocalDate.of(1988, 4, 4),
+                Gender.FEMALE,
+                "1 Batch St",
+                nationalId,
+                BloodType.O_NEGATIVE,
+                "Contact",
+                "9998887777"
+        );
+        return given()
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when()
+                .post("/api/v1/patients")
+                .then()
+                .statusCode(201)
+                .extract()
+                .path("id");
+    }
+
     @Test
     @DisplayName("Should update patient with ADMIN role")
     void shouldUpdatePatientWithAdminRole() {
@@ -294,4 +461,86 @@ class PatientControllerTest extends AbstractIntegrationTest {
                 .body("lastName", equalTo("Name"))
                 .body("address", equalTo("New Address"));
     }
+
+    @Test
+    @DisplayName("Should answer conditional GET with 304 until the patient changes")
+    void shouldAnswerConditionalGetWithNotModifiedUntilPatientChanges() {
+        PatientRequest request = new PatientRequest(
+                "Cond",
+                "Get",
+                "conditional@example.com",
+                "1234567890",
+                LocalDate.of(1980, 3, 15),
+                Gender.FEMALE,
+                "1 Etag Way",
+                "ID777888999",
+                BloodType.O_POSITIVE,
+                "Contact",
+                "2223334444"
+        );
+
+        Integer patientId = given()
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when()
+                .post("/api/v1/patients")
+                .then()
+                .statusCode(201)
+                .extract()
+                .path("id");
+
+        String etag = given()
+                .header("Authorization", "Bearer " + userToken)
+                .when()
+                .get("/api/v1/patients/" + patientId)
+                .then()
+                .statusCode(200)
+                .header("ETag", notNullValue())
+                .header("Last-Modified", notNullValue())
+                .extract()
+                .header("ETag");
+
+        given()
+                .header("Authorization", "Bearer " + userToken)
+                .header("If-None-Match", etag)
+                .when()
+                .get("/api/v1/patients/" + patientId)
+                .then()
+                .statusCode(304)
+                .header("ETag", equalTo(etag));
+
+        PatientRequest moved = new PatientRequest(
+                "Cond",
+                "Get",
+                "conditional@example.com",
+                "1234567890",
+                LocalDate.of(1980, 3, 15),
+                Gender.FEMALE,
+                "2 Etag Way",
+                "ID777888999",
+                BloodType.O_POSITIVE,
+                "Contact",
+                "2223334444"
+        );
+
+        given()
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(ContentType.JSON)
+                .body(moved)
+                .when()
+                .put("/api/v1/patients/" + patientId)
+                .then()
+                .statusCode(200);
+
+        given()
+                .header("Authorization", "Bearer " + userToken)
+                .header("If-None-Match", etag)
+                .when()
+                .get("/api/v1/patients/" + patientId)
+                .then()
+                .statusCode(200)
+                .header("ETag", not(equalTo(etag)))
+                .body("id", equalTo(patientId));
+    }
 }
@@ -0,0 +1,102 @@
+package com.devdishon.entity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write (entity to column) and read (column to entity) cost of {@link CompressedTextConverter}
+ * for lab-result text of several sizes, compressed ({@code threshold=0}) against stored plain
+ * ({@code threshold=MAX}). Run {@link #main} from the test classpath; it prints the stored size
+ * of each text size first, which is the storage saving before TOAST applies its own compression.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressedTextConverterBenchmark {
+
+    @Param({"256", "1024", "4096", "16384"})
+    private int size;
+
+    @Param({"0", "2147483647"})
+    private int threshold;
+
+    private CompressedTextConverter converter;
+    private String text;
+    private byte[] stored;
+
+    @Setup
+    public void setUp() {
+        converter = new CompressedTextConverter(threshold);
+        text = labResults(new Random(42), size);
+        stored = converter.convertToDatabaseColumn(text);
+    }
+
+    @Benchmark
+    public byte[] write() {
+        return converter.convertToDatabaseColumn(text);
+    }
+
+    @Benchmark
+    public String read() {
+        return converter.convertToEntityAttribute(stored);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        printStoredSizes();
+        Options options = new OptionsBuilder()
+                .include(CompressedTextConverterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+    static void printStoredSizes() {
+        System.out.printf("%8s %10s %10s %8s%n", "size", "utf8", "stored", "saved");
+        for (int size : List.of(256, 1024, 4096, 16384)) {
+            String text = labResults(new Random(42), size);
+            int utf8 = text.getBytes(StandardCharsets.UTF_8).length;
+            int stored = new CompressedTextConverter(0).convertToDatabaseColumn(text).length;
+            System.out.printf("%8d %10d %10d %7.1f%%%n", size, utf8, stored, 100.0 * (utf8 - stored) / utf8);
+        }
+    }
+
+    /**
+     * A lab report of about {@code size} characters: panel lines with varying values and flags.
+     */
+    private static String labResults(Random random, int size) {
+        String[] tests = {"Haemoglobin", "WBC count", "Platelets", "Glucose (fasting)", "HbA1c", "Creatinine",
+                "Urea", "Sodium", "Potassium", "ALT", "AST", "Total cholesterol", "LDL", "HDL", "TSH"};
+        String[] units = {"g/dL", "x10^9/L", "mmol/L", "%", "umol/L", "U/L", "mIU/L"};
+        String[] flags = {"normal", "normal", "normal", "high", "low"};
+        StringBuilder report = new StringBuilder(size + 64).append("Laboratory report\n");
+        while (report.length() < size) {
+            report.append(tests[random.nextInt(tests.length)]).append(": ")
+                    .append(random.nextInt(200) / 10.0).append(' ')
+                    .append(units[random.nextInt(units.length)]).append(" (")
+                    .append(flags[random.nextInt(flags.length)]).append(")\n");
+        }
+        return report.substring(0, size);
+    }
+}
@@ -0,0 +1,57 @@
+package com.devdishon.entity;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompressedTextConverterTest {
+
+    private final CompressedTextConverter converter = new CompressedTextConverter(64);
+
+    @Test
+    @DisplayName("Should store short text plain and round-trip it")
+    void shouldStoreShortTextPlain() {
+        byte[] stored = converter.convertToDatabaseColumn("Hb 13.5 g/dL");
+
+        assertThat(stored[0]).isEqualTo(CompressedTextConverter.PLAIN);
+        assertThat(stored).hasSize("Hb 13.5 g/dL".length() + 1);
+        assertThat(converter.convertToEntityAttribute(stored)).isEqualTo("Hb 13.5 g/dL");
+    }
+
+    @Test
+    @DisplayName("Should deflate repetitive text above the threshold and round-trip it")
+    void shouldCompressLargeText() {
+        String labResults = "Glucose fasting 5.4 mmol/L normal; ".repeat(100) + "Ferritin 8 µg/L low";
+
+        byte[] stored = converter.convertToDatabaseColumn(labResults);
+
+        assertThat(stored[0]).isEqualTo(CompressedTextConverter.DEFLATE);
+        assertThat(stored.length).isLessThan(labResults.getBytes(StandardCharsets.UTF_8).length / 5);
+        assertThat(converter.convertToEntityAttribute(stored)).isEqualTo(labResults);
+    }
+
+    @Test
+    @DisplayName("Should fall back to plain storage when deflate does not shrink the text")
+    void shouldKeepIncompressibleTextPlain() {
+        // 64 distinct characters: nothing for deflate to find, so its output is larger
+        String distinct = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789+/";
+
+        byte[] stored = converter.convertToDatabaseColumn(distinct);
+
+        assertThat(stored[0]).isEqualTo(CompressedTextConverter.PLAIN);
+        assertThat(converter.convertToEntityAttribute(stored)).isEqualTo(distinct);
+    }
+
+    @Test
+    @DisplayName("Should pass nulls through and reject unknown formats")
+    void shouldHandleNullAndUnknownFormat() {
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+        assertThatThrownBy(() -> converter.convertToEntityAttribute(new byte[]{9, 1, 2}))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
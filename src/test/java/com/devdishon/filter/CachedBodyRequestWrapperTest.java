@@ -0,0 +1,51 @@
+package com.devdishon.filter;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachedBodyRequestWrapperTest {
+
+    @Test
+    @DisplayName("Should serve the buffered body to an async reader right away")
+    void shouldServeBodyToReadListener() throws IOException {
+        byte[] body = "{\"firstName\":\"Ada\"}".getBytes(StandardCharsets.UTF_8);
+        CachedBodyRequestWrapper request = new CachedBodyRequestWrapper(new MockHttpServletRequest("POST", "/"), body);
+        ServletInputStream in = request.getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        StringBuilder events = new StringBuilder();
+
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.append("data;");
+                byte[] buffer = new byte[8];
+                while (in.isReady() && !in.isFinished()) {
+                    int n = in.read(buffer, 0, buffer.length);
+                    read.write(buffer, 0, n);
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.append("done;");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.append("error;");
+            }
+        });
+
+        assertThat(events).hasToString("data;done;");
+        assertThat(read.toByteArray()).isEqualTo(body);
+    }
+}
@@ -0,0 +1,90 @@
+package com.devdishon.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestDeadlineFilterTest {
+
+    private final RequestDeadlineFilter filter = new RequestDeadlineFilter(
+            new ObjectMapper().registerModule(new JavaTimeModule()), true, Duration.ofSeconds(30),
+            new String[]{"/api/v1/appointments=10s", "/api/v1/appointments/date-range=3s"});
+
+    @Test
+    @DisplayName("Should use the most specific route default when the client sends no deadline")
+    void shouldUseRouteDefault() {
+        assertThat(filter.effectiveTimeout(request("/api/v1/appointments/date-range"))).isEqualTo(Duration.ofSeconds(3));
+        assertThat(filter.effectiveTimeout(request("/api/v1/appointments/7"))).isEqualTo(Duration.ofSeconds(10));
+        assertThat(filter.effectiveTimeout(request("/api/v1/doctors"))).isEqualTo(Duration.ofSeconds(30));
+        assertThat(filter.effectiveTimeout(request("/api/v1/appointments"))).isEqualTo(Duration.ofSeconds(10));
+        // A prefix only matches whole path segments
+        assertThat(filter.effectiveTimeout(request("/api/v1/appointmentsX"))).isEqualTo(Duration.ofSeconds(30));
+        assertThat(filter.effectiveTimeout(request("/api/v1/appointments/date-ranges"))).isEqualTo(Duration.ofSeconds(10));
+    }
+
+    @Test
+    @DisplayName("Should let the client shorten but never extend the route timeout")
+    void shouldOnlyShortenTimeout() {
+        MockHttpServletRequest shorter = request("/api/v1/appointments/7");
+        shorter.addHeader(RequestDeadline.TIMEOUT_HEADER, "2000");
+        MockHttpServletRequest longer = request("/api/v1/appointments/7");
+        longer.addHeader(RequestDeadline.TIMEOUT_HEADER, "5m");
+
+        assertThat(filter.effectiveTimeout(shorter)).isEqualTo(Duration.ofSeconds(2));
+        assertThat(filter.effectiveTimeout(longer)).isEqualTo(Duration.ofSeconds(10));
+    }
+
+    @Test
+    @DisplayName("Should bind the deadline for the chain and clear it afterwards")
+    void shouldBindDeadlineDuringRequest() throws Exception {
+        MockHttpServletRequest request = request("/api/v1/doctors");
+        request.addHeader(RequestDeadline.DEADLINE_HEADER, Instant.now().plusSeconds(5).toString());
+        AtomicLong remaining = new AtomicLong(-1);
+
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> remaining.set(RequestDeadline.current().remainingMillis()));
+
+        assertThat(remaining.get()).isBetween(1L, 5000L);
+        assertThat(RequestDeadline.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should answer 504 without running the chain when the deadline already passed")
+    void shouldRejectExpiredRequest() throws Exception {
+        MockHttpServletRequest request = request("/api/v1/medical-records");
+        request.addHeader(RequestDeadline.DEADLINE_HEADER, String.valueOf(System.currentTimeMillis() - 1000));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean chainCalled = new AtomicBoolean();
+
+        filter.doFilter(request, response, (req, res) -> chainCalled.set(true));
+
+        assertThat(response.getStatus()).isEqualTo(504);
+        assertThat(chainCalled).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject malformed deadline headers with 400")
+    void shouldRejectMalformedHeader() throws Exception {
+        MockHttpServletRequest request = request("/api/v1/doctors");
+        request.addHeader(RequestDeadline.TIMEOUT_HEADER, "soon");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> { });
+
+        assertThat(response.getStatus()).isEqualTo(400);
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+}
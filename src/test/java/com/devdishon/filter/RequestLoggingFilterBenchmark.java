@@ -0,0 +1,150 @@
+package com.devdishon.filter;
+
+import com.devdishon.filter.accesslog.AccessLogPolicy;
+import com.devdishon.filter.accesslog.AsyncAccessLog;
+import com.devdishon.filter.accesslog.RouteStatsAggregator;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the previous body-caching request logging with the streaming filter for 1 KB,
+ * 100 KB and 10 MB responses. Run {@link #main} from the test classpath; the GC profiler
+ * reports bytes allocated per request ({@code gc.alloc.rate.norm}).
+ * The access log writes to a null writer so the numbers reflect the filter, not disk I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestLoggingFilterBenchmark {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    @Param({"1024", "102400", "10485760"})
+    private int payloadBytes;
+
+    private byte[] chunk;
+    private FilterChain chain;
+    private AsyncAccessLog accessLog;
+    private RequestLoggingFilter metadataOnly;
+    private RequestLoggingFilter sampledBodies;
+
+    @Setup
+    public void setUp() {
+        chunk = new byte[CHUNK_SIZE];
+        chain = (request, response) -> {
+            ServletOutputStream out = response.getOutputStream();
+            for (int written = 0; written < payloadBytes; written += CHUNK_SIZE) {
+                out.write(chunk, 0, Math.min(CHUNK_SIZE, payloadBytes - written));
+            }
+        };
+        accessLog = new AsyncAccessLog(8192, 256, 1, Writer.nullWriter());
+        accessLog.start();
+        AccessLogPolicy policy = new AccessLogPolicy(AccessLogPolicy.Mode.FULL, 1000, 0.0);
+        RouteStatsAggregator routeStats = new RouteStatsAggregator(accessLog, true);
+        metadataOnly = new RequestLoggingFilter(accessLog, policy, routeStats, 0.0, true, 2048, new String[0]);
+        sampledBodies = new RequestLoggingFilter(accessLog, policy, routeStats, 1.0, true, 2048, new String[0]);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        accessLog.close();
+    }
+
+    @Benchmark
+    public int contentCachingWrappers() throws Exception {
+        DiscardingResponse response = new DiscardingResponse();
+        ContentCachingRequestWrapper wrappedRequest = new ContentCachingRequestWrapper(newRequest());
+        ContentCachingResponseWrapper wrappedResponse = new ContentCachingResponseWrapper(response);
+        chain.doFilter(wrappedRequest, wrappedResponse);
+        wrappedResponse.copyBodyToResponse();
+        return response.written;
+    }
+
+    @Benchmark
+    public int metadataOnly() throws Exception {
+        DiscardingResponse response = new DiscardingResponse();
+        metadataOnly.doFilter(newRequest(), response, chain);
+        return response.written;
+    }
+
+    @Benchmark
+    public int sampledBodyCapture() throws Exception {
+        DiscardingResponse response = new DiscardingResponse();
+        sampledBodies.doFilter(newRequest(), response, chain);
+        return response.written;
+    }
+
+    private static MockHttpServletRequest newRequest() {
+        return new MockHttpServletRequest("GET", "/api/v1/doctors");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RequestLoggingFilterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * Response that counts and drops the body, standing in for the socket.
+     */
+    private static final class DiscardingResponse extends MockHttpServletResponse {
+
+        private int written;
+
+        private final ServletOutputStream out = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                written++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                written += len;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        };
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return out;
+        }
+    }
+}
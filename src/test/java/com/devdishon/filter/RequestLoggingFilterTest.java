@@ -0,0 +1,148 @@
+package com.devdishon.filter;
+
+import com.devdishon.filter.accesslog.AccessLogPolicy;
+import com.devdishon.filter.accesslog.AsyncAccessLog;
+import com.devdishon.filter.accesslog.RouteStatsAggregator;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestLoggingFilterTest {
+
+    @Test
+    @DisplayName("Should pass response bytes straight through while the chain is still writing")
+    void shouldStreamResponseBody() throws Exception {
+        StringWriter accessLogOutput = new StringWriter();
+        AsyncAccessLog accessLog = new AsyncAccessLog(64, 16, 5, accessLogOutput);
+        RequestLoggingFilter filter = new RequestLoggingFilter(accessLog,
+                new AccessLogPolicy(AccessLogPolicy.Mode.FULL, 1000, 0.0),
+                new RouteStatsAggregator(accessLog, false), 1.0, true, 1024, new String[0]);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/doctors");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicInteger visibleDuringChain = new AtomicInteger();
+
+        FilterChain chain = (req, res) -> {
+            res.getOutputStream().write(new byte[100 * 1024]);
+            visibleDuringChain.set(response.getContentAsByteArray().length);
+        };
+        filter.doFilter(request, response, chain);
+
+        assertThat(visibleDuringChain.get()).isEqualTo(100 * 1024);
+        assertThat(response.getContentAsByteArray()).hasSize(100 * 1024);
+        assertThat(response.getHeader("X-Correlation-ID")).isNotBlank();
+        assertThat(accessLog.drain()).isEqualTo(1);
+        assertThat(accessLogOutput.toString())
+                .contains("\"method\":\"GET\"", "\"uri\":\"/api/v1/doctors\"", "\"status\":200")
+                .contains("\"correlationId\":\"" + response.getHeader("X-Correlation-ID") + "\"");
+    }
+
+    @Test
+    @DisplayName("Should never log the body of a failed login, even with body capture on")
+    void shouldNeverLogLoginBody() throws Exception {
+        StringWriter accessLogOutput = new StringWriter();
+        AsyncAccessLog accessLog = new AsyncAccessLog(64, 16, 5, accessLogOutput);
+        RequestLoggingFilter filter = new RequestLoggingFilter(accessLog,
+                new AccessLogPolicy(AccessLogPolicy.Mode.FULL, 1000, 0.0),
+                new RouteStatsAggregator(accessLog, false), 1.0, true, 1024, new String[0]);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/login");
+        request.setContentType("application/json");
+        request.setContent("{\"email\":\"ada@hms.com\",\"password\":\"s3cret-pass\"}".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        FilterChain chain = (req, res) -> {
+            req.getInputStream().readAllBytes();
+            ((HttpServletResponse) res).setStatus(401);
+            res.getOutputStream().write("{\"message\":\"Bad credentials\"}".getBytes(StandardCharsets.UTF_8));
+        };
+        filter.doFilter(request, response, chain);
+
+        assertThat(accessLog.drain()).isEqualTo(1);
+        assertThat(accessLogOutput.toString())
+                .contains("\"uri\":\"/api/v1/auth/login\"", "\"status\":401")
+                .doesNotContain("s3cret-pass", "requestBody", "responseBody");
+    }
+
+    @Test
+    @DisplayName("Should redact query values on patient data routes only")
+    void shouldRedactPatientSearchQuery() throws Exception {
+        StringWriter accessLogOutput = new StringWriter();
+        AsyncAccessLog accessLog = new AsyncAccessLog(64, 16, 5, accessLogOutput);
+        RequestLoggingFilter filter = new RequestLoggingFilter(accessLog,
+                new AccessLogPolicy(AccessLogPolicy.Mode.FULL, 1000, 0.0),
+                new RouteStatsAggregator(accessLog, false), 0.0, false, 1024,
+                new String[]{"/api/v1/patients"});
+        MockHttpServletRequest search = new MockHttpServletRequest("GET", "/api/v1/patients/search");
+        search.setQueryString("q=Ada%20Lovelace&limit=5");
+        MockHttpServletRequest doctors = new MockHttpServletRequest("GET", "/api/v1/doctors");
+        doctors.setQueryString("page=2");
+
+        filter.doFilter(search, new MockHttpServletResponse(), (req, res) -> { });
+        filter.doFilter(doctors, new MockHttpServletResponse(), (req, res) -> { });
+
+        assertThat(accessLog.drain()).isEqualTo(2);
+        assertThat(accessLogOutput.toString())
+                .contains("\"query\":\"q=[redacted]&limit=[redacted]\"", "\"query\":\"page=2\"")
+                .doesNotContain("Lovelace");
+    }
+
+    @Test
+    @DisplayName("Should redact clinical terms and ids searched for in medical records")
+    void shouldRedactMedicalRecordSearchQuery() throws Exception {
+        StringWriter accessLogOutput = new StringWriter();
+        AsyncAccessLog accessLog = new AsyncAccessLog(64, 16, 5, accessLogOutput);
+        RequestLoggingFilter filter = new RequestLoggingFilter(accessLog,
+                new AccessLogPolicy(AccessLogPolicy.Mode.FULL, 1000, 0.0),
+                new RouteStatsAggregator(accessLog, false), 0.0, false, 1024,
+                new String[]{"/api/v1/patients", "/api/v1/medical-records"});
+        MockHttpServletRequest search = new MockHttpServletRequest("GET", "/api/v1/medical-records/search");
+        search.setQueryString("q=hiv%20positive&patientId=42&doctorId=7&cursor");
+
+        filter.doFilter(search, new MockHttpServletResponse(), (req, res) -> { });
+
+        assertThat(accessLog.drain()).isEqualTo(1);
+        assertThat(accessLogOutput.toString())
+                .contains("\"query\":\"q=[redacted]&patientId=[redacted]&doctorId=[redacted]&cursor=[redacted]\"")
+                .doesNotContain("hiv", "=42", "=7");
+    }
+
+    @Test
+    @DisplayName("Should capture a capped prefix of error bodies only")
+    void shouldCaptureErrorBodyPrefix() throws Exception {
+        byte[] body = new byte[5000];
+        Arrays.fill(body, (byte) 'x');
+
+        BodyCaptureResponseWrapper error = new BodyCaptureResponseWrapper(new MockHttpServletResponse(), 16, false);
+        error.setStatus(400);
+        error.getOutputStream().write(body);
+
+        BodyCaptureResponseWrapper ok = new BodyCaptureResponseWrapper(new MockHttpServletResponse(), 16, false);
+        ok.getOutputStream().write(body);
+
+        assertThat(error.getCapture().toString(StandardCharsets.UTF_8))
+                .isEqualTo("x".repeat(16) + "... (5000 bytes)");
+        assertThat(ok.getCapture()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should capture request bytes as the application reads them")
+    void shouldCaptureRequestBodyOnRead() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/patients");
+        request.setContent("{\"firstName\":\"Ada\"}".getBytes(StandardCharsets.UTF_8));
+        BodyCaptureRequestWrapper wrapper = new BodyCaptureRequestWrapper(request, 1024);
+
+        assertThat(wrapper.getCapture().isEmpty()).isTrue();
+        wrapper.getInputStream().readAllBytes();
+
+        assertThat(wrapper.getCapture().toString(StandardCharsets.UTF_8)).isEqualTo("{\"firstName\":\"Ada\"}");
+    }
+}
@@ -0,0 +1,86 @@
+package com.devdishon.filter.accesslog;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncAccessLogTest {
+
+    @Test
+    @DisplayName("Should write one escaped JSON line per event")
+    void shouldWriteJsonLines() {
+        StringWriter out = new StringWriter();
+        AsyncAccessLog accessLog = new AsyncAccessLog(8, 8, 1, out);
+
+        accessLog.publish("POST", "/api/v1/patients", null, 400, "admin@hms.com", 12,
+                "abc123", "10.0.0.1", "curl/8", "{\"name\":\"a\\b\"}", null);
+        accessLog.publish("GET", "/api/v1/doctors", "page=1", 200, "anonymous", 3,
+                "def456", "10.0.0.2", null, null, null);
+
+        assertThat(accessLog.drain()).isEqualTo(2);
+        String[] lines = out.toString().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0])
+                .contains("\"method\":\"POST\"", "\"status\":400", "\"durationMs\":12")
+                .contains("\"requestBody\":\"{\\\"name\\\":\\\"a\\\\b\\\"}\"")
+                .doesNotContain("responseBody");
+        assertThat(lines[1]).contains("\"query\":\"page=1\"").doesNotContain("userAgent");
+    }
+
+    @Test
+    @DisplayName("Should drop and count events instead of blocking when the ring is full")
+    void shouldDropWhenFull() {
+        AsyncAccessLog accessLog = new AsyncAccessLog(4, 16, 1, new StringWriter());
+
+        int accepted = 0;
+        for (int i = 0; i < 10; i++) {
+            if (accessLog.publish("GET", "/x", null, 200, "u", 1, "c" + i, null, null, null, null)) {
+                accepted++;
+            }
+        }
+
+        assertThat(accepted).isEqualTo(4);
+        assertThat(accessLog.droppedCount()).isEqualTo(6);
+        assertThat(accessLog.drain()).isEqualTo(4);
+        assertThat(accessLog.publish("GET", "/x", null, 200, "u", 1, "again", null, null, null, null)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should deliver every event published concurrently exactly once")
+    void shouldHandleConcurrentProducers() throws Exception {
+        StringWriter out = new StringWriter();
+        AsyncAccessLog accessLog = new AsyncAccessLog(1024, 128, 1, out);
+        accessLog.start();
+
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int producer = t;
+            producers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    while (!accessLog.publish("GET", "/x", null, 200, "u", 1, producer + "-" + i,
+                            null, null, null, null)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            }));
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        accessLog.close();
+
+        Set<String> ids = new HashSet<>();
+        for (String line : out.toString().split("\n")) {
+            int start = line.indexOf("\"correlationId\":\"") + 17;
+            ids.add(line.substring(start, line.indexOf('"', start)));
+        }
+        assertThat(ids).hasSize(8_000);
+    }
+}
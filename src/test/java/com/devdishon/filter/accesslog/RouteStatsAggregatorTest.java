@@ -0,0 +1,49 @@
+package com.devdishon.filter.accesslog;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteStatsAggregatorTest {
+
+    @Test
+    @DisplayName("Should summarize count, percentiles and status mix per route, then reset")
+    void shouldSummarizeAndReset() {
+        StringWriter out = new StringWriter();
+        AsyncAccessLog accessLog = new AsyncAccessLog(16, 16, 1, out);
+        RouteStatsAggregator aggregator = new RouteStatsAggregator(accessLog, true);
+
+        for (int i = 1; i <= 100; i++) {
+            aggregator.record("GET", "/api/v1/doctors", i <= 98 ? 200 : 503, i == 100 ? 900 : 5);
+        }
+        aggregator.record("GET", "/api/v1/patients/{id}", 404, 2);
+        aggregator.emitSummaries();
+        accessLog.drain();
+
+        assertThat(out.toString().split("\n"))
+                .hasSize(2)
+                .anySatisfy(line -> assertThat(line).contains(
+                        "\"route\":\"GET /api/v1/doctors\"", "\"count\":100", "\"p50Ms\":5", "\"p99Ms\":5",
+                        "\"maxMs\":896", "\"status\":{\"2xx\":98,\"5xx\":2}"))
+                .anySatisfy(line -> assertThat(line).contains(
+                        "\"route\":\"GET /api/v1/patients/{id}\"", "\"count\":1", "\"status\":{\"4xx\":1}"));
+
+        out.getBuffer().setLength(0);
+        aggregator.emitSummaries();
+        accessLog.drain();
+        assertThat(out.toString()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should bound the relative error of histogram buckets")
+    void shouldBoundHistogramError() {
+        for (long value : new long[]{0, 7, 15, 16, 17, 100, 1_000, 65_535, 1_000_000}) {
+            long lower = LatencyHistogram.lowerBound(LatencyHistogram.indexOf(value));
+            assertThat(lower).isLessThanOrEqualTo(value);
+            assertThat(value - lower).isLessThanOrEqualTo(value / 8);
+        }
+    }
+}
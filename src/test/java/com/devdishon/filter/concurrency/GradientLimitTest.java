@@ -0,0 +1,86 @@
+package com.devdishon.filter.concurrency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientLimitTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    @DisplayName("Should grow the limit while latency stays flat and the limit is in use")
+    void shouldGrowWhenLatencyIsStable() {
+        GradientLimit limit = new GradientLimit(20, 5, 200);
+
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(10 * MILLIS, limit.getLimit(), false);
+        }
+
+        assertThat(limit.getLimit()).isGreaterThan(40);
+    }
+
+    @Test
+    @DisplayName("Should not grow the limit when most of it is unused")
+    void shouldNotGrowWhenAppLimited() {
+        GradientLimit limit = new GradientLimit(20, 5, 200);
+
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(10 * MILLIS, 2, false);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Should shrink the limit towards the minimum when latency climbs")
+    void shouldShrinkWhenLatencyRises() {
+        GradientLimit limit = new GradientLimit(100, 5, 200);
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(10 * MILLIS, limit.getLimit(), false);
+        }
+        int before = limit.getLimit();
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(500 * MILLIS, limit.getLimit(), false);
+        }
+
+        assertThat(limit.getLimit()).isLessThan(before / 2);
+    }
+
+    @Test
+    @DisplayName("Should back off multiplicatively on failures but never below the minimum")
+    void shouldBackOffOnDrops() {
+        GradientLimit limit = new GradientLimit(100, 5, 200);
+
+        limit.onSample(10 * MILLIS, 100, true);
+        assertThat(limit.getLimit()).isEqualTo(90);
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(10 * MILLIS, 100, true);
+        }
+        assertThat(limit.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should reject requests over the limit and classify routes into groups")
+    void shouldRejectOverLimit() {
+        ConcurrencyLimiter reads = new ConcurrencyLimiter(RouteGroup.READS, new GradientLimit(2, 1, 10));
+        ConcurrencyLimiters limiters = new ConcurrencyLimiters(Map.of(RouteGroup.READS, reads), List.of("/export"));
+
+        assertThat(reads.tryAcquire()).isEqualTo(1);
+        assertThat(reads.tryAcquire()).isEqualTo(2);
+        assertThat(reads.tryAcquire()).isEqualTo(-1);
+        assertThat(reads.getRejected()).isEqualTo(1);
+
+        assertThat(limiters.classify("POST", "/api/v1/auth/login")).isEqualTo(RouteGroup.AUTH);
+        assertThat(limiters.classify("GET", "/api/v1/patients/export")).isEqualTo(RouteGroup.EXPORTS);
+        assertThat(limiters.classify("GET", "/api/v1/doctors")).isEqualTo(RouteGroup.READS);
+        assertThat(limiters.classify("PATCH", "/api/v1/appointments/1/status")).isEqualTo(RouteGroup.WRITES);
+        assertThat(limiters.forRequest("GET", "/actuator/health")).isNull();
+    }
+}
@@ -0,0 +1,285 @@
+package com.devdishon.grpc;
+
+import com.devdishon.entity.Appointment;
+import com.devdishon.entity.AppointmentType;
+import com.devdishon.entity.Doctor;
+import com.devdishon.entity.Patient;
+import com.devdishon.entity.Specialization;
+import com.devdishon.exception.ResourceNotFoundException;
+import com.devdishon.filter.RequestDeadline;
+import com.devdishon.proto.ProtoMappers;
+import com.devdishon.proto.v1.AppointmentIdRequest;
+import com.devdishon.proto.v1.AppointmentsGrpc;
+import com.devdishon.proto.v1.CreateAppointmentRequest;
+import com.devdishon.proto.v1.CreateAppointmentsResponse;
+import com.devdishon.proto.v1.DateRangeRequest;
+import com.devdishon.security.BearerTokenAuthenticator;
+import com.devdishon.service.AppointmentService;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AppointmentsGrpcServiceTest {
+
+    private static final String TOKEN = "Bearer valid-token";
+    private static final LocalDateTime AT = LocalDateTime.of(2025, 3, 1, 9, 30);
+
+    private final AppointmentService appointmentService = mock(AppointmentService.class);
+    private final BearerTokenAuthenticator authenticator = mock(BearerTokenAuthenticator.class);
+
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(authenticator.authenticate(TOKEN)).thenReturn(Optional.of(new UsernamePasswordAuthenticationToken(
+                "user@hms.com", null, List.of(new SimpleGrantedAuthority("ROLE_USER")))));
+        startServer(Duration.ofSeconds(30));
+    }
+
+    private void startServer(Duration defaultDeadline) throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        JwtServerInterceptor interceptor = new JwtServerInterceptor(authenticator, defaultDeadline);
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(ServerInterceptors.intercept(new AppointmentsGrpcService(appointmentService), interceptor))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Should reject calls without a valid bearer token")
+    void shouldRejectWithoutToken() {
+        AppointmentsGrpc.AppointmentsBlockingStub stub = AppointmentsGrpc.newBlockingStub(channel);
+
+        assertThatThrownBy(() -> stub.getAppointment(AppointmentIdRequest.newBuilder().setId(1L).build()))
+                .isInstanceOfSatisfying(StatusRuntimeException.class,
+                        e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.UNAUTHENTICATED));
+    }
+
+    @Test
+    @DisplayName("Should return an appointment and map service exceptions to status codes")
+    void shouldGetAppointmentAndMapErrors() {
+        when(appointmentService.getAppointmentById(11L)).thenReturn(appointment(11L));
+        when(appointmentService.getAppointmentById(12L)).thenThrow(new ResourceNotFoundException("Appointment", "id", 12L));
+        when(appointmentService.cancelAppointment(11L)).thenThrow(new IllegalStateException("Appointment is already completed"));
+        AppointmentsGrpc.AppointmentsBlockingStub stub = authenticated(AppointmentsGrpc.newBlockingStub(channel));
+
+        assertThat(stub.getAppointment(AppointmentIdRequest.newBuilder().setId(11L).build()).getId()).isEqualTo(11L);
+        assertThatThrownBy(() -> stub.getAppointment(AppointmentIdRequest.newBuilder().setId(12L).build()))
+                .isInstanceOfSatisfying(StatusRuntimeException.class,
+                        e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.NOT_FOUND));
+        assertThatThrownBy(() -> stub.cancelAppointment(AppointmentIdRequest.newBuilder().setId(11L).build()))
+                .isInstanceOfSatisfying(StatusRuntimeException.class, e -> {
+                    assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.INVALID_ARGUMENT);
+                    assertThat(e.getStatus().getDescription()).isEqualTo("Appointment is already completed");
+                });
+    }
+
+    @Test
+    @DisplayName("Should create streamed appointments one by one and report failures by position")
+    void shouldReportBulkCreateOutcomes() throws Exception {
+        when(appointmentService.createAppointment(eq(1L), eq(3L), any())).thenReturn(appointment(21L));
+        when(appointmentService.createAppointment(eq(2L), eq(3L), any()))
+                .thenThrow(new IllegalStateException("Doctor already has an appointment at this time"));
+        CompletableFuture<CreateAppointmentsResponse> response = new CompletableFuture<>();
+
+        StreamObserver<CreateAppointmentRequest> requests = authenticated(AppointmentsGrpc.newStub(channel))
+                .createAppointments(observer(response));
+        requests.onNext(createRequest(1L));
+        requests.onNext(createRequest(2L));
+        requests.onNext(createRequest(1L));
+        requests.onCompleted();
+
+        CreateAppointmentsResponse result = response.get(5, TimeUnit.SECONDS);
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getResults(0).getAppointment().getId()).isEqualTo(21L);
+        assertThat(result.getResults(1).getIndex()).isEqualTo(1);
+        assertThat(result.getResults(1).getError()).isEqualTo("Doctor already has an appointment at this time");
+        assertThat(result.getResults(2).hasAppointment()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should stream the appointments of a date range in order")
+    void shouldStreamDateRange() {
+        when(appointmentService.streamAppointmentsByDateRange(eq(AT), eq(AT.plusDays(1)), any()))
+                .thenAnswer(invocation -> {
+                    Predicate<Appointment> sink = invocation.getArgument(2);
+                    int sent = 0;
+                    for (long id = 1; id <= 3 && sink.test(appointment(id)); id++) {
+                        sent++;
+                    }
+                    return sent;
+                });
+        DateRangeRequest request = DateRangeRequest.newBuilder()
+                .setStart(ProtoMappers.timestamp(AT))
+                .setEnd(ProtoMappers.timestamp(AT.plusDays(1)))
+                .build();
+
+        List<Long> ids = new ArrayList<>();
+        authenticated(AppointmentsGrpc.newBlockingStub(channel)).streamAppointmentsInRange(request)
+                .forEachRemaining(appointment -> ids.add(appointment.getId()));
+
+        assertThat(ids).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    @DisplayName("Should give each streamed create its own deadline when the client set none")
+    void shouldApplyDeadlinePerStreamedMessage() throws Exception {
+        tearDown();
+        startServer(Duration.ofMillis(200));
+        List<Long> remainingMillis = new CopyOnWriteArrayList<>();
+        when(appointmentService.createAppointment(anyLong(), eq(3L), any())).thenAnswer(invocation -> {
+            remainingMillis.add(RequestDeadline.current().remainingMillis());
+            return appointment(21L);
+        });
+        CompletableFuture<CreateAppointmentsResponse> response = new CompletableFuture<>();
+
+        StreamObserver<CreateAppointmentRequest> requests = authenticated(AppointmentsGrpc.newStub(channel))
+                .createAppointments(observer(response));
+        requests.onNext(createRequest(1L));
+        Thread.sleep(300);
+        requests.onNext(createRequest(2L));
+        requests.onCompleted();
+
+        assertThat(response.get(5, TimeUnit.SECONDS).getCreated()).isEqualTo(2);
+        assertThat(remainingMillis).hasSize(2).allMatch(remaining -> remaining > 0);
+    }
+
+    @Test
+    @DisplayName("Should hold back the range stream until the client asks for more")
+    void shouldFollowClientFlowControl() throws Exception {
+        AtomicInteger sent = new AtomicInteger();
+        when(appointmentService.streamAppointmentsByDateRange(eq(AT), eq(AT.plusDays(1)), any()))
+                .thenAnswer(invocation -> {
+                    Predicate<Appointment> sink = invocation.getArgument(2);
+                    for (long id = 1; id <= 5 && sink.test(appointment(id)); id++) {
+                        sent.incrementAndGet();
+                    }
+                    return sent.get();
+                });
+        List<Long> received = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        AtomicReference<ClientCallStreamObserver<DateRangeRequest>> call = new AtomicReference<>();
+
+        authenticated(AppointmentsGrpc.newStub(channel)).streamAppointmentsInRange(DateRangeRequest.newBuilder()
+                .setStart(ProtoMappers.timestamp(AT))
+                .setEnd(ProtoMappers.timestamp(AT.plusDays(1)))
+                .build(), new ClientResponseObserver<DateRangeRequest, com.devdishon.proto.v1.Appointment>() {
+            @Override
+            public void beforeStart(ClientCallStreamObserver<DateRangeRequest> requestStream) {
+                call.set(requestStream);
+                requestStream.disableAutoRequestWithInitial(1);
+            }
+
+            @Override
+            public void onNext(com.devdishon.proto.v1.Appointment appointment) {
+                received.add(appointment.getId());
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                done.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                done.complete(null);
+            }
+        });
+
+        Thread.sleep(300);
+        assertThat(received).containsExactly(1L);
+        assertThat(sent).hasValue(1);
+
+        call.get().request(4);
+        done.get(5, TimeUnit.SECONDS);
+        assertThat(received).containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    private static <S extends io.grpc.stub.AbstractStub<S>> S authenticated(S stub) {
+        Metadata headers = new Metadata();
+        headers.put(JwtServerInterceptor.AUTHORIZATION, TOKEN);
+        return stub.withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers));
+    }
+
+    private static CreateAppointmentRequest createRequest(long patientId) {
+        return CreateAppointmentRequest.newBuilder()
+                .setPatientId(patientId)
+                .setDoctorId(3L)
+                .setAppointmentDateTime(ProtoMappers.timestamp(AT))
+                .setAppointmentType(AppointmentType.CONSULTATION.name())
+                .build();
+    }
+
+    private static Appointment appointment(long id) {
+        Patient patient = new Patient("Jane", "Doe", "jane@example.com", null, null, null, null, null, null, null, null);
+        patient.setId(7L);
+        Doctor doctor = new Doctor("Ada", "Heart", "ada@hms.com", null, "LIC-1", Specialization.CARDIOLOGY, null, 10);
+        doctor.setId(3L);
+        Appointment appointment = new Appointment(patient, doctor, AT, AppointmentType.CONSULTATION, "Checkup");
+        appointment.setId(id);
+        return appointment;
+    }
+
+    private static <T> StreamObserver<T> observer(CompletableFuture<T> result) {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(T value) {
+                result.complete(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                result.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+            }
+        };
+    }
+}
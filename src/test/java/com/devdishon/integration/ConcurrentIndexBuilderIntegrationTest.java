@@ -0,0 +1,74 @@
+package com.devdishon.integration;
+
+import com.devdishon.AbstractIntegrationTest;
+import com.devdishon.config.ConcurrentIndexBuilder;
+import com.devdishon.config.ConcurrentIndexBuilder.Index;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrentIndexBuilderIntegrationTest extends AbstractIntegrationTest {
+
+    private static final List<Index> INDEXES = List.of(new Index("idx_index_builder_probe_code", "index_builder_probe (code)"));
+
+    @Autowired
+    private ConcurrentIndexBuilder indexBuilder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createTable() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS index_builder_probe");
+        jdbcTemplate.execute("CREATE TABLE index_builder_probe (id bigserial PRIMARY KEY, code text)");
+        jdbcTemplate.execute("INSERT INTO index_builder_probe (code) SELECT 'c' || n FROM generate_series(1, 1000) n");
+    }
+
+    @Test
+    @DisplayName("Should drop and rebuild an index an interrupted build left invalid")
+    void shouldRebuildInvalidIndex() {
+        assertThat(indexBuilder.build("index-builder-probe", INDEXES)).isTrue();
+        assertThat(isValid()).isTrue();
+
+        // What a CREATE INDEX CONCURRENTLY killed half way leaves behind
+        jdbcTemplate.update("UPDATE pg_index SET indisvalid = false WHERE indexrelid = 'idx_index_builder_probe_code'::regclass");
+        assertThat(isValid()).isFalse();
+
+        assertThat(indexBuilder.build("index-builder-probe", INDEXES)).isTrue();
+        assertThat(isValid()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should leave the build to the session holding the advisory lock")
+    void shouldSkipWhileAnotherSessionBuilds() {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT pg_advisory_lock(hashtext('index-builder-probe'))");
+                try {
+                    assertThat(indexBuilder.build("index-builder-probe", INDEXES)).isFalse();
+                } finally {
+                    statement.execute("SELECT pg_advisory_unlock(hashtext('index-builder-probe'))");
+                }
+            }
+            return null;
+        });
+
+        assertThat(isValid()).isNull();
+        assertThat(indexBuilder.build("index-builder-probe", INDEXES)).isTrue();
+        assertThat(isValid()).isTrue();
+    }
+
+    private Boolean isValid() {
+        return jdbcTemplate.query("SELECT indisvalid FROM pg_index WHERE indexrelid = to_regclass('idx_index_builder_probe_code')",
+                (ResultSet result) -> result.next() ? result.getBoolean(1) : null);
+    }
+}
@@ -0,0 +1,123 @@
+package com.devdishon.integration;
+
+import com.devdishon.AbstractIntegrationTest;
+import com.devdishon.config.PatientSearchSchema;
+import com.devdishon.dto.PatientMatch;
+import com.devdishon.repository.PatientSearchRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.devdishon.repository.PatientSearchRepository.BYTE_ORDER;
+import static com.devdishon.repository.PatientSearchRepository.FULL_NAME;
+import static com.devdishon.repository.PatientSearchRepository.LAST_NAME;
+import static com.devdishon.repository.PatientSearchRepository.PHONE_DIGITS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the typeahead target of 20ms against a table large enough for a sequential scan to show:
+ * the plans must read the search indexes, and the lookups must finish within the target.
+ */
+class PatientSearchIntegrationTest extends AbstractIntegrationTest {
+
+    private static final int PATIENTS = 20_000;
+    private static final double TARGET_MILLIS = 20;
+    private static final Pattern EXECUTION_TIME = Pattern.compile("Execution Time: ([0-9.]+) ms");
+    private static final String COLUMNS = "SELECT id, first_name, last_name, phone_number, date_of_birth FROM patients ";
+
+    @Autowired
+    private PatientSearchRepository searchRepository;
+
+    @Autowired
+    private PatientSearchSchema searchSchema;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seedPatients() throws InterruptedException {
+        // The indexes are built in the background after startup
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (!searchSchema.isFuzzySearchAvailable() || validSearchIndexes() < 5) {
+            assertThat(System.nanoTime() - deadline).as("patient search indexes built").isNegative();
+            Thread.sleep(50);
+        }
+        jdbcTemplate.update("INSERT INTO patients (first_name, last_name, email, phone_number) "
+                + "SELECT (ARRAY['Margaret', 'Marcus', 'John', 'Mary', 'Ada', 'Grace', 'Alan', 'Linus'])[1 + n % 8], "
+                + "initcap(translate(substr(md5(n::text), 1, 8), '0123456789', 'ghijklmnop')), "
+                + "'search-probe-' || n || '@example.com', '+2547' || lpad(n::text, 8, '0') "
+                + "FROM generate_series(1, ?) n", PATIENTS);
+        jdbcTemplate.update("INSERT INTO patients (first_name, last_name, email, phone_number) "
+                + "VALUES ('Margaret', 'Thornton', 'search-probe-thornton@example.com', '+254 799 000 001')");
+        jdbcTemplate.execute("ANALYZE patients");
+    }
+
+    @AfterEach
+    void deletePatients() {
+        jdbcTemplate.update("DELETE FROM patients WHERE email LIKE 'search-probe-%'");
+    }
+
+    @Test
+    @DisplayName("Should plan prefix and similarity lookups on the search indexes within 20ms")
+    void shouldPlanLookupsOnSearchIndexes() {
+        assertIndexScan(COLUMNS + "WHERE " + LAST_NAME + BYTE_ORDER + " LIKE 'thor%' "
+                + "ORDER BY " + LAST_NAME + BYTE_ORDER + ", id LIMIT 10", "idx_patients_last_name_prefix");
+        assertIndexScan(COLUMNS + "WHERE " + PHONE_DIGITS + BYTE_ORDER + " LIKE '2547000012%' "
+                + "ORDER BY " + PHONE_DIGITS + BYTE_ORDER + ", id LIMIT 10", "idx_patients_phone_prefix");
+        assertIndexScan(COLUMNS + "WHERE CAST('thorntn' AS text) <% (" + FULL_NAME + ") "
+                + "ORDER BY CAST('thorntn' AS text) <<-> (" + FULL_NAME + ") LIMIT 10", "idx_patients_full_name_trgm");
+        assertIndexScan(COLUMNS + "WHERE CAST('79900000' AS text) <% (" + PHONE_DIGITS + ") "
+                + "ORDER BY CAST('79900000' AS text) <<-> (" + PHONE_DIGITS + ") LIMIT 10", "idx_patients_phone_trgm");
+    }
+
+    @Test
+    @DisplayName("Should answer typeahead lookups within 20ms")
+    void shouldAnswerLookupsWithinTarget() {
+        assertWithinTarget(() -> searchRepository.findByNamePrefix(List.of("mar", "thor"), 10));
+        assertWithinTarget(() -> searchRepository.findByPhonePrefix("2547000012", 10));
+        List<PatientMatch> fuzzy = assertWithinTarget(() -> searchRepository.findByNameSimilarity("thorntn", 10));
+
+        assertThat(fuzzy).extracting(PatientMatch::lastName).first().isEqualTo("Thornton");
+    }
+
+    private void assertIndexScan(String sql, String index) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN (ANALYZE) " + sql, String.class));
+
+        assertThat(plan).contains(index).doesNotContain("Seq Scan");
+        Matcher executionTime = EXECUTION_TIME.matcher(plan);
+        assertThat(executionTime.find()).isTrue();
+        assertThat(Double.parseDouble(executionTime.group(1))).as(plan).isLessThan(TARGET_MILLIS);
+    }
+
+    /**
+     * Runs the lookup a few times and checks the fastest, so the first, cold run does not count.
+     */
+    private static List<PatientMatch> assertWithinTarget(Supplier<List<PatientMatch>> lookup) {
+        List<PatientMatch> matches = null;
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long started = System.nanoTime();
+            matches = lookup.get();
+            fastest = Math.min(fastest, System.nanoTime() - started);
+        }
+        assertThat(fastest / 1_000_000.0).isLessThan(TARGET_MILLIS);
+        return matches;
+    }
+
+    private int validSearchIndexes() {
+        Integer count = jdbcTemplate.queryForObject("SELECT count(*) FROM pg_index WHERE indisvalid AND indexrelid IN ("
+                + "to_regclass('idx_patients_last_name_prefix'), to_regclass('idx_patients_first_name_prefix'), "
+                + "to_regclass('idx_patients_phone_prefix'), to_regclass('idx_patients_full_name_trgm'), "
+                + "to_regclass('idx_patients_phone_trgm'))", Integer.class);
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,68 @@
+package com.devdishon.integration;
+
+import com.devdishon.AbstractIntegrationTest;
+import com.devdishon.dto.FieldSelection;
+import com.devdishon.entity.Doctor;
+import com.devdishon.entity.MedicalRecord;
+import com.devdishon.entity.Patient;
+import com.devdishon.entity.Specialization;
+import com.devdishon.repository.DoctorRepository;
+import com.devdishon.repository.MedicalRecordRepository;
+import com.devdishon.repository.PatientRepository;
+import com.devdishon.repository.ProjectionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProjectionRepositoryIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private ProjectionRepository projectionRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should select lab results and notes still held in the legacy text columns")
+    void shouldFallBackToLegacyColumns() {
+        Patient patient = patientRepository.save(new Patient("Jane", "Doe", "jane.projection@example.com",
+                null, null, null, null, null, null, null, null));
+        Doctor doctor = doctorRepository.save(new Doctor("Ada", "Heart", "ada.projection@hms.com", null,
+                "LIC-PROJ-1", Specialization.CARDIOLOGY, "Cardiology", 10));
+        MedicalRecord moved = new MedicalRecord(patient, doctor, "Anaemia", null, null, null);
+        moved.setLabResults("Ferritin 8 ug/L low");
+        moved = medicalRecordRepository.save(moved);
+        MedicalRecord legacy = medicalRecordRepository.save(new MedicalRecord(patient, doctor, "Anaemia", null, null, null));
+        // As written before compression: text in the old columns, nothing in the new ones
+        jdbcTemplate.update("UPDATE medical_records SET lab_results = ?, lab_results_data = NULL, "
+                + "notes = ?, notes_data = NULL WHERE id = ?", "Haemoglobin 10.1 g/dL", "Recheck in 6 weeks", legacy.getId());
+
+        List<Map<String, Object>> rows = projectionRepository.findAll(MedicalRecord.class,
+                FieldSelection.parse("id,labResults,notes"),
+                (root, query, cb) -> cb.equal(root.get("patient").get("id"), patient.getId()),
+                Sort.by("id"));
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0)).containsEntry("id", moved.getId()).containsEntry("labResults", "Ferritin 8 ug/L low");
+        assertThat(rows.get(1))
+                .containsOnlyKeys("id", "labResults", "notes")
+                .containsEntry("labResults", "Haemoglobin 10.1 g/dL")
+                .containsEntry("notes", "Recheck in 6 weeks");
+    }
+}
@@ -0,0 +1,105 @@
+package com.devdishon.proto;
+
+import com.devdishon.dto.MedicalRecordSummary;
+import com.devdishon.entity.MedicalRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second and bytes per row of medical record list responses, before (full entities
+ * with their TEXT columns) and after ({@link MedicalRecordSummary}), as JSON and protobuf.
+ * Scores are rows per second. Run {@link #main} from the test classpath; it prints bytes per row first.
+ * The database side of the same comparison is in the README.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MedicalRecordListBenchmark {
+
+    private static final int ROWS = 200;
+
+    @Param({"full", "summary"})
+    private String representation;
+
+    @Param({"json", "protobuf"})
+    private String format;
+
+    private List<?> rows;
+    private Class<?> rowType;
+    private ObjectMapper mapper;
+
+    @Setup
+    public void setUp() {
+        List<MedicalRecord> records = PayloadFormatBenchmark.medicalRecords(new Random(42)).subList(0, ROWS);
+        boolean summary = representation.equals("summary");
+        rows = summary ? records.stream().map(MedicalRecordListBenchmark::summarize).toList() : records;
+        rowType = summary ? MedicalRecordSummary.class : MedicalRecord.class;
+        // As configured by Boot for the API
+        mapper = Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public byte[] encode() throws IOException {
+        if (format.equals("protobuf")) {
+            return ProtoMappers.toListMessage(rows, rowType).toByteArray();
+        }
+        return mapper.writeValueAsBytes(rows);
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        printBytesPerRow();
+        Options options = new OptionsBuilder()
+                .include(MedicalRecordListBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+    static void printBytesPerRow() throws IOException {
+        System.out.printf("%-10s %-10s %14s%n", "rows", "format", "bytes per row");
+        for (String representation : List.of("full", "summary")) {
+            for (String format : List.of("json", "protobuf")) {
+                MedicalRecordListBenchmark benchmark = new MedicalRecordListBenchmark();
+                benchmark.representation = representation;
+                benchmark.format = format;
+                benchmark.setUp();
+                System.out.printf("%-10s %-10s %14d%n", representation, format, benchmark.encode().length / ROWS);
+            }
+        }
+    }
+
+    private static MedicalRecordSummary summarize(MedicalRecord record) {
+        return new MedicalRecordSummary(record.getId(),
+                record.getPatient().getId(), record.getPatient().getFirstName(), record.getPatient().getLastName(),
+                record.getDoctor().getId(), record.getDoctor().getFirstName(), record.getDoctor().getLastName(),
+                null, record.getRecordDate(), record.getFollowUpDate(), record.getFollowUpAppointmentId(),
+                record.getCreatedAt(), record.getUpdatedAt());
+    }
+}
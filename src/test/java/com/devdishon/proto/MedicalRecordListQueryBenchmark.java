@@ -0,0 +1,148 @@
+package com.devdishon.proto;
+
+import com.devdishon.BeginnerSpringBootApplication;
+import com.devdishon.entity.Doctor;
+import com.devdishon.entity.MedicalRecord;
+import com.devdishon.entity.Patient;
+import com.devdishon.repository.DoctorRepository;
+import com.devdishon.repository.MedicalRecordRepository;
+import com.devdishon.repository.PatientRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database side of {@link MedicalRecordListBenchmark}: rows per second read through the repository
+ * by the list query the endpoints used before ({@code findAll}, full entities) and after
+ * ({@code findAllSummaries}), against PostgreSQL in a container seeded with
+ * {@link PayloadFormatBenchmark#medicalRecords} text. Setup prints the average row width of both
+ * forms as {@code pg_column_size} reports it, the query given in the README. Needs Docker; run
+ * {@link #main} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MedicalRecordListQueryBenchmark {
+
+    private static final int COPIES = 5;
+    private static final int ROWS = COPIES * 200;
+
+    @Param({"full", "summary"})
+    private String representation;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private MedicalRecordRepository medicalRecordRepository;
+    private TransactionTemplate readOnly;
+
+    @Setup
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgres.start();
+        context = new SpringApplicationBuilder(BeginnerSpringBootApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword(),
+                        "logging.level.com.devdishon=WARN",
+                        // Nothing else touches the table while it is measured
+                        "app.grpc.enabled=false",
+                        "app.reminders.enabled=false",
+                        "app.medical-records.compression.migration-enabled=false",
+                        "app.medical-records.search.backfill-enabled=false")
+                .run();
+        medicalRecordRepository = context.getBean(MedicalRecordRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        seed(context.getBean(PatientRepository.class), context.getBean(DoctorRepository.class));
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.execute("VACUUM ANALYZE medical_records");
+        Map<String, Object> width = jdbcTemplate.queryForMap("SELECT round(avg(pg_column_size(m.*))) AS full_row, "
+                + "round(avg(pg_column_size(row(m.id, m.patient_id, m.doctor_id, m.appointment_id, m.record_date, "
+                + "m.follow_up_date, m.follow_up_appointment_id, m.created_at, m.updated_at)))) AS summary_row "
+                + "FROM medical_records m");
+        System.out.printf("%nAverage row width in bytes over %d records: full %s, summary %s%n",
+                ROWS, width.get("full_row"), width.get("summary_row"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<?> read() {
+        return readOnly.execute(status -> representation.equals("summary")
+                ? medicalRecordRepository.findAllSummaries()
+                : medicalRecordRepository.findAll());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MedicalRecordListQueryBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * Saves {@link #COPIES} sets of the payload benchmark's records: 200 patients with
+     * {@link #COPIES} records each, spread over 40 doctors.
+     */
+    private void seed(PatientRepository patientRepository, DoctorRepository doctorRepository) {
+        Map<String, Patient> patients = new HashMap<>();
+        Map<String, Doctor> doctors = new HashMap<>();
+        for (int copy = 0; copy < COPIES; copy++) {
+            for (MedicalRecord template : PayloadFormatBenchmark.medicalRecords(new Random(42 + copy))) {
+                Patient patient = patients.computeIfAbsent(template.getPatient().getEmail(), email -> {
+                    template.getPatient().setId(null);
+                    return patientRepository.save(template.getPatient());
+                });
+                Doctor doctor = doctors.computeIfAbsent(template.getDoctor().getEmail(), email -> {
+                    template.getDoctor().setId(null);
+                    return doctorRepository.save(template.getDoctor());
+                });
+                MedicalRecord record = new MedicalRecord(patient, doctor, template.getDiagnosis(),
+                        template.getSymptoms(), template.getTreatment(), template.getPrescription());
+                record.setLabResults(template.getLabResults());
+                record.setNotes(template.getNotes());
+                record.setFollowUpDate(template.getFollowUpDate());
+                medicalRecordRepository.save(record);
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.devdishon.proto;
+
+import com.devdishon.entity.Appointment;
+import com.devdishon.entity.AppointmentStatus;
+import com.devdishon.entity.AppointmentType;
+import com.devdishon.entity.BloodType;
+import com.devdishon.entity.Doctor;
+import com.devdishon.entity.Gender;
+import com.devdishon.entity.MedicalRecord;
+import com.devdishon.entity.Patient;
+import com.devdishon.entity.Specialization;
+import com.devdishon.proto.v1.AppointmentList;
+import com.devdishon.proto.v1.MedicalRecordList;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.protobuf.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode and decode time for a typical appointment list and medical-record list (with filled-in
+ * TEXT fields) as JSON, Smile, CBOR and protobuf. Jackson formats decode back into the entities,
+ * the way a Java integration would; protobuf decodes into the generated messages.
+ * Run {@link #main} from the test classpath; it prints raw and gzipped payload sizes first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadFormatBenchmark {
+
+    private static final int APPOINTMENTS = 500;
+    private static final int MEDICAL_RECORDS = 200;
+
+    @Param({"json", "smile", "cbor", "protobuf"})
+    private String format;
+
+    @Param({"appointments", "medicalRecords"})
+    private String payload;
+
+    private List<?> entities;
+    private ObjectMapper mapper;
+    private TypeReference<?> listType;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        boolean appointments = payload.equals("appointments");
+        entities = appointments ? appointments(random) : medicalRecords(random);
+        listType = appointments ? new TypeReference<List<Appointment>>() { } : new TypeReference<List<MedicalRecord>>() { };
+        mapper = format.equals("protobuf") ? null : mapper(format);
+        encoded = encode();
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        if (mapper == null) {
+            return toMessage(entities).toByteArray();
+        }
+        return mapper.writeValueAsBytes(entities);
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        if (mapper == null) {
+            return payload.equals("appointments") ? AppointmentList.parseFrom(encoded) : MedicalRecordList.parseFrom(encoded);
+        }
+        return mapper.readValue(encoded, listType);
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        printPayloadSizes();
+        Options options = new OptionsBuilder()
+                .include(PayloadFormatBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+    static void printPayloadSizes() throws IOException {
+        System.out.printf("%-16s %-10s %10s %10s%n", "payload", "format", "bytes", "gzipped");
+        for (String payload : List.of("appointments", "medicalRecords")) {
+            for (String format : List.of("json", "smile", "cbor", "protobuf")) {
+                PayloadFormatBenchmark benchmark = new PayloadFormatBenchmark();
+                benchmark.payload = payload;
+                benchmark.format = format;
+                benchmark.setUp();
+                System.out.printf("%-16s %-10s %10d %10d%n", payload, format,
+                        benchmark.encoded.length, gzippedSize(benchmark.encoded));
+            }
+        }
+    }
+
+    private static ObjectMapper mapper(String format) {
+        Jackson2ObjectMapperBuilder builder = switch (format) {
+            case "smile" -> Jackson2ObjectMapperBuilder.smile();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor();
+            default -> Jackson2ObjectMapperBuilder.json();
+        };
+        // As configured by Boot for the API
+        return builder.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+    }
+
+    private static Message toMessage(List<?> entities) {
+        return ProtoMappers.toListMessage(entities, entities.get(0).getClass());
+    }
+
+    private static int gzippedSize(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+
+    private static List<Appointment> appointments(Random random) {
+        List<Appointment> appointments = new ArrayList<>(APPOINTMENTS);
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            Appointment appointment = new Appointment(patient(random, i), doctor(random, i % 40),
+                    LocalDateTime.of(2025, 3, 1, 8, 0).plusMinutes(30L * i),
+                    AppointmentType.values()[random.nextInt(AppointmentType.values().length)],
+                    "Recurring headaches and trouble sleeping over the last " + (2 + random.nextInt(10)) + " weeks");
+            appointment.setId(10_000L + i);
+            appointment.setStatus(AppointmentStatus.values()[random.nextInt(AppointmentStatus.values().length)]);
+            appointment.setNotes(random.nextBoolean() ? "Patient asked for an interpreter; arrive 15 minutes early" : null);
+            appointments.add(appointment);
+        }
+        return appointments;
+    }
+
+    static List<MedicalRecord> medicalRecords(Random random) {
+        List<MedicalRecord> records = new ArrayList<>(MEDICAL_RECORDS);
+        for (int i = 0; i < MEDICAL_RECORDS; i++) {
+            MedicalRecord record = new MedicalRecord(patient(random, i), doctor(random, i % 40),
+                    text(random, "Diagnosis", 300), text(random, "Symptoms", 500),
+                    text(random, "Treatment", 800), text(random, "Prescription", 250));
+            record.setId(50_000L + i);
+            record.setLabResults(text(random, "Lab results", 1200));
+            record.setNotes(text(random, "Notes", 400));
+            record.setFollowUpDate(LocalDateTime.of(2025, 6, 1, 9, 0).plusDays(i));
+            records.add(record);
+        }
+        return records;
+    }
+
+    private static Patient patient(Random random, int i) {
+        Patient patient = new Patient("Patient" + i, "Surname" + i, "patient" + i + "@example.com", "+2547" + (10_000_000 + i),
+                LocalDate.of(1950 + random.nextInt(60), 1 + random.nextInt(12), 1 + random.nextInt(28)),
+                Gender.values()[random.nextInt(Gender.values().length)], i + " Riverside Drive, Nairobi",
+                "NID" + (1_000_000 + i), BloodType.values()[random.nextInt(BloodType.values().length)],
+                "Contact " + i, "+2547" + (20_000_000 + i));
+        patient.setId(1_000L + i);
+        return patient;
+    }
+
+    private static Doctor doctor(Random random, int i) {
+        Doctor doctor = new Doctor("Doctor" + i, "Surname" + i, "doctor" + i + "@example.com", "+2547" + (30_000_000 + i),
+                "LIC-" + (5_000 + i), Specialization.values()[i % Specialization.values().length],
+                "Outpatient", 3 + random.nextInt(30));
+        doctor.setId(100L + i);
+        return doctor;
+    }
+
+    private static String text(Random random, String label, int length) {
+        String[] words = {"patient", "reports", "mild", "severe", "pain", "since", "morning", "blood", "pressure",
+                "normal", "elevated", "follow", "review", "dose", "daily", "twice", "after", "meals", "test", "result"};
+        StringBuilder text = new StringBuilder(length + 16).append(label).append(':');
+        while (text.length() < length) {
+            text.append(' ').append(words[random.nextInt(words.length)]);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,66 @@
+package com.devdishon.proto;
+
+import com.devdishon.entity.Appointment;
+import com.devdishon.entity.AppointmentType;
+import com.devdishon.entity.Doctor;
+import com.devdishon.entity.Patient;
+import com.devdishon.entity.Specialization;
+import com.devdishon.proto.v1.AppointmentList;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.protobuf.ProtobufHttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProtobufEntityHttpMessageConverterTest {
+
+    private static final Type APPOINTMENT_LIST = new ParameterizedTypeReference<List<Appointment>>() { }.getType();
+
+    private final ProtobufEntityHttpMessageConverter converter = new ProtobufEntityHttpMessageConverter();
+
+    @Test
+    @DisplayName("Should only write mapped entity types and lists of them as protobuf")
+    void shouldOnlyWriteMappedTypes() {
+        assertThat(converter.canWrite(APPOINTMENT_LIST, List.class, ProtobufHttpMessageConverter.PROTOBUF)).isTrue();
+        assertThat(converter.canWrite(Patient.class, Patient.class, ProtobufHttpMessageConverter.PROTOBUF)).isTrue();
+        assertThat(converter.canWrite(APPOINTMENT_LIST, List.class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canWrite(new ParameterizedTypeReference<List<String>>() { }.getType(), List.class,
+                ProtobufHttpMessageConverter.PROTOBUF)).isFalse();
+        assertThat(converter.canWrite(byte[].class, byte[].class, ProtobufHttpMessageConverter.PROTOBUF)).isFalse();
+        assertThat(converter.canRead(Patient.class, ProtobufHttpMessageConverter.PROTOBUF)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should write an appointment list that parses back with the embedded patient and doctor")
+    void shouldWriteAppointmentList() throws IOException {
+        Patient patient = new Patient("Jane", "Doe", "jane@example.com", null, null, null, null, null, null, null, null);
+        patient.setId(7L);
+        Doctor doctor = new Doctor("Ada", "Heart", "ada@hms.com", null, "LIC-1", Specialization.CARDIOLOGY, null, 10);
+        doctor.setId(3L);
+        LocalDateTime at = LocalDateTime.of(2025, 3, 1, 9, 30);
+        Appointment appointment = new Appointment(patient, doctor, at, AppointmentType.CONSULTATION, "Checkup");
+        appointment.setId(11L);
+
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(List.of(appointment), APPOINTMENT_LIST, ProtobufHttpMessageConverter.PROTOBUF, output);
+
+        AppointmentList parsed = AppointmentList.parseFrom(output.getBodyAsBytes());
+        assertThat(parsed.getItemsList()).hasSize(1);
+        com.devdishon.proto.v1.Appointment written = parsed.getItems(0);
+        assertThat(written.getId()).isEqualTo(11L);
+        assertThat(written.getStatus()).isEqualTo("SCHEDULED");
+        assertThat(written.getPatient().getEmail()).isEqualTo("jane@example.com");
+        assertThat(written.getPatient().hasPhoneNumber()).isFalse();
+        assertThat(written.getDoctor().getSpecialization()).isEqualTo("CARDIOLOGY");
+        assertThat(ProtoMappers.localDateTime(written.getAppointmentDateTime())).isEqualTo(at);
+        assertThat(output.getHeaders().getContentType()).isEqualTo(ProtobufHttpMessageConverter.PROTOBUF);
+    }
+}
@@ -0,0 +1,138 @@
+package com.devdishon.service;
+
+import com.devdishon.dto.DoctorDirectoryVersion;
+import com.devdishon.entity.Doctor;
+import com.devdishon.entity.Specialization;
+import com.devdishon.repository.DoctorRepository;
+import com.devdishon.repository.ProjectionRepository;
+import com.devdishon.service.DoctorDirectoryCache.CachedJson;
+import com.devdishon.service.coalescing.ReadCoalescer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DoctorDirectoryCacheTest {
+
+    private final DoctorRepository repository = mock(DoctorRepository.class);
+    private final DoctorDirectoryCache cache = new DoctorDirectoryCache(repository, mock(ProjectionRepository.class),
+            new ReadCoalescer(new ObjectMapper().registerModule(new JavaTimeModule()), true, Duration.ofSeconds(1)), true);
+
+    private final Doctor cardiologist = new Doctor("Ada", "Heart", "ada@hms.com", null, "LIC-1",
+            Specialization.CARDIOLOGY, "Cardiology", 10);
+
+    @Test
+    @DisplayName("Should serve repeated reads from cached bytes with a stable strong ETag")
+    void shouldServeFromCache() {
+        when(repository.findByIsAvailableTrue()).thenReturn(List.of(cardiologist));
+
+        CachedJson first = cache.availableDoctors();
+        CachedJson second = cache.availableDoctors();
+
+        assertThat(second.body()).isSameAs(first.body());
+        assertThat(first.etag()).startsWith("\"").endsWith("\"");
+        assertThat(new String(first.body(), StandardCharsets.UTF_8)).contains("\"email\":\"ada@hms.com\"");
+        verify(repository, times(1)).findByIsAvailableTrue();
+    }
+
+    @Test
+    @DisplayName("Should rebuild lists after a doctor write")
+    void shouldInvalidateOnWrite() {
+        when(repository.findBySpecialization(Specialization.CARDIOLOGY)).thenReturn(List.of(cardiologist));
+        CachedJson before = cache.doctorsBySpecialization(Specialization.CARDIOLOGY);
+
+        cardiologist.setIsAvailable(false);
+        cache.doctorsChanged();
+        CachedJson after = cache.doctorsBySpecialization(Specialization.CARDIOLOGY);
+
+        assertThat(after.etag()).isNotEqualTo(before.etag());
+        verify(repository, times(2)).findBySpecialization(Specialization.CARDIOLOGY);
+    }
+
+    @Test
+    @DisplayName("Should drop cached lists when another replica changes the doctors table")
+    void shouldInvalidateOnVersionChange() {
+        when(repository.findAll()).thenReturn(List.of(cardiologist));
+        when(repository.findDirectoryVersion())
+                .thenReturn(new DoctorDirectoryVersion(1L, 1L, LocalDateTime.of(2026, 1, 1, 9, 0)))
+                .thenReturn(new DoctorDirectoryVersion(1L, 1L, LocalDateTime.of(2026, 1, 1, 9, 0)))
+                .thenReturn(new DoctorDirectoryVersion(1L, 1L, LocalDateTime.of(2026, 1, 1, 9, 5)));
+
+        cache.checkVersion();
+        cache.allDoctors();
+        cache.checkVersion();
+        cache.allDoctors();
+        verify(repository, times(1)).findAll();
+
+        cache.checkVersion();
+        cache.allDoctors();
+        verify(repository, times(2)).findAll();
+    }
+
+    @Test
+    @DisplayName("Should drop lists cached before the first version check")
+    void shouldInvalidateOnFirstVersionCheck() {
+        when(repository.findAll()).thenReturn(List.of(cardiologist));
+        when(repository.findDirectoryVersion())
+                .thenReturn(new DoctorDirectoryVersion(1L, 1L, LocalDateTime.of(2026, 1, 1, 9, 5)));
+
+        // Cached before any baseline; another replica may write before the first check runs
+        cache.allDoctors();
+        cache.checkVersion();
+        cache.allDoctors();
+        cache.checkVersion();
+        cache.allDoctors();
+
+        verify(repository, times(2)).findAll();
+    }
+
+    @Test
+    @DisplayName("Should not let a read after a write join a load that started before it")
+    void shouldNotShareLoadAcrossGenerations() throws Exception {
+        Doctor neurologist = new Doctor("Bob", "Brain", "bob@hms.com", null, "LIC-2",
+                Specialization.NEUROLOGY, "Neurology", 10);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        when(repository.findByIsAvailableTrue()).thenAnswer(call -> {
+            if (loads.incrementAndGet() == 1) {
+                release.await(5, TimeUnit.SECONDS);
+                return List.of(cardiologist);
+            }
+            return List.of(cardiologist, neurologist);
+        });
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<CachedJson> stale = pool.submit(() -> cache.availableDoctors());
+            while (loads.get() < 1) {
+                Thread.onSpinWait();
+            }
+
+            cache.invalidate();
+            CachedJson fresh = cache.availableDoctors();
+            release.countDown();
+
+            assertThat(new String(fresh.body(), StandardCharsets.UTF_8)).contains("bob@hms.com");
+            assertThat(new String(stale.get(5, TimeUnit.SECONDS).body(), StandardCharsets.UTF_8)).doesNotContain("bob@hms.com");
+            assertThat(cache.availableDoctors()).isEqualTo(fresh);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
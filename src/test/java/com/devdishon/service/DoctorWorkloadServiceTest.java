@@ -0,0 +1,119 @@
+package com.devdishon.service;
+
+import com.devdishon.dto.DoctorDailyCount;
+import com.devdishon.dto.DoctorRecommendation;
+import com.devdishon.entity.Doctor;
+import com.devdishon.entity.Specialization;
+import com.devdishon.repository.AppointmentRepository;
+import com.devdishon.repository.DoctorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DoctorWorkloadServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final LocalDate WEEK_START = TODAY.with(DayOfWeek.MONDAY);
+    // Another day of the current week
+    private static final LocalDate OTHER_DAY = TODAY.equals(WEEK_START) ? WEEK_START.plusDays(1) : WEEK_START;
+
+    private final AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+    private final DoctorRepository doctorRepository = mock(DoctorRepository.class);
+    private final DoctorWorkloadService service = new DoctorWorkloadService(appointmentRepository, doctorRepository);
+
+    private final Doctor busy = doctor(1L, Specialization.CARDIOLOGY, true);
+    private final Doctor quietToday = doctor(2L, Specialization.CARDIOLOGY, true);
+    private final Doctor quietWeek = doctor(3L, Specialization.CARDIOLOGY, true);
+    private final Doctor away = doctor(4L, Specialization.CARDIOLOGY, false);
+    private final Doctor neurologist = doctor(5L, Specialization.NEUROLOGY, true);
+
+    @BeforeEach
+    void rebuildFromCounts() {
+        when(doctorRepository.findAll()).thenReturn(List.of(busy, quietToday, quietWeek, away, neurologist));
+        when(appointmentRepository.countBookedPerDoctorPerDay(any(), any())).thenReturn(List.of(
+                new DoctorDailyCount(1L, TODAY, 2L),
+                new DoctorDailyCount(2L, OTHER_DAY, 3L),
+                new DoctorDailyCount(3L, OTHER_DAY, 1L)));
+        service.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should recommend available doctors of the specialization, least loaded today, then this week")
+    void shouldRecommendLeastLoadedDoctors() {
+        List<DoctorRecommendation> recommendations = service.recommendDoctors(Specialization.CARDIOLOGY, 10);
+
+        assertThat(recommendations).extracting(DoctorRecommendation::doctorId).containsExactly(3L, 2L, 1L);
+        assertThat(recommendations.get(2).appointmentsToday()).isEqualTo(2);
+        assertThat(recommendations.get(2).appointmentsThisWeek()).isEqualTo(2);
+        assertThat(service.recommendDoctors(Specialization.CARDIOLOGY, 1)).hasSize(1);
+        assertThat(service.recommendDoctors(Specialization.DERMATOLOGY, 3)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reorder doctors as appointments are booked, released and moved")
+    void shouldReorderOnBookings() {
+        LocalDateTime todayAtTen = TODAY.atTime(10, 0);
+        service.appointmentBooked(3L, todayAtTen);
+        service.appointmentBooked(3L, todayAtTen.plusHours(1));
+        service.appointmentReleased(1L, todayAtTen);
+
+        assertThat(service.recommendDoctors(Specialization.CARDIOLOGY, 10))
+                .extracting(DoctorRecommendation::doctorId).containsExactly(2L, 1L, 3L);
+
+        // Moving out of the current week only releases the old slot
+        service.appointmentMoved(3L, todayAtTen, todayAtTen.plusWeeks(2));
+        service.appointmentMoved(3L, todayAtTen.plusHours(1), todayAtTen.plusWeeks(2));
+
+        assertThat(service.recommendDoctors(Specialization.CARDIOLOGY, 10))
+                .extracting(DoctorRecommendation::doctorId).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    @DisplayName("Should follow doctor edits and deletions")
+    void shouldFollowDoctorChanges() {
+        quietWeek.setIsAvailable(false);
+        service.doctorSaved(quietWeek);
+        away.setIsAvailable(true);
+        service.doctorSaved(away);
+        service.doctorDeleted(1L);
+
+        assertThat(service.recommendDoctors(Specialization.CARDIOLOGY, 10))
+                .extracting(DoctorRecommendation::doctorId).containsExactly(4L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should keep bookings committed while a rebuild is counting")
+    void shouldKeepBookingsDuringRebuild() {
+        LocalDateTime todayAtTen = TODAY.atTime(10, 0);
+        // The booking commits after the count query has read the table, so the counts miss it
+        when(appointmentRepository.countBookedPerDoctorPerDay(any(), any())).thenAnswer(call -> {
+            service.appointmentBooked(3L, todayAtTen);
+            service.appointmentBooked(3L, todayAtTen.plusHours(1));
+            return List.of(new DoctorDailyCount(1L, TODAY, 1L));
+        });
+
+        service.rebuild();
+
+        List<DoctorRecommendation> recommendations = service.recommendDoctors(Specialization.CARDIOLOGY, 10);
+        assertThat(recommendations).extracting(DoctorRecommendation::doctorId).containsExactly(2L, 1L, 3L);
+        assertThat(recommendations.get(2).appointmentsToday()).isEqualTo(2);
+    }
+
+    private static Doctor doctor(Long id, Specialization specialization, boolean available) {
+        Doctor doctor = new Doctor("Doc", "Tor" + id, "doc" + id + "@hms.com", null, "LIC-" + id,
+                specialization, specialization.name(), 10);
+        doctor.setId(id);
+        doctor.setIsAvailable(available);
+        return doctor;
+    }
+}
@@ -0,0 +1,180 @@
+package com.devdishon.service;
+
+import com.devdishon.dto.FollowUpSchedulingReport;
+import com.devdishon.dto.PendingFollowUp;
+import com.devdishon.entity.Appointment;
+import com.devdishon.entity.Doctor;
+import com.devdishon.entity.JobWatermark;
+import com.devdishon.entity.Patient;
+import com.devdishon.entity.Specialization;
+import com.devdishon.filter.RequestDeadline;
+import com.devdishon.repository.AppointmentRepository;
+import com.devdishon.repository.DoctorRepository;
+import com.devdishon.repository.JobWatermarkRepository;
+import com.devdishon.repository.MedicalRecordRepository;
+import com.devdishon.repository.PatientRepository;
+import com.devdishon.service.reminder.AppointmentReminderScheduler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FollowUpSchedulingServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.now().minusDays(1).withNano(0);
+
+    private final MedicalRecordRepository medicalRecordRepository = mock(MedicalRecordRepository.class);
+    private final AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+    private final DoctorRepository doctorRepository = mock(DoctorRepository.class);
+    private final PatientRepository patientRepository = mock(PatientRepository.class);
+    private final JobWatermarkRepository jobWatermarkRepository = mock(JobWatermarkRepository.class);
+    private final FollowUpSchedulingService service;
+
+    // Database state the mocks answer from
+    private final List<PendingFollowUp> pending = new ArrayList<>();
+    private final Set<Long> linked = new HashSet<>();
+    private final Map<Long, Doctor> doctors = new HashMap<>();
+    private JobWatermark storedWatermark;
+
+    // Deadline seen by each transaction, as the deadline-aware transaction manager would
+    private final List<RequestDeadline> transactionDeadlines = new ArrayList<>();
+
+    FollowUpSchedulingServiceTest() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(call -> {
+            transactionDeadlines.add(RequestDeadline.current());
+            return mock(TransactionStatus.class);
+        });
+        service = new FollowUpSchedulingService(medicalRecordRepository, appointmentRepository, doctorRepository,
+                patientRepository, jobWatermarkRepository, mock(AppointmentReminderScheduler.class),
+                mock(DoctorWorkloadService.class), new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(service, "batchSize", 500);
+        ReflectionTestUtils.setField(service, "searchDays", 7);
+        ReflectionTestUtils.setField(service, "slotMinutes", 30);
+        ReflectionTestUtils.setField(service, "dayStartHour", 9);
+        ReflectionTestUtils.setField(service, "dayEndHour", 17);
+        ReflectionTestUtils.setField(service, "reportLimit", 500);
+    }
+
+    @BeforeEach
+    void stubRepositories() {
+        when(jobWatermarkRepository.findById(FollowUpSchedulingService.WATERMARK_NAME))
+                .thenAnswer(call -> Optional.ofNullable(storedWatermark));
+        when(jobWatermarkRepository.save(any(JobWatermark.class))).thenAnswer(call -> {
+            storedWatermark = call.getArgument(0);
+            return storedWatermark;
+        });
+        // The keyset query: unlinked follow-ups after the watermark, in (updatedAt, id) order
+        when(medicalRecordRepository.findPendingFollowUpsAfter(any(), anyLong(), any(), any(Pageable.class)))
+                .thenAnswer(call -> {
+                    LocalDateTime afterTime = call.getArgument(0);
+                    long afterId = call.getArgument(1);
+                    return pending.stream()
+                            .filter(f -> !linked.contains(f.medicalRecordId()))
+                            .filter(f -> f.updatedAt().isAfter(afterTime)
+                                    || (f.updatedAt().equals(afterTime) && f.medicalRecordId() > afterId))
+                            .sorted(Comparator.comparing(PendingFollowUp::updatedAt)
+                                    .thenComparing(PendingFollowUp::medicalRecordId))
+                            .limit(((Pageable) call.getArgument(3)).getPageSize())
+                            .toList();
+                });
+        doAnswer(call -> linked.add(call.getArgument(0)))
+                .when(medicalRecordRepository).linkFollowUpAppointment(anyLong(), anyLong());
+        when(doctorRepository.findAllById(any())).thenAnswer(call -> {
+            Collection<Long> ids = call.getArgument(0);
+            return ids.stream().map(doctors::get).toList();
+        });
+        when(doctorRepository.getReferenceById(anyLong())).thenAnswer(call -> doctors.get((Long) call.getArgument(0)));
+        when(patientRepository.getReferenceById(anyLong())).thenReturn(mock(Patient.class));
+        when(appointmentRepository.findBookedByDoctorIdsInRange(any(), any(), any(), any())).thenReturn(List.of());
+        AtomicLong appointmentIds = new AtomicLong(100);
+        when(appointmentRepository.saveAll(any())).thenAnswer(call -> {
+            List<Appointment> saved = new ArrayList<>();
+            for (Appointment appointment : (Iterable<Appointment>) call.getArgument(0)) {
+                appointment.setId(appointmentIds.incrementAndGet());
+                saved.add(appointment);
+            }
+            return saved;
+        });
+    }
+
+    @Test
+    @DisplayName("Should retry an unmatched follow-up on the next run instead of moving the watermark past it")
+    void shouldRetryUnmatchedFollowUpOnNextRun() {
+        doctor(1L, true);
+        doctor(2L, false);
+        pending.add(new PendingFollowUp(10L, 1L, 1L, T0.plusDays(3), T0));
+        pending.add(new PendingFollowUp(11L, 2L, 2L, T0.plusDays(3), T0.plusMinutes(1)));
+        pending.add(new PendingFollowUp(12L, 3L, 1L, T0.plusDays(3), T0.plusMinutes(2)));
+
+        FollowUpSchedulingReport first = service.scheduleFollowUps(false);
+
+        assertThat(first.scheduled()).isEqualTo(2);
+        assertThat(first.unmatched()).isEqualTo(1);
+        assertThat(linked).containsExactlyInAnyOrder(10L, 12L);
+        // Stopped just before the unmatched follow-up 11
+        assertThat(storedWatermark.getWatermarkTime()).isEqualTo(T0);
+        assertThat(storedWatermark.getWatermarkId()).isEqualTo(10L);
+
+        // The doctor is back; the next run picks 11 up without rebooking 12
+        doctors.get(2L).setIsAvailable(true);
+        FollowUpSchedulingReport second = service.scheduleFollowUps(false);
+
+        assertThat(second.scanned()).isEqualTo(1);
+        assertThat(second.scheduled()).isEqualTo(1);
+        assertThat(second.unmatched()).isZero();
+        assertThat(linked).containsExactlyInAnyOrder(10L, 11L, 12L);
+        assertThat(storedWatermark.getWatermarkId()).isEqualTo(11L);
+    }
+
+    @Test
+    @DisplayName("Should run to the end after the deadline of the request that started it has passed")
+    void shouldOutliveRequestDeadline() {
+        doctor(1L, true);
+        pending.add(new PendingFollowUp(10L, 1L, 1L, T0.plusDays(3), T0));
+        RequestDeadline expired = RequestDeadline.after(Duration.ofSeconds(15));
+        expired.cancel();
+        RequestDeadline.bind(expired);
+        try {
+            FollowUpSchedulingReport report = service.scheduleFollowUps(false);
+
+            assertThat(report.scheduled()).isEqualTo(1);
+            assertThat(transactionDeadlines).isNotEmpty().containsOnlyNulls();
+            assertThat(RequestDeadline.current()).isSameAs(expired);
+        } finally {
+            RequestDeadline.unbind();
+        }
+    }
+
+    private void doctor(Long id, boolean available) {
+        Doctor doctor = new Doctor("Doc", "Tor" + id, "doc" + id + "@hms.com", null, "LIC-" + id,
+                Specialization.CARDIOLOGY, "Cardiology", 10);
+        doctor.setId(id);
+        doctor.setIsAvailable(available);
+        doctors.put(id, doctor);
+    }
+}
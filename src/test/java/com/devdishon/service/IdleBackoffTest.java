@@ -0,0 +1,39 @@
+package com.devdishon.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdleBackoffTest {
+
+    private final IdleBackoff backoff = new IdleBackoff();
+
+    @Test
+    @DisplayName("Should double the wait after each idle pass up to the maximum")
+    void shouldDoubleUpToMaximum() {
+        assertThat(backoff.isDue()).isTrue();
+        assertThat(backoff.isIdle()).isFalse();
+
+        assertThat(backoff.idle(60_000, 300_000)).isEqualTo(60_000);
+        assertThat(backoff.idle(60_000, 300_000)).isEqualTo(120_000);
+        assertThat(backoff.idle(60_000, 300_000)).isEqualTo(240_000);
+        assertThat(backoff.idle(60_000, 300_000)).isEqualTo(300_000);
+        assertThat(backoff.idle(60_000, 300_000)).isEqualTo(300_000);
+        assertThat(backoff.isIdle()).isTrue();
+        assertThat(backoff.isDue()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should run on schedule again after a pass makes progress")
+    void shouldResetOnProgress() {
+        backoff.idle(60_000, 300_000);
+        backoff.idle(60_000, 300_000);
+
+        backoff.reset();
+
+        assertThat(backoff.isDue()).isTrue();
+        assertThat(backoff.isIdle()).isFalse();
+        assertThat(backoff.idle(60_000, 300_000)).isEqualTo(60_000);
+    }
+}
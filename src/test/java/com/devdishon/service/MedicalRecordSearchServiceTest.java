@@ -0,0 +1,76 @@
+package com.devdishon.service;
+
+import com.devdishon.dto.MedicalRecordSearchHit;
+import com.devdishon.dto.MedicalRecordSearchPage;
+import com.devdishon.dto.SearchCursor;
+import com.devdishon.exception.BadRequestException;
+import com.devdishon.repository.MedicalRecordSearchRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MedicalRecordSearchServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 3, 2, 9, 0);
+
+    private final MedicalRecordSearchRepository searchRepository = mock(MedicalRecordSearchRepository.class);
+    private final MedicalRecordSearchService service = new MedicalRecordSearchService(searchRepository);
+
+    @Test
+    @DisplayName("Should return a cursor at the last hit when more hits follow the page")
+    void shouldReturnCursorWhenMoreHitsFollow() {
+        when(searchRepository.search(eq("fracture"), isNull(), isNull(), isNull(), isNull(), isNull(), eq(3)))
+                .thenReturn(List.of(hit(7L, 0.9f), hit(5L, 0.5f), hit(4L, 0.5f)));
+
+        MedicalRecordSearchPage page = service.search("  fracture ", null, null, null, null, null, 2);
+
+        assertThat(page.hits()).extracting(MedicalRecordSearchHit::id).containsExactly(7L, 5L);
+        assertThat(SearchCursor.parse(page.nextCursor())).isEqualTo(new SearchCursor(0.5f, 5L));
+    }
+
+    @Test
+    @DisplayName("Should pass the decoded cursor on and end paging on a short page")
+    void shouldContinueAfterCursor() {
+        SearchCursor after = new SearchCursor(0.5f, 5L);
+        when(searchRepository.search(any(), any(), any(), any(), any(), eq(after), eq(3)))
+                .thenReturn(List.of(hit(4L, 0.5f)));
+
+        MedicalRecordSearchPage page = service.search("fracture", 1L, null, null, null, after.encode(), 2);
+
+        assertThat(page.hits()).extracting(MedicalRecordSearchHit::id).containsExactly(4L);
+        assertThat(page.nextCursor()).isNull();
+        verify(searchRepository).search("fracture", 1L, null, null, null, after, 3);
+    }
+
+    @Test
+    @DisplayName("Should reject blank queries, bad cursors, empty date ranges and out-of-range limits")
+    void shouldRejectInvalidRequests() {
+        assertThatThrownBy(() -> service.search(" ", null, null, null, null, null, 20))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> service.search("x".repeat(201), null, null, null, null, null, 20))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> service.search("fracture", null, null, null, null, "not-a-cursor", 20))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> service.search("fracture", null, null, T0, T0, null, 20))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> service.search("fracture", null, null, null, null, null, 0))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> service.search("fracture", null, null, null, null, null, 101))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private static MedicalRecordSearchHit hit(Long id, float rank) {
+        return new MedicalRecordSearchHit(id, 1L, 2L, T0, rank, "<b>fracture</b>");
+    }
+}
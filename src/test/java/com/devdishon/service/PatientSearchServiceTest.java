@@ -0,0 +1,96 @@
+package com.devdishon.service;
+
+import com.devdishon.config.PatientSearchSchema;
+import com.devdishon.dto.PatientMatch;
+import com.devdishon.dto.PatientMatch.Match;
+import com.devdishon.exception.BadRequestException;
+import com.devdishon.repository.PatientSearchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PatientSearchServiceTest {
+
+    private final PatientSearchRepository searchRepository = mock(PatientSearchRepository.class);
+    private final PatientSearchSchema searchSchema = mock(PatientSearchSchema.class);
+    private final PatientSearchService service = new PatientSearchService(searchRepository, searchSchema);
+
+    @BeforeEach
+    void installTrigrams() {
+        when(searchSchema.isFuzzySearchAvailable()).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Should fill up prefix matches with fuzzy matches not already listed")
+    void shouldFillPrefixMatchesWithFuzzyMatches() {
+        when(searchRepository.findByNamePrefix(List.of("jo", "smi"), 3))
+                .thenReturn(List.of(match(1L, Match.PREFIX)));
+        when(searchRepository.findByNameSimilarity("jo smi", 4))
+                .thenReturn(List.of(match(1L, Match.FUZZY), match(2L, Match.FUZZY), match(3L, Match.FUZZY), match(4L, Match.FUZZY)));
+
+        List<PatientMatch> matches = service.search("  Jo   SMI ", 3);
+
+        assertThat(matches).extracting(PatientMatch::id).containsExactly(1L, 2L, 3L);
+        assertThat(matches).extracting(PatientMatch::match).containsExactly(Match.PREFIX, Match.FUZZY, Match.FUZZY);
+    }
+
+    @Test
+    @DisplayName("Should skip the fuzzy lookup when prefixes fill the page or the query is too short")
+    void shouldSkipFuzzyLookup() {
+        when(searchRepository.findByNamePrefix(List.of("smith"), 1)).thenReturn(List.of(match(1L, Match.PREFIX)));
+        when(searchRepository.findByNamePrefix(List.of("jo"), 10)).thenReturn(List.of());
+
+        assertThat(service.search("smith", 1)).hasSize(1);
+        assertThat(service.search("jo", 10)).isEmpty();
+        verify(searchRepository, never()).findByNameSimilarity(anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should match prefixes only while pg_trgm is not installed")
+    void shouldMatchPrefixesOnlyWithoutTrigrams() {
+        when(searchSchema.isFuzzySearchAvailable()).thenReturn(false);
+        when(searchRepository.findByNamePrefix(List.of("thorntn"), 10)).thenReturn(List.of());
+        when(searchRepository.findByPhonePrefix("254712", 10)).thenReturn(List.of(match(1L, Match.PREFIX)));
+
+        assertThat(service.search("thorntn", 10)).isEmpty();
+        assertThat(service.search("254712", 10)).extracting(PatientMatch::id).containsExactly(1L);
+        verify(searchRepository, never()).findByNameSimilarity(anyString(), anyInt());
+        verify(searchRepository, never()).findByPhoneSimilarity(anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should search queries without letters by phone digits")
+    void shouldSearchByPhoneDigits() {
+        when(searchRepository.findByPhonePrefix("254712", 10)).thenReturn(List.of(match(1L, Match.PREFIX)));
+        when(searchRepository.findByPhoneSimilarity("254712", 11)).thenReturn(List.of(match(2L, Match.FUZZY)));
+
+        assertThat(service.search("+254 712", 10)).extracting(PatientMatch::id).containsExactly(1L, 2L);
+        verify(searchRepository, never()).findByNamePrefix(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should reject blank or overlong queries and out-of-range limits")
+    void shouldRejectInvalidRequests() {
+        assertThatThrownBy(() -> service.search(" ", 10)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> service.search("+-", 10)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> service.search("a".repeat(101), 10)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> service.search("smith", 0)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> service.search("smith", 51)).isInstanceOf(BadRequestException.class);
+    }
+
+    private static PatientMatch match(Long id, Match match) {
+        return new PatientMatch(id, "First" + id, "Last" + id, "0712000000", null, match);
+    }
+}
@@ -0,0 +1,117 @@
+package com.devdishon.service;
+
+import com.devdishon.dto.TimelineCursor;
+import com.devdishon.dto.TimelineEntry;
+import com.devdishon.dto.TimelinePage;
+import com.devdishon.exception.BadRequestException;
+import com.devdishon.repository.AppointmentRepository;
+import com.devdishon.repository.MedicalRecordRepository;
+import com.devdishon.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PatientTimelineServiceTest {
+
+    private static final Long PATIENT_ID = 1L;
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 3, 2, 9, 0);
+
+    private final AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+    private final MedicalRecordRepository medicalRecordRepository = mock(MedicalRecordRepository.class);
+    private final PatientRepository patientRepository = mock(PatientRepository.class);
+    private final PatientTimelineService service =
+            new PatientTimelineService(patientRepository, appointmentRepository, medicalRecordRepository);
+
+    private final List<TimelineEntry> appointments = new ArrayList<>();
+    private final List<TimelineEntry> records = new ArrayList<>();
+
+    @BeforeEach
+    void stubRepositories() {
+        when(patientRepository.existsById(PATIENT_ID)).thenReturn(true);
+        // Answer the keyset queries from the lists, the way the database would
+        when(appointmentRepository.findTimelineByPatientId(eq(PATIENT_ID), any(Pageable.class)))
+                .thenAnswer(call -> page(appointments, null, 0, call.getArgument(1)));
+        when(appointmentRepository.findTimelineByPatientIdBefore(eq(PATIENT_ID), any(), anyLong(), any(Pageable.class)))
+                .thenAnswer(call -> page(appointments, call.getArgument(1), call.getArgument(2), call.getArgument(3)));
+        when(medicalRecordRepository.findTimelineByPatientId(eq(PATIENT_ID), any(Pageable.class)))
+                .thenAnswer(call -> page(records, null, 0, call.getArgument(1)));
+        when(medicalRecordRepository.findTimelineByPatientIdBefore(eq(PATIENT_ID), any(), anyLong(), any(Pageable.class)))
+                .thenAnswer(call -> page(records, call.getArgument(1), call.getArgument(2), call.getArgument(3)));
+    }
+
+    @Test
+    @DisplayName("Should page through the merged timeline without repeating or skipping entries")
+    void shouldPageThroughMergedTimeline() {
+        // Ties at T0 across kinds and within a kind straddle the page boundaries
+        appointments.add(appointment(10L, T0));
+        appointments.add(appointment(11L, T0));
+        appointments.add(appointment(12L, T0.minusDays(2)));
+        records.add(record(20L, T0));
+        records.add(record(21L, T0.minusDays(1)));
+        records.add(record(22L, T0.minusDays(1)));
+        records.add(record(23L, T0.minusDays(3)));
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TimelinePage page = service.getTimeline(PATIENT_ID, cursor, 2);
+            page.entries().forEach(entry -> seen.add(entry.id()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).containsExactly(11L, 10L, 20L, 22L, 21L, 12L, 23L);
+        assertThat(pages).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should end with no cursor when the last page is full")
+    void shouldNotReturnCursorAfterLastEntry() {
+        appointments.add(appointment(10L, T0));
+        records.add(record(20L, T0.minusDays(1)));
+
+        TimelinePage page = service.getTimeline(PATIENT_ID, null, 2);
+
+        assertThat(page.entries()).extracting(TimelineEntry::id).containsExactly(10L, 20L);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject a tampered cursor")
+    void shouldRejectInvalidCursor() {
+        assertThatThrownBy(() -> service.getTimeline(PATIENT_ID, "bm90LWEtY3Vyc29y", 2))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private static List<TimelineEntry> page(List<TimelineEntry> entries, LocalDateTime before, long beforeId,
+                                            Pageable pageable) {
+        return entries.stream()
+                .sorted(TimelineCursor.ORDER)
+                .filter(entry -> before == null || entry.occurredAt().isBefore(before)
+                        || (entry.occurredAt().isEqual(before) && entry.id() < beforeId))
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    private static TimelineEntry appointment(Long id, LocalDateTime at) {
+        return new TimelineEntry(id, at, 5L, "Ada", "Lovelace", null, null, "Checkup");
+    }
+
+    private static TimelineEntry record(Long id, LocalDateTime at) {
+        return new TimelineEntry(id, at, 5L, "Ada", "Lovelace", "Flu", null);
+    }
+}
@@ -0,0 +1,66 @@
+package com.devdishon.service;
+
+import com.devdishon.dto.WaitlistTicket;
+import com.devdishon.entity.Specialization;
+import com.devdishon.entity.WaitlistUrgency;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WaitlistQueuesTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 2, 9, 0);
+    private static final LocalDateTime SLOT = NOW.plusDays(1);
+
+    private final WaitlistQueues queues = new WaitlistQueues();
+
+    @Test
+    @DisplayName("Should prefer higher urgency, then longer wait")
+    void shouldOrderByUrgencyThenWaitTime() {
+        queues.add(ticket(1L, 10L, 7L, WaitlistUrgency.ROUTINE, NOW.minusDays(5)));
+        queues.add(ticket(2L, 11L, 7L, WaitlistUrgency.URGENT, NOW.minusHours(1)));
+        queues.add(ticket(3L, 12L, 7L, WaitlistUrgency.URGENT, NOW.minusHours(3)));
+
+        assertThat(queues.doctorQueue(7L)).extracting(WaitlistTicket::entryId).containsExactly(3L, 2L, 1L);
+        assertThat(queues.pollBest(7L, Specialization.CARDIOLOGY, SLOT, null))
+                .map(WaitlistTicket::entryId).contains(3L);
+        assertThat(queues.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should compare doctor and specialization queues when backfilling")
+    void shouldPickBestAcrossDoctorAndSpecializationQueues() {
+        queues.add(ticket(1L, 10L, 7L, WaitlistUrgency.SOON, NOW.minusDays(2)));
+        queues.add(ticket(2L, 11L, null, WaitlistUrgency.URGENT, NOW.minusDays(1)));
+
+        Optional<WaitlistTicket> best = queues.pollBest(7L, Specialization.CARDIOLOGY, SLOT, null);
+
+        assertThat(best).map(WaitlistTicket::entryId).contains(2L);
+        assertThat(queues.pollBest(7L, Specialization.CARDIOLOGY, SLOT, null))
+                .map(WaitlistTicket::entryId).contains(1L);
+    }
+
+    @Test
+    @DisplayName("Should skip tickets whose window excludes the slot or whose patient freed it")
+    void shouldSkipIneligibleTickets() {
+        queues.add(new WaitlistTicket(1L, 10L, 7L, Specialization.CARDIOLOGY, WaitlistUrgency.URGENT,
+                NOW.minusDays(3), SLOT.plusDays(2), null));
+        queues.add(ticket(2L, 11L, 7L, WaitlistUrgency.URGENT, NOW.minusDays(2)));
+        queues.add(ticket(3L, 12L, 7L, WaitlistUrgency.ROUTINE, NOW.minusDays(1)));
+
+        Optional<WaitlistTicket> best = queues.pollBest(7L, Specialization.CARDIOLOGY, SLOT, 11L);
+
+        assertThat(best).map(WaitlistTicket::entryId).contains(3L);
+        assertThat(queues.doctorQueue(7L)).extracting(WaitlistTicket::entryId).containsExactly(1L, 2L);
+    }
+
+    private static WaitlistTicket ticket(Long entryId, Long patientId, Long doctorId,
+                                         WaitlistUrgency urgency, LocalDateTime requestedAt) {
+        return new WaitlistTicket(entryId, patientId, doctorId, Specialization.CARDIOLOGY, urgency,
+                requestedAt, null, null);
+    }
+}
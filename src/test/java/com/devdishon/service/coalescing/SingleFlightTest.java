@@ -0,0 +1,116 @@
+package com.devdishon.service.coalescing;
+
+import com.devdishon.exception.DeadlineExceededException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> flight = new SingleFlight<>();
+
+    @Test
+    @DisplayName("Should run one load for concurrent identical calls and share its result")
+    void shouldShareInFlightLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> flight.execute("doctors", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "[]";
+                }, Duration.ofSeconds(5))));
+            }
+            while (flight.calls() < 8) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("[]");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(flight.shared()).isEqualTo(7);
+        assertThat(flight.inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not reuse a finished load for later calls")
+    void shouldNotCacheResults() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+
+        flight.execute("doctors", () -> "v" + loads.incrementAndGet(), Duration.ofSeconds(1));
+        String second = flight.execute("doctors", () -> "v" + loads.incrementAndGet(), Duration.ofSeconds(1));
+
+        assertThat(second).isEqualTo("v2");
+        assertThat(flight.shared()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should propagate the leader's exception and release the key")
+    void shouldPropagateFailure() throws Exception {
+        assertThatThrownBy(() -> flight.execute("patient:9", () -> {
+            throw new IllegalStateException("Patient with id 9 not found");
+        }, Duration.ofSeconds(1))).isInstanceOf(IllegalStateException.class);
+
+        assertThat(flight.execute("patient:9", () -> "ok", Duration.ofSeconds(1))).isEqualTo("ok");
+    }
+
+    @Test
+    @DisplayName("Should let waiters load again when the leader's own deadline killed the load")
+    void shouldRetryAfterLeaderSpecificFailure() throws Exception {
+        SingleFlight<String, String> deadlineAware = new SingleFlight<>(e -> e instanceof DeadlineExceededException);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = pool.submit(() -> deadlineAware.execute("doctors", () -> {
+                loads.incrementAndGet();
+                await(release);
+                throw new DeadlineExceededException("Request deadline exceeded before reading");
+            }, Duration.ofSeconds(5)));
+            while (loads.get() < 1) {
+                Thread.onSpinWait();
+            }
+            Future<String> waiter = pool.submit(() -> deadlineAware.execute("doctors",
+                    () -> "v" + loads.incrementAndGet(), Duration.ofSeconds(5)));
+            while (deadlineAware.calls() < 2) {
+                Thread.onSpinWait();
+            }
+            Thread.sleep(50);
+            release.countDown();
+
+            assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(DeadlineExceededException.class);
+            assertThat(waiter.get(5, TimeUnit.SECONDS)).isEqualTo("v2");
+            assertThat(deadlineAware.shared()).isZero();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.devdishon.service.idempotency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryIdempotencyStoreTest {
+
+    private static final IdempotentResponse CREATED =
+            new IdempotentResponse(201, "application/json", "{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+
+    private final MutableClock clock = new MutableClock();
+    private final InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(Duration.ofMinutes(10), 3, clock);
+
+    @Test
+    @DisplayName("Should replay the recorded response for the same key and payload")
+    void shouldReplayCompletedResponse() {
+        IdempotencyClaim first = store.claim("user:k1", "fp");
+        assertThat(first.outcome()).isEqualTo(IdempotencyClaim.Outcome.ACQUIRED);
+        assertThat(store.claim("user:k1", "fp").outcome()).isEqualTo(IdempotencyClaim.Outcome.IN_PROGRESS);
+
+        store.complete("user:k1", first.token(), CREATED);
+
+        IdempotencyClaim claim = store.claim("user:k1", "fp");
+        assertThat(claim.outcome()).isEqualTo(IdempotencyClaim.Outcome.COMPLETED);
+        assertThat(claim.response()).isSameAs(CREATED);
+        assertThat(store.claim("user:k1", "other").outcome()).isEqualTo(IdempotencyClaim.Outcome.MISMATCH);
+    }
+
+    @Test
+    @DisplayName("Should hand the first response to a concurrent duplicate")
+    void shouldCoalesceConcurrentDuplicates() throws Exception {
+        String token = store.claim("user:k1", "fp").token();
+
+        CompletableFuture<Optional<IdempotentResponse>> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return store.await("user:k1", Duration.ofSeconds(5));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        store.complete("user:k1", token, CREATED);
+
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).contains(CREATED);
+    }
+
+    @Test
+    @DisplayName("Should let a retry run again after the first request released the key")
+    void shouldReleaseKey() throws Exception {
+        store.release("user:k1", store.claim("user:k1", "fp").token());
+
+        assertThat(store.await("user:k1", Duration.ofMillis(10))).isEmpty();
+        assertThat(store.claim("user:k1", "fp").outcome()).isEqualTo(IdempotencyClaim.Outcome.ACQUIRED);
+    }
+
+    @Test
+    @DisplayName("Should expire keys after the time-to-live")
+    void shouldExpireKeys() {
+        store.complete("user:k1", store.claim("user:k1", "fp").token(), CREATED);
+        clock.advance(Duration.ofMinutes(11));
+
+        assertThat(store.claim("user:k1", "fp").outcome()).isEqualTo(IdempotencyClaim.Outcome.ACQUIRED);
+    }
+
+    @Test
+    @DisplayName("Should evict only completed keys when full and turn new keys away while all are in progress")
+    void shouldNeverEvictKeysInProgress() {
+        store.complete("user:k1", store.claim("user:k1", "fp").token(), CREATED);
+        String k2 = store.claim("user:k2", "fp").token();
+        store.claim("user:k3", "fp");
+
+        // k1 is the only completed key, so it makes room
+        assertThat(store.claim("user:k4", "fp").outcome()).isEqualTo(IdempotencyClaim.Outcome.ACQUIRED);
+        assertThat(store.size()).isEqualTo(3);
+
+        assertThat(store.claim("user:k5", "fp").outcome()).isEqualTo(IdempotencyClaim.Outcome.FULL);
+        assertThat(store.claim("user:k2", "fp").outcome()).isEqualTo(IdempotencyClaim.Outcome.IN_PROGRESS);
+
+        store.complete("user:k2", k2, CREATED);
+        assertThat(store.claim("user:k5", "fp").outcome()).isEqualTo(IdempotencyClaim.Outcome.ACQUIRED);
+        assertThat(store.claim("user:k3", "fp").outcome()).isEqualTo(IdempotencyClaim.Outcome.IN_PROGRESS);
+    }
+
+    @Test
+    @DisplayName("Should ignore the first owner completing or releasing a key taken over since")
+    void shouldIgnoreStaleOwner() {
+        String stale = store.claim("user:k1", "fp").token();
+        clock.advance(Duration.ofMinutes(11));
+        String current = store.claim("user:k1", "fp").token();
+
+        store.complete("user:k1", stale, CREATED);
+        store.release("user:k1", stale);
+
+        assertThat(current).isNotEqualTo(stale);
+        assertThat(store.claim("user:k1", "fp").outcome()).isEqualTo(IdempotencyClaim.Outcome.IN_PROGRESS);
+        store.complete("user:k1", current, CREATED);
+        assertThat(store.claim("user:k1", "fp").outcome()).isEqualTo(IdempotencyClaim.Outcome.COMPLETED);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-03-02T09:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
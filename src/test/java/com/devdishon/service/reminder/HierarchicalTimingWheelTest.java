@@ -0,0 +1,70 @@
+package com.devdishon.service.reminder;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK = 1000;
+
+    @Test
+    @DisplayName("Should fire timers in deadline order across wheel levels")
+    void shouldFireTimersInDeadlineOrder() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(TICK, 0);
+        long[] delays = {3_600_000L, 5_000L, 86_400_000L, 63_000L, 4_097_000L, 64_000L};
+        for (long delay : delays) {
+            wheel.schedule(delay, delay);
+        }
+
+        List<Long> fired = new ArrayList<>();
+        wheel.advanceTo(86_400_000L, fired::add);
+
+        assertThat(fired).containsExactly(5_000L, 63_000L, 64_000L, 3_600_000L, 4_097_000L, 86_400_000L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should never fire a timer before its deadline")
+    void shouldNotFireEarly() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, 0);
+        wheel.schedule(3_600_000L, "reminder");
+
+        List<String> fired = new ArrayList<>();
+        wheel.advanceTo(3_599_999L, fired::add);
+        assertThat(fired).isEmpty();
+
+        wheel.advanceTo(3_600_000L, fired::add);
+        assertThat(fired).containsExactly("reminder");
+    }
+
+    @Test
+    @DisplayName("Should not fire cancelled timers")
+    void shouldNotFireCancelledTimers() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, 0);
+        HierarchicalTimingWheel.Timeout<String> cancelled = wheel.schedule(10_000L, "cancelled");
+        wheel.schedule(10_000L, "kept");
+
+        assertThat(wheel.cancel(cancelled)).isTrue();
+        assertThat(wheel.cancel(cancelled)).isFalse();
+
+        List<String> fired = new ArrayList<>();
+        wheel.advanceTo(20_000L, fired::add);
+        assertThat(fired).containsExactly("kept");
+        assertThat(cancelled.isPending()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject deadlines beyond the wheel horizon")
+    void shouldRejectDeadlinesBeyondHorizon() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, 0);
+
+        assertThatThrownBy(() -> wheel.schedule(wheel.maxDelayMillis() + TICK, "too far"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}